@@ -1,13 +1,24 @@
 package com.example.jms.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
+import javax.jms.Session;
 
 import org.apache.activemq.ActiveMQConnection;
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.pool.PooledConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 
 /**
  * Configuration class for JMS beans.
@@ -19,16 +30,79 @@ import org.springframework.context.annotation.Profile;
 @Profile("default")
 public class JmsLocalConfig {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(JmsLocalConfig.class);
+
 	private String url;
 	private String user;
 	private String password;
+	private int maxConnections = 8;
+	private int maxSessionsPerConnection = 500;
+	private int idleTimeout = 30000;
+	private long idleEvictionInterval = 60000;
+	private int preWarmConnections = 1;
+	private int preWarmSessions = 1;
 	
 	/**
-	 * Creates a {@link ConnectionFactory} for your configured JMS provider.
+	 * Creates a pooled {@link ConnectionFactory} for your configured JMS provider.
+	 * The connections and sessions are long-lived: closing them returns them to the pool.
 	 * @return
 	 */
-	@Bean
+	@Bean(destroyMethod = "stop")
+	@Primary
 	public ConnectionFactory createConnectionFactoryBean() {
+		PooledConnectionFactory pooledConnectionFactory = new PooledConnectionFactory(createActiveMQConnectionFactory());
+		pooledConnectionFactory.setMaxConnections(maxConnections);
+		pooledConnectionFactory.setMaximumActiveSessionPerConnection(maxSessionsPerConnection);
+		pooledConnectionFactory.setIdleTimeout(idleTimeout);
+		pooledConnectionFactory.setTimeBetweenExpirationCheckMillis(idleEvictionInterval);
+		return pooledConnectionFactory;
+	}
+
+	/**
+	 * Creates a non pooled {@link ConnectionFactory} for the durable subscribers.
+	 * The durable subscribers require its own client ID so their connections can't be shared by the pool.
+	 * @return
+	 */
+	@Bean(name = "durableConnectionFactory")
+	public ConnectionFactory createDurableConnectionFactoryBean() {
+		return createActiveMQConnectionFactory();
+	}
+
+	/**
+	 * Opens the configured connections and sessions when the application starts so the first requests
+	 * don't pay the broker handshake. The errors are logged only: the pool connects again on demand.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void preWarmConnectionPool() {
+		List<Connection> connections = new ArrayList<>();
+		
+		try {
+			ConnectionFactory connectionFactory = createConnectionFactoryBean();
+			
+			for (int i = 0; i < Math.min(preWarmConnections, maxConnections); i++) {
+				Connection connection = connectionFactory.createConnection();
+				connections.add(connection);
+				
+				for (int j = 0; j < preWarmSessions; j++) {
+					connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+				}
+			}
+			
+			LOGGER.info("preWarmConnectionPool - connections : {}", connections.size());
+		} catch (Exception e) {
+			LOGGER.warn("Error pre-warming the connection pool : ", e);
+		} finally {
+			for (Connection connection : connections) {
+				closeConnection(connection);
+			}
+		}
+	}
+
+	/**
+	 * Creates the {@link ActiveMQConnectionFactory} for the configured broker.
+	 * @return
+	 */
+	private ActiveMQConnectionFactory createActiveMQConnectionFactory() {
 		ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory();
 		connectionFactory.setBrokerURL(url);
 		connectionFactory.setUserName(ActiveMQConnection.DEFAULT_USER); // or connectionFactory.setUserName(user);
@@ -36,6 +110,18 @@ public class JmsLocalConfig {
 		return connectionFactory;
 	}
 
+	/**
+	 * Closes the given connection (returns it to the pool).
+	 * @param connection
+	 */
+	private void closeConnection(final Connection connection) {
+		try {
+			connection.close();
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+	}
+
 	/**
 	 * Gets the url.
 	 * @return
@@ -83,4 +169,100 @@ public class JmsLocalConfig {
 	public void setPassword(String password) {
 		this.password = password;
 	}
+
+	/**
+	 * Gets the max number of pooled connections.
+	 * @return
+	 */
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * Sets the max number of pooled connections.
+	 * @param maxConnections
+	 */
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	/**
+	 * Gets the max number of active sessions per pooled connection.
+	 * @return
+	 */
+	public int getMaxSessionsPerConnection() {
+		return maxSessionsPerConnection;
+	}
+
+	/**
+	 * Sets the max number of active sessions per pooled connection.
+	 * @param maxSessionsPerConnection
+	 */
+	public void setMaxSessionsPerConnection(int maxSessionsPerConnection) {
+		this.maxSessionsPerConnection = maxSessionsPerConnection;
+	}
+
+	/**
+	 * Gets the idle time (milliseconds) before a pooled connection is evicted.
+	 * @return
+	 */
+	public int getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * Sets the idle time (milliseconds) before a pooled connection is evicted.
+	 * @param idleTimeout
+	 */
+	public void setIdleTimeout(int idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Gets the interval (milliseconds) between the idle connection checks.
+	 * @return
+	 */
+	public long getIdleEvictionInterval() {
+		return idleEvictionInterval;
+	}
+
+	/**
+	 * Sets the interval (milliseconds) between the idle connection checks.
+	 * @param idleEvictionInterval
+	 */
+	public void setIdleEvictionInterval(long idleEvictionInterval) {
+		this.idleEvictionInterval = idleEvictionInterval;
+	}
+
+	/**
+	 * Gets the number of connections opened when the application starts.
+	 * @return
+	 */
+	public int getPreWarmConnections() {
+		return preWarmConnections;
+	}
+
+	/**
+	 * Sets the number of connections opened when the application starts.
+	 * @param preWarmConnections
+	 */
+	public void setPreWarmConnections(int preWarmConnections) {
+		this.preWarmConnections = preWarmConnections;
+	}
+
+	/**
+	 * Gets the number of sessions opened per connection when the application starts.
+	 * @return
+	 */
+	public int getPreWarmSessions() {
+		return preWarmSessions;
+	}
+
+	/**
+	 * Sets the number of sessions opened per connection when the application starts.
+	 * @param preWarmSessions
+	 */
+	public void setPreWarmSessions(int preWarmSessions) {
+		this.preWarmSessions = preWarmSessions;
+	}
 }
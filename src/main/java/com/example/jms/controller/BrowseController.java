@@ -1,6 +1,11 @@
 package com.example.jms.controller;
 
-import java.util.Map;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.jms.Message;
+import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,7 +17,17 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.BrowsePage;
+import com.example.jms.model.BrowseResult;
+import com.example.jms.model.MessageBody;
+import com.example.jms.model.MessageHandler;
 import com.example.jms.service.common.BrowseService;
+import com.example.jms.service.common.SelectorService;
 
 /**
  * Handles the browse requests.
@@ -23,23 +38,203 @@ import com.example.jms.service.common.BrowseService;
 public class BrowseController {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(BrowseController.class);
+
+	private static final String NDJSON_VALUE = "application/x-ndjson";
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
 	
 	@Autowired
 	BrowseService browseService;
+
+	@Autowired
+	SelectorService selectorService;
 	
 	/**
-	 * Gets a List of messages for the given resource.
+	 * Gets a List of messages for the given resource (only the ones matching the optional selector, for the queues).
 	 * @param resource
+	 * @param selector
 	 * @return
 	 */
 	@RequestMapping(path="/browse/list", produces= MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Map<String,String>> browseIn(@RequestParam("resource")final String resource) {
+	public ResponseEntity<BrowseResult> browseIn(@RequestParam("resource")final String resource,
+			@RequestParam(value="selector", required=false)final String selector) {
 		LOGGER.info("browseIn - start");
 		LOGGER.debug("browseIn - resource : {}", resource);
+		LOGGER.debug("browseIn - selector : {}", selector);
+
+		String selectorError = selectorService.getError(selector);
+
+		if (selectorError != null) {
+			BrowseResult error = new BrowseResult(resource);
+			error.setError(selectorError);
+
+			LOGGER.info("browseIn - end");
+			return new ResponseEntity<BrowseResult>(error, HttpStatus.BAD_REQUEST);
+		}
 		
-		Map<String,String> messages = browseService.getMessagesFrom(resource);
+		BrowseResult messages = browseService.getMessagesFrom(resource, selector);
 		
 		LOGGER.info("browseIn - end");
-		return new ResponseEntity<Map<String,String>>(messages, HttpStatus.OK);
+		return new ResponseEntity<BrowseResult>(messages, HttpStatus.OK);
+	}
+
+	/**
+	 * Gets a page of messages for the given queue resource (when the limit is given).
+	 * To walk the queue, pass the next cursor of each page as the cursor of the next request.
+	 * @param resource
+	 * @param offset
+	 * @param limit
+	 * @param cursor
+	 * @param selector
+	 * @return
+	 */
+	@RequestMapping(path="/browse/list", params="limit", produces= MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<BrowsePage> browsePageIn(@RequestParam("resource")final String resource,
+			@RequestParam(value="offset", defaultValue="0")final int offset, @RequestParam("limit")final int limit,
+			@RequestParam(value="cursor", required=false)final String cursor,
+			@RequestParam(value="selector", required=false)final String selector) {
+		LOGGER.info("browsePageIn - start");
+		LOGGER.debug("browsePageIn - resource : {}", resource);
+		LOGGER.debug("browsePageIn - offset   : {}", offset);
+		LOGGER.debug("browsePageIn - limit    : {}", limit);
+		LOGGER.debug("browsePageIn - cursor   : {}", cursor);
+		LOGGER.debug("browsePageIn - selector : {}", selector);
+
+		String selectorError = selectorService.getError(selector);
+
+		if (selectorError != null) {
+			BrowsePage error = new BrowsePage(resource, offset, limit, cursor);
+			error.setError(selectorError);
+
+			LOGGER.info("browsePageIn - end");
+			return new ResponseEntity<BrowsePage>(error, HttpStatus.BAD_REQUEST);
+		}
+		
+		BrowsePage page = browseService.getPageFrom(resource, offset, limit, cursor, selector);
+		
+		LOGGER.info("browsePageIn - end");
+		return new ResponseEntity<BrowsePage>(page, HttpStatus.OK);
+	}
+
+	/**
+	 * Streams the messages for the given resource as newline delimited JSON ({"number":1,"text":"..."} per line).
+	 * The other body types are written with their type and body ({"number":1,"type":"BYTES","body":"[base64]"}),
+	 * the bytes and the map entries directly from the message to the response.
+	 * Each message is written and flushed as it's browsed so the messages aren't kept in memory. If the browse fails
+	 * the last line is the error ({"error":"..."}) so a failed browse isn't taken as an empty resource.
+	 * @param resource
+	 * @param response
+	 * @throws IOException
+	 */
+	@RequestMapping(path="/browse/stream", produces=NDJSON_VALUE)
+	public void browseStreamIn(@RequestParam("resource")final String resource, final HttpServletResponse response)
+			throws IOException {
+		LOGGER.info("browseStreamIn - start");
+		LOGGER.debug("browseStreamIn - resource : {}", resource);
+
+		if (ResourcesEnum.getResourceByCode(resource) == null) {
+			response.sendError(HttpStatus.BAD_REQUEST.value(), "Not configured resource : " + resource);
+
+			LOGGER.info("browseStreamIn - end");
+			return;
+		}
+
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(NDJSON_VALUE);
+		response.setCharacterEncoding("UTF-8");
+
+		OutputStream outputStream = response.getOutputStream();
+
+		try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)) {
+			generator.setRootValueSeparator(null);
+
+			boolean browsed = browseService.browseMessagesFrom(resource, new MessageHandler() {
+				@Override
+				public boolean handle(final int number, final String text) throws Exception {
+					generator.writeStartObject();
+					generator.writeNumberField("number", number);
+					generator.writeStringField("text", text);
+					endLine(generator);
+					return true;
+				}
+
+				@Override
+				public boolean handle(final int number, final Message message) throws Exception {
+					MessageBody body = new MessageBody(message);
+
+					if (body.getType() == MessageBody.Type.TEXT) {
+						return handle(number, body.getText());
+					}
+
+					generator.writeStartObject();
+					generator.writeNumberField("number", number);
+					generator.writeStringField("type", body.getType().name());
+					generator.writeFieldName("body");
+					body.writeTo(generator);
+					endLine(generator);
+					return true;
+				}
+			});
+
+			if (!browsed) {
+				generator.writeStartObject();
+				generator.writeStringField("error", "Browse failed : " + resource);
+				endLine(generator);
+			}
+		}
+
+		LOGGER.info("browseStreamIn - end");
+	}
+
+	/**
+	 * Writes the raw body of the given queue message with the content type of its body type
+	 * (application/octet-stream for the bytes, application/json for the map and text/plain for the others).
+	 * @param resource
+	 * @param messageId
+	 * @param response
+	 * @throws IOException
+	 */
+	@RequestMapping(path="/browse/body")
+	public void browseBodyIn(@RequestParam("resource")final String resource, @RequestParam("messageId")final String messageId,
+			final HttpServletResponse response) throws IOException {
+		LOGGER.info("browseBodyIn - start");
+		LOGGER.debug("browseBodyIn - resource  : {}", resource);
+		LOGGER.debug("browseBodyIn - messageId : {}", messageId);
+
+		boolean found = browseService.browseMessageFrom(resource, messageId, new MessageHandler() {
+			@Override
+			public boolean handle(final int number, final String text) throws Exception {
+				response.setStatus(HttpStatus.OK.value());
+				response.setContentType(MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8");
+				response.getOutputStream().write(text != null ? text.getBytes(StandardCharsets.UTF_8) : new byte[0]);
+				return false;
+			}
+
+			@Override
+			public boolean handle(final int number, final Message message) throws Exception {
+				MessageBody body = new MessageBody(message);
+
+				response.setStatus(HttpStatus.OK.value());
+				response.setContentType(body.getContentType());
+				body.writeTo(response.getOutputStream());
+				return false;
+			}
+		});
+
+		if (!found && !response.isCommitted()) {
+			response.sendError(HttpStatus.NOT_FOUND.value(), "Message not found : " + messageId);
+		}
+
+		LOGGER.info("browseBodyIn - end");
+	}
+
+	/**
+	 * Ends and flushes a JSON line.
+	 * @param generator
+	 * @throws IOException
+	 */
+	private void endLine(final JsonGenerator generator) throws IOException {
+		generator.writeEndObject();
+		generator.writeRaw('\n');
+		generator.flush();
 	}
 }
@@ -0,0 +1,118 @@
+package com.example.jms.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.jms.model.LoadTestOptions;
+import com.example.jms.model.LoadTestResult;
+import com.example.jms.service.loadtest.LoadTestService;
+
+/**
+ * Handles the load test requests.
+ * @author Gabriel
+ *
+ */
+@RestController
+public class LoadTestController {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestController.class);
+
+	@Autowired
+	private LoadTestService loadTestService;
+
+	/**
+	 * Starts a load test sending messages to the given resource until the number of messages is sent or the duration
+	 * expires (the first one reached).
+	 * @param resource
+	 * @param messages
+	 * @param duration the duration in milliseconds
+	 * @param rate the target messages per second of all the producers (0 or null for no limit)
+	 * @param concurrency the parallel producers
+	 * @param payloadSize the payload size in chars (the min size when the max size is given)
+	 * @param maxPayloadSize
+	 * @return the running test (bad request if the resource isn't configured or the options aren't valid and service
+	 * unavailable if the max running tests are running)
+	 */
+	@RequestMapping(path="/loadtest/produce", method=RequestMethod.POST, produces=MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<LoadTestResult> produce(@RequestParam("resource")final String resource,
+			@RequestParam(value="messages", required=false)final Long messages,
+			@RequestParam(value="duration", required=false)final Long duration,
+			@RequestParam(value="rate", required=false)final Integer rate,
+			@RequestParam(value="concurrency", required=false)final Integer concurrency,
+			@RequestParam(value="payloadSize", required=false)final Integer payloadSize,
+			@RequestParam(value="maxPayloadSize", required=false)final Integer maxPayloadSize) {
+		LOGGER.info("produce - start");
+		LOGGER.debug("produce - resource       : {}", resource);
+		LOGGER.debug("produce - messages       : {}", messages);
+		LOGGER.debug("produce - duration       : {}", duration);
+		LOGGER.debug("produce - rate           : {}", rate);
+		LOGGER.debug("produce - concurrency    : {}", concurrency);
+		LOGGER.debug("produce - payloadSize    : {}", payloadSize);
+		LOGGER.debug("produce - maxPayloadSize : {}", maxPayloadSize);
+
+		LoadTestResult result = loadTestService.start(resource,
+				new LoadTestOptions(messages, duration, rate, concurrency, payloadSize, maxPayloadSize));
+		HttpStatus status = result.getStatus() == LoadTestResult.Status.FAILED ? HttpStatus.BAD_REQUEST
+				: result.getStatus() == LoadTestResult.Status.REJECTED ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.ACCEPTED;
+
+		LOGGER.info("produce - end");
+		return new ResponseEntity<LoadTestResult>(result, status);
+	}
+
+	/**
+	 * Gets the report of a load test.
+	 * @param id
+	 * @return
+	 */
+	@RequestMapping(path="/loadtest/produce/{id}", method=RequestMethod.GET, produces=MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<LoadTestResult> getLoadTest(@PathVariable("id")final String id) {
+		LOGGER.info("getLoadTest - start");
+		LOGGER.debug("getLoadTest - id: {}", id);
+
+		LoadTestResult result = loadTestService.getTest(id);
+
+		LOGGER.info("getLoadTest - end");
+		return new ResponseEntity<LoadTestResult>(result, result != null ? HttpStatus.OK : HttpStatus.NOT_FOUND);
+	}
+
+	/**
+	 * Gets the reports of the last load tests.
+	 * @return
+	 */
+	@RequestMapping(path="/loadtest/produce", method=RequestMethod.GET, produces=MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<LoadTestResult>> getLoadTests() {
+		LOGGER.info("getLoadTests - start");
+
+		List<LoadTestResult> results = loadTestService.getTests();
+
+		LOGGER.info("getLoadTests - end");
+		return new ResponseEntity<List<LoadTestResult>>(results, HttpStatus.OK);
+	}
+
+	/**
+	 * Cancels a running load test.
+	 * @param id
+	 * @return
+	 */
+	@RequestMapping(path="/loadtest/produce/{id}", method=RequestMethod.DELETE, produces=MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<LoadTestResult> cancelLoadTest(@PathVariable("id")final String id) {
+		LOGGER.info("cancelLoadTest - start");
+		LOGGER.debug("cancelLoadTest - id: {}", id);
+
+		LoadTestResult result = loadTestService.cancel(id);
+
+		LOGGER.info("cancelLoadTest - end");
+		return new ResponseEntity<LoadTestResult>(result, result != null ? HttpStatus.OK : HttpStatus.NOT_FOUND);
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.jms.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.ContinuousProbeResult;
+import com.example.jms.model.ProbeResult;
+import com.example.jms.service.probe.LatencyProbeService;
+
+/**
+ * Handles the latency probe requests.
+ * @author Gabriel
+ *
+ */
+@RestController
+public class ProbeController {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProbeController.class);
+
+	@Autowired
+	private LatencyProbeService latencyProbeService;
+
+	/**
+	 * Starts a probe in background that sends probe messages through the given resource and reports their produce to
+	 * consume latency.
+	 * @param resource
+	 * @param messages
+	 * @param interval the ms between the messages
+	 * @return the running probe (bad request if the resource isn't configured or the arguments aren't valid)
+	 */
+	@RequestMapping(path="/probe/run", produces=MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ProbeResult> probe(@RequestParam("resource")final String resource,
+			@RequestParam(value="messages", required=false)final Integer messages,
+			@RequestParam(value="interval", required=false)final Long interval) {
+		LOGGER.info("probe - start");
+		LOGGER.debug("probe - resource : {}", resource);
+		LOGGER.debug("probe - messages : {}", messages);
+		LOGGER.debug("probe - interval : {}", interval);
+
+		if (ResourcesEnum.getResourceByCode(resource) == null) {
+			LOGGER.info("probe - end");
+			return new ResponseEntity<ProbeResult>(HttpStatus.BAD_REQUEST);
+		}
+
+		ProbeResult result = latencyProbeService.probe(resource, messages, interval);
+		HttpStatus status = result.isRunning() ? HttpStatus.ACCEPTED : HttpStatus.BAD_REQUEST;
+
+		LOGGER.info("probe - end");
+		return new ResponseEntity<ProbeResult>(result, status);
+	}
+
+	/**
+	 * Gets the report of an on demand probe.
+	 * @param id
+	 * @return
+	 */
+	@RequestMapping(path="/probe/run/{id}", method=RequestMethod.GET, produces=MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ProbeResult> getProbe(@PathVariable("id")final String id) {
+		LOGGER.info("getProbe - start");
+		LOGGER.debug("getProbe - id: {}", id);
+
+		ProbeResult result = latencyProbeService.getProbe(id);
+
+		LOGGER.info("getProbe - end");
+		return new ResponseEntity<ProbeResult>(result, result != null ? HttpStatus.OK : HttpStatus.NOT_FOUND);
+	}
+
+	/**
+	 * Gets the reports of the continuous probes.
+	 * @return
+	 */
+	@RequestMapping(path="/probe", method=RequestMethod.GET, produces=MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<ContinuousProbeResult>> getContinuousProbes() {
+		LOGGER.info("getContinuousProbes - start");
+
+		List<ContinuousProbeResult> results = latencyProbeService.getContinuousProbes();
+
+		LOGGER.info("getContinuousProbes - end");
+		return new ResponseEntity<List<ContinuousProbeResult>>(results, HttpStatus.OK);
+	}
+}
@@ -10,7 +10,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.jms.enums.PurgeStrategyEnum;
+import com.example.jms.model.DrainOptions;
+import com.example.jms.model.DrainResult;
 import com.example.jms.service.common.PurgeService;
+import com.example.jms.service.common.SelectorService;
 
 /**
  * Handles the purge requests.
@@ -24,20 +28,72 @@ public class PurgeController {
 	
 	@Autowired
 	PurgeService purgeService;
+
+	@Autowired
+	SelectorService selectorService;
 	
 	/**
 	 * Purges/Consumes all the messages from the given resource.
+	 * The optional strategy (consume, native, auto or parallel) is used for the queues and the unsubscribe strategy
+	 * for the topics.
+	 * The optional timeouts (milliseconds) and expected count override the configured drain defaults.
+	 * With the optional selector only the matching queue messages are consumed (the topics reject it).
 	 * @param resource
+	 * @param strategy
+	 * @param firstReceiveTimeout
+	 * @param idleTimeout
+	 * @param expectedCount
+	 * @param selector
 	 * @return
 	 */
 	@RequestMapping(path="/purge/messages", produces= MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Boolean> purgeMessages(@RequestParam("resource")final String resource) {
+	public ResponseEntity<Boolean> purgeMessages(@RequestParam("resource")final String resource,
+			@RequestParam(value="strategy", required=false)final String strategy,
+			@RequestParam(value="firstReceiveTimeout", required=false)final Long firstReceiveTimeout,
+			@RequestParam(value="idleTimeout", required=false)final Long idleTimeout,
+			@RequestParam(value="expectedCount", required=false)final Long expectedCount,
+			@RequestParam(value="selector", required=false)final String selector) {
 		LOGGER.info("purgeMessages - start");
 		LOGGER.debug("purgeMessages - resource : {}", resource);
+		LOGGER.debug("purgeMessages - strategy : {}", strategy);
+		LOGGER.debug("purgeMessages - selector : {}", selector);
+		
+		PurgeStrategyEnum purgeStrategy = PurgeStrategyEnum.getStrategyByName(strategy);
+
+		if ((strategy != null && purgeStrategy == null) || !selectorService.isValid(selector)) {
+			LOGGER.info("purgeMessages - end");
+			return new ResponseEntity<Boolean>(false, HttpStatus.BAD_REQUEST);
+		}
 		
-		Boolean result = purgeService.purgeMessages(resource);
+		Boolean result = purgeService.purgeMessages(resource,
+				new DrainOptions(firstReceiveTimeout, idleTimeout, expectedCount, SelectorService.normalize(selector)), purgeStrategy);
 		
 		LOGGER.info("purgeMessages - end");
 		return new ResponseEntity<Boolean>(result, HttpStatus.OK);
 	}
+
+	/**
+	 * Drains (consumes) all the messages from the given resource with several parallel consumers
+	 * (one for each subscriber for the topics).
+	 * The optional consumers number (only for the queues) and timeouts (milliseconds) override the configured defaults.
+	 * @param resource
+	 * @param consumers
+	 * @param firstReceiveTimeout
+	 * @param idleTimeout
+	 * @return the drained messages by consumer (or subscriber) and the drain rate
+	 */
+	@RequestMapping(path="/purge/drain", produces= MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<DrainResult> drainMessages(@RequestParam("resource")final String resource,
+			@RequestParam(value="consumers", required=false)final Integer consumers,
+			@RequestParam(value="firstReceiveTimeout", required=false)final Long firstReceiveTimeout,
+			@RequestParam(value="idleTimeout", required=false)final Long idleTimeout) {
+		LOGGER.info("drainMessages - start");
+		LOGGER.debug("drainMessages - resource  : {}", resource);
+		LOGGER.debug("drainMessages - consumers : {}", consumers);
+		
+		DrainResult result = purgeService.drainMessages(resource, consumers, new DrainOptions(firstReceiveTimeout, idleTimeout, null));
+		
+		LOGGER.info("drainMessages - end");
+		return new ResponseEntity<DrainResult>(result, HttpStatus.OK);
+	}
 }
@@ -1,5 +1,7 @@
 package com.example.jms.controller;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -9,8 +11,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.jms.model.ResourceStats;
+import com.example.jms.model.SubscribersHealth;
 import com.example.jms.service.common.ResourceService;
 
 /**
@@ -39,4 +44,36 @@ public class ResourceController {
 		LOGGER.info("getConfiguredResources - end");
 		return new ResponseEntity<Map<String,String>>(configuredResources, HttpStatus.OK);
 	}
+
+	/**
+	 * Gets the readiness of the topic subscribers (bootstrap state by topic).
+	 * @return the health with status OK when the subscribers are ready or SERVICE_UNAVAILABLE
+	 */
+	@RequestMapping(path="/resources/health", produces= MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<SubscribersHealth> getSubscribersHealth() {
+		LOGGER.info("getSubscribersHealth - start");
+		
+		SubscribersHealth health = resourcesService.getSubscribersHealth();
+		
+		LOGGER.info("getSubscribersHealth - end");
+		return new ResponseEntity<SubscribersHealth>(health, health.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE);
+	}
+
+	/**
+	 * Gets the counters (depth, enqueued, dequeued, consumers and producers) of the given resource or of all the
+	 * configured resources, without reading their messages.
+	 * @param resource
+	 * @return
+	 */
+	@RequestMapping(path="/resources/stats", produces= MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<ResourceStats>> getResourcesStats(@RequestParam(value="resource", required=false)final String resource) {
+		LOGGER.info("getResourcesStats - start");
+		LOGGER.debug("getResourcesStats - resource : {}", resource);
+		
+		List<ResourceStats> resourcesStats = resource != null
+				? Collections.singletonList(resourcesService.getResourceStats(resource)) : resourcesService.getResourcesStats();
+		
+		LOGGER.info("getResourcesStats - end");
+		return new ResponseEntity<List<ResourceStats>>(resourcesStats, HttpStatus.OK);
+	}
 }
@@ -0,0 +1,57 @@
+package com.example.jms.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.jms.model.SearchResult;
+import com.example.jms.service.search.SearchService;
+
+/**
+ * Handles the search requests.
+ * @author Gabriel
+ *
+ */
+@RestController
+public class SearchController {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SearchController.class);
+	
+	@Autowired
+	SearchService searchService;
+	
+	/**
+	 * Searches the messages of the given queue resource with all the words of the given query.
+	 * @param resource
+	 * @param query
+	 * @param limit
+	 * @return
+	 */
+	@RequestMapping(path="/search", produces= MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<SearchResult> searchIn(@RequestParam("resource")final String resource,
+			@RequestParam("q")final String query, @RequestParam(value="limit", defaultValue="100")final int limit) {
+		LOGGER.info("searchIn - start");
+		LOGGER.debug("searchIn - resource : {}", resource);
+		LOGGER.debug("searchIn - query    : {}", query);
+		LOGGER.debug("searchIn - limit    : {}", limit);
+
+		if (query.trim().isEmpty()) {
+			SearchResult error = new SearchResult(resource, query);
+			error.setError("Empty query");
+
+			LOGGER.info("searchIn - end");
+			return new ResponseEntity<SearchResult>(error, HttpStatus.BAD_REQUEST);
+		}
+		
+		SearchResult result = searchService.search(resource, query, limit);
+		
+		LOGGER.info("searchIn - end");
+		return new ResponseEntity<SearchResult>(result, HttpStatus.OK);
+	}
+}
@@ -1,16 +1,32 @@
 package com.example.jms.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.BatchSendResult;
+import com.example.jms.model.SendTicket;
+import com.example.jms.model.StreamSendResult;
+import com.example.jms.service.common.AsyncSendService;
 import com.example.jms.service.common.SendService;
+import com.example.jms.service.common.StreamSendService;
 
 /**
  * Handles the send requests.
@@ -24,6 +40,12 @@ public class SendController {
 	
 	@Autowired
 	private SendService sendService;
+
+	@Autowired
+	private AsyncSendService asyncSendService;
+
+	@Autowired
+	private StreamSendService streamSendService;
 	
 	/**
 	 * Sends the given message to the given resource.
@@ -43,4 +65,115 @@ public class SendController {
 		LOGGER.info("sendMessage - end");
 		return new ResponseEntity<Boolean>(status, HttpStatus.OK);
 	}
+
+	/**
+	 * Sends the given list of messages to the given resource committing every commit interval messages.
+	 * @param resource
+	 * @param commitInterval
+	 * @param messages
+	 * @return
+	 */
+	@RequestMapping(path="/send/batch", method=RequestMethod.POST, consumes=MediaType.APPLICATION_JSON_VALUE,
+			produces=MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<BatchSendResult> sendBatch(@RequestParam("resource")final String resource,
+			@RequestParam(value="commitInterval", required=false)final Integer commitInterval,
+			@RequestBody final List<String> messages) {
+		LOGGER.info("sendBatch - start");
+		LOGGER.debug("sendBatch - resource       : {}", resource);
+		LOGGER.debug("sendBatch - commitInterval : {}", commitInterval);
+		
+		BatchSendResult result = sendService.sendMessagesTo(resource, messages, commitInterval);
+		
+		LOGGER.info("sendBatch - end");
+		return new ResponseEntity<BatchSendResult>(result, HttpStatus.OK);
+	}
+
+	/**
+	 * Queues the given message to be sent asynchronously to the given resource.
+	 * @param resource
+	 * @param message
+	 * @return the ticket to poll the send status (bad request if the resource isn't configured and service unavailable
+	 * if the in-flight window is full)
+	 */
+	@RequestMapping(path="/send/async", produces= MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<SendTicket> sendAsync(
+			@RequestParam("resource")final String resource, @RequestParam("message")final String message) {
+		LOGGER.info("sendAsync - start");
+		LOGGER.debug("sendAsync - resource: {}", resource);
+
+		if (ResourcesEnum.getResourceByCode(resource) == null) {
+			LOGGER.info("sendAsync - end");
+			return new ResponseEntity<SendTicket>(HttpStatus.BAD_REQUEST);
+		}
+
+		SendTicket ticket = asyncSendService.sendMessageTo(resource, message);
+		HttpStatus status = ticket.getStatus() == SendTicket.Status.REJECTED ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.ACCEPTED;
+
+		LOGGER.info("sendAsync - end");
+		return new ResponseEntity<SendTicket>(ticket, status);
+	}
+
+	/**
+	 * Gets the ticket of an asynchronous send.
+	 * @param ticketId
+	 * @return
+	 */
+	@RequestMapping(path="/send/async/{ticketId}", method=RequestMethod.GET, produces= MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<SendTicket> getSendTicket(@PathVariable("ticketId")final String ticketId) {
+		LOGGER.info("getSendTicket - start");
+		LOGGER.debug("getSendTicket - ticketId: {}", ticketId);
+
+		SendTicket ticket = asyncSendService.getTicket(ticketId);
+
+		LOGGER.info("getSendTicket - end");
+		return new ResponseEntity<SendTicket>(ticket, ticket != null ? HttpStatus.OK : HttpStatus.NOT_FOUND);
+	}
+
+	/**
+	 * Sends each line of the request body (NDJSON or text) or of the uploaded file (multipart "file" part) to the
+	 * given resource as it's read, committing every commit interval messages.
+	 * Returns HTTP 503 without reading the input when too many stream sends are running.
+	 * @param resource
+	 * @param commitInterval
+	 * @param producers
+	 * @param file the uploaded file or null to read the request body
+	 * @param request
+	 * @return
+	 * @throws IOException
+	 */
+	@RequestMapping(path="/send/stream", method=RequestMethod.POST, produces=MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<StreamSendResult> sendStream(@RequestParam("resource")final String resource,
+			@RequestParam(value="commitInterval", required=false)final Integer commitInterval,
+			@RequestParam(value="producers", required=false)final Integer producers,
+			@RequestParam(value="file", required=false)final MultipartFile file, final HttpServletRequest request)
+			throws IOException {
+		LOGGER.info("sendStream - start");
+		LOGGER.debug("sendStream - resource       : {}", resource);
+		LOGGER.debug("sendStream - commitInterval : {}", commitInterval);
+		LOGGER.debug("sendStream - producers      : {}", producers);
+		LOGGER.debug("sendStream - file           : {}", file != null ? file.getOriginalFilename() : null);
+
+		StreamSendResult result;
+
+		try (InputStream input = file != null ? file.getInputStream() : request.getInputStream()) {
+			result = streamSendService.sendStreamTo(resource, input, commitInterval, producers);
+		}
+
+		LOGGER.info("sendStream - end");
+		return new ResponseEntity<StreamSendResult>(result, result.isRejected() ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK);
+	}
+
+	/**
+	 * Gets the progress of the running stream sends.
+	 * @return
+	 */
+	@RequestMapping(path="/send/stream", method=RequestMethod.GET, produces=MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<StreamSendResult>> getStreamSends() {
+		LOGGER.info("getStreamSends - start");
+
+		List<StreamSendResult> sends = streamSendService.getRunningSends();
+
+		LOGGER.info("getStreamSends - end");
+		return new ResponseEntity<List<StreamSendResult>>(sends, HttpStatus.OK);
+	}
 }
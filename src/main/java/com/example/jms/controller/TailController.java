@@ -0,0 +1,75 @@
+package com.example.jms.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.service.tail.TailService;
+import com.example.jms.service.tail.TailSubscriber;
+
+/**
+ * Handles the tail requests.
+ * @author Gabriel
+ *
+ */
+@RestController
+public class TailController {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TailController.class);
+
+	static final String TAIL_MODE_HEADER = "X-Tail-Mode";
+	static final String BROWSE_TAIL_MODE = "browse; from the subscription time; limited to the broker browse window (maxBrowsePageSize)";
+	static final String LISTENER_TAIL_MODE = "listener";
+	
+	@Value("${com.exmaple.jms.tail.timeout:1800000}")
+	private long timeout = 1800000;
+
+	@Autowired
+	TailService tailService;
+	
+	/**
+	 * Streams the messages received by the given resource from now on as server-sent events.
+	 * The X-Tail-Mode header tells how the resource is tailed: a queue is browsed periodically, so only the messages
+	 * within the broker's browse window (the maxBrowsePageSize of the destination policy) are tailed.
+	 * @param resource
+	 * @return
+	 */
+	@RequestMapping(path="/tail", produces= MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> tail(@RequestParam("resource")final String resource) {
+		LOGGER.info("tail - start");
+		LOGGER.debug("tail - resource : {}", resource);
+
+		ResourcesEnum resourceEnum = ResourcesEnum.getResourceByCode(resource);
+
+		if (resourceEnum == null) {
+			LOGGER.info("tail - end");
+			return new ResponseEntity<SseEmitter>(HttpStatus.BAD_REQUEST);
+		}
+
+		SseEmitter emitter = new SseEmitter(timeout);
+		TailSubscriber subscriber = tailService.subscribe(resource, emitter);
+
+		if (subscriber == null) {
+			LOGGER.info("tail - end");
+			return new ResponseEntity<SseEmitter>(HttpStatus.SERVICE_UNAVAILABLE);
+		}
+
+		emitter.onCompletion(() -> tailService.unsubscribe(subscriber));
+		emitter.onTimeout(() -> tailService.unsubscribe(subscriber));
+		
+		LOGGER.info("tail - end");
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(TAIL_MODE_HEADER, resourceEnum.getType().equals(ResourcesEnum.QUEUE_TYPE) ? BROWSE_TAIL_MODE : LISTENER_TAIL_MODE);
+		return new ResponseEntity<SseEmitter>(emitter, headers, HttpStatus.OK);
+	}
+}
@@ -0,0 +1,49 @@
+package com.example.jms.enums;
+
+/**
+ * Enumeration of the purge strategies.
+ * @author Gabriel
+ *
+ */
+public enum PurgeStrategyEnum {
+
+	CONSUME("consume the messages one by one"),
+	NATIVE("use the broker purge (fails if the provider doesn't have an admin API)"),
+	AUTO("use the broker purge if it's available or consume the messages"),
+	DESTROY("only for the queues: destroy the queue with its messages (the broker creates it again on the next use)"),
+	PARALLEL("consume the messages with several parallel consumers"),
+	UNSUBSCRIBE("only for the topics: unsubscribe and recreate the durable subscribers (discards the messages without consuming them)");
+
+	private String description;
+
+	/**
+	 * Creates a new purge strategy.
+	 * @param description
+	 */
+	private PurgeStrategyEnum(String description) {
+		this.description = description;
+	}
+
+	/**
+	 * Gets the description.
+	 * @return
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Gets a purge strategy for the given name (ignoring case).
+	 * @param name
+	 * @return
+	 */
+	public static PurgeStrategyEnum getStrategyByName(final String name) {
+		for (PurgeStrategyEnum strategy : PurgeStrategyEnum.values()) {
+			if (strategy.name().equalsIgnoreCase(name)) {
+				return strategy;
+			}
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,184 @@
+package com.example.jms.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a batch send: counts and timings for each committed batch.
+ * @author Gabriel
+ *
+ */
+public class BatchSendResult {
+
+	private final String resource;
+	private final int total;
+	private final int commitInterval;
+	private final List<Batch> batches = new ArrayList<>();
+	private long elapsedMillis;
+	private String error;
+
+	/**
+	 * Creates a new batch send result.
+	 * @param resource
+	 * @param total
+	 * @param commitInterval
+	 */
+	public BatchSendResult(final String resource, final int total, final int commitInterval) {
+		this.resource = resource;
+		this.total = total;
+		this.commitInterval = commitInterval;
+	}
+
+	/**
+	 * Adds a committed batch.
+	 * @param messages
+	 * @param sendTimeMicros
+	 * @param commitTimeMicros
+	 */
+	public void addBatch(final int messages, final long sendTimeMicros, final long commitTimeMicros) {
+		batches.add(new Batch(batches.size() + 1, messages, sendTimeMicros, commitTimeMicros));
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Gets the number of received messages.
+	 * @return
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * Gets the number of messages sent per commit.
+	 * @return
+	 */
+	public int getCommitInterval() {
+		return commitInterval;
+	}
+
+	/**
+	 * Gets the number of sent (and committed) messages.
+	 * @return
+	 */
+	public int getSent() {
+		int sent = 0;
+
+		for (Batch batch : batches) {
+			sent += batch.getMessages();
+		}
+
+		return sent;
+	}
+
+	/**
+	 * Gets the number of not sent (or rolled back) messages.
+	 * @return
+	 */
+	public int getFailed() {
+		return total - getSent();
+	}
+
+	/**
+	 * Gets the committed batches.
+	 * @return
+	 */
+	public List<Batch> getBatches() {
+		return batches;
+	}
+
+	/**
+	 * Gets the elapsed time (milliseconds) for the whole batch send.
+	 * @return
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * Sets the elapsed time (milliseconds) for the whole batch send.
+	 * @param elapsedMillis
+	 */
+	public void setElapsedMillis(long elapsedMillis) {
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	/**
+	 * Gets the error that stopped the batch send (null if all the messages were sent).
+	 * @return
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Sets the error that stopped the batch send.
+	 * @param error
+	 */
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	/**
+	 * A committed batch of messages.
+	 */
+	public static class Batch {
+
+		private final int number;
+		private final int messages;
+		private final long sendTimeMicros;
+		private final long commitTimeMicros;
+
+		/**
+		 * Creates a new committed batch.
+		 * @param number
+		 * @param messages
+		 * @param sendTimeMicros
+		 * @param commitTimeMicros
+		 */
+		public Batch(final int number, final int messages, final long sendTimeMicros, final long commitTimeMicros) {
+			this.number = number;
+			this.messages = messages;
+			this.sendTimeMicros = sendTimeMicros;
+			this.commitTimeMicros = commitTimeMicros;
+		}
+
+		/**
+		 * Gets the batch number (starting at 1).
+		 * @return
+		 */
+		public int getNumber() {
+			return number;
+		}
+
+		/**
+		 * Gets the number of messages in the batch.
+		 * @return
+		 */
+		public int getMessages() {
+			return messages;
+		}
+
+		/**
+		 * Gets the time (microseconds) sending the messages of the batch.
+		 * @return
+		 */
+		public long getSendTimeMicros() {
+			return sendTimeMicros;
+		}
+
+		/**
+		 * Gets the time (microseconds) committing the batch.
+		 * @return
+		 */
+		public long getCommitTimeMicros() {
+			return commitTimeMicros;
+		}
+	}
+}
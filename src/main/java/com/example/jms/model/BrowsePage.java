@@ -0,0 +1,128 @@
+package com.example.jms.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page of browsed messages with the cursor to get the next page.
+ * @author Gabriel
+ *
+ */
+public class BrowsePage {
+
+	private final String resource;
+	private final int offset;
+	private final int limit;
+	private final String cursor;
+	private final List<BrowsedMessage> messages = new ArrayList<>();
+	private boolean hasMore;
+	private String error;
+
+	/**
+	 * Creates a new empty page.
+	 * @param resource
+	 * @param offset
+	 * @param limit
+	 * @param cursor
+	 */
+	public BrowsePage(final String resource, final int offset, final int limit, final String cursor) {
+		this.resource = resource;
+		this.offset = offset;
+		this.limit = limit;
+		this.cursor = cursor;
+	}
+
+	/**
+	 * Adds a message to the page.
+	 * @param message
+	 */
+	public void addMessage(final BrowsedMessage message) {
+		messages.add(message);
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Gets the number of skipped messages (after the cursor if it was given).
+	 * @return
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Gets the max number of messages of the page.
+	 * @return
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Gets the message id after which the page starts (null for the first message).
+	 * @return
+	 */
+	public String getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * Gets the messages of the page.
+	 * @return
+	 */
+	public List<BrowsedMessage> getMessages() {
+		return messages;
+	}
+
+	/**
+	 * Checks if there are more messages after the page.
+	 * @return
+	 */
+	public boolean isHasMore() {
+		return hasMore;
+	}
+
+	/**
+	 * Sets if there are more messages after the page.
+	 * @param hasMore
+	 */
+	public void setHasMore(final boolean hasMore) {
+		this.hasMore = hasMore;
+	}
+
+	/**
+	 * Gets the cursor for the next page or null if there aren't more messages: the number, timestamp and id of the last
+	 * message ("number:timestamp:id") so the next page is positioned by the broker from the timestamp.
+	 * @return
+	 */
+	public String getNextCursor() {
+		if (!hasMore || messages.isEmpty()) {
+			return null;
+		}
+
+		BrowsedMessage last = messages.get(messages.size() - 1);
+		return last.getNumber() + ":" + last.getTimestamp() + ":" + last.getMessageId();
+	}
+
+	/**
+	 * Gets the error that stopped the browse (null if the page is complete).
+	 * @return
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Sets the error that stopped the browse.
+	 * @param error
+	 */
+	public void setError(final String error) {
+		this.error = error;
+	}
+}
@@ -0,0 +1,155 @@
+package com.example.jms.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.jms.Message;
+
+/**
+ * The browsed messages of a resource in the broker order.
+ * The messages are kept by column in arrays (id, timestamp, priority, type, size and text) so each message only
+ * takes its id and text strings, and they are serialized as a list of browsed messages.
+ * @author Gabriel
+ *
+ */
+public class BrowseResult implements MessageHandler {
+
+	private static final int INITIAL_CAPACITY = 16;
+	private static final MessageBody.Type[] TYPES = MessageBody.Type.values();
+
+	private final String resource;
+	private String[] messageIds = new String[INITIAL_CAPACITY];
+	private long[] timestamps = new long[INITIAL_CAPACITY];
+	private byte[] priorities = new byte[INITIAL_CAPACITY];
+	private byte[] types = new byte[INITIAL_CAPACITY];
+	private int[] sizes = new int[INITIAL_CAPACITY];
+	private String[] texts = new String[INITIAL_CAPACITY];
+	private int count;
+	private String error;
+
+	/**
+	 * Creates a new empty result.
+	 * @param resource
+	 */
+	public BrowseResult(final String resource) {
+		this.resource = resource;
+	}
+
+	/**
+	 * Adds a message after the last one.
+	 * @param messageId
+	 * @param timestamp
+	 * @param priority
+	 * @param type
+	 * @param size
+	 * @param text
+	 */
+	public void add(final String messageId, final long timestamp, final int priority, final MessageBody.Type type,
+			final int size, final String text) {
+		if (count == texts.length) {
+			int capacity = count + (count >> 1);
+
+			messageIds = Arrays.copyOf(messageIds, capacity);
+			timestamps = Arrays.copyOf(timestamps, capacity);
+			priorities = Arrays.copyOf(priorities, capacity);
+			types = Arrays.copyOf(types, capacity);
+			sizes = Arrays.copyOf(sizes, capacity);
+			texts = Arrays.copyOf(texts, capacity);
+		}
+
+		messageIds[count] = messageId;
+		timestamps[count] = timestamp;
+		priorities[count] = (byte) priority;
+		types[count] = (byte) type.ordinal();
+		sizes[count] = size;
+		texts[count] = text;
+		count++;
+	}
+
+	/**
+	 * Adds a browsed message without headers.
+	 */
+	@Override
+	public boolean handle(final int number, final String text) throws Exception {
+		add(null, 0, 0, MessageBody.Type.TEXT, BrowsedMessage.getSize(text), text);
+		return true;
+	}
+
+	/**
+	 * Adds a browsed message with its headers.
+	 */
+	@Override
+	public boolean handle(final int number, final Message message) throws Exception {
+		MessageBody body = new MessageBody(message);
+		String text = body.getText();
+
+		add(message.getJMSMessageID(), message.getJMSTimestamp(), message.getJMSPriority(), body.getType(),
+				body.getSize(), text);
+		return true;
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Gets the number of messages.
+	 * @return
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the message at the given position (starting at 0).
+	 * @param index
+	 * @return
+	 */
+	public BrowsedMessage get(final int index) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+		}
+
+		return new BrowsedMessage(index + 1, messageIds[index], timestamps[index], priorities[index],
+				TYPES[types[index]], sizes[index], texts[index]);
+	}
+
+	/**
+	 * Gets the messages in the broker order (a read only view: the messages are created as they are read).
+	 * @return
+	 */
+	public List<BrowsedMessage> getMessages() {
+		return new AbstractList<BrowsedMessage>() {
+			@Override
+			public BrowsedMessage get(final int index) {
+				return BrowseResult.this.get(index);
+			}
+
+			@Override
+			public int size() {
+				return count;
+			}
+		};
+	}
+
+	/**
+	 * Gets the error that stopped the browse (null if it's complete).
+	 * @return
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Sets the error that stopped the browse.
+	 * @param error
+	 */
+	public void setError(final String error) {
+		this.error = error;
+	}
+}
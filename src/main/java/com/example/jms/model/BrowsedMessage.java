@@ -0,0 +1,144 @@
+package com.example.jms.model;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * A browsed message with its main headers.
+ * @author Gabriel
+ *
+ */
+public class BrowsedMessage {
+
+	private final int number;
+	private final String messageId;
+	private final long timestamp;
+	private final int priority;
+	private final MessageBody.Type type;
+	private final int size;
+	private final String text;
+
+	/**
+	 * Creates a new browsed message.
+	 * @param number
+	 * @param messageId
+	 * @param timestamp
+	 * @param priority
+	 * @param type
+	 * @param size
+	 * @param text
+	 */
+	public BrowsedMessage(final int number, final String messageId, final long timestamp, final int priority,
+			final MessageBody.Type type, final int size, final String text) {
+		this.number = number;
+		this.messageId = messageId;
+		this.timestamp = timestamp;
+		this.priority = priority;
+		this.type = type;
+		this.size = size;
+		this.text = text;
+	}
+
+	/**
+	 * Creates a new browsed message from the given JMS message (the body is rendered as text, see MessageBody).
+	 * @param number
+	 * @param message
+	 * @return
+	 * @throws JMSException
+	 */
+	public static BrowsedMessage from(final int number, final Message message) throws JMSException {
+		MessageBody body = new MessageBody(message);
+		String text = body.getText(); // rendered once: the size of the map and object bodies comes from it
+
+		return new BrowsedMessage(number, message.getJMSMessageID(), message.getJMSTimestamp(), message.getJMSPriority(),
+				body.getType(), body.getSize(), text);
+	}
+
+	/**
+	 * Gets the size of the given message text in bytes (UTF-8) without encoding it.
+	 * @param text
+	 * @return
+	 */
+	public static int getSize(final String text) {
+		if (text == null) {
+			return 0;
+		}
+
+		int size = 0;
+
+		for (int index = 0; index < text.length(); index++) {
+			char c = text.charAt(index);
+
+			if (c < 0x80) {
+				size++;
+			} else if (c < 0x800) {
+				size += 2;
+			} else if (Character.isHighSurrogate(c) && index + 1 < text.length() && Character.isLowSurrogate(text.charAt(index + 1))) {
+				size += 4;
+				index++;
+			} else if (Character.isSurrogate(c)) {
+				size++; // unpaired surrogate: encoded as '?'
+			} else {
+				size += 3;
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * Gets the message position in the resource (starting at 1).
+	 * @return
+	 */
+	public int getNumber() {
+		return number;
+	}
+
+	/**
+	 * Gets the JMS message id.
+	 * @return
+	 */
+	public String getMessageId() {
+		return messageId;
+	}
+
+	/**
+	 * Gets the JMS timestamp (when the message was sent).
+	 * @return
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Gets the JMS priority.
+	 * @return
+	 */
+	public int getPriority() {
+		return priority;
+	}
+
+	/**
+	 * Gets the body type.
+	 * @return
+	 */
+	public MessageBody.Type getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the body size in bytes.
+	 * @return
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Gets the message text (the base64 bytes, the JSON map or the object's toString for the other types).
+	 * @return
+	 */
+	public String getText() {
+		return text;
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.jms.model;
+
+/**
+ * Report of a continuous latency probe: the totals since it started and the last complete window (for the SLO).
+ * @author Gabriel
+ *
+ */
+public class ContinuousProbeResult {
+
+	private final String resource;
+	private final boolean connected;
+	private final ProbeResult total;
+	private final ProbeResult lastWindow;
+
+	/**
+	 * Creates a new continuous probe result.
+	 * @param resource
+	 * @param connected
+	 * @param total
+	 * @param lastWindow the last complete window (null during the first one)
+	 */
+	public ContinuousProbeResult(final String resource, final boolean connected, final ProbeResult total,
+			final ProbeResult lastWindow) {
+		this.resource = resource;
+		this.connected = connected;
+		this.total = total;
+		this.lastWindow = lastWindow;
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Checks if the probe is connected (sending and receiving the probe messages).
+	 * @return
+	 */
+	public boolean isConnected() {
+		return connected;
+	}
+
+	/**
+	 * Gets the report since the probe started.
+	 * @return
+	 */
+	public ProbeResult getTotal() {
+		return total;
+	}
+
+	/**
+	 * Gets the report of the last complete window.
+	 * @return
+	 */
+	public ProbeResult getLastWindow() {
+		return lastWindow;
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.jms.model;
+
+/**
+ * Per request overrides for draining (consuming until empty) a queue or a topic subscriber.
+ * The null values use the configured defaults.
+ * @author Gabriel
+ *
+ */
+public class DrainOptions {
+
+	/**
+	 * The options using all the configured defaults.
+	 */
+	public static final DrainOptions DEFAULTS = new DrainOptions(null, null, null);
+
+	private final Long firstReceiveTimeout;
+	private final Long idleTimeout;
+	private final Long expectedCount;
+	private final String selector;
+
+	/**
+	 * Creates new drain options.
+	 * @param firstReceiveTimeout the max wait (milliseconds) for the first message
+	 * @param idleTimeout the max wait (milliseconds) for the next message once the messages stop flowing
+	 * @param expectedCount the number of messages to drain (if it's known the drain doesn't wait once it's reached)
+	 */
+	public DrainOptions(final Long firstReceiveTimeout, final Long idleTimeout, final Long expectedCount) {
+		this(firstReceiveTimeout, idleTimeout, expectedCount, null);
+	}
+
+	/**
+	 * Creates new drain options for the messages matching the given selector.
+	 * @param firstReceiveTimeout the max wait (milliseconds) for the first message
+	 * @param idleTimeout the max wait (milliseconds) for the next message once the messages stop flowing
+	 * @param expectedCount the number of messages to drain (if it's known the drain doesn't wait once it's reached)
+	 * @param selector the JMS message selector (null for all the messages)
+	 */
+	public DrainOptions(final Long firstReceiveTimeout, final Long idleTimeout, final Long expectedCount, final String selector) {
+		this.firstReceiveTimeout = firstReceiveTimeout;
+		this.idleTimeout = idleTimeout;
+		this.expectedCount = expectedCount;
+		this.selector = selector;
+	}
+
+	/**
+	 * Gets the max wait (milliseconds) for the first message.
+	 * @return
+	 */
+	public Long getFirstReceiveTimeout() {
+		return firstReceiveTimeout;
+	}
+
+	/**
+	 * Gets the max wait (milliseconds) for the next message once the messages stop flowing.
+	 * @return
+	 */
+	public Long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * Gets the number of messages to drain.
+	 * @return
+	 */
+	public Long getExpectedCount() {
+		return expectedCount;
+	}
+
+	/**
+	 * Gets the JMS message selector (null for all the messages).
+	 * @return
+	 */
+	public String getSelector() {
+		return selector;
+	}
+}
@@ -0,0 +1,115 @@
+package com.example.jms.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a drain (purge by consuming the messages): drained messages by consumer and rate.
+ * @author Gabriel
+ *
+ */
+public class DrainResult {
+
+	private final String resource;
+	private final Map<String, Long> drainedBy = new LinkedHashMap<>();
+	private long elapsedNanos;
+	private volatile String error;
+
+	/**
+	 * Creates a new drain result.
+	 * @param resource
+	 */
+	public DrainResult(final String resource) {
+		this.resource = resource;
+	}
+
+	/**
+	 * Adds the messages drained by the given consumer (or subscriber).
+	 * @param consumer
+	 * @param drained
+	 */
+	public synchronized void addDrained(final String consumer, final long drained) {
+		drainedBy.merge(consumer, drained, Long::sum);
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Gets the number of consumers (or subscribers) used to drain.
+	 * @return
+	 */
+	public synchronized int getConsumers() {
+		return drainedBy.size();
+	}
+
+	/**
+	 * Gets the drained messages by consumer (or subscriber).
+	 * @return
+	 */
+	public synchronized Map<String, Long> getDrainedBy() {
+		return new LinkedHashMap<>(drainedBy);
+	}
+
+	/**
+	 * Gets the total of drained messages.
+	 * @return
+	 */
+	public synchronized long getDrained() {
+		long drained = 0;
+
+		for (Long consumerDrained : drainedBy.values()) {
+			drained += consumerDrained;
+		}
+
+		return drained;
+	}
+
+	/**
+	 * Gets the elapsed time (milliseconds) for the drain.
+	 * @return
+	 */
+	public long getElapsedMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+	}
+
+	/**
+	 * Sets the elapsed time (nanoseconds) for the drain.
+	 * @param elapsedNanos
+	 */
+	public void setElapsedNanos(final long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Gets the drain rate (messages per second).
+	 * @return
+	 */
+	public double getRate() {
+		return elapsedNanos > 0 ? getDrained() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0;
+	}
+
+	/**
+	 * Gets the error that stopped the drain (null if it was completed).
+	 * @return
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Sets the error that stopped the drain (only the first one is kept).
+	 * @param error
+	 */
+	public synchronized void setError(final String error) {
+		if (this.error == null) {
+			this.error = error;
+		}
+	}
+}
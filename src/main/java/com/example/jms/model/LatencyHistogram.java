@@ -0,0 +1,76 @@
+package com.example.jms.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.HdrHistogram.ConcurrentHistogram;
+
+/**
+ * Concurrent histogram of latencies in microseconds (an HdrHistogram with 3 significant digits): the recording is
+ * wait-free and the memory doesn't grow with the number of values.
+ * @author Gabriel
+ *
+ */
+public class LatencyHistogram {
+
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private final ConcurrentHistogram histogram = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+	/**
+	 * Records a latency.
+	 * @param micros (the negative values are recorded as 0)
+	 */
+	public void record(final long micros) {
+		histogram.recordValue(Math.max(0, micros));
+	}
+
+	/**
+	 * Gets the number of recorded latencies.
+	 * @return
+	 */
+	public long getCount() {
+		return histogram.getTotalCount();
+	}
+
+	/**
+	 * Gets the mean latency (0 without latencies).
+	 * @return
+	 */
+	public double getMean() {
+		return histogram.getTotalCount() > 0 ? histogram.getMean() : 0;
+	}
+
+	/**
+	 * Gets the max latency.
+	 * @return
+	 */
+	public long getMax() {
+		return histogram.getMaxValue();
+	}
+
+	/**
+	 * Gets the latency at the given percentile (0 without latencies).
+	 * @param percentile from 0 to 100
+	 * @return
+	 */
+	public long getValueAtPercentile(final double percentile) {
+		return histogram.getValueAtPercentile(percentile);
+	}
+
+	/**
+	 * Gets the mean and the p50, p90, p99, p99.9 and max latencies.
+	 * @return
+	 */
+	public Map<String, Number> getPercentiles() {
+		Map<String, Number> percentiles = new LinkedHashMap<>();
+
+		percentiles.put("mean", Math.round(getMean()));
+		percentiles.put("p50", getValueAtPercentile(50));
+		percentiles.put("p90", getValueAtPercentile(90));
+		percentiles.put("p99", getValueAtPercentile(99));
+		percentiles.put("p99.9", getValueAtPercentile(99.9));
+		percentiles.put("max", getMax());
+		return percentiles;
+	}
+}
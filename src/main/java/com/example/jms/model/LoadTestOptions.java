@@ -0,0 +1,84 @@
+package com.example.jms.model;
+
+/**
+ * Options of a load test: when it stops (messages and/or duration), the target rate, the concurrency and the
+ * payload sizes. The null values use the configured defaults.
+ * @author Gabriel
+ *
+ */
+public class LoadTestOptions {
+
+	private final Long messages;
+	private final Long durationMillis;
+	private final Integer rate;
+	private final Integer concurrency;
+	private final Integer minPayloadSize;
+	private final Integer maxPayloadSize;
+
+	/**
+	 * Creates new load test options.
+	 * @param messages the number of messages to send (null to send until the duration)
+	 * @param durationMillis the max duration (null to send until the number of messages)
+	 * @param rate the target rate (messages per second for all the producers, 0 for the max rate)
+	 * @param concurrency the number of producers
+	 * @param minPayloadSize the min payload size in bytes
+	 * @param maxPayloadSize the max payload size in bytes (the sizes are uniformly distributed between min and max)
+	 */
+	public LoadTestOptions(final Long messages, final Long durationMillis, final Integer rate, final Integer concurrency,
+			final Integer minPayloadSize, final Integer maxPayloadSize) {
+		this.messages = messages;
+		this.durationMillis = durationMillis;
+		this.rate = rate;
+		this.concurrency = concurrency;
+		this.minPayloadSize = minPayloadSize;
+		this.maxPayloadSize = maxPayloadSize;
+	}
+
+	/**
+	 * Gets the number of messages to send.
+	 * @return
+	 */
+	public Long getMessages() {
+		return messages;
+	}
+
+	/**
+	 * Gets the max duration (milliseconds).
+	 * @return
+	 */
+	public Long getDurationMillis() {
+		return durationMillis;
+	}
+
+	/**
+	 * Gets the target rate (messages per second, 0 for the max rate).
+	 * @return
+	 */
+	public Integer getRate() {
+		return rate;
+	}
+
+	/**
+	 * Gets the number of producers.
+	 * @return
+	 */
+	public Integer getConcurrency() {
+		return concurrency;
+	}
+
+	/**
+	 * Gets the min payload size in bytes.
+	 * @return
+	 */
+	public Integer getMinPayloadSize() {
+		return minPayloadSize;
+	}
+
+	/**
+	 * Gets the max payload size in bytes.
+	 * @return
+	 */
+	public Integer getMaxPayloadSize() {
+		return maxPayloadSize;
+	}
+}
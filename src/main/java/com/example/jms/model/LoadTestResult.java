@@ -0,0 +1,239 @@
+package com.example.jms.model;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and report of a load test: the counters are updated while the messages are sent so a running test can
+ * be polled.
+ * @author Gabriel
+ *
+ */
+public class LoadTestResult {
+
+	/**
+	 * Status of a load test (REJECTED when too many tests were running to start it).
+	 */
+	public enum Status {
+		RUNNING, COMPLETED, CANCELLED, FAILED, REJECTED
+	}
+
+	private final String id;
+	private final String resource;
+	private final Long messages;
+	private final Long durationMillis;
+	private final int rate;
+	private final int concurrency;
+	private final int minPayloadSize;
+	private final int maxPayloadSize;
+	private final long startedAt = System.currentTimeMillis();
+	private final long startNanos = System.nanoTime();
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong bytes = new AtomicLong();
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private volatile Status status = Status.RUNNING;
+	private volatile long elapsedMillis = -1;
+	private volatile String error;
+
+	/**
+	 * Creates a new running load test.
+	 * @param id
+	 * @param resource
+	 * @param messages
+	 * @param durationMillis
+	 * @param rate
+	 * @param concurrency
+	 * @param minPayloadSize
+	 * @param maxPayloadSize
+	 */
+	public LoadTestResult(final String id, final String resource, final Long messages, final Long durationMillis,
+			final int rate, final int concurrency, final int minPayloadSize, final int maxPayloadSize) {
+		this.id = id;
+		this.resource = resource;
+		this.messages = messages;
+		this.durationMillis = durationMillis;
+		this.rate = rate;
+		this.concurrency = concurrency;
+		this.minPayloadSize = minPayloadSize;
+		this.maxPayloadSize = maxPayloadSize;
+	}
+
+	/**
+	 * Counts a sent message.
+	 * @param size the payload size in bytes
+	 * @param latencyMicros the send time
+	 */
+	public void addSent(final int size, final long latencyMicros) {
+		sent.incrementAndGet();
+		bytes.addAndGet(size);
+		latency.record(latencyMicros);
+	}
+
+	/**
+	 * Counts a failed send.
+	 */
+	public void addFailed() {
+		failed.incrementAndGet();
+	}
+
+	/**
+	 * Finishes the load test with the given status (only once).
+	 * @param status
+	 * @param error the error message or null
+	 */
+	public synchronized void finish(final Status status, final String error) {
+		if (this.status == Status.RUNNING) {
+			this.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+			this.error = error;
+			this.status = status;
+		}
+	}
+
+	/**
+	 * Gets the load test id.
+	 * @return
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Gets the number of messages to send (null to send until the duration).
+	 * @return
+	 */
+	public Long getMessages() {
+		return messages;
+	}
+
+	/**
+	 * Gets the max duration in milliseconds (null to send until the number of messages).
+	 * @return
+	 */
+	public Long getDurationMillis() {
+		return durationMillis;
+	}
+
+	/**
+	 * Gets the target rate (messages per second, 0 for the max rate).
+	 * @return
+	 */
+	public int getRate() {
+		return rate;
+	}
+
+	/**
+	 * Gets the number of producers.
+	 * @return
+	 */
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	/**
+	 * Gets the min payload size in bytes.
+	 * @return
+	 */
+	public int getMinPayloadSize() {
+		return minPayloadSize;
+	}
+
+	/**
+	 * Gets the max payload size in bytes.
+	 * @return
+	 */
+	public int getMaxPayloadSize() {
+		return maxPayloadSize;
+	}
+
+	/**
+	 * Gets when the load test started.
+	 * @return
+	 */
+	public long getStartedAt() {
+		return startedAt;
+	}
+
+	/**
+	 * Gets the status.
+	 * @return
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Gets the number of sent messages.
+	 * @return
+	 */
+	public long getSent() {
+		return sent.get();
+	}
+
+	/**
+	 * Gets the number of failed sends.
+	 * @return
+	 */
+	public long getFailed() {
+		return failed.get();
+	}
+
+	/**
+	 * Gets the sent payload bytes.
+	 * @return
+	 */
+	public long getBytes() {
+		return bytes.get();
+	}
+
+	/**
+	 * Gets the elapsed time (milliseconds) until now or until the load test finished.
+	 * @return
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis >= 0 ? elapsedMillis : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Gets the achieved rate (messages per second).
+	 * @return
+	 */
+	public double getMessagesPerSecond() {
+		long elapsed = getElapsedMillis();
+		return elapsed > 0 ? sent.get() * 1000d / elapsed : 0;
+	}
+
+	/**
+	 * Gets the achieved throughput (payload bytes per second).
+	 * @return
+	 */
+	public double getBytesPerSecond() {
+		long elapsed = getElapsedMillis();
+		return elapsed > 0 ? bytes.get() * 1000d / elapsed : 0;
+	}
+
+	/**
+	 * Gets the send latency percentiles in microseconds (p50, p90, p99, p99.9 and max) and the mean.
+	 * @return
+	 */
+	public Map<String, Number> getLatencyMicros() {
+		return latency.getPercentiles();
+	}
+
+	/**
+	 * Gets the error that stopped the load test (null if it didn't fail).
+	 * @return
+	 */
+	public String getError() {
+		return error;
+	}
+}
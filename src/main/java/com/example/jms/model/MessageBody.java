@@ -0,0 +1,307 @@
+package com.example.jms.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Enumeration;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Message;
+import javax.jms.MessageEOFException;
+import javax.jms.ObjectMessage;
+import javax.jms.TextMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Type aware view of the body of a browsed message.
+ * The body isn't read until it's needed: the bytes are copied in chunks to the output (raw or base64) and the
+ * map/object bodies are only rendered when they're written or their text is requested.
+ * @author Gabriel
+ *
+ */
+public class MessageBody {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MessageBody.class);
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	/**
+	 * Body type (OTHER for the messages without a readable body, like the stream messages).
+	 */
+	public enum Type {
+		TEXT, BYTES, MAP, OBJECT, OTHER
+	}
+
+	private final Message message;
+	private final Type type;
+	private String text;
+	private boolean rendered;
+
+	/**
+	 * Creates a new body view for the given message.
+	 * @param message
+	 */
+	public MessageBody(final Message message) {
+		this.message = message;
+		this.type = getType(message);
+	}
+
+	/**
+	 * Gets the body type of the given message.
+	 * @param message
+	 * @return
+	 */
+	public static Type getType(final Message message) {
+		if (message instanceof TextMessage) {
+			return Type.TEXT;
+		} else if (message instanceof BytesMessage) {
+			return Type.BYTES;
+		} else if (message instanceof MapMessage) {
+			return Type.MAP;
+		} else if (message instanceof ObjectMessage) {
+			return Type.OBJECT;
+		}
+
+		return Type.OTHER;
+	}
+
+	/**
+	 * Gets the body type.
+	 * @return
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the body as text: the text, the base64 bytes, the JSON map or the object's toString
+	 * (null for the other messages or an object that can't be read).
+	 * @return
+	 * @throws JMSException
+	 */
+	public String getText() throws JMSException {
+		if (!rendered) {
+			text = render();
+			rendered = true;
+		}
+
+		return text;
+	}
+
+	/**
+	 * Gets the body size in bytes without rendering the body: the bytes length, the UTF-8 size of the text or, for
+	 * the map and object bodies, the UTF-8 size of their text if it was already requested.
+	 * @return the size or null for a map or object body not rendered yet
+	 * @throws JMSException
+	 */
+	public Integer getSize() throws JMSException {
+		switch (type) {
+		case BYTES:
+			return (int) ((BytesMessage) message).getBodyLength();
+		case MAP:
+		case OBJECT:
+			return rendered ? BrowsedMessage.getSize(text) : null;
+		default:
+			return BrowsedMessage.getSize(getText());
+		}
+	}
+
+	/**
+	 * Gets the content type of the raw body.
+	 * @return
+	 */
+	public String getContentType() {
+		switch (type) {
+		case BYTES:
+			return "application/octet-stream";
+		case MAP:
+			return "application/json;charset=UTF-8";
+		default:
+			return "text/plain;charset=UTF-8";
+		}
+	}
+
+	/**
+	 * Writes the body as a JSON value: a string for the text and the object, base64 for the bytes and an object
+	 * for the map. The bytes and the map entries are written as they are read.
+	 * @param generator
+	 * @throws JMSException
+	 * @throws IOException
+	 */
+	public void writeTo(final JsonGenerator generator) throws JMSException, IOException {
+		switch (type) {
+		case BYTES:
+			BytesMessage bytesMessage = (BytesMessage) message;
+			generator.writeBinary(getInputStream(), (int) bytesMessage.getBodyLength());
+			break;
+		case MAP:
+			writeMap(generator, (MapMessage) message);
+			break;
+		default:
+			generator.writeString(getText());
+		}
+	}
+
+	/**
+	 * Writes the raw body (the bytes as they are and the text, JSON map and object as UTF-8).
+	 * @param outputStream
+	 * @throws JMSException
+	 * @throws IOException
+	 */
+	public void writeTo(final OutputStream outputStream) throws JMSException, IOException {
+		switch (type) {
+		case BYTES:
+			InputStream inputStream = getInputStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+
+			while ((read = inputStream.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, read);
+			}
+			break;
+		case MAP:
+			JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8);
+			writeMap(generator, (MapMessage) message);
+			generator.flush(); // not closed: the output stream belongs to the caller
+			break;
+		default:
+			String bodyText = getText();
+
+			if (bodyText != null) {
+				outputStream.write(bodyText.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+
+		outputStream.flush();
+	}
+
+	/**
+	 * Gets a stream over the bytes of a bytes message (read in chunks from the message).
+	 * @return
+	 * @throws JMSException
+	 */
+	private InputStream getInputStream() throws JMSException {
+		BytesMessage bytesMessage = (BytesMessage) message;
+		bytesMessage.reset(); // from the first byte
+
+		return new InputStream() {
+			@Override
+			public int read() throws IOException {
+				try {
+					return bytesMessage.readUnsignedByte();
+				} catch (MessageEOFException e) {
+					return -1;
+				} catch (JMSException e) {
+					throw new IOException(e);
+				}
+			}
+
+			@Override
+			public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+				try {
+					if (offset == 0) {
+						return bytesMessage.readBytes(buffer, length);
+					}
+
+					byte[] chunk = new byte[length];
+					int read = bytesMessage.readBytes(chunk, length);
+
+					if (read > 0) {
+						System.arraycopy(chunk, 0, buffer, offset, read);
+					}
+
+					return read;
+				} catch (JMSException e) {
+					throw new IOException(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Renders the body as text.
+	 * @return
+	 * @throws JMSException
+	 */
+	private String render() throws JMSException {
+		switch (type) {
+		case TEXT:
+			return ((TextMessage) message).getText();
+		case BYTES:
+			BytesMessage bytesMessage = (BytesMessage) message;
+			byte[] bytes = new byte[(int) bytesMessage.getBodyLength()];
+			bytesMessage.reset();
+			bytesMessage.readBytes(bytes);
+			return Base64.getEncoder().encodeToString(bytes);
+		case MAP:
+			StringWriter writer = new StringWriter();
+
+			try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+				writeMap(generator, (MapMessage) message);
+			} catch (IOException e) {
+				throw new IllegalStateException(e); // not thrown by the string writer
+			}
+
+			return writer.toString();
+		case OBJECT:
+			try {
+				return String.valueOf(((ObjectMessage) message).getObject());
+			} catch (JMSException e) {
+				// not trusted or unknown class: the other messages are browsed
+				LOGGER.warn("render - object body can't be read : {}", e.getMessage());
+				return null;
+			}
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the entries of the given map message as a JSON object.
+	 * @param generator
+	 * @param mapMessage
+	 * @throws JMSException
+	 * @throws IOException
+	 */
+	private static void writeMap(final JsonGenerator generator, final MapMessage mapMessage) throws JMSException, IOException {
+		generator.writeStartObject();
+
+		@SuppressWarnings("unchecked")
+		Enumeration<String> names = mapMessage.getMapNames();
+
+		while (names.hasMoreElements()) {
+			String name = names.nextElement();
+			Object value = mapMessage.getObject(name);
+
+			generator.writeFieldName(name);
+
+			if (value == null) {
+				generator.writeNull();
+			} else if (value instanceof byte[]) {
+				generator.writeBinary((byte[]) value);
+			} else if (value instanceof Boolean) {
+				generator.writeBoolean((Boolean) value);
+			} else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+				generator.writeNumber(((Number) value).longValue());
+			} else if (value instanceof Number) {
+				generator.writeNumber(((Number) value).doubleValue());
+			} else {
+				generator.writeString(value.toString());
+			}
+		}
+
+		generator.writeEndObject();
+	}
+}
@@ -0,0 +1,33 @@
+package com.example.jms.model;
+
+import javax.jms.Message;
+
+/**
+ * Receives the browsed messages one by one (so they don't need to be kept in memory).
+ * @author Gabriel
+ *
+ */
+@FunctionalInterface
+public interface MessageHandler {
+
+	/**
+	 * Handles a browsed message.
+	 * @param number the message position (starting at 1)
+	 * @param text the message text
+	 * @return true to continue browsing or false to stop
+	 * @throws Exception
+	 */
+	boolean handle(int number, String text) throws Exception;
+
+	/**
+	 * Handles a browsed message with its headers and body (by default only the body rendered as text is handled,
+	 * see MessageBody).
+	 * @param number the message position (starting at 1)
+	 * @param message the browsed message
+	 * @return true to continue browsing or false to stop
+	 * @throws Exception
+	 */
+	default boolean handle(final int number, final Message message) throws Exception {
+		return handle(number, new MessageBody(message).getText());
+	}
+}
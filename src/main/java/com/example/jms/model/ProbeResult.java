@@ -0,0 +1,195 @@
+package com.example.jms.model;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Report of a latency probe (or of a window of a continuous probe): the probe messages sent, received and lost
+ * (not received before the probe timeout) and the produce to consume latency percentiles.
+ * @author Gabriel
+ *
+ */
+public class ProbeResult {
+
+	private final String id;
+	private final String resource;
+	private final Long sloLatencyMicros;
+	private final long startedAt = System.currentTimeMillis();
+	private final long startNanos = System.nanoTime();
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong received = new AtomicLong();
+	private final AtomicLong lost = new AtomicLong();
+	private final AtomicLong duplicates = new AtomicLong();
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private volatile long elapsedMillis = -1;
+	private volatile String error;
+
+	/**
+	 * Creates a new running probe result.
+	 * @param id
+	 * @param resource
+	 * @param sloLatencyMicros the max p99 latency of the SLO (null without SLO)
+	 */
+	public ProbeResult(final String id, final String resource, final Long sloLatencyMicros) {
+		this.id = id;
+		this.resource = resource;
+		this.sloLatencyMicros = sloLatencyMicros;
+	}
+
+	/**
+	 * Counts a sent probe message.
+	 */
+	public void addSent() {
+		sent.incrementAndGet();
+	}
+
+	/**
+	 * Counts a received probe message.
+	 * @param latencyMicros the produce to consume time
+	 */
+	public void addReceived(final long latencyMicros) {
+		received.incrementAndGet();
+		latency.record(latencyMicros);
+	}
+
+	/**
+	 * Counts probe messages not received before the timeout.
+	 * @param lostMessages
+	 */
+	public void addLost(final int lostMessages) {
+		lost.addAndGet(lostMessages);
+	}
+
+	/**
+	 * Counts a probe message received again or after the timeout.
+	 */
+	public void addDuplicate() {
+		duplicates.incrementAndGet();
+	}
+
+	/**
+	 * Marks the probe as finished.
+	 */
+	public void finish() {
+		if (elapsedMillis < 0) {
+			elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+		}
+	}
+
+	/**
+	 * Gets the probe id.
+	 * @return
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Gets when the probe started.
+	 * @return
+	 */
+	public long getStartedAt() {
+		return startedAt;
+	}
+
+	/**
+	 * Gets the number of sent probe messages.
+	 * @return
+	 */
+	public long getSent() {
+		return sent.get();
+	}
+
+	/**
+	 * Gets the number of received probe messages.
+	 * @return
+	 */
+	public long getReceived() {
+		return received.get();
+	}
+
+	/**
+	 * Gets the number of probe messages not received before the timeout.
+	 * @return
+	 */
+	public long getLost() {
+		return lost.get();
+	}
+
+	/**
+	 * Gets the number of probe messages received again or after the timeout (not in the latencies).
+	 * @return
+	 */
+	public long getDuplicates() {
+		return duplicates.get();
+	}
+
+	/**
+	 * Checks if the probe is running.
+	 * @return
+	 */
+	public boolean isRunning() {
+		return elapsedMillis < 0;
+	}
+
+	/**
+	 * Gets the elapsed time (milliseconds) until now or until the probe finished.
+	 * @return
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis >= 0 ? elapsedMillis : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Gets the produce to consume latency percentiles in microseconds (p50, p90, p99, p99.9 and max) and the mean.
+	 * @return
+	 */
+	public Map<String, Number> getLatencyMicros() {
+		return latency.getPercentiles();
+	}
+
+	/**
+	 * Gets the max p99 latency of the SLO in microseconds.
+	 * @return
+	 */
+	public Long getSloLatencyMicros() {
+		return sloLatencyMicros;
+	}
+
+	/**
+	 * Checks if the probe met the SLO: messages received, none lost and the p99 latency within the SLO latency.
+	 * @return the check or null without SLO
+	 */
+	public Boolean getSloMet() {
+		if (sloLatencyMicros == null) {
+			return null;
+		}
+
+		return error == null && received.get() > 0 && lost.get() == 0 && latency.getValueAtPercentile(99) <= sloLatencyMicros;
+	}
+
+	/**
+	 * Gets the error that stopped the probe (null if it didn't fail).
+	 * @return
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Sets the error that stopped the probe.
+	 * @param error
+	 */
+	public void setError(final String error) {
+		this.error = error;
+	}
+}
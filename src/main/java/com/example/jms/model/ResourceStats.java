@@ -0,0 +1,166 @@
+package com.example.jms.model;
+
+/**
+ * Counters of a resource (without reading its messages): depth, enqueued, dequeued, consumers and producers.
+ * The counters that the source doesn't provide are null.
+ * @author Gabriel
+ *
+ */
+public class ResourceStats {
+
+	/**
+	 * Where the counters come from: the ActiveMQ statistics plugin, the broker JMX MBean, a browse of the
+	 * message headers (only the depth of the queues) or none (not available).
+	 */
+	public enum Source {
+		STATISTICS, JMX, BROWSE, NONE
+	}
+
+	private final String resource;
+	private final String type;
+	private Source source = Source.NONE;
+	private Long depth;
+	private Long enqueueCount;
+	private Long dequeueCount;
+	private Long consumerCount;
+	private Long producerCount;
+	private String error;
+
+	/**
+	 * Creates new empty stats.
+	 * @param resource
+	 * @param type the resource type (Q or T)
+	 */
+	public ResourceStats(final String resource, final String type) {
+		this.resource = resource;
+		this.type = type;
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Gets the resource type (Q or T).
+	 * @return
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the source of the counters.
+	 * @return
+	 */
+	public Source getSource() {
+		return source;
+	}
+
+	/**
+	 * Sets the source of the counters.
+	 * @param source
+	 */
+	public void setSource(final Source source) {
+		this.source = source;
+	}
+
+	/**
+	 * Gets the number of pending messages.
+	 * @return
+	 */
+	public Long getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Sets the number of pending messages.
+	 * @param depth
+	 */
+	public void setDepth(final Long depth) {
+		this.depth = depth;
+	}
+
+	/**
+	 * Gets the number of messages sent to the resource (since the broker started).
+	 * @return
+	 */
+	public Long getEnqueueCount() {
+		return enqueueCount;
+	}
+
+	/**
+	 * Sets the number of messages sent to the resource.
+	 * @param enqueueCount
+	 */
+	public void setEnqueueCount(final Long enqueueCount) {
+		this.enqueueCount = enqueueCount;
+	}
+
+	/**
+	 * Gets the number of messages consumed from the resource (since the broker started).
+	 * @return
+	 */
+	public Long getDequeueCount() {
+		return dequeueCount;
+	}
+
+	/**
+	 * Sets the number of messages consumed from the resource.
+	 * @param dequeueCount
+	 */
+	public void setDequeueCount(final Long dequeueCount) {
+		this.dequeueCount = dequeueCount;
+	}
+
+	/**
+	 * Gets the number of consumers.
+	 * @return
+	 */
+	public Long getConsumerCount() {
+		return consumerCount;
+	}
+
+	/**
+	 * Sets the number of consumers.
+	 * @param consumerCount
+	 */
+	public void setConsumerCount(final Long consumerCount) {
+		this.consumerCount = consumerCount;
+	}
+
+	/**
+	 * Gets the number of producers.
+	 * @return
+	 */
+	public Long getProducerCount() {
+		return producerCount;
+	}
+
+	/**
+	 * Sets the number of producers.
+	 * @param producerCount
+	 */
+	public void setProducerCount(final Long producerCount) {
+		this.producerCount = producerCount;
+	}
+
+	/**
+	 * Gets the error (null if the stats were read).
+	 * @return
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Sets the error.
+	 * @param error
+	 */
+	public void setError(final String error) {
+		this.error = error;
+	}
+}
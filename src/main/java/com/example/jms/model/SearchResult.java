@@ -0,0 +1,126 @@
+package com.example.jms.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The messages of a resource matching a search query (in the browse order).
+ * @author Gabriel
+ *
+ */
+public class SearchResult {
+
+	private final String resource;
+	private final String query;
+	private final List<BrowsedMessage> messages = new ArrayList<>();
+	private int count;
+	private int indexedMessages;
+	private long indexedAt;
+	private String error;
+
+	/**
+	 * Creates a new empty search result.
+	 * @param resource
+	 * @param query
+	 */
+	public SearchResult(final String resource, final String query) {
+		this.resource = resource;
+		this.query = query;
+	}
+
+	/**
+	 * Adds a matching message.
+	 * @param message
+	 */
+	public void addMessage(final BrowsedMessage message) {
+		messages.add(message);
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Gets the search query.
+	 * @return
+	 */
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * Gets the matching messages (up to the requested limit).
+	 * @return
+	 */
+	public List<BrowsedMessage> getMessages() {
+		return messages;
+	}
+
+	/**
+	 * Gets the total number of matching messages.
+	 * @return
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Sets the total number of matching messages.
+	 * @param count
+	 */
+	public void setCount(final int count) {
+		this.count = count;
+	}
+
+	/**
+	 * Gets the number of messages in the index.
+	 * @return
+	 */
+	public int getIndexedMessages() {
+		return indexedMessages;
+	}
+
+	/**
+	 * Sets the number of messages in the index.
+	 * @param indexedMessages
+	 */
+	public void setIndexedMessages(final int indexedMessages) {
+		this.indexedMessages = indexedMessages;
+	}
+
+	/**
+	 * Gets when the index was refreshed (ms since the epoch, 0 if it wasn't built).
+	 * @return
+	 */
+	public long getIndexedAt() {
+		return indexedAt;
+	}
+
+	/**
+	 * Sets when the index was refreshed.
+	 * @param indexedAt
+	 */
+	public void setIndexedAt(final long indexedAt) {
+		this.indexedAt = indexedAt;
+	}
+
+	/**
+	 * Gets the error (null if the search was done).
+	 * @return
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Sets the error.
+	 * @param error
+	 */
+	public void setError(final String error) {
+		this.error = error;
+	}
+}
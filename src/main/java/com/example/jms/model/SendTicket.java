@@ -0,0 +1,101 @@
+package com.example.jms.model;
+
+/**
+ * Ticket of an asynchronous send: the status can be polled until the message is sent or fails.
+ * @author Gabriel
+ *
+ */
+public class SendTicket {
+
+	/**
+	 * Status of an asynchronous send.
+	 */
+	public enum Status {
+		PENDING, SENT, FAILED, REJECTED
+	}
+
+	private final String id;
+	private final String resource;
+	private final long createdMillis;
+	private volatile Status status = Status.PENDING;
+	private volatile long completedMillis;
+	private volatile String error;
+
+	/**
+	 * Creates a new pending ticket.
+	 * @param id
+	 * @param resource
+	 */
+	public SendTicket(final String id, final String resource) {
+		this.id = id;
+		this.resource = resource;
+		this.createdMillis = System.currentTimeMillis();
+	}
+
+	/**
+	 * Completes the ticket with the given status.
+	 * @param status
+	 * @param error the error message or null
+	 */
+	public void complete(final Status status, final String error) {
+		this.error = error;
+		this.completedMillis = System.currentTimeMillis();
+		this.status = status;
+	}
+
+	/**
+	 * Gets the ticket id.
+	 * @return
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Gets the status.
+	 * @return
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Checks if the send was completed (sent, failed or rejected).
+	 * @return
+	 */
+	public boolean isCompleted() {
+		return status != Status.PENDING;
+	}
+
+	/**
+	 * Gets the creation time (epoch milliseconds).
+	 * @return
+	 */
+	public long getCreatedMillis() {
+		return createdMillis;
+	}
+
+	/**
+	 * Gets the completion time (epoch milliseconds) or 0 if the send is pending.
+	 * @return
+	 */
+	public long getCompletedMillis() {
+		return completedMillis;
+	}
+
+	/**
+	 * Gets the error message (null if the message was sent or is pending).
+	 * @return
+	 */
+	public String getError() {
+		return error;
+	}
+}
@@ -0,0 +1,204 @@
+package com.example.jms.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and result of a stream send: the counters are updated while the records are read and sent so the
+ * running sends can be reported.
+ * @author Gabriel
+ *
+ */
+public class StreamSendResult {
+
+	private final String id;
+	private final String resource;
+	private final int commitInterval;
+	private final int producers;
+	private final long startedAt = System.currentTimeMillis();
+	private final long startNanos = System.nanoTime();
+	private final AtomicLong read = new AtomicLong();
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicInteger batches = new AtomicInteger();
+	private volatile long elapsedMillis = -1;
+	private volatile String error;
+	private volatile boolean rejected;
+
+	/**
+	 * Creates a new stream send result.
+	 * @param id
+	 * @param resource
+	 * @param commitInterval
+	 * @param producers
+	 */
+	public StreamSendResult(final String id, final String resource, final int commitInterval, final int producers) {
+		this.id = id;
+		this.resource = resource;
+		this.commitInterval = commitInterval;
+		this.producers = producers;
+	}
+
+	/**
+	 * Counts a read record.
+	 */
+	public void addRead() {
+		read.incrementAndGet();
+	}
+
+	/**
+	 * Counts a sent batch.
+	 * @param sentMessages the sent (and committed) messages
+	 * @param failedMessages the not sent (or rolled back) messages
+	 */
+	public void addBatch(final int sentMessages, final int failedMessages) {
+		batches.incrementAndGet();
+		sent.addAndGet(sentMessages);
+		failed.addAndGet(failedMessages);
+	}
+
+	/**
+	 * Counts not sent records.
+	 * @param failedMessages
+	 */
+	public void addFailed(final int failedMessages) {
+		failed.addAndGet(failedMessages);
+	}
+
+	/**
+	 * Marks the send as finished.
+	 */
+	public void finish() {
+		elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Gets the send id.
+	 * @return
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Gets the number of messages sent per commit.
+	 * @return
+	 */
+	public int getCommitInterval() {
+		return commitInterval;
+	}
+
+	/**
+	 * Gets the number of parallel producers.
+	 * @return
+	 */
+	public int getProducers() {
+		return producers;
+	}
+
+	/**
+	 * Gets when the send started.
+	 * @return
+	 */
+	public long getStartedAt() {
+		return startedAt;
+	}
+
+	/**
+	 * Gets the number of read records (the empty lines aren't records).
+	 * @return
+	 */
+	public long getRead() {
+		return read.get();
+	}
+
+	/**
+	 * Gets the number of sent (and committed) messages.
+	 * @return
+	 */
+	public long getSent() {
+		return sent.get();
+	}
+
+	/**
+	 * Gets the number of not sent (or rolled back) records.
+	 * @return
+	 */
+	public long getFailed() {
+		return failed.get();
+	}
+
+	/**
+	 * Gets the number of sent batches.
+	 * @return
+	 */
+	public int getBatches() {
+		return batches.get();
+	}
+
+	/**
+	 * Checks if the send is running.
+	 * @return
+	 */
+	public boolean isRunning() {
+		return elapsedMillis < 0;
+	}
+
+	/**
+	 * Gets the elapsed time (milliseconds) until now or until the send finished.
+	 * @return
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis >= 0 ? elapsedMillis : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Gets the send rate (messages per second).
+	 * @return
+	 */
+	public double getRate() {
+		long elapsed = getElapsedMillis();
+		return elapsed > 0 ? sent.get() * 1000d / elapsed : 0;
+	}
+
+	/**
+	 * Gets the error that stopped the send (null if all the records were sent).
+	 * @return
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Sets the error that stopped the send.
+	 * @param error
+	 */
+	public void setError(final String error) {
+		this.error = error;
+	}
+
+	/**
+	 * Checks if the send was rejected because too many sends were running.
+	 * @return
+	 */
+	public boolean isRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Sets if the send was rejected because too many sends were running.
+	 * @param rejected
+	 */
+	public void setRejected(final boolean rejected) {
+		this.rejected = rejected;
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.jms.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Readiness of the topic subscribers created by the application: bootstrap state by topic.
+ * @author Gabriel
+ *
+ */
+public class SubscribersHealth {
+
+	/**
+	 * Overall status: UP when no bootstrap is running or failed.
+	 */
+	public enum Status {
+		UP, STARTING, DOWN
+	}
+
+	/**
+	 * Bootstrap state of the subscribers of a topic (PENDING until the first topic operation with the lazy bootstrap).
+	 */
+	public enum State {
+		PENDING, STARTING, READY, FAILED
+	}
+
+	private final Map<String, State> topics = new LinkedHashMap<>();
+
+	/**
+	 * Sets the bootstrap state of the subscribers of the given topic.
+	 * @param topicCode
+	 * @param state
+	 */
+	public void setState(final String topicCode, final State state) {
+		topics.put(topicCode, state);
+	}
+
+	/**
+	 * Gets the bootstrap state by topic.
+	 * @return
+	 */
+	public Map<String, State> getTopics() {
+		return topics;
+	}
+
+	/**
+	 * Gets the overall status: DOWN if a bootstrap failed, STARTING if a bootstrap is running or UP.
+	 * @return
+	 */
+	public Status getStatus() {
+		if (topics.containsValue(State.FAILED)) {
+			return Status.DOWN;
+		}
+
+		return topics.containsValue(State.STARTING) ? Status.STARTING : Status.UP;
+	}
+
+	/**
+	 * Checks if the subscribers are ready (status UP).
+	 * @return
+	 */
+	public boolean isReady() {
+		return getStatus() == Status.UP;
+	}
+}
@@ -0,0 +1,216 @@
+package com.example.jms.service.common;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.SendTicket;
+
+/**
+ * Services for the asynchronous send actions.
+ * The messages are sent by a dedicated sender executor so the request threads don't wait for the broker.
+ * The number of in-flight sends is bounded: when the window is full the send is rejected right away so the
+ * request thread never waits for a free slot (backpressure).
+ * The completed tickets are kept to be polled for the ticket retention, and at most the max tickets of them (the
+ * oldest ones are removed first), so a burst of sends doesn't grow the registry without bound.
+ * @author Gabriel
+ *
+ */
+@Service
+public class AsyncSendService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AsyncSendService.class);
+
+	@Value("${com.exmaple.jms.send.async.senderThreads:4}")
+	private int senderThreads = 4;
+
+	@Value("${com.exmaple.jms.send.async.maxInFlight:1000}")
+	private int maxInFlight = 1000;
+
+	@Value("${com.exmaple.jms.send.async.shutdownTimeout:1000}")
+	private long shutdownTimeout = 1000;
+
+	@Value("${com.exmaple.jms.send.async.ticketRetention:300000}")
+	private long ticketRetention = 300000;
+
+	@Value("${com.exmaple.jms.send.async.maxTickets:10000}")
+	private int maxTickets = 10000;
+
+	private final ConcurrentMap<String, SendTicket> tickets = new ConcurrentHashMap<>();
+	private final Queue<SendTicket> completedTickets = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger completedCount = new AtomicInteger();
+
+	private Semaphore inFlight;
+	private ExecutorService senderExecutor;
+
+	@Autowired
+	SendService sendService;
+
+	/**
+	 * Creates the sender executor and the in-flight window.
+	 */
+	@PostConstruct
+	public void start() {
+		AtomicInteger threadNumber = new AtomicInteger();
+
+		inFlight = new Semaphore(maxInFlight);
+		senderExecutor = Executors.newFixedThreadPool(senderThreads, runnable -> {
+			Thread thread = new Thread(runnable, "async-sender-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Stops the sender executor (the pending sends are completed before).
+	 */
+	@PreDestroy
+	public void stop() {
+		if (senderExecutor == null) {
+			return;
+		}
+
+		senderExecutor.shutdown();
+
+		try {
+			if (!senderExecutor.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
+				senderExecutor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			senderExecutor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Queues the given message to be sent to the given resource code and returns its ticket.
+	 * @param resourceCode
+	 * @param message
+	 * @return the ticket (with status REJECTED if the in-flight window is full or FAILED if the resource isn't configured)
+	 */
+	public SendTicket sendMessageTo(final String resourceCode, final String message) {
+		LOGGER.info("sendMessageTo - init");
+
+		removeExpiredTickets();
+
+		SendTicket ticket = new SendTicket(UUID.randomUUID().toString(), resourceCode);
+
+		try {
+			if (ResourcesEnum.getResourceByCode(resourceCode) == null) {
+				ticket.complete(SendTicket.Status.FAILED, "Not configured resource : " + resourceCode);
+				return ticket;
+			}
+
+			if (!inFlight.tryAcquire()) {
+				LOGGER.warn("sendMessageTo - in-flight window full, rejecting send to : {}", resourceCode);
+				ticket.complete(SendTicket.Status.REJECTED, "Too many in-flight sends");
+				return ticket;
+			}
+
+			registerTicket(ticket);
+
+			try {
+				senderExecutor.execute(() -> send(ticket, message));
+			} catch (RuntimeException e) {
+				inFlight.release();
+				complete(ticket, SendTicket.Status.REJECTED, e.getMessage());
+			}
+
+			return ticket;
+		} finally {
+			LOGGER.info("sendMessageTo - end");
+		}
+	}
+
+	/**
+	 * Gets the ticket for the given id.
+	 * @param ticketId
+	 * @return the ticket or null if it doesn't exist (or it expired)
+	 */
+	public SendTicket getTicket(final String ticketId) {
+		removeExpiredTickets();
+
+		return ticketId != null ? tickets.get(ticketId) : null;
+	}
+
+	/**
+	 * Gets the number of in-flight (queued or sending) messages.
+	 * @return
+	 */
+	public int getInFlight() {
+		return inFlight != null ? maxInFlight - inFlight.availablePermits() : 0;
+	}
+
+	/**
+	 * Sends the message of the given ticket and releases its in-flight slot.
+	 * @param ticket
+	 * @param message
+	 */
+	private void send(final SendTicket ticket, final String message) {
+		try {
+			boolean sent = sendService.sendMessageTo(ticket.getResource(), message);
+			complete(ticket, sent ? SendTicket.Status.SENT : SendTicket.Status.FAILED,
+					sent ? null : "Error sending the message");
+		} catch (Exception e) {
+			LOGGER.error("ERROR : ", e);
+			complete(ticket, SendTicket.Status.FAILED, e.getMessage());
+		} finally {
+			inFlight.release();
+		}
+	}
+
+	/**
+	 * Registers the given ticket to be polled.
+	 * @param ticket
+	 */
+	private void registerTicket(final SendTicket ticket) {
+		tickets.put(ticket.getId(), ticket);
+	}
+
+	/**
+	 * Completes the given ticket and queues it to expire (removing the oldest tickets over the max tickets).
+	 * @param ticket
+	 * @param status
+	 * @param error
+	 */
+	private void complete(final SendTicket ticket, final SendTicket.Status status, final String error) {
+		ticket.complete(status, error);
+		completedTickets.offer(ticket);
+		completedCount.incrementAndGet();
+		removeExpiredTickets();
+	}
+
+	/**
+	 * Removes the completed tickets older than the ticket retention or over the max tickets (in completion order).
+	 */
+	private void removeExpiredTickets() {
+		long expiration = System.currentTimeMillis() - ticketRetention;
+		SendTicket ticket = completedTickets.peek();
+
+		while (ticket != null && (completedCount.get() > maxTickets || ticket.getCompletedMillis() < expiration)) {
+			if (completedTickets.remove(ticket)) {
+				completedCount.decrementAndGet();
+				tickets.remove(ticket.getId());
+			}
+
+			ticket = completedTickets.peek();
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package com.example.jms.service.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.jms.model.BrowseResult;
+
+/**
+ * Cache of the browse snapshots by resource (and selector).
+ * The snapshots are kept for the configured TTL (up to the configured number of snapshots, LRU) and the concurrent
+ * requests for a resource share one browse: the first one loads it and the others wait for its result.
+ * The snapshots of a resource are invalidated when the application sends or purges its messages.
+ * @author Gabriel
+ *
+ */
+@Service
+public class BrowseCacheService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BrowseCacheService.class);
+
+	private static final char KEY_SEPARATOR = '\u0000';
+
+	@Value("${com.exmaple.jms.browse.cacheTtl:1000}")
+	private long cacheTtl = 1000;
+
+	@Value("${com.exmaple.jms.browse.cacheSize:64}")
+	private int cacheSize = 64;
+
+	// resource + selector -> snapshot, in access order (the first one is the least recently used)
+	private final Map<String, Snapshot> snapshots = new LinkedHashMap<String, Snapshot>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, Snapshot> eldest) {
+			return size() > cacheSize;
+		}
+	};
+
+	/**
+	 * A browse snapshot (loading until its result is completed).
+	 */
+	private static class Snapshot {
+		private final CompletableFuture<BrowseResult> result = new CompletableFuture<>();
+		private volatile long loadedAt;
+	}
+
+	/**
+	 * Gets the browse snapshot of the given resource and selector, loading it with the given loader if it isn't
+	 * cached or it expired (the concurrent requests wait for the same load).
+	 * The results with an error aren't cached.
+	 * @param resourceCode
+	 * @param selector the normalized selector or null
+	 * @param loader browses the resource
+	 * @return
+	 */
+	public BrowseResult get(final String resourceCode, final String selector, final Supplier<BrowseResult> loader) {
+		if (cacheTtl <= 0) {
+			return loader.get();
+		}
+
+		String key = getKey(resourceCode, selector);
+		Snapshot snapshot;
+		boolean load = false;
+
+		synchronized (snapshots) {
+			snapshot = snapshots.get(key);
+
+			if (snapshot == null || isExpired(snapshot)) {
+				snapshot = new Snapshot();
+				snapshots.put(key, snapshot);
+				load = true;
+			}
+		}
+
+		if (load) {
+			load(resourceCode, key, snapshot, loader);
+		} else {
+			LOGGER.debug("get - cached browse of : {}", key);
+		}
+
+		return snapshot.result.join();
+	}
+
+	/**
+	 * Invalidates the snapshots of the given resource (the browses in progress aren't cached).
+	 * @param resourceCode
+	 */
+	public void invalidate(final String resourceCode) {
+		String prefix = getKey(resourceCode, null);
+
+		synchronized (snapshots) {
+			snapshots.keySet().removeIf(key -> key.startsWith(prefix));
+		}
+
+		LOGGER.debug("invalidate - browse snapshots of : {}", resourceCode);
+	}
+
+	/**
+	 * Invalidates all the snapshots.
+	 */
+	public void clear() {
+		synchronized (snapshots) {
+			snapshots.clear();
+		}
+	}
+
+	/**
+	 * Gets the number of cached snapshots (loading or loaded).
+	 * @return
+	 */
+	public int getSize() {
+		synchronized (snapshots) {
+			return snapshots.size();
+		}
+	}
+
+	/**
+	 * Loads the given snapshot (removed from the cache if the browse failed).
+	 * @param resourceCode
+	 * @param key
+	 * @param snapshot
+	 * @param loader
+	 */
+	private void load(final String resourceCode, final String key, final Snapshot snapshot, final Supplier<BrowseResult> loader) {
+		BrowseResult result;
+
+		try {
+			result = loader.get();
+		} catch (Exception e) {
+			LOGGER.error("ERROR : ", e);
+			result = new BrowseResult(resourceCode);
+			result.setError("Browse failed : " + resourceCode);
+		}
+
+		if (result == null || result.getError() != null) {
+			synchronized (snapshots) {
+				snapshots.remove(key, snapshot);
+			}
+		}
+
+		snapshot.loadedAt = System.currentTimeMillis();
+		snapshot.result.complete(result);
+	}
+
+	/**
+	 * Checks if the given snapshot is loaded and older than the TTL.
+	 * @param snapshot
+	 * @return
+	 */
+	private boolean isExpired(final Snapshot snapshot) {
+		return snapshot.loadedAt > 0 && System.currentTimeMillis() - snapshot.loadedAt >= cacheTtl;
+	}
+
+	/**
+	 * Gets the cache key of the given resource and selector.
+	 * @param resourceCode
+	 * @param selector
+	 * @return
+	 */
+	private static String getKey(final String resourceCode, final String selector) {
+		return resourceCode + KEY_SEPARATOR + (selector != null ? selector : "");
+	}
+}
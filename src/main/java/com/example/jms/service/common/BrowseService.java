@@ -1,15 +1,21 @@
 package com.example.jms.service.common;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.jms.Message;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.BrowsePage;
+import com.example.jms.model.BrowseResult;
+import com.example.jms.model.MessageHandler;
 import com.example.jms.service.queue.QueueService;
+import com.example.jms.service.topic.ShadowSubscriberService;
 import com.example.jms.service.topic.TopicService;
 
 /**
@@ -21,35 +27,205 @@ import com.example.jms.service.topic.TopicService;
 public class BrowseService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(BrowseService.class);
+
+	@Value("${com.exmaple.jms.browse.maxPageSize:1000}")
+	private int maxPageSize = 1000;
 	
 	@Autowired
 	QueueService queueService;
 	
 	@Autowired
 	TopicService topicService;
+
+	@Autowired
+	BrowseCacheService browseCacheService;
+
+	@Autowired
+	ShadowSubscriberService shadowSubscriberService;
 	
 	/**
 	 * Gets the messages for the given resource.
 	 * @param resourceCode
 	 * @return
 	 */
-	public Map<String, String> getMessagesFrom(final String resourceCode) {
+	public BrowseResult getMessagesFrom(final String resourceCode) {
+		return getMessagesFrom(resourceCode, null);
+	}
+
+	/**
+	 * Gets the messages matching the given selector for the given resource.
+	 * The selectors are only supported for the queues: a durable subscription can't change its selector without
+	 * losing its messages. The concurrent and repeated browses of a resource share a cached snapshot
+	 * (see BrowseCacheService). With the shadow subscribers the topics are browsed from their buffers without
+	 * consuming the messages (see ShadowSubscriberService).
+	 * @param resourceCode
+	 * @param selector the JMS message selector (null for all the messages)
+	 * @return
+	 */
+	public BrowseResult getMessagesFrom(final String resourceCode, final String selector) {
 		LOGGER.info("getMessagesFrom - init");
 		
-		Map<String, String> messages = null;
+		BrowseResult messages = null;
 		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
+		String messageSelector = SelectorService.normalize(selector);
 
 		if (resource != null) {
 			if (resource.getType().equals(ResourcesEnum.QUEUE_TYPE)) {
-				messages = queueService.browseMessagesFrom(resourceCode);
+				messages = browseCacheService.get(resourceCode, messageSelector,
+						() -> queueService.browseMessagesFrom(resourceCode, messageSelector));
+			} else if (messageSelector == null && shadowSubscriberService.isEnabled()) {
+				messages = shadowSubscriberService.browseMessagesFrom(resourceCode);
+			} else if (messageSelector == null) {
+				messages = browseCacheService.get(resourceCode, null, () -> topicService.browseMessagesFrom(resourceCode));
 			} else {
-				messages = topicService.browseMessagesFrom(resourceCode);
+				messages = new BrowseResult(resourceCode);
+				messages.setError("Selectors aren't supported for topics : " + resourceCode);
 			}
 		} else {
-			messages = new HashMap<>();
+			messages = new BrowseResult(resourceCode);
+			messages.setError("Not configured resource : " + resourceCode);
 		}
 		
 		LOGGER.info("getMessagesFrom - end");
 		return messages;
 	}
+
+	/**
+	 * Browses the messages for the given resource passing them to the given handler one by one.
+	 * With the shadow subscribers the topics are browsed from their buffers (as the list browse) so the messages
+	 * aren't consumed: the handler gets the buffered body text.
+	 * @param resourceCode
+	 * @param messageHandler
+	 * @return false if the resource isn't configured or the browse failed
+	 */
+	public boolean browseMessagesFrom(final String resourceCode, final MessageHandler messageHandler) {
+		LOGGER.info("browseMessagesFrom - init");
+		
+		boolean result;
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
+
+		if (resource != null) {
+			if (resource.getType().equals(ResourcesEnum.QUEUE_TYPE)) {
+				result = queueService.browseMessagesFrom(resourceCode, messageHandler);
+			} else if (shadowSubscriberService.isEnabled()) {
+				result = handleMessages(shadowSubscriberService.browseMessagesFrom(resourceCode), messageHandler);
+			} else {
+				result = topicService.browseMessagesFrom(resourceCode, messageHandler);
+			}
+		} else {
+			result = false;
+		}
+		
+		LOGGER.info("browseMessagesFrom - end");
+		return result;
+	}
+
+	/**
+	 * Passes the given browsed messages to the given handler (until it stops).
+	 * @param messages
+	 * @param messageHandler
+	 * @return false if the messages have an error or the handler failed
+	 */
+	private boolean handleMessages(final BrowseResult messages, final MessageHandler messageHandler) {
+		try {
+			for (int index = 0; index < messages.getCount(); index++) {
+				if (!messageHandler.handle(index + 1, messages.get(index).getText())) {
+					break;
+				}
+			}
+
+			return messages.getError() == null;
+		} catch (Exception e) {
+			LOGGER.error("ERROR : ", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Browses the message with the given id in the given queue resource passing it to the given handler
+	 * (selected by the broker). The topics aren't supported because browsing a topic consumes its messages.
+	 * @param resourceCode
+	 * @param messageId
+	 * @param messageHandler
+	 * @return false if the message isn't found (or the resource isn't a configured queue)
+	 */
+	public boolean browseMessageFrom(final String resourceCode, final String messageId, final MessageHandler messageHandler) {
+		LOGGER.info("browseMessageFrom - init");
+		
+		boolean found = false;
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
+
+		if (resource != null && resource.getType().equals(ResourcesEnum.QUEUE_TYPE) && messageId != null) {
+			AtomicBoolean handled = new AtomicBoolean();
+
+			// the broker only sends the message with the id (the handler checks it for other providers)
+			String selector = "JMSMessageID = '" + messageId.replace("'", "''") + "'";
+
+			found = queueService.browseMessagesFrom(resourceCode, selector, new MessageHandler() {
+				@Override
+				public boolean handle(final int number, final String text) throws Exception {
+					return true; // not used: the queue passes the messages
+				}
+
+				@Override
+				public boolean handle(final int number, final Message message) throws Exception {
+					if (!messageId.equals(message.getJMSMessageID())) {
+						return true;
+					}
+
+					handled.set(true);
+					messageHandler.handle(number, message);
+					return false;
+				}
+			}) && handled.get();
+		}
+		
+		LOGGER.info("browseMessageFrom - end");
+		return found;
+	}
+
+	/**
+	 * Gets a page of messages for the given queue resource.
+	 * The topics can't be paged because browsing a topic consumes its messages.
+	 * @param resourceCode
+	 * @param offset the messages to skip (after the cursor)
+	 * @param limit the max number of messages (up to the configured max page size)
+	 * @param cursor the next cursor of the previous page or null
+	 * @return
+	 */
+	public BrowsePage getPageFrom(final String resourceCode, final int offset, final int limit, final String cursor) {
+		return getPageFrom(resourceCode, offset, limit, cursor, null);
+	}
+
+	/**
+	 * Gets a page of the messages matching the given selector for the given queue resource.
+	 * @param resourceCode
+	 * @param offset the messages to skip (after the cursor)
+	 * @param limit the max number of messages (up to the configured max page size)
+	 * @param cursor the next cursor of the previous page or null
+	 * @param selector the JMS message selector (null for all the messages)
+	 * @return
+	 */
+	public BrowsePage getPageFrom(final String resourceCode, final int offset, final int limit, final String cursor,
+			final String selector) {
+		LOGGER.info("getPageFrom - init");
+		
+		BrowsePage page;
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
+		int pageOffset = Math.max(0, offset);
+		int pageLimit = Math.min(Math.max(1, limit), maxPageSize);
+		String pageCursor = cursor != null && !cursor.isEmpty() ? cursor : null;
+
+		if (resource != null && resource.getType().equals(ResourcesEnum.QUEUE_TYPE)) {
+			page = queueService.browseMessagesFrom(resourceCode, pageOffset, pageLimit, pageCursor,
+					SelectorService.normalize(selector));
+		} else {
+			page = new BrowsePage(resourceCode, pageOffset, pageLimit, pageCursor);
+			page.setError(resource != null ? "Pagination isn't supported for topics : " + resourceCode
+					: "Not configured resource : " + resourceCode);
+		}
+		
+		LOGGER.info("getPageFrom - end");
+		return page;
+	}
 }
@@ -3,10 +3,16 @@ package com.example.jms.service.common;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.jms.enums.PurgeStrategyEnum;
 import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.DrainOptions;
+import com.example.jms.model.DrainResult;
+import com.example.jms.service.queue.NativePurgeService;
 import com.example.jms.service.queue.QueueService;
+import com.example.jms.service.topic.ShadowSubscriberService;
 import com.example.jms.service.topic.TopicService;
 
 /**
@@ -19,11 +25,29 @@ public class PurgeService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(PurgeService.class);
 	
+	@Value("${com.exmaple.jms.purge.strategy:CONSUME}")
+	private PurgeStrategyEnum defaultPurgeStrategy = PurgeStrategyEnum.CONSUME;
+
+	@Value("${com.exmaple.jms.drain.consumers:0}")
+	private int drainConsumers = 0;
+
+	@Value("${com.exmaple.jms.drain.maxConsumers:16}")
+	private int maxDrainConsumers = 16;
+	
 	@Autowired
 	QueueService queueService;
+
+	@Autowired
+	NativePurgeService nativePurgeService;
 	
 	@Autowired
 	TopicService topicService;
+
+	@Autowired
+	BrowseCacheService browseCacheService;
+
+	@Autowired
+	ShadowSubscriberService shadowSubscriberService;
 	
 	/**
 	 * Purges the messages for a given resource code.
@@ -31,17 +55,55 @@ public class PurgeService {
 	 * @return
 	 */
 	public boolean purgeMessages(final String resourceCode) {
+		return purgeMessages(resourceCode, DrainOptions.DEFAULTS);
+	}
+
+	/**
+	 * Purges the messages for a given resource code with the given drain options.
+	 * @param resourceCode
+	 * @param drainOptions
+	 * @return
+	 */
+	public boolean purgeMessages(final String resourceCode, final DrainOptions drainOptions) {
+		return purgeMessages(resourceCode, drainOptions, null);
+	}
+
+	/**
+	 * Purges the messages for a given resource code with the given strategy and drain options.
+	 * The topics only use the unsubscribe strategy (when the caller selects it) and the queues ignore it.
+	 * With a selector (drain options) only the matching queue messages are consumed: the native purge removes all
+	 * the messages so it isn't used, and the topics aren't supported (their durable subscriptions would be recreated).
+	 * @param resourceCode
+	 * @param drainOptions
+	 * @param purgeStrategy the strategy or null to use the configured one
+	 * @return
+	 */
+	public boolean purgeMessages(final String resourceCode, final DrainOptions drainOptions, final PurgeStrategyEnum purgeStrategy) {
 		LOGGER.info("purgeMessages - init");
 
 		boolean result;
 		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
 
+		boolean selected = drainOptions != null && drainOptions.getSelector() != null;
+
 		if (resource != null) {
 			if (resource.getType().equals(ResourcesEnum.QUEUE_TYPE)) {
-				result = queueService.removeMessagesFrom(resource.getCode());
+				result = purgeQueue(resource.getCode(), drainOptions,
+						purgeStrategy != null && purgeStrategy != PurgeStrategyEnum.UNSUBSCRIBE ? purgeStrategy : defaultPurgeStrategy);
+			} else if (selected) {
+				LOGGER.warn("purgeMessages - selectors aren't supported for topics : {}", resourceCode);
+				result = false;
+			} else if (purgeStrategy == PurgeStrategyEnum.UNSUBSCRIBE) {
+				result = topicService.resubscribeSubscribersOf(resource.getCode());
 			} else {
-				result = topicService.removeMessagesBySubscriberFrom(resource.getCode());
+				result = topicService.removeMessagesBySubscriberFrom(resource.getCode(), drainOptions);
+			}
+
+			if (result && resource.getType().equals(ResourcesEnum.TOPIC_TYPE) && !selected) {
+				shadowSubscriberService.clear(resource.getCode());
 			}
+
+			browseCacheService.invalidate(resource.getCode());
 		} else {
 			result = false;
 		}
@@ -49,4 +111,93 @@ public class PurgeService {
 		LOGGER.info("purgeMessages - end");
 		return result;
 	}
+
+	/**
+	 * Drains (consumes) the messages for a given resource code with several parallel consumers.
+	 * The topics are drained with one consumer for each subscriber (the consumers number is ignored).
+	 * @param resourceCode
+	 * @param consumers the number of consumers or null to use the configured one
+	 * @param drainOptions
+	 * @return the drained messages by consumer (or subscriber) and the drain rate
+	 */
+	public DrainResult drainMessages(final String resourceCode, final Integer consumers, final DrainOptions drainOptions) {
+		LOGGER.info("drainMessages - init");
+
+		DrainResult result;
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
+
+		if (resource == null) {
+			result = new DrainResult(resourceCode);
+			result.setError("Not configured resource : " + resourceCode);
+		} else if (resource.getType().equals(ResourcesEnum.QUEUE_TYPE)) {
+			result = queueService.drainMessagesFrom(resource.getCode(), getDrainConsumers(consumers), drainOptions);
+		} else {
+			result = topicService.drainMessagesBySubscriberFrom(resource.getCode(), drainOptions);
+			shadowSubscriberService.clear(resource.getCode());
+		}
+
+		if (resource != null) {
+			browseCacheService.invalidate(resource.getCode());
+		}
+
+		LOGGER.info("drainMessages - end");
+		return result;
+	}
+
+	/**
+	 * Gets the number of drain consumers: the given one or the configured one (available processors by default),
+	 * limited to the configured maximum.
+	 * @param consumers
+	 * @return
+	 */
+	private int getDrainConsumers(final Integer consumers) {
+		int drainConsumersNumber = consumers != null ? consumers : drainConsumers;
+
+		if (drainConsumersNumber <= 0) {
+			drainConsumersNumber = Runtime.getRuntime().availableProcessors();
+		}
+
+		return Math.min(drainConsumersNumber, Math.max(1, maxDrainConsumers));
+	}
+
+	/**
+	 * Purges the given queue with the given strategy.
+	 * The auto strategy only uses the broker purge when the caller doesn't set the drain timeouts or the expected
+	 * count (the broker purge ignores them), and the queue is only destroyed with the destroy strategy.
+	 * @param queueCode
+	 * @param drainOptions
+	 * @param purgeStrategy
+	 * @return
+	 */
+	private boolean purgeQueue(final String queueCode, final DrainOptions drainOptions, final PurgeStrategyEnum purgeStrategy) {
+		LOGGER.debug("purgeQueue - queue : {} - strategy : {}", queueCode, purgeStrategy);
+
+		if (drainOptions != null && drainOptions.getSelector() != null && purgeStrategy != PurgeStrategyEnum.PARALLEL) {
+			return queueService.removeMessagesFrom(queueCode, drainOptions); // only the matching messages
+		}
+
+		switch (purgeStrategy) {
+			case NATIVE:
+				return nativePurgeService.purgeQueue(queueCode);
+			case AUTO:
+				return (!hasDrainSettings(drainOptions) && nativePurgeService.purgeQueue(queueCode))
+						|| queueService.removeMessagesFrom(queueCode, drainOptions);
+			case DESTROY:
+				return nativePurgeService.destroyQueue(queueCode);
+			case PARALLEL:
+				return queueService.drainMessagesFrom(queueCode, getDrainConsumers(null), drainOptions).getError() == null;
+			default:
+				return queueService.removeMessagesFrom(queueCode, drainOptions);
+		}
+	}
+
+	/**
+	 * Checks if the given drain options set the timeouts or the expected count of the consume.
+	 * @param drainOptions
+	 * @return
+	 */
+	private boolean hasDrainSettings(final DrainOptions drainOptions) {
+		return drainOptions != null && (drainOptions.getFirstReceiveTimeout() != null || drainOptions.getIdleTimeout() != null
+				|| drainOptions.getExpectedCount() != null);
+	}
 }
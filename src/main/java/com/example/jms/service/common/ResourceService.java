@@ -1,11 +1,19 @@
 package com.example.jms.service.common;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.ResourceStats;
+import com.example.jms.model.SubscribersHealth;
+import com.example.jms.service.queue.QueueService;
+import com.example.jms.service.statistics.DestinationStatisticsService;
+import com.example.jms.service.topic.TopicService;
 
 /**
  * Services for the resources.
@@ -15,6 +23,15 @@ import com.example.jms.enums.ResourcesEnum;
 @Service
 public class ResourceService {
 	
+	@Autowired
+	TopicService topicService;
+
+	@Autowired
+	QueueService queueService;
+
+	@Autowired
+	DestinationStatisticsService destinationStatisticsService;
+	
 	/**
 	 * Gets the list of configured resources for the application.
 	 * @return
@@ -28,4 +45,100 @@ public class ResourceService {
 		
 		return configuredResources;
 	}
+
+	/**
+	 * Gets the readiness of the topic subscribers created by the application.
+	 * @return
+	 */
+	public SubscribersHealth getSubscribersHealth() {
+		return topicService.getSubscribersHealth();
+	}
+
+	/**
+	 * Gets the counters of all the configured resources.
+	 * @return
+	 */
+	public List<ResourceStats> getResourcesStats() {
+		List<ResourceStats> resourcesStats = new ArrayList<>();
+
+		for (ResourcesEnum resource:ResourcesEnum.values()) {
+			resourcesStats.add(getResourceStats(resource.getCode()));
+		}
+
+		return resourcesStats;
+	}
+
+	/**
+	 * Gets the counters of the given resource without reading its messages: from the statistics plugin (if it's
+	 * enabled), the destination MBean or, for the queues, a browse of the message headers (only the depth).
+	 * The topics aren't browsed because browsing a topic consumes its messages.
+	 * @param resourceCode
+	 * @return
+	 */
+	public ResourceStats getResourceStats(final String resourceCode) {
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
+
+		if (resource == null) {
+			ResourceStats stats = new ResourceStats(resourceCode, null);
+			stats.setError("Not configured resource : " + resourceCode);
+			return stats;
+		}
+
+		ResourceStats stats = new ResourceStats(resource.getCode(), resource.getType());
+		boolean queue = resource.getType().equals(ResourcesEnum.QUEUE_TYPE);
+
+		if (destinationStatisticsService.isEnabled()
+				&& setCounters(stats, ResourceStats.Source.STATISTICS, destinationStatisticsService.getStatistics(resource.getCode(), !queue))) {
+			return stats;
+		}
+
+		if (setCounters(stats, ResourceStats.Source.JMX, destinationStatisticsService.getJmxStatistics(resource.getCode(), !queue))) {
+			return stats;
+		}
+
+		if (queue) {
+			Long depth = queueService.countMessagesIn(resource.getCode());
+
+			if (depth != null) {
+				stats.setSource(ResourceStats.Source.BROWSE);
+				stats.setDepth(depth);
+			} else {
+				stats.setError("Browse failed : " + resource.getCode());
+			}
+		}
+
+		return stats;
+	}
+
+	/**
+	 * Sets the counters of the given stats from the given statistics.
+	 * @param stats
+	 * @param source
+	 * @param statistics
+	 * @return false if there aren't statistics
+	 */
+	private boolean setCounters(final ResourceStats stats, final ResourceStats.Source source, final Map<String, Object> statistics) {
+		if (statistics == null || statistics.isEmpty()) {
+			return false;
+		}
+
+		stats.setSource(source);
+		stats.setDepth(getCounter(statistics, "size"));
+		stats.setEnqueueCount(getCounter(statistics, "enqueueCount"));
+		stats.setDequeueCount(getCounter(statistics, "dequeueCount"));
+		stats.setConsumerCount(getCounter(statistics, "consumerCount"));
+		stats.setProducerCount(getCounter(statistics, "producerCount"));
+		return true;
+	}
+
+	/**
+	 * Gets the given counter from the given statistics.
+	 * @param statistics
+	 * @param name
+	 * @return the counter or null if it isn't a number
+	 */
+	private Long getCounter(final Map<String, Object> statistics, final String name) {
+		Object counter = statistics.get(name);
+		return counter instanceof Number ? ((Number) counter).longValue() : null;
+	}
 }
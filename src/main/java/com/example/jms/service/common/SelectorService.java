@@ -0,0 +1,88 @@
+package com.example.jms.service.common;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.activemq.selector.SelectorParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Services for the JMS message selectors.
+ * The selectors are validated before they're sent to the broker (an invalid selector would only fail when the
+ * consumer or browser is created) and the validation is cached by expression (LRU, up to the configured size).
+ * @author Gabriel
+ *
+ */
+@Service
+public class SelectorService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SelectorService.class);
+
+	private static final String VALID = "";
+
+	@Value("${com.exmaple.jms.selector.cacheSize:256}")
+	private int cacheSize = 256;
+
+	// selector -> VALID or the validation error
+	private final Map<String, String> validations = Collections.synchronizedMap(new LinkedHashMap<String, String>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+			return size() > cacheSize;
+		}
+	});
+
+	/**
+	 * Normalizes the given selector: trimmed or null if it's empty.
+	 * @param selector
+	 * @return
+	 */
+	public static String normalize(final String selector) {
+		return selector != null && !selector.trim().isEmpty() ? selector.trim() : null;
+	}
+
+	/**
+	 * Validates the given selector.
+	 * @param selector
+	 * @return the validation error or null if the selector is valid (or empty)
+	 */
+	public String getError(final String selector) {
+		String normalizedSelector = normalize(selector);
+
+		if (normalizedSelector == null) {
+			return null;
+		}
+
+		String validation = validations.computeIfAbsent(normalizedSelector, this::validate);
+		return validation == VALID ? null : validation;
+	}
+
+	/**
+	 * Checks if the given selector is valid (or empty).
+	 * @param selector
+	 * @return
+	 */
+	public boolean isValid(final String selector) {
+		return getError(selector) == null;
+	}
+
+	/**
+	 * Parses the given selector.
+	 * @param selector
+	 * @return VALID or the parse error
+	 */
+	private String validate(final String selector) {
+		try {
+			SelectorParser.parse(selector);
+			return VALID;
+		} catch (Exception e) {
+			LOGGER.debug("validate - invalid selector : {}", selector);
+			return "Invalid selector : " + (e.getMessage() != null ? e.getMessage() : selector);
+		}
+	}
+}
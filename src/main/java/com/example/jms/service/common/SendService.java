@@ -1,11 +1,16 @@
 package com.example.jms.service.common;
 
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.BatchSendResult;
+import com.example.jms.service.producer.ProducerCacheService;
 import com.example.jms.service.queue.QueueService;
 import com.example.jms.service.topic.TopicService;
 
@@ -19,11 +24,20 @@ public class SendService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(SendService.class);
 	
+	@Value("${com.exmaple.jms.send.commitInterval:100}")
+	private int defaultCommitInterval = 100;
+	
 	@Autowired
 	QueueService queueService;
 	
 	@Autowired
 	TopicService topicService;
+
+	@Autowired
+	ProducerCacheService producerCacheService;
+
+	@Autowired
+	BrowseCacheService browseCacheService;
 	
 	/**
 	 * Sends the given message to the given resource codew.
@@ -43,6 +57,8 @@ public class SendService {
 			} else {
 				result = topicService.sendMessageTo(resource.getCode(), message);
 			} 
+
+			browseCacheService.invalidate(resource.getCode());
 		} else {
 			result = false;
 		}
@@ -50,4 +66,47 @@ public class SendService {
 		LOGGER.info("sendMessageTo - end");
 		return result;
 	}
+
+	/**
+	 * Sends the given messages to the given resource code committing every commit interval messages.
+	 * @param resourceCode
+	 * @param messages
+	 * @param commitInterval the messages per commit or null to use the configured value
+	 * @return
+	 */
+	public BatchSendResult sendMessagesTo(final String resourceCode, final List<String> messages, final Integer commitInterval) {
+		LOGGER.info("sendMessagesTo - init");
+
+		BatchSendResult result;
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
+		int interval = commitInterval != null ? commitInterval : defaultCommitInterval;
+
+		if (resource != null) {
+			if (resource.getType().equals(ResourcesEnum.QUEUE_TYPE)) {
+				result = queueService.sendMessagesTo(resource.getCode(), messages, interval);
+			} else {
+				result = topicService.sendMessagesTo(resource.getCode(), messages, interval);
+			}
+
+			browseCacheService.invalidate(resource.getCode());
+		} else {
+			result = new BatchSendResult(resourceCode, messages != null ? messages.size() : 0, interval);
+			result.setError("Not configured resource : " + resourceCode);
+		}
+		
+		LOGGER.info("sendMessagesTo - end");
+		return result;
+	}
+
+	/**
+	 * Closes the cached producers for the given resource code (the next send creates them again).
+	 * @param resourceCode
+	 */
+	public void resetProducersFor(final String resourceCode) {
+		LOGGER.info("resetProducersFor - init");
+		
+		producerCacheService.invalidate(resourceCode);
+		
+		LOGGER.info("resetProducersFor - end");
+	}
 }
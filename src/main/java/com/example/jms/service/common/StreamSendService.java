@@ -0,0 +1,332 @@
+package com.example.jms.service.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.BatchSendResult;
+import com.example.jms.model.StreamSendResult;
+
+/**
+ * Services for the stream send actions: each line of the input (a NDJSON record or a text line) is sent as a
+ * text message without keeping the input in memory.
+ * The request thread reads the records in batches of commit interval records and queues them for the producers
+ * (transacted batch sends, see SendService) so the next batch is read while the previous ones are sent. The queue
+ * is bounded: when the producers fall behind the read waits (the input is read at the broker rate with a constant
+ * heap). With one producer the messages keep the input order.
+ * At most max streams sends run at the same time (each one has its own producers): the next ones are rejected
+ * right away, so the producer threads are bounded by max streams * max producers.
+ * @author Gabriel
+ *
+ */
+@Service
+public class StreamSendService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StreamSendService.class);
+
+	// end of the input for a producer
+	private static final List<String> END = Collections.emptyList();
+
+	@Value("${com.exmaple.jms.send.commitInterval:100}")
+	private int defaultCommitInterval = 100;
+
+	@Value("${com.exmaple.jms.send.stream.producers:1}")
+	private int defaultProducers = 1;
+
+	@Value("${com.exmaple.jms.send.stream.maxProducers:8}")
+	private int maxProducers = 8;
+
+	@Value("${com.exmaple.jms.send.stream.maxStreams:4}")
+	private int maxStreams = 4;
+
+	@Value("${com.exmaple.jms.send.stream.pipelineDepth:4}")
+	private int pipelineDepth = 4;
+
+	@Value("${com.exmaple.jms.send.stream.maxRecordLength:1048576}")
+	private int maxRecordLength = 1048576;
+
+	@Value("${com.exmaple.jms.send.stream.progressInterval:100}")
+	private int progressInterval = 100;
+
+	// running sends by id
+	private final ConcurrentMap<String, StreamSendResult> sends = new ConcurrentHashMap<>();
+
+	private Semaphore runningStreams;
+
+	@Autowired
+	SendService sendService;
+
+	/**
+	 * Creates the window of running sends.
+	 */
+	@PostConstruct
+	public void start() {
+		runningStreams = new Semaphore(Math.max(1, maxStreams));
+	}
+
+	/**
+	 * Sends each line of the given input (UTF-8) to the given resource code. The empty lines are skipped and the
+	 * records longer than the max record length are counted as failed. A failed batch stops the send (the previous
+	 * batches remain committed).
+	 * @param resourceCode
+	 * @param input
+	 * @param commitInterval the messages per commit or null to use the configured value
+	 * @param producers the parallel producers or null to use the configured value (limited to the max producers)
+	 * @return the result (rejected without reading the input if too many sends are running)
+	 */
+	public StreamSendResult sendStreamTo(final String resourceCode, final InputStream input, final Integer commitInterval,
+			final Integer producers) {
+		LOGGER.info("sendStreamTo - init");
+
+		int interval = Math.max(1, commitInterval != null ? commitInterval : defaultCommitInterval);
+		int producerCount = Math.min(Math.max(1, producers != null ? producers : defaultProducers), maxProducers);
+		StreamSendResult result = new StreamSendResult(UUID.randomUUID().toString(), resourceCode, interval, producerCount);
+
+		if (ResourcesEnum.getResourceByCode(resourceCode) == null) {
+			result.setError("Not configured resource : " + resourceCode);
+			result.finish();
+			LOGGER.info("sendStreamTo - end");
+			return result;
+		}
+
+		if (!runningStreams.tryAcquire()) {
+			LOGGER.warn("sendStreamTo - {} sends running, rejecting send to : {}", maxStreams, resourceCode);
+			result.setRejected(true);
+			result.setError("Too many running stream sends");
+			result.finish();
+			LOGGER.info("sendStreamTo - end");
+			return result;
+		}
+
+		sends.put(result.getId(), result);
+
+		BlockingQueue<List<String>> batches = new ArrayBlockingQueue<>(pipelineDepth * producerCount);
+		ExecutorService producerExecutor = createProducerExecutor(producerCount);
+
+		try {
+			for (int producer = 0; producer < producerCount; producer++) {
+				producerExecutor.execute(() -> sendBatches(resourceCode, batches, result));
+			}
+
+			readBatches(new InputStreamReader(input, StandardCharsets.UTF_8), interval, batches, result);
+
+			for (int producer = 0; producer < producerCount; producer++) {
+				batches.put(END);
+			}
+
+			producerExecutor.shutdown();
+
+			while (!producerExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+				LOGGER.debug("sendStreamTo - waiting for the producers of : {}", result.getId());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			setError(result, "Send interrupted");
+		} finally {
+			producerExecutor.shutdownNow();
+			result.finish();
+			sends.remove(result.getId());
+			runningStreams.release();
+			LOGGER.info("sendStreamTo - {} : {} read, {} sent, {} failed in {} ms", resourceCode, result.getRead(),
+					result.getSent(), result.getFailed(), result.getElapsedMillis());
+			LOGGER.info("sendStreamTo - end");
+		}
+
+		return result;
+	}
+
+	/**
+	 * Gets the running sends with their progress.
+	 * @return
+	 */
+	public List<StreamSendResult> getRunningSends() {
+		return new ArrayList<>(sends.values());
+	}
+
+	/**
+	 * Reads the records of the given input in batches of the given size and queues them (waiting while the queue
+	 * is full). It stops when the input ends or the send failed.
+	 * @param reader
+	 * @param batchSize
+	 * @param batches
+	 * @param result
+	 * @throws InterruptedException
+	 */
+	private void readBatches(final Reader reader, final int batchSize, final BlockingQueue<List<String>> batches,
+			final StreamSendResult result) throws InterruptedException {
+		List<String> batch = new ArrayList<>(batchSize);
+		StringBuilder record = new StringBuilder();
+		char[] buffer = new char[8192];
+		boolean truncated = false;
+
+		try {
+			int length = 0;
+
+			while (result.getError() == null && (length = reader.read(buffer)) >= 0) {
+				for (int index = 0; index < length; index++) {
+					char character = buffer[index];
+
+					if (character != '\n') {
+						if (record.length() < maxRecordLength) {
+							record.append(character);
+						} else {
+							truncated = true;
+						}
+
+						continue;
+					}
+
+					if (addRecord(record, truncated, batch, result) && batch.size() == batchSize) {
+						batches.put(batch);
+						batch = new ArrayList<>(batchSize);
+					}
+
+					record.setLength(0);
+					truncated = false;
+				}
+			}
+
+			if (length < 0) {
+				addRecord(record, truncated, batch, result); // last line without a line break
+			}
+		} catch (IOException e) {
+			LOGGER.error("ERROR : ", e);
+			setError(result, "Read failed : " + e.getMessage());
+		}
+
+		if (!batch.isEmpty()) {
+			batches.put(batch);
+		}
+	}
+
+	/**
+	 * Adds the given record to the batch (the empty records are skipped and the truncated ones counted as failed).
+	 * @param record
+	 * @param truncated
+	 * @param batch
+	 * @param result
+	 * @return true if the record was added
+	 */
+	private boolean addRecord(final StringBuilder record, final boolean truncated, final List<String> batch,
+			final StreamSendResult result) {
+		int length = record.length();
+
+		if (length > 0 && record.charAt(length - 1) == '\r') {
+			record.setLength(--length);
+		}
+
+		if (length == 0 && !truncated) {
+			return false;
+		}
+
+		result.addRead();
+
+		if (truncated) {
+			LOGGER.warn("addRecord - record {} longer than {} chars, not sent", result.getRead(), maxRecordLength);
+			result.addFailed(1);
+			return false;
+		}
+
+		batch.add(record.toString());
+		return true;
+	}
+
+	/**
+	 * Sends the queued batches until the end of the input (after a failed batch the next ones are counted as failed).
+	 * @param resourceCode
+	 * @param batches
+	 * @param result
+	 */
+	private void sendBatches(final String resourceCode, final BlockingQueue<List<String>> batches, final StreamSendResult result) {
+		try {
+			List<String> batch = batches.take();
+
+			while (batch != END) {
+				if (result.getError() != null) {
+					result.addFailed(batch.size());
+				} else {
+					sendBatch(resourceCode, batch, result);
+				}
+
+				batch = batches.take();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Sends the given batch in a transacted session (see SendService) and counts it.
+	 * @param resourceCode
+	 * @param batch
+	 * @param result
+	 */
+	private void sendBatch(final String resourceCode, final List<String> batch, final StreamSendResult result) {
+		try {
+			BatchSendResult batchResult = sendService.sendMessagesTo(resourceCode, batch, batch.size());
+			result.addBatch(batchResult.getSent(), batchResult.getFailed());
+
+			if (batchResult.getError() != null) {
+				setError(result, batchResult.getError());
+			} else if (result.getBatches() % progressInterval == 0) {
+				LOGGER.info("sendBatch - {} : {} sent, {} msg/s", resourceCode, result.getSent(), (long) result.getRate());
+			}
+		} catch (Exception e) {
+			LOGGER.error("ERROR : ", e);
+			result.addFailed(batch.size());
+			setError(result, "Send failed : " + resourceCode);
+		}
+	}
+
+	/**
+	 * Sets the error of the given send if it doesn't have one (the first error stops the send).
+	 * @param result
+	 * @param error
+	 */
+	private static void setError(final StreamSendResult result, final String error) {
+		synchronized (result) {
+			if (result.getError() == null) {
+				result.setError(error);
+			}
+		}
+	}
+
+	/**
+	 * Creates the executor of the producers of a send.
+	 * @param producers
+	 * @return
+	 */
+	private static ExecutorService createProducerExecutor(final int producers) {
+		AtomicInteger threadNumber = new AtomicInteger();
+
+		return Executors.newFixedThreadPool(producers, runnable -> {
+			Thread thread = new Thread(runnable, "stream-sender-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+}
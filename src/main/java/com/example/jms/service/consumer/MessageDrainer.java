@@ -0,0 +1,66 @@
+package com.example.jms.service.consumer;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+
+/**
+ * Receives the messages of a consumer until it's drained without a fixed trailing timeout.
+ * The messages are taken with receiveNoWait while they flow (they're already prefetched), the consumer only
+ * waits the first receive timeout for the first message and the short idle timeout once the flow stops.
+ * When the expected count is known and reached the drain ends without waiting.
+ * Not thread safe: use one drainer per consumer.
+ * @author Gabriel
+ *
+ */
+public class MessageDrainer {
+
+	private final MessageConsumer messageConsumer;
+	private final long firstReceiveTimeout;
+	private final long idleTimeout;
+	private final Long expectedCount;
+	private long received;
+
+	/**
+	 * Creates a new drainer for the given consumer.
+	 * @param messageConsumer
+	 * @param firstReceiveTimeout
+	 * @param idleTimeout
+	 * @param expectedCount the expected number of messages or null if it's unknown
+	 */
+	public MessageDrainer(final MessageConsumer messageConsumer, final long firstReceiveTimeout, final long idleTimeout,
+			final Long expectedCount) {
+		this.messageConsumer = messageConsumer;
+		this.firstReceiveTimeout = firstReceiveTimeout;
+		this.idleTimeout = idleTimeout;
+		this.expectedCount = expectedCount;
+	}
+
+	/**
+	 * Receives the next message.
+	 * @return the message or null if the consumer is drained
+	 * @throws JMSException
+	 */
+	public Message receive() throws JMSException {
+		Message message = messageConsumer.receiveNoWait();
+
+		if (message == null && (expectedCount == null || received < expectedCount)) {
+			long timeout = received == 0 ? firstReceiveTimeout : idleTimeout;
+			message = timeout > 0 ? messageConsumer.receive(timeout) : null;
+		}
+
+		if (message != null) {
+			received++;
+		}
+
+		return message;
+	}
+
+	/**
+	 * Gets the number of received messages.
+	 * @return
+	 */
+	public long getReceived() {
+		return received;
+	}
+}
@@ -0,0 +1,377 @@
+package com.example.jms.service.loadtest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.LoadTestOptions;
+import com.example.jms.model.LoadTestResult;
+import com.example.jms.service.common.BrowseCacheService;
+import com.example.jms.service.queue.QueueService;
+import com.example.jms.service.topic.TopicService;
+
+/**
+ * Services for the load tests: the producers of a test send text messages with random payloads to a resource
+ * (through the cached producers of the queue and topic services) until the number of messages or the duration is
+ * reached. With a target rate the sends are scheduled at fixed intervals shared by all the producers, otherwise
+ * each producer sends as fast as the broker accepts the messages.
+ * The tests run in background (at most max running tests at the same time, the next ones are rejected) and report the achieved rate, throughput and send latency percentiles.
+ * @author Gabriel
+ *
+ */
+@Service
+public class LoadTestService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestService.class);
+
+	private static final char[] PAYLOAD_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+
+	@Value("${com.exmaple.jms.loadtest.concurrency:4}")
+	private int defaultConcurrency = 4;
+
+	@Value("${com.exmaple.jms.loadtest.maxConcurrency:64}")
+	private int maxConcurrency = 64;
+
+	@Value("${com.exmaple.jms.loadtest.payloadSize:1024}")
+	private int defaultPayloadSize = 1024;
+
+	@Value("${com.exmaple.jms.loadtest.maxPayloadSize:1048576}")
+	private int maxPayloadSize = 1048576;
+
+	@Value("${com.exmaple.jms.loadtest.maxDuration:3600000}")
+	private long maxDuration = 3600000;
+
+	@Value("${com.exmaple.jms.loadtest.maxRunningTests:4}")
+	private int maxRunningTests = 4;
+
+	@Value("${com.exmaple.jms.loadtest.retainedTests:20}")
+	private int retainedTests = 20;
+
+	// load tests by id, in start order
+	private final Map<String, LoadTest> tests = new LinkedHashMap<>();
+
+	@Autowired
+	QueueService queueService;
+
+	@Autowired
+	TopicService topicService;
+
+	@Autowired
+	BrowseCacheService browseCacheService;
+
+	/**
+	 * A load test with its report and producers.
+	 */
+	private static class LoadTest {
+		private final LoadTestResult result;
+		private final ExecutorService producerExecutor;
+		private final AtomicLong scheduled = new AtomicLong();
+		private volatile boolean cancelled;
+
+		private LoadTest(final LoadTestResult result, final ExecutorService producerExecutor) {
+			this.result = result;
+			this.producerExecutor = producerExecutor;
+		}
+	}
+
+	/**
+	 * Cancels the running load tests.
+	 */
+	@PreDestroy
+	public void stop() {
+		for (LoadTestResult result : getTests()) {
+			cancel(result.getId());
+		}
+	}
+
+	/**
+	 * Starts a load test of the given resource with the given options.
+	 * @param resourceCode
+	 * @param options
+	 * @return the running test, a FAILED one if the resource isn't configured or the options aren't valid or a REJECTED
+	 * one if the max running tests are running
+	 */
+	public LoadTestResult start(final String resourceCode, final LoadTestOptions options) {
+		LOGGER.info("start - init");
+
+		int rate = options.getRate() != null ? options.getRate() : 0;
+		int concurrency = options.getConcurrency() != null ? options.getConcurrency() : defaultConcurrency;
+		int minSize = options.getMinPayloadSize() != null ? options.getMinPayloadSize() : defaultPayloadSize;
+		int maxSize = options.getMaxPayloadSize() != null ? options.getMaxPayloadSize() : minSize;
+		Long duration = options.getDurationMillis() != null || options.getMessages() != null ? options.getDurationMillis()
+				: Long.valueOf(maxDuration);
+
+		LoadTestResult result = new LoadTestResult(UUID.randomUUID().toString(), resourceCode, options.getMessages(),
+				duration, rate, concurrency, minSize, maxSize);
+		String error = validate(resourceCode, result);
+
+		if (error != null) {
+			result.finish(LoadTestResult.Status.FAILED, error);
+			LOGGER.info("start - end");
+			return result;
+		}
+
+		LoadTest loadTest = new LoadTest(result, createProducerExecutor(concurrency));
+
+		if (!register(loadTest)) {
+			loadTest.producerExecutor.shutdown();
+			result.finish(LoadTestResult.Status.REJECTED, "Too many running load tests (max " + maxRunningTests + ")");
+			LOGGER.warn("start - max running load tests reached, rejecting test of : {}", resourceCode);
+			LOGGER.info("start - end");
+			return result;
+		}
+
+		char[] payload = createPayload(maxSize);
+		long startNanos = System.nanoTime();
+		List<CompletableFuture<Void>> producers = new ArrayList<>();
+
+		for (int producer = 0; producer < concurrency; producer++) {
+			producers.add(CompletableFuture.runAsync(() -> produce(loadTest, payload, startNanos), loadTest.producerExecutor));
+		}
+
+		CompletableFuture.allOf(producers.toArray(new CompletableFuture<?>[producers.size()])).whenComplete((done, e) -> {
+			loadTest.producerExecutor.shutdown();
+			browseCacheService.invalidate(resourceCode);
+
+			if (e != null) {
+				LOGGER.error("ERROR : ", e);
+				result.finish(LoadTestResult.Status.FAILED, "Load test failed : " + resourceCode);
+			} else {
+				result.finish(loadTest.cancelled ? LoadTestResult.Status.CANCELLED : LoadTestResult.Status.COMPLETED, null);
+			}
+
+			LOGGER.info("start - load test {} of {} : {} sent, {} failed, {} msg/s, latency {}", result.getId(), resourceCode,
+					result.getSent(), result.getFailed(), (long) result.getMessagesPerSecond(), result.getLatencyMicros());
+		});
+
+		LOGGER.info("start - end");
+		return result;
+	}
+
+	/**
+	 * Gets the load test with the given id.
+	 * @param id
+	 * @return the test or null if it isn't found (only the last tests are kept)
+	 */
+	public LoadTestResult getTest(final String id) {
+		synchronized (tests) {
+			LoadTest loadTest = tests.get(id);
+			return loadTest != null ? loadTest.result : null;
+		}
+	}
+
+	/**
+	 * Gets the last load tests (running or finished) in start order.
+	 * @return
+	 */
+	public List<LoadTestResult> getTests() {
+		List<LoadTestResult> results = new ArrayList<>();
+
+		synchronized (tests) {
+			for (LoadTest loadTest : tests.values()) {
+				results.add(loadTest.result);
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * Cancels the load test with the given id (the sends in progress are completed).
+	 * @param id
+	 * @return the test or null if it isn't found
+	 */
+	public LoadTestResult cancel(final String id) {
+		LoadTest loadTest;
+
+		synchronized (tests) {
+			loadTest = tests.get(id);
+		}
+
+		if (loadTest == null) {
+			return null;
+		}
+
+		loadTest.cancelled = true;
+		return loadTest.result;
+	}
+
+	/**
+	 * Sends messages until the test stops: the number of messages is reached, the duration (the max duration for a test
+	 * with only a number of messages) expires or it's cancelled.
+	 * With a target rate each message is sent at its scheduled time (start + sequence / rate).
+	 * @param loadTest
+	 * @param payload the chars of the payloads
+	 * @param startNanos
+	 */
+	private void produce(final LoadTest loadTest, final char[] payload, final long startNanos) {
+		LoadTestResult result = loadTest.result;
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(result.getResource());
+		boolean queue = resource.getType().equals(ResourcesEnum.QUEUE_TYPE);
+		long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(result.getDurationMillis() != null ? result.getDurationMillis()
+				: maxDuration);
+		double intervalNanos = result.getRate() > 0 ? 1e9 / result.getRate() : 0;
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		while (!loadTest.cancelled) {
+			long sequence = loadTest.scheduled.getAndIncrement();
+
+			if (result.getMessages() != null && sequence >= result.getMessages()) {
+				break;
+			}
+
+			long sendAt = startNanos + (long) (sequence * intervalNanos);
+
+			if (sendAt - deadline >= 0 || System.nanoTime() - deadline >= 0) {
+				break;
+			}
+
+			if (!waitUntil(sendAt, loadTest)) {
+				break;
+			}
+
+			int size = result.getMinPayloadSize() + random.nextInt(result.getMaxPayloadSize() - result.getMinPayloadSize() + 1);
+			String message = new String(payload, random.nextInt(payload.length - size + 1), size);
+			long sendStart = System.nanoTime();
+			boolean sent = queue ? queueService.sendMessageTo(resource.getCode(), message)
+					: topicService.sendMessageTo(resource.getCode(), message);
+
+			if (sent) {
+				result.addSent(size, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sendStart));
+			} else {
+				result.addFailed();
+			}
+		}
+	}
+
+	/**
+	 * Waits until the given time (or the test is cancelled).
+	 * @param nanos
+	 * @param loadTest
+	 * @return false if the test was cancelled
+	 */
+	private static boolean waitUntil(final long nanos, final LoadTest loadTest) {
+		long wait = nanos - System.nanoTime();
+
+		while (wait > 0 && !loadTest.cancelled) {
+			LockSupport.parkNanos(Math.min(wait, TimeUnit.MILLISECONDS.toNanos(100)));
+			wait = nanos - System.nanoTime();
+		}
+
+		return !loadTest.cancelled;
+	}
+
+	/**
+	 * Validates the resource and the options of the given test.
+	 * @param resourceCode
+	 * @param result
+	 * @return the error or null if they're valid
+	 */
+	private String validate(final String resourceCode, final LoadTestResult result) {
+		if (ResourcesEnum.getResourceByCode(resourceCode) == null) {
+			return "Not configured resource : " + resourceCode;
+		}
+
+		if (result.getMessages() != null && result.getMessages() < 1) {
+			return "The messages must be positive";
+		}
+
+		if (result.getDurationMillis() != null && (result.getDurationMillis() < 1 || result.getDurationMillis() > maxDuration)) {
+			return "The duration must be between 1 and " + maxDuration + " ms";
+		}
+
+		if (result.getRate() < 0) {
+			return "The rate can't be negative";
+		}
+
+		if (result.getConcurrency() < 1 || result.getConcurrency() > maxConcurrency) {
+			return "The concurrency must be between 1 and " + maxConcurrency;
+		}
+
+		if (result.getMinPayloadSize() < 0 || result.getMinPayloadSize() > result.getMaxPayloadSize()
+				|| result.getMaxPayloadSize() > maxPayloadSize) {
+			return "The payload sizes must be between 0 and " + maxPayloadSize + " (min <= max)";
+		}
+
+		return null;
+	}
+
+	/**
+	 * Registers the given test removing the oldest finished tests over the retained tests.
+	 * @param loadTest
+	 * @return false if the max running tests are running (the test isn't registered)
+	 */
+	private boolean register(final LoadTest loadTest) {
+		synchronized (tests) {
+			long running = tests.values().stream()
+					.filter(test -> test.result.getStatus() == LoadTestResult.Status.RUNNING).count();
+
+			if (running >= maxRunningTests) {
+				return false;
+			}
+
+			tests.put(loadTest.result.getId(), loadTest);
+
+			Iterator<LoadTest> iterator = tests.values().iterator();
+
+			while (tests.size() > retainedTests && iterator.hasNext()) {
+				if (iterator.next().result.getStatus() != LoadTestResult.Status.RUNNING) {
+					iterator.remove();
+				}
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Creates the random chars of the payloads (each payload is a random slice).
+	 * @param size
+	 * @return
+	 */
+	private static char[] createPayload(final int size) {
+		char[] payload = new char[Math.max(1, size)];
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		for (int index = 0; index < payload.length; index++) {
+			payload[index] = PAYLOAD_CHARS[random.nextInt(PAYLOAD_CHARS.length)];
+		}
+
+		return payload;
+	}
+
+	/**
+	 * Creates the executor of the producers of a test.
+	 * @param producers
+	 * @return
+	 */
+	private static ExecutorService createProducerExecutor(final int producers) {
+		AtomicInteger threadNumber = new AtomicInteger();
+
+		return Executors.newFixedThreadPool(producers, runnable -> {
+			Thread thread = new Thread(runnable, "loadtest-producer-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+}
@@ -0,0 +1,141 @@
+package com.example.jms.service.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters of a service operation on a resource, tagged with the operation and the resource code:
+ * the operation time by outcome (success or failure), the failures by exception type, the messages and bytes
+ * transferred by each operation and the time to create (or acquire) its connections.
+ * An instance measures one run of an operation (it can be shared by the threads of the operation): it's created when
+ * the operation starts and stopped when it ends.
+ * @author Gabriel
+ *
+ */
+public class OperationMetrics {
+
+	public static final String OPERATION_TIMER = "jms.operation";
+	public static final String FAILURES_COUNTER = "jms.operation.failures";
+	public static final String MESSAGES_SUMMARY = "jms.operation.messages";
+	public static final String BYTES_SUMMARY = "jms.operation.bytes";
+	public static final String CONNECTION_TIMER = "jms.connection.create";
+
+	private static final String SUCCESS = "success";
+	private static final String FAILURE = "failure";
+
+	private final MeterRegistry meterRegistry;
+	private final String operation;
+	private final String resource;
+	private final long startNanos = System.nanoTime();
+	private final AtomicLong messages = new AtomicLong();
+	private final AtomicLong bytes = new AtomicLong();
+	private volatile boolean messagesCounted;
+	private volatile boolean bytesCounted;
+	private volatile boolean failed;
+
+	/**
+	 * Opens a connection (it can throw a JMSException).
+	 */
+	@FunctionalInterface
+	public interface ConnectionOpener {
+		Connection open() throws JMSException;
+	}
+
+	/**
+	 * Creates the meters of an operation starting now.
+	 * @param meterRegistry
+	 * @param operation
+	 * @param resource
+	 */
+	private OperationMetrics(final MeterRegistry meterRegistry, final String operation, final String resource) {
+		this.meterRegistry = meterRegistry;
+		this.operation = operation;
+		this.resource = resource != null ? resource : "none";
+	}
+
+	/**
+	 * Starts measuring the given operation on the given resource.
+	 * @param meterRegistry
+	 * @param operation
+	 * @param resource the resource code
+	 * @return
+	 */
+	public static OperationMetrics start(final MeterRegistry meterRegistry, final String operation, final String resource) {
+		return new OperationMetrics(meterRegistry, operation, resource);
+	}
+
+	/**
+	 * Opens a connection with the given opener measuring its creation time.
+	 * @param connectionOpener
+	 * @return
+	 * @throws JMSException
+	 */
+	public Connection connect(final ConnectionOpener connectionOpener) throws JMSException {
+		long connectStart = System.nanoTime();
+		boolean opened = false;
+
+		try {
+			Connection connection = connectionOpener.open();
+			opened = true;
+			return connection;
+		} finally {
+			Timer.builder(CONNECTION_TIMER).tags("operation", operation, "resource", resource, "outcome", opened ? SUCCESS : FAILURE)
+					.register(meterRegistry).record(System.nanoTime() - connectStart, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Counts messages transferred by the operation.
+	 * @param count
+	 */
+	public void addMessages(final long count) {
+		messages.addAndGet(count);
+		messagesCounted = true;
+	}
+
+	/**
+	 * Counts bytes transferred by the operation.
+	 * @param count
+	 */
+	public void addBytes(final long count) {
+		bytes.addAndGet(count);
+		bytesCounted = true;
+	}
+
+	/**
+	 * Counts a failure of the operation by its exception type (the operation outcome is failure).
+	 * @param exception
+	 */
+	public void failed(final Throwable exception) {
+		failed = true;
+		Counter.builder(FAILURES_COUNTER).tags("operation", operation, "resource", resource, "exception",
+				exception.getClass().getSimpleName()).register(meterRegistry).increment();
+	}
+
+	/**
+	 * Records the operation time (with a percentiles histogram for the scrapers) and the transferred messages and bytes
+	 * (if they were counted).
+	 */
+	public void stop() {
+		Timer.builder(OPERATION_TIMER).tags("operation", operation, "resource", resource, "outcome", failed ? FAILURE : SUCCESS)
+				.publishPercentileHistogram().register(meterRegistry).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+		if (messagesCounted) {
+			DistributionSummary.builder(MESSAGES_SUMMARY).baseUnit("messages").tags("operation", operation, "resource", resource)
+					.register(meterRegistry).record(messages.get());
+		}
+
+		if (bytesCounted) {
+			DistributionSummary.builder(BYTES_SUMMARY).baseUnit("bytes").tags("operation", operation, "resource", resource)
+					.register(meterRegistry).record(bytes.get());
+		}
+	}
+}
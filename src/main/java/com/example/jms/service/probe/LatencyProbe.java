@@ -0,0 +1,320 @@
+package com.example.jms.service.probe;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.ProbeResult;
+
+/**
+ * Latency probe of a resource: sends sequence numbered text messages with their send time and receives them on
+ * its own connection with a dedicated consumer (queues) or subscriber (topics) that only selects the
+ * messages of the probe. An on demand topic probe uses a durable subscriber that is removed when it closes; a
+ * continuous topic probe uses a non durable one, so reconnecting after a failure doesn't leave offline durable
+ * subscriptions in the broker. Each received message records its produce to consume latency, and the messages not
+ * received before the timeout are counted as lost (they expire in the broker after the timeout too).
+ * A probe sends from one thread at a time.
+ * @author Gabriel
+ *
+ */
+public class LatencyProbe {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LatencyProbe.class);
+
+	static final String PROBE_PROPERTY = "JmsToolkitProbe";
+	static final String SEQUENCE_PROPERTY = "JmsToolkitProbeSequence";
+	static final String SENT_PROPERTY = "JmsToolkitProbeSentNanos";
+
+	private static final String CLIENT_ID_PREFIX = "JmsToolkitProbe-";
+	private static final String SUBSCRIPTION_PREFIX = "probe-";
+
+	private final ConnectionFactory connectionFactory;
+	private final ResourcesEnum resource;
+	private final String id;
+	private final long timeoutMillis;
+	private final boolean durable;
+	private final ProbeResult total;
+	private volatile ProbeResult window;
+
+	// sequence -> send time (nanos) of the messages not received yet
+	private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+
+	private Connection connection;
+	private Session consumerSession;
+	private MessageConsumer messageConsumer;
+	private Session producerSession;
+	private MessageProducer messageProducer;
+	private volatile boolean connected;
+
+	/**
+	 * Creates a new not connected probe.
+	 * @param connectionFactory a not pooled connection factory (the topic probes set the client ID)
+	 * @param resource
+	 * @param id
+	 * @param timeoutMillis the time to receive a message before it's lost
+	 * @param durable true to receive the messages of a topic with a durable subscriber
+	 * @param total the result of the probe
+	 */
+	public LatencyProbe(final ConnectionFactory connectionFactory, final ResourcesEnum resource, final String id,
+			final long timeoutMillis, final boolean durable, final ProbeResult total) {
+		this.connectionFactory = connectionFactory;
+		this.resource = resource;
+		this.id = id;
+		this.timeoutMillis = timeoutMillis;
+		this.durable = durable;
+		this.total = total;
+	}
+
+	/**
+	 * Opens the connection and creates the consumer (before any message is sent) and the producer.
+	 * @throws JMSException
+	 */
+	public synchronized void open() throws JMSException {
+		boolean topic = resource.getType().equals(ResourcesEnum.TOPIC_TYPE);
+		String selector = PROBE_PROPERTY + " = '" + id + "'";
+
+		try {
+			connection = connectionFactory.createConnection();
+			connection.setExceptionListener(exception -> {
+				LOGGER.warn("open - probe connection of {} lost : {}", resource.getCode(), exception.getMessage());
+				connected = false;
+			});
+
+			if (topic && durable) {
+				connection.setClientID(CLIENT_ID_PREFIX + id);
+			}
+
+			consumerSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+			if (!topic) {
+				messageConsumer = consumerSession.createConsumer(consumerSession.createQueue(resource.getCode()), selector);
+			} else if (durable) {
+				messageConsumer = consumerSession.createDurableSubscriber(consumerSession.createTopic(resource.getCode()), SUBSCRIPTION_PREFIX + id, selector, false);
+			} else {
+				messageConsumer = consumerSession.createConsumer(consumerSession.createTopic(resource.getCode()), selector);
+			}
+
+			messageConsumer.setMessageListener(this::receive);
+
+			producerSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			messageProducer = producerSession.createProducer(topic ? producerSession.createTopic(resource.getCode())
+					: producerSession.createQueue(resource.getCode()));
+			messageProducer.setTimeToLive(timeoutMillis);
+
+			connection.start();
+			connected = true;
+		} catch (JMSException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Sends the next probe message.
+	 * @throws JMSException
+	 */
+	public synchronized void send() throws JMSException {
+		long number = sequence.incrementAndGet();
+		TextMessage message = producerSession.createTextMessage("probe " + number);
+		long sentNanos = System.nanoTime();
+
+		message.setStringProperty(PROBE_PROPERTY, id);
+		message.setLongProperty(SEQUENCE_PROPERTY, number);
+		message.setLongProperty(SENT_PROPERTY, sentNanos);
+		pending.put(number, sentNanos);
+
+		try {
+			messageProducer.send(message);
+		} catch (JMSException e) {
+			pending.remove(number);
+			throw e;
+		}
+
+		total.addSent();
+		ProbeResult current = window;
+
+		if (current != null) {
+			current.addSent();
+		}
+	}
+
+	/**
+	 * Counts as lost the messages sent before the timeout.
+	 */
+	public void expire() {
+		long expiredNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		Iterator<Long> iterator = pending.values().iterator();
+		int expired = 0;
+
+		while (iterator.hasNext()) {
+			if (iterator.next() - expiredNanos < 0) {
+				iterator.remove();
+				expired++;
+			}
+		}
+
+		addLost(expired);
+	}
+
+	/**
+	 * Closes the connection (unsubscribing the durable subscriber of a topic) and counts the pending messages as
+	 * lost.
+	 */
+	public synchronized void close() {
+		boolean healthy = connected;
+		connected = false;
+
+		if (messageConsumer != null) {
+			try {
+				messageConsumer.close();
+			} catch (Exception e) {
+				LOGGER.warn("close - probe consumer of {} not closed : {}", resource.getCode(), e.getMessage());
+			}
+
+			if (durable && resource.getType().equals(ResourcesEnum.TOPIC_TYPE)) {
+				unsubscribe(healthy);
+			}
+		}
+
+		closeConnection(connection);
+		connection = null;
+		messageConsumer = null;
+
+		int remaining = pending.size();
+		pending.clear();
+		addLost(remaining);
+	}
+
+	/**
+	 * Removes the durable subscriber of the probe: on its own connection if it's healthy, otherwise on a new
+	 * connection with the same client ID (a failed connection can't remove it).
+	 * @param healthy
+	 */
+	private void unsubscribe(final boolean healthy) {
+		if (healthy) {
+			try {
+				consumerSession.unsubscribe(SUBSCRIPTION_PREFIX + id);
+				return;
+			} catch (Exception e) {
+				LOGGER.warn("close - probe subscriber of {} not removed, retrying : {}", resource.getCode(), e.getMessage());
+			}
+		}
+
+		closeConnection(connection);
+		connection = null;
+		Connection unsubscribeConnection = null;
+
+		try {
+			unsubscribeConnection = connectionFactory.createConnection();
+			unsubscribeConnection.setClientID(CLIENT_ID_PREFIX + id);
+			unsubscribeConnection.createSession(false, Session.AUTO_ACKNOWLEDGE).unsubscribe(SUBSCRIPTION_PREFIX + id);
+		} catch (Exception e) {
+			LOGGER.warn("close - probe subscriber of {} not removed : {}", resource.getCode(), e.getMessage());
+		} finally {
+			closeConnection(unsubscribeConnection);
+		}
+	}
+
+	/**
+	 * Checks if the probe is connected.
+	 * @return
+	 */
+	public boolean isConnected() {
+		return connected;
+	}
+
+	/**
+	 * Gets the number of sent messages not received yet.
+	 * @return
+	 */
+	public int getPending() {
+		return pending.size();
+	}
+
+	/**
+	 * Sets the window result that counts the next messages too.
+	 * @param window
+	 */
+	public void setWindow(final ProbeResult window) {
+		this.window = window;
+	}
+
+	/**
+	 * Records the latency of a received probe message (a message not pending was already received or lost).
+	 * @param message
+	 */
+	private void receive(final Message message) {
+		long receivedNanos = System.nanoTime();
+		ProbeResult current = window;
+
+		try {
+			Long sentNanos = pending.remove(message.getLongProperty(SEQUENCE_PROPERTY));
+
+			if (sentNanos == null) {
+				total.addDuplicate();
+
+				if (current != null) {
+					current.addDuplicate();
+				}
+
+				return;
+			}
+
+			long latency = TimeUnit.NANOSECONDS.toMicros(receivedNanos - message.getLongProperty(SENT_PROPERTY));
+			total.addReceived(latency);
+
+			if (current != null) {
+				current.addReceived(latency);
+			}
+		} catch (Exception e) {
+			LOGGER.warn("receive - probe message of {} can't be read : {}", resource.getCode(), e.getMessage());
+		}
+	}
+
+	/**
+	 * Counts lost messages.
+	 * @param lost
+	 */
+	private void addLost(final int lost) {
+		if (lost == 0) {
+			return;
+		}
+
+		total.addLost(lost);
+		ProbeResult current = window;
+
+		if (current != null) {
+			current.addLost(lost);
+		}
+	}
+
+	/**
+	 * Closes the given connection.
+	 * @param connection
+	 */
+	private void closeConnection(final Connection connection) {
+		try {
+			if (connection != null) {
+				connection.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+	}
+}
@@ -0,0 +1,413 @@
+package com.example.jms.service.probe;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.ContinuousProbeResult;
+import com.example.jms.model.ProbeResult;
+
+/**
+ * Services for the end to end latency probes (see LatencyProbe): an on demand probe sends a number of messages
+ * through a resource and waits for them in background (at most max running probes at the same time, the others wait
+ * for a free runner), and the continuous probes of the configured resources send a message every
+ * interval as a synthetic monitor, reporting the totals and the last window against the latency SLO (p99).
+ * The probe messages are received by the probe consumers only, but the other consumers of a queue can take them
+ * and the subscribers of a topic receive them too (they expire after the probe timeout).
+ * @author Gabriel
+ *
+ */
+@Service
+public class LatencyProbeService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LatencyProbeService.class);
+
+	@Value("${com.exmaple.jms.probe.messages:100}")
+	private int defaultMessages = 100;
+
+	@Value("${com.exmaple.jms.probe.maxMessages:10000}")
+	private int maxMessages = 10000;
+
+	@Value("${com.exmaple.jms.probe.interval:10}")
+	private long defaultInterval = 10;
+
+	@Value("${com.exmaple.jms.probe.timeout:5000}")
+	private long timeout = 5000;
+
+	@Value("${com.exmaple.jms.probe.sloLatency:100}")
+	private long sloLatency = 100;
+
+	@Value("${com.exmaple.jms.probe.maxRunning:4}")
+	private int maxRunning = 4;
+
+	@Value("${com.exmaple.jms.probe.retainedProbes:20}")
+	private int retainedProbes = 20;
+
+	@Value("${com.exmaple.jms.probe.continuous.resources:}")
+	private String continuousResources = "";
+
+	@Value("${com.exmaple.jms.probe.continuous.interval:1000}")
+	private long continuousInterval = 1000;
+
+	@Value("${com.exmaple.jms.probe.continuous.window:60000}")
+	private long window = 60000;
+
+	@Autowired
+	ConnectionFactory connectionFactory;
+
+	@Autowired(required = false)
+	@Qualifier("durableConnectionFactory")
+	ConnectionFactory durableConnectionFactory;
+
+	// resource code -> continuous probe
+	private final Map<String, ContinuousProbe> continuousProbes = new LinkedHashMap<>();
+
+	// on demand probes by id, in start order
+	private final Map<String, ProbeResult> probes = new LinkedHashMap<>();
+
+	private ScheduledExecutorService probeExecutor;
+
+	private ExecutorService runExecutor;
+
+	/**
+	 * Continuous probe of a resource: its totals, windows and the probe of the current connection.
+	 */
+	private static class ContinuousProbe {
+		private final ResourcesEnum resource;
+		private final ProbeResult total;
+		private volatile ProbeResult window;
+		private volatile ProbeResult lastWindow;
+		private volatile LatencyProbe probe;
+
+		private ContinuousProbe(final ResourcesEnum resource, final ProbeResult total) {
+			this.resource = resource;
+			this.total = total;
+		}
+	}
+
+	/**
+	 * Starts the continuous probes of the configured resources (the not configured ones are ignored).
+	 */
+	@PostConstruct
+	public synchronized void start() {
+		for (String code : continuousResources.split(",")) {
+			ResourcesEnum resource = ResourcesEnum.getResourceByCode(code.trim());
+
+			if (resource != null) {
+				continuousProbes.put(resource.getCode(), new ContinuousProbe(resource, createResult(resource.getCode())));
+			} else if (!code.trim().isEmpty()) {
+				LOGGER.warn("start - not configured probe resource : {}", code);
+			}
+		}
+
+		if (continuousProbes.isEmpty()) {
+			return;
+		}
+
+		probeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "latency-probe");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		for (ContinuousProbe continuousProbe : continuousProbes.values()) {
+			continuousProbe.window = createResult(continuousProbe.resource.getCode());
+			probeExecutor.scheduleAtFixedRate(() -> probe(continuousProbe), 0, continuousInterval, TimeUnit.MILLISECONDS);
+		}
+
+		LOGGER.info("start - continuous probes started for : {}", continuousProbes.keySet());
+	}
+
+	/**
+	 * Stops the continuous probes and the running on demand probes.
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		if (runExecutor != null) {
+			runExecutor.shutdownNow();
+			runExecutor = null;
+		}
+
+		if (probeExecutor != null) {
+			probeExecutor.shutdownNow();
+
+			try {
+				probeExecutor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			probeExecutor = null;
+		}
+
+		for (ContinuousProbe continuousProbe : continuousProbes.values()) {
+			if (continuousProbe.probe != null) {
+				continuousProbe.probe.close();
+			}
+
+			continuousProbe.total.finish();
+		}
+
+		continuousProbes.clear();
+	}
+
+	/**
+	 * Starts a probe in background that sends the given number of probe messages to the given resource every interval
+	 * ms and waits for them (until the probe timeout after the last one).
+	 * @param resourceCode
+	 * @param messages the number of messages or null to use the configured value
+	 * @param interval the ms between the messages or null to use the configured value
+	 * @return the running result (finished with an error if the resource isn't configured or the arguments aren't valid)
+	 */
+	public ProbeResult probe(final String resourceCode, final Integer messages, final Long interval) {
+		LOGGER.info("probe - start");
+
+		ProbeResult result = createResult(resourceCode);
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
+		int count = messages != null ? messages : defaultMessages;
+		long sendInterval = interval != null ? interval : defaultInterval;
+
+		if (resource == null) {
+			result.setError("Not configured resource : " + resourceCode);
+		} else if (count < 1 || count > maxMessages) {
+			result.setError("The messages must be between 1 and " + maxMessages);
+		} else if (sendInterval < 0) {
+			result.setError("The interval can't be negative");
+		}
+
+		if (result.getError() != null) {
+			result.finish();
+			LOGGER.info("probe - end");
+			return result;
+		}
+
+		register(result);
+
+		try {
+			getRunExecutor().execute(() -> run(result, resource, count, sendInterval));
+		} catch (RejectedExecutionException e) {
+			result.setError("Probe not started : " + resourceCode);
+			result.finish();
+		}
+
+		LOGGER.info("probe - end");
+		return result;
+	}
+
+	/**
+	 * Gets the on demand probe with the given id.
+	 * @param id
+	 * @return the probe or null if it isn't found (only the last probes are kept)
+	 */
+	public ProbeResult getProbe(final String id) {
+		synchronized (probes) {
+			return probes.get(id);
+		}
+	}
+
+	/**
+	 * Gets the reports of the continuous probes.
+	 * @return
+	 */
+	public synchronized List<ContinuousProbeResult> getContinuousProbes() {
+		List<ContinuousProbeResult> results = new ArrayList<>();
+
+		for (ContinuousProbe continuousProbe : continuousProbes.values()) {
+			LatencyProbe probe = continuousProbe.probe;
+			results.add(new ContinuousProbeResult(continuousProbe.resource.getCode(), probe != null && probe.isConnected(),
+					continuousProbe.total, continuousProbe.lastWindow));
+		}
+
+		return results;
+	}
+
+	/**
+	 * Runs an on demand probe: sends the messages every interval ms and waits for them until the probe timeout
+	 * after the last one.
+	 * @param result
+	 * @param resource
+	 * @param count
+	 * @param sendInterval
+	 */
+	private void run(final ProbeResult result, final ResourcesEnum resource, final int count, final long sendInterval) {
+		LatencyProbe probe = new LatencyProbe(getProbeConnectionFactory(), resource, result.getId(), timeout, true, result);
+
+		try {
+			probe.open();
+
+			long startNanos = System.nanoTime();
+
+			for (int message = 0; message < count; message++) {
+				sleepUntil(startNanos + TimeUnit.MILLISECONDS.toNanos(message * sendInterval));
+				probe.send();
+			}
+
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+			while (probe.getPending() > 0 && System.nanoTime() - deadline < 0) {
+				Thread.sleep(1);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			result.setError("Probe interrupted");
+		} catch (Exception e) {
+			LOGGER.error("ERROR : ", e);
+			result.setError("Probe failed : " + resource.getCode());
+		} finally {
+			probe.close();
+			result.finish();
+		}
+
+		LOGGER.info("run - probe {} of {} : {} sent, {} received, {} lost, latency {}", result.getId(), resource.getCode(),
+				result.getSent(), result.getReceived(), result.getLost(), result.getLatencyMicros());
+	}
+
+	/**
+	 * Registers the given on demand probe removing the oldest finished probes over the retained probes.
+	 * @param result
+	 */
+	private void register(final ProbeResult result) {
+		synchronized (probes) {
+			probes.put(result.getId(), result);
+
+			Iterator<ProbeResult> iterator = probes.values().iterator();
+
+			while (probes.size() > retainedProbes && iterator.hasNext()) {
+				if (!iterator.next().isRunning()) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the executor of the on demand probes (created on the first probe).
+	 * @return
+	 */
+	private synchronized ExecutorService getRunExecutor() {
+		if (runExecutor == null) {
+			AtomicInteger threadNumber = new AtomicInteger();
+
+			runExecutor = Executors.newFixedThreadPool(Math.max(1, maxRunning), runnable -> {
+				Thread thread = new Thread(runnable, "latency-probe-run-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return runExecutor;
+	}
+
+	/**
+	 * Sends the next message of a continuous probe: starts a new window when the current one ends, opens a new probe
+	 * if the connection failed (the window gets the error so it misses the SLO) and counts the lost messages.
+	 * @param continuousProbe
+	 */
+	private void probe(final ContinuousProbe continuousProbe) {
+		String resourceCode = continuousProbe.resource.getCode();
+
+		try {
+			if (continuousProbe.window.getElapsedMillis() >= window) {
+				rollWindow(continuousProbe);
+			}
+
+			if (continuousProbe.probe != null && !continuousProbe.probe.isConnected()) {
+				continuousProbe.probe.close();
+				continuousProbe.probe = null;
+			}
+
+			if (continuousProbe.probe == null) {
+				LatencyProbe probe = new LatencyProbe(getProbeConnectionFactory(), continuousProbe.resource,
+						UUID.randomUUID().toString(), timeout, false, continuousProbe.total);
+				probe.setWindow(continuousProbe.window);
+				probe.open();
+				continuousProbe.probe = probe;
+			}
+
+			continuousProbe.probe.expire();
+
+			continuousProbe.probe.send();
+		} catch (JMSException e) {
+			LOGGER.warn("probe - continuous probe of {} failed : {}", resourceCode, e.getMessage());
+			continuousProbe.window.setError("Probe not connected : " + resourceCode);
+
+			if (continuousProbe.probe != null) {
+				continuousProbe.probe.close();
+				continuousProbe.probe = null;
+			}
+		} catch (Exception e) {
+			LOGGER.error("ERROR : ", e);
+		}
+	}
+
+	/**
+	 * Ends the current window of a continuous probe (it becomes the last window) and starts a new one.
+	 * @param continuousProbe
+	 */
+	private void rollWindow(final ContinuousProbe continuousProbe) {
+		ProbeResult ended = continuousProbe.window;
+		continuousProbe.window = createResult(continuousProbe.resource.getCode());
+
+		if (continuousProbe.probe != null) {
+			continuousProbe.probe.setWindow(continuousProbe.window);
+		}
+
+		ended.finish();
+		continuousProbe.lastWindow = ended;
+		LOGGER.info("rollWindow - {} : {} sent, {} received, {} lost, SLO met {}, latency {}", continuousProbe.resource.getCode(),
+				ended.getSent(), ended.getReceived(), ended.getLost(), ended.getSloMet(), ended.getLatencyMicros());
+	}
+
+	/**
+	 * Creates a running result with the configured SLO.
+	 * @param resourceCode
+	 * @return
+	 */
+	private ProbeResult createResult(final String resourceCode) {
+		return new ProbeResult(UUID.randomUUID().toString(), resourceCode,
+				sloLatency > 0 ? TimeUnit.MILLISECONDS.toMicros(sloLatency) : null);
+	}
+
+	/**
+	 * Gets the connection factory of the probes: not pooled, so the topic probes can set their client ID.
+	 * @return
+	 */
+	private ConnectionFactory getProbeConnectionFactory() {
+		return durableConnectionFactory != null ? durableConnectionFactory : connectionFactory;
+	}
+
+	/**
+	 * Sleeps until the given time.
+	 * @param nanos
+	 * @throws InterruptedException
+	 */
+	private static void sleepUntil(final long nanos) throws InterruptedException {
+		long wait = nanos - System.nanoTime();
+
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+}
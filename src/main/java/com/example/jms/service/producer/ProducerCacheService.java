@@ -0,0 +1,378 @@
+package com.example.jms.service.producer;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.BatchSendResult;
+import com.example.jms.model.BrowsedMessage;
+import com.example.jms.service.metrics.OperationMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Cache of message producers by resource code.
+ * Each cached producer keeps its pooled connection, session and destination so the next sends to the
+ * same queue/topic don't resolve the destination or register a new producer in the broker.
+ * The sessions aren't thread safe so a cached producer is used by one send at a time.
+ * The batch sends use their own cached producers bound to transacted sessions.
+ * @author Gabriel
+ *
+ */
+@Service
+public class ProducerCacheService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProducerCacheService.class);
+
+	@Value("${com.exmaple.jms.producer.maxIdlePerResource:16}")
+	private int maxIdlePerResource = 16;
+
+	private final ConcurrentMap<String, ProducerPool> producers = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, ProducerPool> transactedProducers = new ConcurrentHashMap<>();
+
+	@Autowired
+	ConnectionFactory connectionFactory;
+
+	@Autowired(required = false)
+	MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+	/**
+	 * Sends the given text message to the given resource code using a cached producer.
+	 * @param resourceCode
+	 * @param message
+	 * @return
+	 */
+	public boolean sendTextMessage(final String resourceCode, final String message) {
+		LOGGER.info("sendTextMessage - start");
+
+		OperationMetrics metrics = OperationMetrics.start(meterRegistry, "send", resourceCode);
+		ProducerPool producerPool = null;
+		CachedProducer cachedProducer = null;
+
+		try {
+			producerPool = getProducerPool(producers, resourceCode, false);
+			cachedProducer = borrowProducer(resourceCode, producerPool, metrics);
+			cachedProducer.producer.send(cachedProducer.session.createTextMessage(message));
+			metrics.addBytes(BrowsedMessage.getSize(message));
+
+			LOGGER.debug("sendTextMessage - message sent ok to : {}", resourceCode);
+			releaseProducer(producerPool, cachedProducer);
+			return true;
+		} catch (Exception e) {
+			LOGGER.error("ERROR : ", e);
+			metrics.failed(e);
+			closeProducer(cachedProducer);
+			invalidate(resourceCode);
+			return false;
+		} finally {
+			metrics.stop();
+			LOGGER.info("sendTextMessage - end");
+		}
+	}
+
+	/**
+	 * Sends the given text messages to the given resource code using a transacted session.
+	 * The session is committed every commit interval messages. If a batch fails it's rolled back and
+	 * the next batches aren't sent (the previous batches remain committed).
+	 * @param resourceCode
+	 * @param messages
+	 * @param commitInterval
+	 * @return
+	 */
+	public BatchSendResult sendTextMessages(final String resourceCode, final List<String> messages, final int commitInterval) {
+		LOGGER.info("sendTextMessages - start");
+
+		int interval = Math.max(1, commitInterval);
+		BatchSendResult result = new BatchSendResult(resourceCode, messages != null ? messages.size() : 0, interval);
+		long start = System.nanoTime();
+		OperationMetrics metrics = OperationMetrics.start(meterRegistry, "sendBatch", resourceCode);
+		ProducerPool producerPool = null;
+		CachedProducer cachedProducer = null;
+
+		try {
+			if (result.getTotal() == 0) {
+				return result;
+			}
+
+			producerPool = getProducerPool(transactedProducers, resourceCode, true);
+			cachedProducer = borrowProducer(resourceCode, producerPool, metrics);
+
+			for (int index = 0; index < messages.size(); index += interval) {
+				int end = Math.min(index + interval, messages.size());
+				long batchStart = System.nanoTime();
+				long batchBytes = 0;
+
+				for (String message : messages.subList(index, end)) {
+					cachedProducer.producer.send(cachedProducer.session.createTextMessage(message));
+					batchBytes += BrowsedMessage.getSize(message);
+				}
+
+				long commitStart = System.nanoTime();
+				cachedProducer.session.commit();
+				metrics.addBytes(batchBytes);
+
+				result.addBatch(end - index, TimeUnit.NANOSECONDS.toMicros(commitStart - batchStart),
+						TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - commitStart));
+				LOGGER.debug("sendTextMessages - committed {} messages to : {}", end - index, resourceCode);
+			}
+
+			releaseProducer(producerPool, cachedProducer);
+			return result;
+		} catch (Exception e) {
+			LOGGER.error("ERROR : ", e);
+			metrics.failed(e);
+			result.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+			rollbackSession(cachedProducer);
+			closeProducer(cachedProducer);
+			invalidate(resourceCode);
+			return result;
+		} finally {
+			metrics.addMessages(result.getSent());
+			metrics.stop();
+			result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			LOGGER.info("sendTextMessages - end");
+		}
+	}
+
+	/**
+	 * Closes and removes the cached producers for the given resource code.
+	 * @param resourceCode
+	 */
+	public void invalidate(final String resourceCode) {
+		if (resourceCode == null) {
+			return;
+		}
+
+		invalidate(producers.remove(resourceCode));
+		invalidate(transactedProducers.remove(resourceCode));
+	}
+
+	/**
+	 * Closes and removes all the cached producers.
+	 */
+	@PreDestroy
+	public void invalidateAll() {
+		for (String resourceCode : producers.keySet()) {
+			invalidate(resourceCode);
+		}
+
+		for (String resourceCode : transactedProducers.keySet()) {
+			invalidate(resourceCode);
+		}
+	}
+
+	/**
+	 * Gets the number of idle cached producers for the given resource code.
+	 * @param resourceCode
+	 * @return
+	 */
+	public int getIdleProducers(final String resourceCode) {
+		ProducerPool producerPool = resourceCode != null ? producers.get(resourceCode) : null;
+		return producerPool != null ? producerPool.idle.size() : 0;
+	}
+
+	/**
+	 * Marks the given producer pool as invalidated and closes its idle producers.
+	 * @param producerPool
+	 */
+	private void invalidate(final ProducerPool producerPool) {
+		if (producerPool != null) {
+			LOGGER.debug("invalidate - resource : {}", producerPool.resource.getCode());
+			producerPool.invalidated = true;
+			closeIdleProducers(producerPool);
+		}
+	}
+
+	/**
+	 * Gets the producer pool for the given resource code.
+	 * @param pools
+	 * @param resourceCode
+	 * @param transacted
+	 * @return
+	 * @throws JMSException
+	 */
+	private ProducerPool getProducerPool(final ConcurrentMap<String, ProducerPool> pools, final String resourceCode,
+			final boolean transacted) throws JMSException {
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
+
+		if (resource == null) {
+			throw new JMSException("Not configured resource : " + resourceCode);
+		}
+
+		return pools.computeIfAbsent(resource.getCode(), code -> new ProducerPool(resource, transacted));
+	}
+
+	/**
+	 * Gets an idle producer from the given pool or creates a new one.
+	 * @param resourceCode
+	 * @param producerPool
+	 * @param metrics the meters of the send (connection creation time)
+	 * @return
+	 * @throws JMSException
+	 */
+	private CachedProducer borrowProducer(final String resourceCode, final ProducerPool producerPool,
+			final OperationMetrics metrics) throws JMSException {
+		CachedProducer cachedProducer = producerPool.idle.poll();
+
+		if (cachedProducer != null) {
+			return cachedProducer;
+		}
+
+		LOGGER.debug("borrowProducer - creating producer for : {}", resourceCode);
+		return createProducer(producerPool.resource, producerPool.transacted, metrics);
+	}
+
+	/**
+	 * Returns the given producer to its pool (or closes it if the pool is full or was invalidated).
+	 * @param producerPool
+	 * @param cachedProducer
+	 */
+	private void releaseProducer(final ProducerPool producerPool, final CachedProducer cachedProducer) {
+		if (producerPool.invalidated || producerPool.idle.size() >= maxIdlePerResource) {
+			closeProducer(cachedProducer);
+		} else {
+			producerPool.idle.offer(cachedProducer);
+
+			if (producerPool.invalidated && producerPool.idle.remove(cachedProducer)) {
+				closeProducer(cachedProducer);
+			}
+		}
+	}
+
+	/**
+	 * Creates a new producer (with its connection, session and destination) for the given resource.
+	 * @param resource
+	 * @param transacted
+	 * @param metrics
+	 * @return
+	 * @throws JMSException
+	 */
+	private CachedProducer createProducer(final ResourcesEnum resource, final boolean transacted, final OperationMetrics metrics)
+			throws JMSException {
+		CachedProducer cachedProducer = new CachedProducer();
+
+		try {
+			cachedProducer.connection = metrics.connect(connectionFactory::createConnection);
+			cachedProducer.connection.setExceptionListener(exception -> {
+				LOGGER.warn("Connection failure, invalidating the cached producers : ", exception);
+				invalidateAll();
+			});
+			cachedProducer.session = cachedProducer.connection.createSession(transacted,
+					transacted ? Session.SESSION_TRANSACTED : Session.AUTO_ACKNOWLEDGE);
+
+			Destination destination = resource.getType().equals(ResourcesEnum.QUEUE_TYPE)
+					? cachedProducer.session.createQueue(resource.getCode())
+					: cachedProducer.session.createTopic(resource.getCode());
+
+			cachedProducer.producer = cachedProducer.session.createProducer(destination);
+			return cachedProducer;
+		} catch (JMSException | RuntimeException e) {
+			closeProducer(cachedProducer);
+			throw e;
+		}
+	}
+
+	/**
+	 * Closes all the idle producers of the given pool.
+	 * @param producerPool
+	 */
+	private void closeIdleProducers(final ProducerPool producerPool) {
+		CachedProducer cachedProducer = producerPool.idle.poll();
+
+		while (cachedProducer != null) {
+			closeProducer(cachedProducer);
+			cachedProducer = producerPool.idle.poll();
+		}
+	}
+
+	/**
+	 * Rolls back the not committed messages of the given transacted producer.
+	 * @param cachedProducer
+	 */
+	private void rollbackSession(final CachedProducer cachedProducer) {
+		try {
+			if (cachedProducer != null && cachedProducer.session != null) {
+				cachedProducer.session.rollback();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error rolling back : ", e);
+		}
+	}
+
+	/**
+	 * Closes the given producer with its session and connection.
+	 * @param cachedProducer
+	 */
+	private void closeProducer(final CachedProducer cachedProducer) {
+		if (cachedProducer == null) {
+			return;
+		}
+
+		try {
+			if (cachedProducer.producer != null) {
+				cachedProducer.producer.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+
+		try {
+			if (cachedProducer.session != null) {
+				cachedProducer.session.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+
+		try {
+			if (cachedProducer.connection != null) {
+				cachedProducer.connection.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+	}
+
+	/**
+	 * Idle producers of a resource.
+	 */
+	private static class ProducerPool {
+		private final ResourcesEnum resource;
+		private final boolean transacted;
+		private final Queue<CachedProducer> idle = new ConcurrentLinkedQueue<>();
+		private volatile boolean invalidated;
+
+		private ProducerPool(final ResourcesEnum resource, final boolean transacted) {
+			this.resource = resource;
+			this.transacted = transacted;
+		}
+	}
+
+	/**
+	 * A producer bound to its pooled connection and session.
+	 */
+	private static class CachedProducer {
+		private Connection connection;
+		private Session session;
+		private MessageProducer producer;
+	}
+}
@@ -0,0 +1,179 @@
+package com.example.jms.service.queue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.apache.activemq.ActiveMQConnection;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.apache.activemq.jms.pool.PooledConnection;
+import org.apache.activemq.util.JMXSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.jms.service.producer.ProducerCacheService;
+
+/**
+ * Services to purge the queues with the broker admin API (without consuming the messages).
+ * Only for Apache ActiveMQ:
+ * - the QueueViewMBean purge operation through the local JMX server (embedded broker) or the configured JMX url.
+ * - the ActiveMQConnection destroyDestination, only when it's requested explicitly: it removes the queue itself
+ *   (the broker creates it again with the next send or consumer) and fails if the queue has active consumers.
+ * @author Gabriel
+ *
+ */
+@Service
+public class NativePurgeService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(NativePurgeService.class);
+
+	private static final String QUEUE_OBJECT_NAME = "org.apache.activemq:type=Broker,brokerName=*,destinationType=Queue,destinationName=";
+
+	@Value("${com.exmaple.jms.purge.jmxUrl:}")
+	private String jmxUrl = "";
+
+	@Autowired
+	ConnectionFactory connectionFactory;
+
+	@Autowired
+	ProducerCacheService producerCacheService;
+
+	/**
+	 * Purges the given queue with the broker admin API (the queue MBean purge operation).
+	 * @param queueDestinationName
+	 * @return false if the provider doesn't have an admin API or the purge failed
+	 */
+	public boolean purgeQueue(final String queueDestinationName) {
+		LOGGER.info("purgeQueue - start");
+
+		boolean result = purgeWithJmx(queueDestinationName);
+
+		LOGGER.info("purgeQueue - end");
+		return result;
+	}
+
+	/**
+	 * Destroys the given queue with its messages (the broker creates it again with the next send or consumer).
+	 * @param queueDestinationName
+	 * @return false if the connection isn't an ActiveMQ connection or the queue has active consumers
+	 */
+	public boolean destroyQueue(final String queueDestinationName) {
+		LOGGER.info("destroyQueue - start");
+
+		boolean result = destroyDestination(queueDestinationName);
+
+		if (result) {
+			// the cached producers point to the destroyed destination
+			producerCacheService.invalidate(queueDestinationName);
+		}
+
+		LOGGER.info("destroyQueue - end");
+		return result;
+	}
+
+	/**
+	 * Purges the given queue with the QueueViewMBean purge operation. The queue name is encoded as ActiveMQ does
+	 * when it registers the MBean (so it can't be read as a pattern) and it must match exactly one MBean.
+	 * @param queueDestinationName
+	 * @return false if the queue MBean wasn't found (or more than one was found) or the purge failed
+	 */
+	private boolean purgeWithJmx(final String queueDestinationName) {
+		JMXConnector jmxConnector = null;
+
+		try {
+			MBeanServerConnection mBeanServerConnection;
+
+			if (jmxUrl == null || jmxUrl.isEmpty()) {
+				mBeanServerConnection = ManagementFactory.getPlatformMBeanServer();
+			} else {
+				jmxConnector = JMXConnectorFactory.connect(new JMXServiceURL(jmxUrl));
+				mBeanServerConnection = jmxConnector.getMBeanServerConnection();
+			}
+
+			Set<ObjectName> queueNames = mBeanServerConnection.queryNames(
+					new ObjectName(QUEUE_OBJECT_NAME + JMXSupport.encodeObjectNamePart(queueDestinationName)), null);
+
+			if (queueNames.size() != 1) {
+				LOGGER.warn("purgeWithJmx - {} queue MBeans found for : {}", queueNames.size(), queueDestinationName);
+				return false;
+			}
+
+			ObjectName queueName = queueNames.iterator().next();
+			LOGGER.debug("purgeWithJmx - purging : {}", queueName);
+			mBeanServerConnection.invoke(queueName, "purge", null, null);
+			return true;
+		} catch (Exception e) {
+			LOGGER.warn("purgeWithJmx - JMX purge not available : {}", e.getMessage());
+			return false;
+		} finally {
+			closeJmxConnector(jmxConnector);
+		}
+	}
+
+	/**
+	 * Destroys the given queue with the ActiveMQ connection.
+	 * @param queueDestinationName
+	 * @return false if the connection isn't an ActiveMQ connection or the destroy failed
+	 */
+	private boolean destroyDestination(final String queueDestinationName) {
+		Connection connection = null;
+
+		try {
+			connection = connectionFactory.createConnection();
+			Connection targetConnection = connection instanceof PooledConnection ? ((PooledConnection) connection).getConnection() : connection;
+
+			if (!(targetConnection instanceof ActiveMQConnection)) {
+				LOGGER.debug("destroyDestination - not an ActiveMQ connection");
+				return false;
+			}
+
+			((ActiveMQConnection) targetConnection).destroyDestination(new ActiveMQQueue(queueDestinationName));
+
+			LOGGER.debug("destroyDestination - destroyed : {}", queueDestinationName);
+			return true;
+		} catch (Exception e) {
+			LOGGER.warn("destroyDestination - destroy not available : {}", e.getMessage());
+			return false;
+		} finally {
+			closeConnection(connection);
+		}
+	}
+
+	/**
+	 * Closes the given JMX connector.
+	 * @param jmxConnector
+	 */
+	private void closeJmxConnector(final JMXConnector jmxConnector) {
+		try {
+			if (jmxConnector != null) {
+				jmxConnector.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+	}
+
+	/**
+	 * Closes the given connection.
+	 * @param connection
+	 */
+	private void closeConnection(final Connection connection) {
+		try {
+			if (connection != null) {
+				connection.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+	}
+}
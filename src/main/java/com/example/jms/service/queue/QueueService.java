@@ -1,24 +1,47 @@
 package com.example.jms.service.queue;
 
+import java.util.ArrayList;
 import java.util.Enumeration;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.annotation.PreDestroy;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
-
+import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.jms.Queue;
+import javax.jms.QueueBrowser;
 import javax.jms.Session;
-import javax.jms.TextMessage;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.jms.model.BatchSendResult;
+import com.example.jms.model.BrowsePage;
+import com.example.jms.model.BrowseResult;
+import com.example.jms.model.BrowsedMessage;
+import com.example.jms.model.DrainOptions;
+import com.example.jms.model.DrainResult;
+import com.example.jms.model.MessageBody;
+import com.example.jms.model.MessageHandler;
+import com.example.jms.service.consumer.MessageDrainer;
+import com.example.jms.service.metrics.OperationMetrics;
+import com.example.jms.service.producer.ProducerCacheService;
+import com.example.jms.service.statistics.DestinationStatisticsService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
 /**
  * Services for JMS queues.
  * @author Gabriel
@@ -29,82 +52,291 @@ public class QueueService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(QueueService.class);
 	
-	private static final int RECEIVE_TIME_OUT_MILISECONDS = 5000;
+	@Value("${com.exmaple.jms.drain.firstReceiveTimeout:1000}")
+	private long firstReceiveTimeout = 1000;
+
+	@Value("${com.exmaple.jms.drain.idleTimeout:100}")
+	private long idleTimeout = 100;
+
+	@Value("${com.exmaple.jms.drain.maxConsumers:16}")
+	private int drainThreads = 16;
+
+	@Value("${com.exmaple.jms.browse.cursorWindow:60000}")
+	private long cursorWindow = 60000;
+
+	private ExecutorService drainExecutor;
 	
 	@Autowired
 	ConnectionFactory connectionFactory;
 
+	@Autowired
+	ProducerCacheService producerCacheService;
+
+	@Autowired(required = false)
+	DestinationStatisticsService destinationStatisticsService;
+
+	@Autowired(required = false)
+	MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+	/**
+	 * Stops the drain executor.
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		if (drainExecutor != null) {
+			drainExecutor.shutdownNow();
+			drainExecutor = null;
+		}
+	}
+
 	/**
-	 * Sends the given message to the given queue code.
+	 * Sends the given message to the given queue code (using a cached producer).
 	 * @param queueDestinationName
 	 * @param message
 	 * @return
 	 */
 	public boolean sendMessageTo(final String queueDestinationName, final String message) {
 		LOGGER.info("sendMessageTo - start");
+
+		boolean result = producerCacheService.sendTextMessage(queueDestinationName, message);
+
+		LOGGER.info("sendMessageTo - end");
+		return result;
+	}
+
+	/**
+	 * Sends the given messages to the given queue code in transacted batches of commit interval messages.
+	 * @param queueDestinationName
+	 * @param messages
+	 * @param commitInterval
+	 * @return
+	 */
+	public BatchSendResult sendMessagesTo(final String queueDestinationName, final List<String> messages, final int commitInterval) {
+		LOGGER.info("sendMessagesTo - start");
+
+		BatchSendResult result = producerCacheService.sendTextMessages(queueDestinationName, messages, commitInterval);
+
+		LOGGER.info("sendMessagesTo - end");
+		return result;
+	}
+
+	/**
+	 * Browses and gets the messages from the given queue resource.
+	 * @param queueDestinationName
+	 * @return
+	 */
+	public BrowseResult browseMessagesFrom(final String queueDestinationName) {
+		return browseMessagesFrom(queueDestinationName, (String) null);
+	}
+
+	/**
+	 * Browses and gets the messages matching the given selector from the given queue resource.
+	 * @param queueDestinationName
+	 * @param selector the JMS message selector (null for all the messages)
+	 * @return
+	 */
+	public BrowseResult browseMessagesFrom(final String queueDestinationName, final String selector) {
+		BrowseResult queueMessages = new BrowseResult(queueDestinationName);
+
+		if (!browseMessagesFrom(queueDestinationName, selector, queueMessages)) {
+			queueMessages.setError("Browse failed : " + queueDestinationName);
+		}
+
+		return queueMessages;
+	}
+
+	/**
+	 * Browses the messages from the given queue resource passing them to the given handler as they are enumerated.
+	 * @param queueDestinationName
+	 * @param messageHandler
+	 * @return false if the browse failed
+	 */
+	public boolean browseMessagesFrom(final String queueDestinationName, final MessageHandler messageHandler) {
+		return browseMessagesFrom(queueDestinationName, null, messageHandler);
+	}
+
+	/**
+	 * Browses the messages matching the given selector from the given queue resource passing them to the given
+	 * handler as they are enumerated. The selector is applied by the broker.
+	 * @param queueDestinationName
+	 * @param selector the JMS message selector (null for all the messages)
+	 * @param messageHandler
+	 * @return false if the browse failed
+	 */
+	public boolean browseMessagesFrom(final String queueDestinationName, final String selector, final MessageHandler messageHandler) {
+		LOGGER.info("browseMessagesFrom - start");
 		
+		OperationMetrics metrics = OperationMetrics.start(meterRegistry, "browse", queueDestinationName);
 		Connection connection = null;
 		Session session = null;
-
+		int elements = 1;
+		
 		try {
-			connection = connectionFactory.createConnection();
-			connection.setClientID("SendQueueSample");
-
+			connection = metrics.connect(connectionFactory::createConnection);
+			connection.start();
+			
 			session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-			Destination destination = session.createQueue(queueDestinationName);
+			Queue destination = session.createQueue(queueDestinationName);
+
+			@SuppressWarnings("unchecked")
+			Enumeration<Message> messages = createBrowser(session, destination, selector).getEnumeration();
 
-			session.createProducer(destination).send(session.createTextMessage(message));
+			while (messages != null && messages.hasMoreElements()) {
+				Message message = messages.nextElement();
+				
+				LOGGER.debug("browseMessagesFrom - message {} : {}", elements, MessageBody.getType(message));
+
+				if (!messageHandler.handle(elements++, message)) { // any body type: the handler reads it
+					break;
+				}
+			}
+			
 			return true;
 		} catch (Exception e) {
 			LOGGER.error("ERROR : ", e);
+			metrics.failed(e);
 			return false;
 		} finally {
 			closeSession(session);
 			closeConnection(connection);
-			LOGGER.info("sendMessageTo - end");
+			metrics.addMessages(elements - 1);
+			metrics.stop();
+			LOGGER.info("browseMessagesFrom - end");
 		}
 	}
 
 	/**
-	 * Browses and gets the messages from the given queue resource.
+	 * Counts the messages in the given queue resource with a browse that doesn't read their bodies.
 	 * @param queueDestinationName
+	 * @return the number of messages or null if the browse failed
+	 */
+	public Long countMessagesIn(final String queueDestinationName) {
+		AtomicLong count = new AtomicLong();
+
+		boolean browsed = browseMessagesFrom(queueDestinationName, null, new MessageHandler() {
+			@Override
+			public boolean handle(final int number, final String text) throws Exception {
+				return true; // not used: the queue passes the messages
+			}
+
+			@Override
+			public boolean handle(final int number, final Message message) throws Exception {
+				count.incrementAndGet();
+				return true;
+			}
+		});
+
+		return browsed ? count.get() : null;
+	}
+
+	/**
+	 * Browses a page of messages from the given queue resource.
+	 * With a cursor (see BrowsePage.getNextCursor) the broker only sends the messages from the cursor timestamp minus
+	 * the cursor window (JMSTimestamp selector, to skip the head of the queue) and the messages are skipped without
+	 * reading their bodies until the cursor message id. The page starts right after it, so the queue order is kept
+	 * even if it isn't the timestamp order (only the messages after the cursor older than the window aren't paged).
+	 * If the cursor message was removed the page is the empty last page when there aren't newer messages, otherwise
+	 * it has a "Cursor not found" error (the page can't be positioned). Then the offset messages are skipped.
+	 * @param queueDestinationName
+	 * @param offset the messages to skip (after the cursor)
+	 * @param limit the max number of messages of the page
+	 * @param cursor the next cursor of the previous page or null
 	 * @return
 	 */
-	public Map<String, String> browseMessagesFrom(final String queueDestinationName) {
+	public BrowsePage browseMessagesFrom(final String queueDestinationName, final int offset, final int limit,
+			final String cursor) {
+		return browseMessagesFrom(queueDestinationName, offset, limit, cursor, null);
+	}
+
+	/**
+	 * Browses a page of the messages matching the given selector from the given queue resource
+	 * (the offset and the cursor are relative to the matching messages).
+	 * @param queueDestinationName
+	 * @param offset the messages to skip (after the cursor)
+	 * @param limit the max number of messages of the page
+	 * @param cursor the next cursor of the previous page or null
+	 * @param selector the JMS message selector (null for all the messages)
+	 * @return
+	 */
+	public BrowsePage browseMessagesFrom(final String queueDestinationName, final int offset, final int limit,
+			final String cursor, final String selector) {
 		LOGGER.info("browseMessagesFrom - start");
 		
-		Map<String, String> queueMessages = new HashMap<>();
+		BrowsePage page = new BrowsePage(queueDestinationName, offset, limit, cursor);
+		OperationMetrics metrics = OperationMetrics.start(meterRegistry, "browsePage", queueDestinationName);
 		Connection connection = null;
 		Session session = null;
+		int elements = 0;
 		
 		try {
-			connection = connectionFactory.createConnection();
-			connection.setClientID("BrowseQueueSample");
+			// number:timestamp:message id of the last message of the previous page
+			String[] cursorFields = cursor != null ? cursor.split(":", 3) : null;
+
+			if (cursorFields != null && (cursorFields.length < 3 || !isNumber(cursorFields[0]) || !isNumber(cursorFields[1]))) {
+				page.setError("Invalid cursor : " + cursor);
+				return page;
+			}
+
+			int number = cursorFields != null ? Integer.parseInt(cursorFields[0]) : 0;
+			long cursorTimestamp = cursorFields != null ? Long.parseLong(cursorFields[1]) : 0;
+			String pageSelector = cursorFields == null || cursorWindow < 0 ? selector
+					: "JMSTimestamp >= " + Math.max(0, cursorTimestamp - cursorWindow)
+							+ (selector != null ? " AND (" + selector + ")" : "");
+
+			connection = metrics.connect(connectionFactory::createConnection);
 			connection.start();
 			
 			session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
 			Queue destination = session.createQueue(queueDestinationName);
 
-			int elements = 1;
-
 			@SuppressWarnings("unchecked")
-			Enumeration<Message> messages = session.createBrowser(destination).getEnumeration();
+			Enumeration<Message> messages = createBrowser(session, destination, pageSelector).getEnumeration();
+
+			int skipped = 0;
+			boolean positioned = cursorFields == null;
+			boolean newerThanCursor = false;
 
 			while (messages != null && messages.hasMoreElements()) {
 				Message message = messages.nextElement();
-				String textMessage = ((TextMessage) message).getText();
-				queueMessages.put(String.valueOf(elements++), textMessage);
-				
-				LOGGER.debug("browseMessagesFrom - message : {}", textMessage);
+				elements++;
+
+				if (!positioned) {
+					// before the cursor in the queue order: already paged whatever their timestamp
+					positioned = cursorFields[2].equals(message.getJMSMessageID());
+					newerThanCursor |= message.getJMSTimestamp() > cursorTimestamp;
+					continue;
+				}
+
+				number++;
+
+				if (skipped < offset) {
+					skipped++;
+				} else if (page.getMessages().size() < limit) {
+					BrowsedMessage browsedMessage = BrowsedMessage.from(number, message);
+					page.addMessage(browsedMessage);
+					metrics.addBytes(browsedMessage.getSize());
+				} else {
+					page.setHasMore(true);
+					break;
+				}
 			}
-			
-			return queueMessages;
+
+			if (!positioned && newerThanCursor) {
+				page.setError("Cursor not found : " + cursor);
+			}
+
+			LOGGER.debug("browseMessagesFrom - browsed {} messages for a page of {}", elements, page.getMessages().size());
+			return page;
 		} catch (Exception e) {
 			LOGGER.error("ERROR : ", e);
-			return queueMessages;
+			metrics.failed(e);
+			page.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+			return page;
 		} finally {
 			closeSession(session);
 			closeConnection(connection);
+			metrics.addMessages(elements);
+			metrics.stop();
 			LOGGER.info("browseMessagesFrom - end");
 		}
 	}
@@ -116,39 +348,235 @@ public class QueueService {
 	 * @return
 	 */
 	public boolean removeMessagesFrom(final String queueDestinationName) {
+		return removeMessagesFrom(queueDestinationName, DrainOptions.DEFAULTS);
+	}
+
+	/**
+	 * Removes/Consumes the messages from a given queue resource with the given drain options.
+	 * If the expected count isn't given, the queue size from the statistics (when they're available) is used.
+	 * @param queueDestinationName
+	 * @param drainOptions
+	 * @return
+	 */
+	public boolean removeMessagesFrom(final String queueDestinationName, final DrainOptions drainOptions) {
 		LOGGER.info("removeMessagesFrom - start");
 		
+		OperationMetrics metrics = OperationMetrics.start(meterRegistry, "purge", queueDestinationName);
 		Connection connection = null;
 		Session session = null;
 		MessageConsumer messageConsumer = null; 
+		MessageDrainer messageDrainer = null;
 				
 		try {
-			connection = connectionFactory.createConnection();
-			connection.setClientID("ConsumeQueueSample");
+			connection = metrics.connect(connectionFactory::createConnection);
 			connection.start();
 			
 			session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
 			Destination destination = session.createQueue(queueDestinationName);
 
-			messageConsumer = session.createConsumer(destination);
-			Message receivedMessage = messageConsumer.receive(RECEIVE_TIME_OUT_MILISECONDS);
+			DrainOptions options = drainOptions != null ? drainOptions : DrainOptions.DEFAULTS;
+			messageConsumer = createConsumer(session, destination, options.getSelector());
+			messageDrainer = createMessageDrainer(messageConsumer, options, getExpectedCount(queueDestinationName, options));
+			Message receivedMessage = messageDrainer.receive();
 
 			while (receivedMessage != null) {
-				receivedMessage = messageConsumer.receive(RECEIVE_TIME_OUT_MILISECONDS);
+				receivedMessage = messageDrainer.receive();
 			}
 
+			LOGGER.debug("removeMessagesFrom - removed {} messages from : {}", messageDrainer.getReceived(), queueDestinationName);
 			return true;
 		} catch (Exception e) {
 			LOGGER.error("EROR : ", e);
+			metrics.failed(e);
 			return false;
 		} finally {
 			closeMessageConsumer(messageConsumer);
 			closeSession(session);
 			closeConnection(connection);
+			metrics.addMessages(messageDrainer != null ? messageDrainer.getReceived() : 0);
+			metrics.stop();
 			LOGGER.info("removeMessagesFrom - end");
 		}
 	}
+
+	/**
+	 * Drains the messages from the given queue resource with the given number of parallel consumers.
+	 * Each consumer uses its own (pooled) connection and a DUPS_OK_ACKNOWLEDGE session (lazy acks) so the drain isn't
+	 * bound to a single prefetch pipeline. The consumers of all the drains run on a shared executor bounded to the max
+	 * drain consumers (the consumers over it wait for a free thread).
+	 * @param queueDestinationName
+	 * @param consumers
+	 * @param drainOptions
+	 * @return the drained messages by consumer and the drain rate
+	 */
+	public DrainResult drainMessagesFrom(final String queueDestinationName, final int consumers, final DrainOptions drainOptions) {
+		LOGGER.info("drainMessagesFrom - start");
+
+		DrainResult result = new DrainResult(queueDestinationName);
+		OperationMetrics metrics = OperationMetrics.start(meterRegistry, "drain", queueDestinationName);
+		DrainOptions options = drainOptions != null ? drainOptions : DrainOptions.DEFAULTS;
+		// the expected count is for the whole queue: a consumer only reaches it if it drains all the messages
+		Long expectedCount = getExpectedCount(queueDestinationName, options);
+		int threads = Math.max(1, consumers);
+		ExecutorService executor = getDrainExecutor();
+		List<Future<?>> workers = new ArrayList<>();
+		long start = System.nanoTime();
+
+		try {
+			for (int consumer = 1; consumer <= threads; consumer++) {
+				String consumerName = "consumer-" + consumer;
+				workers.add(executor.submit(() -> drainWithConsumer(queueDestinationName, consumerName, options, expectedCount, result,
+						metrics)));
+			}
+
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		} catch (Exception e) {
+			LOGGER.error("ERROR : ", e);
+			metrics.failed(e);
+			result.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+		} finally {
+			for (Future<?> worker : workers) {
+				worker.cancel(true);
+			}
+
+			result.setElapsedNanos(System.nanoTime() - start);
+			metrics.addMessages(result.getDrained());
+			metrics.stop();
+			LOGGER.debug("drainMessagesFrom - drained {} messages from : {} ({} msgs/s)", result.getDrained(), queueDestinationName,
+					result.getRate());
+			LOGGER.info("drainMessagesFrom - end");
+		}
+
+		return result;
+	}
+
+	/**
+	 * Gets the drain executor (bounded to the max drain consumers).
+	 * @return
+	 */
+	private synchronized ExecutorService getDrainExecutor() {
+		if (drainExecutor == null) {
+			AtomicInteger threadNumber = new AtomicInteger();
+
+			drainExecutor = Executors.newFixedThreadPool(Math.max(1, drainThreads), runnable -> {
+				Thread thread = new Thread(runnable, "queue-drain-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return drainExecutor;
+	}
+
+	/**
+	 * Drains the messages from the given queue with a new consumer adding the drained count to the given result.
+	 * @param queueDestinationName
+	 * @param consumerName
+	 * @param drainOptions
+	 * @param expectedCount
+	 * @param result
+	 * @param metrics the meters of the drain
+	 */
+	private void drainWithConsumer(final String queueDestinationName, final String consumerName, final DrainOptions drainOptions,
+			final Long expectedCount, final DrainResult result, final OperationMetrics metrics) {
+		Connection connection = null;
+		Session session = null;
+		MessageConsumer messageConsumer = null;
+		MessageDrainer messageDrainer = null;
+
+		try {
+			connection = metrics.connect(connectionFactory::createConnection);
+			connection.start();
+
+			session = connection.createSession(false, Session.DUPS_OK_ACKNOWLEDGE);
+			messageConsumer = createConsumer(session, session.createQueue(queueDestinationName), drainOptions.getSelector());
+			messageDrainer = createMessageDrainer(messageConsumer, drainOptions, expectedCount);
+
+			while (messageDrainer.receive() != null) {
+				// only consume
+			}
+		} catch (Exception e) {
+			LOGGER.error("ERROR : ", e);
+			metrics.failed(e);
+			result.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+		} finally {
+			result.addDrained(consumerName, messageDrainer != null ? messageDrainer.getReceived() : 0);
+			closeMessageConsumer(messageConsumer);
+			closeSession(session);
+			closeConnection(connection);
+		}
+	}
+
+	/**
+	 * Gets the expected number of messages to drain from the given options or the queue statistics
+	 * (not with a selector: the queue size counts all the messages).
+	 * @param queueDestinationName
+	 * @param drainOptions
+	 * @return the expected count or null if it's unknown
+	 */
+	private Long getExpectedCount(final String queueDestinationName, final DrainOptions drainOptions) {
+		if (drainOptions.getExpectedCount() != null || drainOptions.getSelector() != null) {
+			return drainOptions.getExpectedCount();
+		}
+
+		return destinationStatisticsService != null ? destinationStatisticsService.getQueueSize(queueDestinationName) : null;
+	}
+
+	/**
+	 * Creates a drainer for the given consumer using the given options (or the configured defaults).
+	 * @param messageConsumer
+	 * @param drainOptions
+	 * @param expectedCount
+	 * @return
+	 */
+	private MessageDrainer createMessageDrainer(final MessageConsumer messageConsumer, final DrainOptions drainOptions,
+			final Long expectedCount) {
+		return new MessageDrainer(messageConsumer,
+				drainOptions.getFirstReceiveTimeout() != null ? drainOptions.getFirstReceiveTimeout() : firstReceiveTimeout,
+				drainOptions.getIdleTimeout() != null ? drainOptions.getIdleTimeout() : idleTimeout, expectedCount);
+	}
 	
+	/**
+	 * Checks if the given cursor field is a number.
+	 * @param field
+	 * @return
+	 */
+	private static boolean isNumber(final String field) {
+		try {
+			Long.parseLong(field);
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Creates a browser for the given queue with the given selector (applied by the broker).
+	 * @param session
+	 * @param destination
+	 * @param selector the JMS message selector or null for all the messages
+	 * @return
+	 * @throws JMSException
+	 */
+	private QueueBrowser createBrowser(final Session session, final Queue destination, final String selector) throws JMSException {
+		return selector != null ? session.createBrowser(destination, selector) : session.createBrowser(destination);
+	}
+
+	/**
+	 * Creates a consumer for the given destination with the given selector (applied by the broker).
+	 * @param session
+	 * @param destination
+	 * @param selector the JMS message selector or null for all the messages
+	 * @return
+	 * @throws JMSException
+	 */
+	private MessageConsumer createConsumer(final Session session, final Destination destination, final String selector)
+			throws JMSException {
+		return selector != null ? session.createConsumer(destination, selector) : session.createConsumer(destination);
+	}
+
 	/**
 	 * Closes the given connection.
 	 * @param connection
@@ -0,0 +1,392 @@
+package com.example.jms.service.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+import com.example.jms.model.BrowsedMessage;
+import com.example.jms.model.MessageBody;
+import com.example.jms.model.SearchResult;
+
+/**
+ * Inverted index of the messages of a resource: token -> ids of the messages with the token in their body or headers
+ * (message id, correlation id, type and properties).
+ * It's refreshed incrementally from a browse snapshot: only the new messages are tokenized and the ones that aren't
+ * in the snapshot anymore are removed. The searches don't wait for the browse, only for the update of the maps.
+ * @author Gabriel
+ *
+ */
+public class SearchIndex {
+
+	// approximate heap size of the objects of an indexed message and of a posting entry
+	private static final int MESSAGE_OVERHEAD = 160;
+	private static final int POSTING_OVERHEAD = 64;
+
+	private final String resource;
+	private final Map<String, IndexedMessage> messages = new HashMap<>();
+	private final Map<String, Set<String>> postings = new HashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Lock refreshLock = new ReentrantLock();
+	private volatile long memory;
+	private volatile long indexedAt;
+	private volatile long snapshot;
+
+	/**
+	 * A message of the index with its headers, body text and tokens.
+	 */
+	public static class IndexedMessage {
+		private final String messageId;
+		private final long timestamp;
+		private final int priority;
+		private final MessageBody.Type type;
+		private final int size;
+		private final String text;
+		private final String[] tokens;
+		private final long memory;
+		private int number;
+
+		/**
+		 * Creates a new indexed message.
+		 * @param number
+		 * @param messageId
+		 * @param timestamp
+		 * @param priority
+		 * @param type
+		 * @param size
+		 * @param text
+		 * @param tokens
+		 */
+		public IndexedMessage(final int number, final String messageId, final long timestamp, final int priority,
+				final MessageBody.Type type, final int size, final String text, final Collection<String> tokens) {
+			this.number = number;
+			this.messageId = messageId;
+			this.timestamp = timestamp;
+			this.priority = priority;
+			this.type = type;
+			this.size = size;
+			this.text = text;
+			this.tokens = tokens.toArray(new String[tokens.size()]);
+
+			long tokensMemory = 0;
+
+			for (String token : this.tokens) {
+				tokensMemory += POSTING_OVERHEAD + 2L * token.length();
+			}
+
+			this.memory = MESSAGE_OVERHEAD + 2L * (messageId.length() + (text != null ? text.length() : 0)) + tokensMemory;
+		}
+
+		/**
+		 * Gets the JMS message id.
+		 * @return
+		 */
+		public String getMessageId() {
+			return messageId;
+		}
+
+		/**
+		 * Gets the distinct tokens of the message.
+		 * @return
+		 */
+		public String[] getTokens() {
+			return tokens;
+		}
+
+		/**
+		 * Gets the approximate heap size of the message in the index.
+		 * @return
+		 */
+		public long getMemory() {
+			return memory;
+		}
+
+		/**
+		 * Gets the message as a browsed message.
+		 * @return
+		 */
+		BrowsedMessage toBrowsedMessage() {
+			return new BrowsedMessage(number, messageId, timestamp, priority, type, size, text);
+		}
+	}
+
+	/**
+	 * Creates a new empty index.
+	 * @param resource
+	 */
+	public SearchIndex(final String resource) {
+		this.resource = resource;
+	}
+
+	/**
+	 * Creates the indexed message for the given browsed message (the bytes bodies aren't tokenized).
+	 * @param number the message position in the resource
+	 * @param message
+	 * @return
+	 * @throws JMSException
+	 */
+	public static IndexedMessage index(final int number, final Message message) throws JMSException {
+		MessageBody body = new MessageBody(message);
+		String text = body.getText();
+		Set<String> tokens = new LinkedHashSet<>();
+
+		if (body.getType() != MessageBody.Type.BYTES) {
+			tokenize(text, tokens);
+		}
+
+		tokenize(message.getJMSMessageID(), tokens);
+		tokenize(message.getJMSCorrelationID(), tokens);
+		tokenize(message.getJMSType(), tokens);
+
+		@SuppressWarnings("unchecked")
+		Enumeration<String> names = message.getPropertyNames();
+
+		while (names != null && names.hasMoreElements()) {
+			String name = names.nextElement();
+			Object value = message.getObjectProperty(name);
+
+			tokenize(name, tokens);
+			tokenize(value != null ? value.toString() : null, tokens);
+		}
+
+		return new IndexedMessage(number, message.getJMSMessageID(), message.getJMSTimestamp(), message.getJMSPriority(),
+				body.getType(), body.getSize(), text, tokens);
+	}
+
+	/**
+	 * Splits the given text in lower case tokens (runs of letters or digits).
+	 * @param text
+	 * @param tokens the tokens found are added here
+	 */
+	public static void tokenize(final String text, final Collection<String> tokens) {
+		if (text == null) {
+			return;
+		}
+
+		int start = -1;
+
+		for (int index = 0; index <= text.length(); index++) {
+			boolean tokenChar = index < text.length() && Character.isLetterOrDigit(text.charAt(index));
+
+			if (tokenChar && start < 0) {
+				start = index;
+			} else if (!tokenChar && start >= 0) {
+				tokens.add(text.substring(start, index).toLowerCase(Locale.ROOT));
+				start = -1;
+			}
+		}
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Checks if the message with the given id is indexed.
+	 * @param messageId
+	 * @return
+	 */
+	public boolean contains(final String messageId) {
+		lock.readLock().lock();
+
+		try {
+			return messages.containsKey(messageId);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Updates the index with a browse snapshot: adds the new messages, removes the ones that aren't in the snapshot
+	 * and updates the positions of the others.
+	 * @param added the new messages (not indexed yet)
+	 * @param positions message id -> position of all the messages of the snapshot
+	 * @param snapshot the sequence number of the snapshot
+	 */
+	public void update(final List<IndexedMessage> added, final Map<String, Integer> positions, final long snapshot) {
+		lock.writeLock().lock();
+
+		try {
+			List<String> removed = new ArrayList<>();
+
+			for (IndexedMessage message : messages.values()) {
+				Integer number = positions.get(message.messageId);
+
+				if (number != null) {
+					message.number = number;
+				} else {
+					removed.add(message.messageId);
+				}
+			}
+
+			for (String messageId : removed) {
+				remove(messages.remove(messageId));
+			}
+
+			for (IndexedMessage message : added) {
+				if (!messages.containsKey(message.messageId)) {
+					messages.put(message.messageId, message);
+					add(message);
+				}
+			}
+
+			this.snapshot = snapshot;
+			indexedAt = System.currentTimeMillis();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Searches the messages with all the tokens of the given query.
+	 * @param query
+	 * @param limit the max number of messages of the result
+	 * @return the matching messages in the browse order
+	 */
+	public SearchResult search(final String query, final int limit) {
+		SearchResult result = new SearchResult(resource, query);
+		Set<String> terms = new LinkedHashSet<>();
+		tokenize(query, terms);
+
+		lock.readLock().lock();
+
+		try {
+			result.setIndexedMessages(messages.size());
+			result.setIndexedAt(indexedAt);
+
+			if (terms.isEmpty()) {
+				return result;
+			}
+
+			List<Set<String>> termPostings = new ArrayList<>();
+
+			for (String term : terms) {
+				Set<String> posting = postings.get(term);
+
+				if (posting == null) {
+					return result;
+				}
+
+				termPostings.add(posting);
+			}
+
+			// intersection starting with the rarest term
+			termPostings.sort((first, second) -> Integer.compare(first.size(), second.size()));
+			List<IndexedMessage> matches = new ArrayList<>();
+
+			for (String messageId : termPostings.get(0)) {
+				boolean match = true;
+
+				for (int index = 1; index < termPostings.size() && match; index++) {
+					match = termPostings.get(index).contains(messageId);
+				}
+
+				if (match) {
+					matches.add(messages.get(messageId));
+				}
+			}
+
+			matches.sort((first, second) -> Integer.compare(first.number, second.number));
+			result.setCount(matches.size());
+
+			for (IndexedMessage message : matches.subList(0, Math.min(limit, matches.size()))) {
+				result.addMessage(message.toBrowsedMessage());
+			}
+
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the number of indexed messages.
+	 * @return
+	 */
+	public int getSize() {
+		lock.readLock().lock();
+
+		try {
+			return messages.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the approximate heap size of the index.
+	 * @return
+	 */
+	public long getMemory() {
+		return memory;
+	}
+
+	/**
+	 * Gets when the index was refreshed (0 if it wasn't built yet).
+	 * @return
+	 */
+	public long getIndexedAt() {
+		return indexedAt;
+	}
+
+	/**
+	 * Gets the sequence number of the last snapshot (0 if it wasn't built yet).
+	 * @return
+	 */
+	public long getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Gets the lock that serializes the refreshes of the index.
+	 * @return
+	 */
+	Lock getRefreshLock() {
+		return refreshLock;
+	}
+
+	/**
+	 * Adds the postings of the given message.
+	 * @param message
+	 */
+	private void add(final IndexedMessage message) {
+		for (String token : message.tokens) {
+			postings.computeIfAbsent(token, key -> new HashSet<>()).add(message.messageId);
+		}
+
+		memory += message.memory;
+	}
+
+	/**
+	 * Removes the postings of the given message.
+	 * @param message
+	 */
+	private void remove(final IndexedMessage message) {
+		for (String token : message.tokens) {
+			Set<String> posting = postings.get(token);
+
+			if (posting != null && posting.remove(message.messageId) && posting.isEmpty()) {
+				postings.remove(token);
+			}
+		}
+
+		memory -= message.memory;
+	}
+}
@@ -0,0 +1,263 @@
+package com.example.jms.service.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.jms.Message;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.MessageHandler;
+import com.example.jms.model.SearchResult;
+import com.example.jms.service.queue.QueueService;
+
+/**
+ * Services for the message search.
+ * The first search of a queue builds its index from a browse snapshot and the indexes are refreshed incrementally
+ * in the background. When the indexes use more than the configured memory the least recently searched ones are
+ * evicted (they're built again on their next search).
+ * The topics can't be indexed because browsing a topic consumes its messages.
+ * @author Gabriel
+ *
+ */
+@Service
+public class SearchService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SearchService.class);
+
+	@Value("${com.exmaple.jms.search.maxMemory:67108864}")
+	private long maxMemory = 67108864;
+
+	@Value("${com.exmaple.jms.search.refreshInterval:10000}")
+	private long refreshInterval = 10000;
+
+	@Value("${com.exmaple.jms.search.maxResults:100}")
+	private int maxResults = 100;
+
+	// resource code -> index, in access order (the first one is the least recently searched)
+	private final Map<String, SearchIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+	private final AtomicLong snapshots = new AtomicLong();
+
+	private ScheduledExecutorService refreshExecutor;
+
+	@Autowired
+	QueueService queueService;
+
+	/**
+	 * Schedules the refresh of the indexes.
+	 */
+	@PostConstruct
+	public void start() {
+		if (refreshInterval <= 0) {
+			return;
+		}
+
+		refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "search-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		refreshExecutor.scheduleWithFixedDelay(this::refreshIndexes, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the refresh of the indexes.
+	 */
+	@PreDestroy
+	public void stop() {
+		if (refreshExecutor != null) {
+			refreshExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Searches the messages of the given queue resource with all the words of the given query (in the body or
+	 * the message id, correlation id, type and properties).
+	 * @param resourceCode
+	 * @param query
+	 * @param limit the max number of messages (up to the configured max results)
+	 * @return
+	 */
+	public SearchResult search(final String resourceCode, final String query, final int limit) {
+		LOGGER.info("search - init");
+
+		SearchResult result;
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
+
+		if (resource != null && resource.getType().equals(ResourcesEnum.QUEUE_TYPE)) {
+			SearchIndex index = getIndex(resourceCode);
+
+			// only the first search of a resource waits for the browse (the built indexes are refreshed in background)
+			if (index.getSnapshot() == 0 && !refresh(index, 0)) {
+				result = new SearchResult(resourceCode, query);
+				result.setError("Index failed : " + resourceCode);
+			} else {
+				result = index.search(query, Math.min(Math.max(1, limit), maxResults));
+			}
+		} else {
+			result = new SearchResult(resourceCode, query);
+			result.setError(resource != null ? "Search isn't supported for topics : " + resourceCode
+					: "Not configured resource : " + resourceCode);
+		}
+
+		LOGGER.info("search - end");
+		return result;
+	}
+
+	/**
+	 * Refreshes the indexes of the searched resources.
+	 */
+	public void refreshIndexes() {
+		List<SearchIndex> snapshot;
+
+		synchronized (indexes) {
+			snapshot = new ArrayList<>(indexes.values());
+		}
+
+		long requested = snapshots.get();
+
+		for (SearchIndex index : snapshot) {
+			try {
+				refresh(index, requested);
+			} catch (Exception e) {
+				LOGGER.error("ERROR : ", e); // the next refreshes must be run
+			}
+		}
+	}
+
+	/**
+	 * Refreshes the index of the given resource with a browse snapshot (only the new messages are indexed).
+	 * The refreshes of an index are serialized and the ones that waited for a newer snapshot don't browse again.
+	 * @param index
+	 * @param requested the last snapshot sequence number when the refresh was requested (0 to only build the index)
+	 * @return false if the browse failed (the index keeps the previous snapshot)
+	 */
+	boolean refresh(final SearchIndex index, final long requested) {
+		index.getRefreshLock().lock();
+
+		try {
+			if (index.getSnapshot() > requested) {
+				return true;
+			}
+
+			long snapshot = snapshots.incrementAndGet();
+
+			List<SearchIndex.IndexedMessage> added = new ArrayList<>();
+			Map<String, Integer> positions = new HashMap<>();
+
+			boolean browsed = queueService.browseMessagesFrom(index.getResource(), null, new MessageHandler() {
+				@Override
+				public boolean handle(final int number, final String text) throws Exception {
+					return true; // not used: the queue passes the messages
+				}
+
+				@Override
+				public boolean handle(final int number, final Message message) throws Exception {
+					String messageId = message.getJMSMessageID();
+
+					if (messageId != null && positions.putIfAbsent(messageId, number) == null
+							&& !index.contains(messageId)) {
+						added.add(SearchIndex.index(number, message));
+					}
+
+					return true;
+				}
+			});
+
+			if (!browsed) {
+				LOGGER.warn("refresh - browse failed, keeping the previous index of : {}", index.getResource());
+				return false;
+			}
+
+			index.update(added, positions, snapshot);
+			LOGGER.debug("refresh - {} : {} messages ({} new)", index.getResource(), positions.size(), added.size());
+		} finally {
+			index.getRefreshLock().unlock();
+		}
+
+		evictIndexes(index);
+		return true;
+	}
+
+	/**
+	 * Removes the index of the given resource (it's built again on its next search).
+	 * @param resourceCode
+	 */
+	public void evict(final String resourceCode) {
+		synchronized (indexes) {
+			indexes.remove(resourceCode);
+		}
+	}
+
+	/**
+	 * Gets the indexed resources (from the least to the most recently searched).
+	 * @return
+	 */
+	public List<String> getIndexedResources() {
+		synchronized (indexes) {
+			return new ArrayList<>(indexes.keySet());
+		}
+	}
+
+	/**
+	 * Gets the approximate heap size of all the indexes.
+	 * @return
+	 */
+	public long getMemory() {
+		synchronized (indexes) {
+			return indexes.values().stream().mapToLong(SearchIndex::getMemory).sum();
+		}
+	}
+
+	/**
+	 * Gets (or creates) the index of the given resource, marking it as recently used.
+	 * @param resourceCode
+	 * @return
+	 */
+	private SearchIndex getIndex(final String resourceCode) {
+		synchronized (indexes) {
+			return indexes.computeIfAbsent(resourceCode, SearchIndex::new);
+		}
+	}
+
+	/**
+	 * Evicts the least recently searched indexes while the indexes use more than the max memory
+	 * (the given index is kept even if it uses more than the max memory by itself).
+	 * @param refreshedIndex
+	 */
+	private void evictIndexes(final SearchIndex refreshedIndex) {
+		synchronized (indexes) {
+			long memory = indexes.values().stream().mapToLong(SearchIndex::getMemory).sum();
+			Iterator<SearchIndex> iterator = indexes.values().iterator();
+
+			while (memory > maxMemory && iterator.hasNext()) {
+				SearchIndex index = iterator.next();
+
+				if (index != refreshedIndex) {
+					LOGGER.info("evictIndexes - evicting the index of : {}", index.getResource());
+					memory -= index.getMemory();
+					iterator.remove();
+				}
+			}
+
+			if (memory > maxMemory) {
+				LOGGER.warn("evictIndexes - the index of {} uses more than the max memory : {}", refreshedIndex.getResource(), memory);
+			}
+		}
+	}
+}
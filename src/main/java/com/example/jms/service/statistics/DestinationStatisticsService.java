@@ -0,0 +1,270 @@
+package com.example.jms.service.statistics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.MapMessage;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TemporaryQueue;
+import javax.management.Attribute;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.apache.activemq.util.JMXSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Services for the destination statistics.
+ * Uses the ActiveMQ statistics plugin (it must be enabled in the broker): a request sent to
+ * ActiveMQ.Statistics.Destination.[name] is answered with a map message (size, enqueueCount, etc.).
+ * It's disabled by default because other providers (or an ActiveMQ broker without the plugin) would
+ * only create a new queue with the requests.
+ * The same counters can be read from the destination MBean through the local JMX server (embedded broker)
+ * or the configured JMX url.
+ * @author Gabriel
+ *
+ */
+@Service
+public class DestinationStatisticsService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DestinationStatisticsService.class);
+
+	private static final String STATISTICS_DESTINATION_PREFIX = "ActiveMQ.Statistics.Destination.";
+	private static final String DESTINATION_OBJECT_NAME = "org.apache.activemq:type=Broker,brokerName=*,destinationType=";
+
+	// destination MBean attributes and the statistics plugin names of the same counters
+	private static final String[] JMX_ATTRIBUTES = {"QueueSize", "EnqueueCount", "DequeueCount", "ConsumerCount", "ProducerCount"};
+	private static final String[] STATISTICS_NAMES = {"size", "enqueueCount", "dequeueCount", "consumerCount", "producerCount"};
+
+	@Value("${com.exmaple.jms.statistics.enabled:false}")
+	private boolean enabled = false;
+
+	@Value("${com.exmaple.jms.statistics.timeout:500}")
+	private long timeout = 500;
+
+	@Value("${com.exmaple.jms.purge.jmxUrl:}")
+	private String jmxUrl = "";
+
+	@Autowired
+	ConnectionFactory connectionFactory;
+
+	/**
+	 * Checks if the statistics plugin is enabled.
+	 * @return
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Gets the number of messages in the given queue.
+	 * @param queueDestinationName
+	 * @return the number of messages or null if it isn't available
+	 */
+	public Long getQueueSize(final String queueDestinationName) {
+		Map<String, Object> statistics = getStatistics(queueDestinationName);
+		Object size = statistics != null ? statistics.get("size") : null;
+
+		return size instanceof Number ? ((Number) size).longValue() : null;
+	}
+
+	/**
+	 * Gets the statistics of the given queue.
+	 * @param destinationName
+	 * @return the statistics or null if they aren't available
+	 */
+	public Map<String, Object> getStatistics(final String destinationName) {
+		return getStatistics(destinationName, false);
+	}
+
+	/**
+	 * Gets the statistics of the given destination (the plugin answers the requests sent to a topic with the
+	 * statistics of the topic).
+	 * @param destinationName
+	 * @param topic true for a topic or false for a queue
+	 * @return the statistics or null if they aren't available
+	 */
+	public Map<String, Object> getStatistics(final String destinationName, final boolean topic) {
+		LOGGER.info("getStatistics - start");
+
+		if (!enabled || destinationName == null) {
+			LOGGER.info("getStatistics - end");
+			return null;
+		}
+
+		Connection connection = null;
+		Session session = null;
+		TemporaryQueue replyQueue = null;
+		MessageConsumer messageConsumer = null;
+
+		try {
+			connection = connectionFactory.createConnection();
+			connection.start();
+
+			session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			replyQueue = session.createTemporaryQueue();
+			messageConsumer = session.createConsumer(replyQueue);
+
+			MessageProducer messageProducer = session.createProducer(topic
+					? session.createTopic(STATISTICS_DESTINATION_PREFIX + destinationName)
+					: session.createQueue(STATISTICS_DESTINATION_PREFIX + destinationName));
+			messageProducer.setTimeToLive(timeout);
+
+			Message request = session.createMessage();
+			request.setJMSReplyTo(replyQueue);
+			messageProducer.send(request);
+			messageProducer.close();
+
+			Message reply = messageConsumer.receive(timeout);
+
+			if (!(reply instanceof MapMessage)) {
+				LOGGER.warn("getStatistics - no statistics for : {}", destinationName);
+				return null;
+			}
+
+			Map<String, Object> statistics = new HashMap<>();
+			MapMessage mapMessage = (MapMessage) reply;
+
+			@SuppressWarnings("unchecked")
+			Enumeration<String> names = mapMessage.getMapNames();
+
+			while (names.hasMoreElements()) {
+				String name = names.nextElement();
+				statistics.put(name, mapMessage.getObject(name));
+			}
+
+			LOGGER.debug("getStatistics - {} : {}", destinationName, statistics);
+			return statistics;
+		} catch (Exception e) {
+			LOGGER.error("ERROR : ", e);
+			return null;
+		} finally {
+			close(messageConsumer, replyQueue, session, connection);
+			LOGGER.info("getStatistics - end");
+		}
+	}
+
+	/**
+	 * Gets the statistics of the given destination from its MBean (with the statistics plugin names: size,
+	 * enqueueCount, dequeueCount, consumerCount and producerCount). The destination name is encoded as ActiveMQ does
+	 * when it registers the MBean (so it can't be read as a pattern) and it must match exactly one MBean.
+	 * @param destinationName
+	 * @param topic true for a topic or false for a queue
+	 * @return the statistics or null if the MBean isn't available (or more than one was found)
+	 */
+	public Map<String, Object> getJmxStatistics(final String destinationName, final boolean topic) {
+		LOGGER.info("getJmxStatistics - start");
+
+		if (destinationName == null) {
+			LOGGER.info("getJmxStatistics - end");
+			return null;
+		}
+
+		JMXConnector jmxConnector = null;
+
+		try {
+			MBeanServerConnection mBeanServerConnection;
+
+			if (jmxUrl == null || jmxUrl.isEmpty()) {
+				mBeanServerConnection = ManagementFactory.getPlatformMBeanServer();
+			} else {
+				jmxConnector = JMXConnectorFactory.connect(new JMXServiceURL(jmxUrl));
+				mBeanServerConnection = jmxConnector.getMBeanServerConnection();
+			}
+
+			Set<ObjectName> destinationNames = mBeanServerConnection.queryNames(new ObjectName(DESTINATION_OBJECT_NAME
+					+ (topic ? "Topic" : "Queue") + ",destinationName=" + JMXSupport.encodeObjectNamePart(destinationName)), null);
+
+			if (destinationNames.size() != 1) {
+				LOGGER.debug("getJmxStatistics - {} MBeans for : {}", destinationNames.size(), destinationName);
+				return null;
+			}
+
+			Map<String, Object> statistics = new HashMap<>();
+
+			for (Attribute attribute : mBeanServerConnection.getAttributes(destinationNames.iterator().next(), JMX_ATTRIBUTES).asList()) {
+				for (int index = 0; index < JMX_ATTRIBUTES.length; index++) {
+					if (JMX_ATTRIBUTES[index].equals(attribute.getName())) {
+						statistics.put(STATISTICS_NAMES[index], attribute.getValue());
+					}
+				}
+			}
+
+			LOGGER.debug("getJmxStatistics - {} : {}", destinationName, statistics);
+			return statistics;
+		} catch (Exception e) {
+			LOGGER.warn("getJmxStatistics - JMX statistics not available : {}", e.getMessage());
+			return null;
+		} finally {
+			closeJmxConnector(jmxConnector);
+			LOGGER.info("getJmxStatistics - end");
+		}
+	}
+
+	/**
+	 * Closes the given JMX connector.
+	 * @param jmxConnector
+	 */
+	private void closeJmxConnector(final JMXConnector jmxConnector) {
+		try {
+			if (jmxConnector != null) {
+				jmxConnector.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+	}
+
+	/**
+	 * Closes the given consumer, temporary queue, session and connection.
+	 * @param messageConsumer
+	 * @param replyQueue
+	 * @param session
+	 * @param connection
+	 */
+	private void close(final MessageConsumer messageConsumer, final TemporaryQueue replyQueue, final Session session,
+			final Connection connection) {
+		try {
+			if (messageConsumer != null) {
+				messageConsumer.close();
+			}
+
+			if (replyQueue != null) {
+				replyQueue.delete();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+
+		try {
+			if (session != null) {
+				session.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+
+		try {
+			if (connection != null) {
+				connection.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+	}
+}
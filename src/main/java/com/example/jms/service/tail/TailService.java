@@ -0,0 +1,398 @@
+package com.example.jms.service.tail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.BrowsedMessage;
+import com.example.jms.model.MessageHandler;
+import com.example.jms.service.queue.QueueService;
+
+/**
+ * Services for the live tail of the resources.
+ * All the clients of a resource share one channel and all the channels share one connection:
+ * - the topics are tailed with a non durable consumer and an asynchronous message listener (the durable
+ *   subscribers of the application don't lose their messages).
+ * - the queues are tailed with a periodic browse (a consumer would remove the messages from the queue) selecting
+ *   only the messages sent from the last browsed timestamp on ("JMSTimestamp >= last"), so the messages already
+ *   published don't cross the wire again. The tail starts at the subscription time and the messages are ordered
+ *   by their producer timestamps: a message sent with an older timestamp (e.g. a producer with a delayed clock)
+ *   isn't tailed. The broker browses a bounded window of the queue (the maxBrowsePageSize of the ActiveMQ
+ *   destination policy, 400 by default), so behind a larger backlog the new messages aren't tailed until the
+ *   backlog is consumed.
+ * The channel publishes each message once and every client has its own bounded buffer (see TailSubscriber).
+ * The channel is closed with its last client.
+ * @author Gabriel
+ *
+ */
+@Service
+public class TailService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TailService.class);
+
+	@Value("${com.exmaple.jms.tail.bufferSize:1000}")
+	private int bufferSize = 1000;
+
+	@Value("${com.exmaple.jms.tail.writeBatch:100}")
+	private int writeBatch = 100;
+
+	@Value("${com.exmaple.jms.tail.writerThreads:4}")
+	private int writerThreads = 4;
+
+	@Value("${com.exmaple.jms.tail.pollInterval:1000}")
+	private long pollInterval = 1000;
+
+	@Autowired
+	ConnectionFactory connectionFactory;
+
+	@Autowired(required = false)
+	@Qualifier("durableConnectionFactory")
+	ConnectionFactory durableConnectionFactory;
+
+	@Autowired
+	QueueService queueService;
+
+	// resource code -> channel
+	private final Map<String, TailChannel> channels = new HashMap<>();
+
+	private Connection connection;
+	private ExecutorService writerExecutor;
+	private ScheduledExecutorService pollExecutor;
+
+	/**
+	 * Tail of a resource: its clients and its consumer (topic) or browse task (queue).
+	 */
+	private static class TailChannel {
+		private final String resource;
+		private final List<TailSubscriber> subscribers = new CopyOnWriteArrayList<>();
+		private final AtomicInteger sequence = new AtomicInteger();
+		private Session session;
+		private MessageConsumer messageConsumer;
+		private ScheduledFuture<?> pollTask;
+		private long lastTimestamp; // the newest browsed timestamp
+		private Set<String> lastIds = new HashSet<>(); // the messages published with the last timestamp
+
+		private TailChannel(final String resource) {
+			this.resource = resource;
+		}
+	}
+
+	/**
+	 * Creates the writer and browse executors.
+	 */
+	@PostConstruct
+	public void start() {
+		AtomicInteger threadNumber = new AtomicInteger();
+
+		writerExecutor = Executors.newFixedThreadPool(writerThreads, runnable -> {
+			Thread thread = new Thread(runnable, "tail-writer-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		pollExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "tail-browser");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Closes all the channels (their clients are completed) and the shared connection.
+	 */
+	@PreDestroy
+	public void stop() {
+		closeChannels();
+
+		if (writerExecutor != null) {
+			writerExecutor.shutdownNow();
+		}
+
+		if (pollExecutor != null) {
+			pollExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Subscribes the given event stream to the tail of the given resource (only the messages received from now on).
+	 * @param resourceCode
+	 * @param emitter
+	 * @return the subscriber or null if the resource isn't configured or its tail can't be started
+	 */
+	public TailSubscriber subscribe(final String resourceCode, final SseEmitter emitter) {
+		LOGGER.info("subscribe - init");
+
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(resourceCode);
+
+		if (resource == null) {
+			LOGGER.info("subscribe - end");
+			return null;
+		}
+
+		TailSubscriber subscriber = new TailSubscriber(resource.getCode(), emitter, bufferSize, writeBatch, writerExecutor,
+				this::unsubscribe);
+
+		synchronized (channels) {
+			TailChannel channel = channels.get(resource.getCode());
+
+			try {
+				if (channel == null) {
+					channel = openChannel(resource);
+					channels.put(resource.getCode(), channel);
+				}
+
+				channel.subscribers.add(subscriber);
+			} catch (Exception e) {
+				LOGGER.error("ERROR : ", e);
+				subscriber = null;
+			} finally {
+				LOGGER.info("subscribe - end");
+			}
+		}
+
+		return subscriber;
+	}
+
+	/**
+	 * Removes the given subscriber (the channel is closed with its last subscriber).
+	 * @param subscriber
+	 */
+	public void unsubscribe(final TailSubscriber subscriber) {
+		synchronized (channels) {
+			TailChannel channel = channels.get(subscriber.getResource());
+
+			if (channel != null && channel.subscribers.remove(subscriber) && channel.subscribers.isEmpty()) {
+				channels.remove(channel.resource);
+				closeChannel(channel);
+			}
+		}
+
+		subscriber.close();
+	}
+
+	/**
+	 * Gets the number of clients of the given resource.
+	 * @param resourceCode
+	 * @return
+	 */
+	public int getSubscribers(final String resourceCode) {
+		synchronized (channels) {
+			TailChannel channel = channels.get(resourceCode);
+			return channel != null ? channel.subscribers.size() : 0;
+		}
+	}
+
+	/**
+	 * Publishes the given message to the subscribers of the given channel (the body is read once for all of them).
+	 * @param channel
+	 * @param message
+	 */
+	private void publish(final TailChannel channel, final Message message) {
+		try {
+			BrowsedMessage browsedMessage = BrowsedMessage.from(channel.sequence.incrementAndGet(), message);
+
+			for (TailSubscriber subscriber : channel.subscribers) {
+				subscriber.offer(browsedMessage);
+			}
+		} catch (Exception e) {
+			LOGGER.warn("publish - message of {} can't be read : {}", channel.resource, e.getMessage());
+		}
+	}
+
+	/**
+	 * Opens the channel of the given resource: a listener on the shared connection for a topic or a browse task
+	 * for a queue.
+	 * @param resource
+	 * @return
+	 * @throws JMSException
+	 */
+	private TailChannel openChannel(final ResourcesEnum resource) throws JMSException {
+		TailChannel channel = new TailChannel(resource.getCode());
+
+		if (resource.getType().equals(ResourcesEnum.QUEUE_TYPE)) {
+			channel.lastTimestamp = System.currentTimeMillis();
+			channel.pollTask = pollExecutor.scheduleWithFixedDelay(() -> browse(channel), 0, pollInterval, TimeUnit.MILLISECONDS);
+		} else {
+			try {
+				channel.session = getConnection().createSession(false, Session.AUTO_ACKNOWLEDGE);
+				channel.messageConsumer = channel.session.createConsumer(channel.session.createTopic(resource.getCode()));
+				channel.messageConsumer.setMessageListener(message -> publish(channel, message));
+			} catch (JMSException | RuntimeException e) {
+				closeChannel(channel);
+				throw e;
+			}
+		}
+
+		LOGGER.debug("openChannel - tail started for : {}", resource.getCode());
+		return channel;
+	}
+
+	/**
+	 * Browses the queue of the given channel publishing the messages sent from the last browsed timestamp on
+	 * (the messages already published with that timestamp are skipped).
+	 * @param channel
+	 */
+	private void browse(final TailChannel channel) {
+		long lastTimestamp = channel.lastTimestamp;
+		Set<String> lastIds = channel.lastIds;
+		long[] newestTimestamp = { lastTimestamp };
+		Set<String> newestIds = new HashSet<>(lastIds);
+
+		boolean browsed = queueService.browseMessagesFrom(channel.resource, "JMSTimestamp >= " + lastTimestamp, new MessageHandler() {
+			@Override
+			public boolean handle(final int number, final String text) throws Exception {
+				return true; // not used: the queue passes the messages
+			}
+
+			@Override
+			public boolean handle(final int number, final Message message) throws Exception {
+				String messageId = message.getJMSMessageID();
+				long timestamp = message.getJMSTimestamp();
+
+				if (timestamp < lastTimestamp || (timestamp == lastTimestamp && lastIds.contains(messageId))) {
+					return true;
+				}
+
+				publish(channel, message);
+
+				if (timestamp > newestTimestamp[0]) {
+					newestTimestamp[0] = timestamp;
+					newestIds.clear();
+				}
+
+				if (timestamp == newestTimestamp[0]) {
+					newestIds.add(messageId);
+				}
+
+				return true;
+			}
+		});
+
+		if (browsed) {
+			channel.lastTimestamp = newestTimestamp[0];
+			channel.lastIds = newestIds;
+		}
+	}
+
+	/**
+	 * Gets the shared connection (started), creating it if it isn't open.
+	 * A connection failure closes all the channels: their clients are completed and can subscribe again.
+	 * @return
+	 * @throws JMSException
+	 */
+	private Connection getConnection() throws JMSException {
+		if (connection == null) {
+			ConnectionFactory tailConnectionFactory = durableConnectionFactory != null ? durableConnectionFactory : connectionFactory;
+			Connection newConnection = tailConnectionFactory.createConnection();
+
+			try {
+				newConnection.setExceptionListener(exception -> {
+					LOGGER.error("ERROR : ", exception);
+					closeChannels();
+				});
+				newConnection.start();
+			} catch (JMSException | RuntimeException e) {
+				closeConnection(newConnection);
+				throw e;
+			}
+
+			connection = newConnection;
+		}
+
+		return connection;
+	}
+
+	/**
+	 * Closes all the channels and the shared connection.
+	 */
+	private void closeChannels() {
+		List<TailChannel> closedChannels;
+
+		synchronized (channels) {
+			closedChannels = new ArrayList<>(channels.values());
+			channels.clear();
+
+			for (TailChannel channel : closedChannels) {
+				closeChannel(channel);
+			}
+
+			closeConnection(connection);
+			connection = null;
+		}
+
+		for (TailChannel channel : closedChannels) {
+			for (TailSubscriber subscriber : channel.subscribers) {
+				subscriber.close();
+			}
+		}
+	}
+
+	/**
+	 * Closes the consumer and session or the browse task of the given channel.
+	 * @param channel
+	 */
+	private void closeChannel(final TailChannel channel) {
+		if (channel.pollTask != null) {
+			channel.pollTask.cancel(false);
+		}
+
+		try {
+			if (channel.messageConsumer != null) {
+				channel.messageConsumer.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+
+		try {
+			if (channel.session != null) {
+				channel.session.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+
+		LOGGER.debug("closeChannel - tail stopped for : {}", channel.resource);
+	}
+
+	/**
+	 * Closes the given connection.
+	 * @param connection
+	 */
+	private void closeConnection(final Connection connection) {
+		try {
+			if (connection != null) {
+				connection.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package com.example.jms.service.tail;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.jms.model.BrowsedMessage;
+
+/**
+ * A client of the tail of a resource: the messages are queued in a bounded buffer and written to its emitter
+ * by a writer thread, so a slow client doesn't slow the JMS listener or the other clients. Each write sends at most
+ * a batch of messages and then goes back to the end of the writer queue, so the writer threads rotate between clients.
+ * When the buffer is full the oldest message is dropped and the client receives a "dropped" event with the
+ * number of lost messages before the next "message" event.
+ * @author Gabriel
+ *
+ */
+public class TailSubscriber {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TailSubscriber.class);
+
+	private final String resource;
+	private final SseEmitter emitter;
+	private final BlockingQueue<BrowsedMessage> buffer;
+	private final int writeBatch;
+	private final Executor writer;
+	private final Consumer<TailSubscriber> onClose;
+	private final AtomicBoolean writing = new AtomicBoolean();
+	private final AtomicBoolean closed = new AtomicBoolean();
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * Creates a new subscriber.
+	 * @param resource
+	 * @param emitter the client's event stream
+	 * @param bufferSize the max number of pending messages
+	 * @param writeBatch the max number of messages sent by each write
+	 * @param writer runs the writes to the emitter
+	 * @param onClose called once when the client is closed (failed write or executor shutdown)
+	 */
+	public TailSubscriber(final String resource, final SseEmitter emitter, final int bufferSize, final int writeBatch,
+			final Executor writer, final Consumer<TailSubscriber> onClose) {
+		this.resource = resource;
+		this.emitter = emitter;
+		this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+		this.writeBatch = Math.max(1, writeBatch);
+		this.writer = writer;
+		this.onClose = onClose;
+	}
+
+	/**
+	 * Queues the given message (dropping the oldest pending one if the buffer is full) without waiting for the write.
+	 * @param message
+	 */
+	public void offer(final BrowsedMessage message) {
+		if (closed.get()) {
+			return;
+		}
+
+		while (!buffer.offer(message)) {
+			if (buffer.poll() != null) {
+				dropped.incrementAndGet();
+			}
+		}
+
+		scheduleWrite();
+	}
+
+	/**
+	 * Closes the subscriber: the pending messages are discarded and the emitter is completed.
+	 */
+	public void close() {
+		if (closed.compareAndSet(false, true)) {
+			buffer.clear();
+
+			try {
+				emitter.complete();
+			} catch (Exception e) {
+				LOGGER.warn("Error closing : ", e);
+			}
+
+			onClose.accept(this);
+		}
+	}
+
+	/**
+	 * Gets the resource code.
+	 * @return
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * Gets the client's event stream.
+	 * @return
+	 */
+	public SseEmitter getEmitter() {
+		return emitter;
+	}
+
+	/**
+	 * Gets the number of dropped messages not reported to the client yet.
+	 * @return
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * Checks if the subscriber is closed.
+	 * @return
+	 */
+	public boolean isClosed() {
+		return closed.get();
+	}
+
+	/**
+	 * Schedules the write of the pending messages (only one write runs at a time for each subscriber).
+	 */
+	private void scheduleWrite() {
+		if (writing.compareAndSet(false, true)) {
+			try {
+				writer.execute(this::write);
+			} catch (RejectedExecutionException e) {
+				writing.set(false);
+				close();
+			}
+		}
+	}
+
+	/**
+	 * Writes up to a batch of pending messages to the emitter and schedules the next write if there are more (the
+	 * client is closed if a write fails).
+	 */
+	private void write() {
+		try {
+			BrowsedMessage message;
+			int written = 0;
+
+			while (!closed.get() && written++ < writeBatch && (message = buffer.poll()) != null) {
+				long lost = dropped.getAndSet(0);
+
+				if (lost > 0) {
+					emitter.send(SseEmitter.event().name("dropped").data(lost));
+				}
+
+				emitter.send(SseEmitter.event().name("message").id(String.valueOf(message.getNumber()))
+						.data(message, MediaType.APPLICATION_JSON));
+			}
+		} catch (Exception e) {
+			LOGGER.debug("write - client gone for : {}", resource);
+			close();
+		} finally {
+			writing.set(false);
+		}
+
+		if (!closed.get() && !buffer.isEmpty()) {
+			scheduleWrite(); // batch full or offered after the last poll
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package com.example.jms.service.topic;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared connections for the durable subscribers.
+ * A client ID can only be used by one connection at a time, so all the operations with the same client ID
+ * (the topic code) share one connection: the first operation opens it and the last one closes it.
+ * The operations only create their own sessions on it, and the ones using the same durable subscriber are
+ * serialized by the subscriber lock (a durable subscription only allows one active consumer).
+ * @author Gabriel
+ *
+ */
+public class DurableConnectionRegistry {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DurableConnectionRegistry.class);
+
+	private final Supplier<ConnectionFactory> connectionFactorySupplier;
+	private final ConcurrentMap<String, SharedConnection> connections = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Lock> subscriberLocks = new ConcurrentHashMap<>();
+
+	/**
+	 * Shared connection for a client ID and its number of users.
+	 */
+	private static class SharedConnection {
+		private Connection connection;
+		private int users;
+		private boolean closed;
+	}
+
+	/**
+	 * Creates a new registry.
+	 * @param connectionFactorySupplier supplies the (non pooled) connection factory for the durable subscribers
+	 */
+	public DurableConnectionRegistry(final Supplier<ConnectionFactory> connectionFactorySupplier) {
+		this.connectionFactorySupplier = connectionFactorySupplier;
+	}
+
+	/**
+	 * Gets the shared (started) connection for the given client ID, creating it if it isn't open.
+	 * It must be released when the operation ends.
+	 * @param clientId
+	 * @return
+	 * @throws JMSException
+	 */
+	public Connection acquire(final String clientId) throws JMSException {
+		while (true) {
+			SharedConnection sharedConnection = connections.computeIfAbsent(clientId, id -> new SharedConnection());
+
+			synchronized (sharedConnection) {
+				if (sharedConnection.closed) {
+					continue; // released meanwhile: use a new one
+				}
+
+				if (sharedConnection.connection == null) {
+					sharedConnection.connection = createConnection(clientId, sharedConnection);
+				}
+
+				sharedConnection.users++;
+				return sharedConnection.connection;
+			}
+		}
+	}
+
+	/**
+	 * Releases the shared connection for the given client ID (it's closed when it doesn't have more users).
+	 * @param clientId
+	 */
+	public void release(final String clientId) {
+		SharedConnection sharedConnection = connections.get(clientId);
+
+		if (sharedConnection == null) {
+			return;
+		}
+
+		synchronized (sharedConnection) {
+			if (sharedConnection.closed || --sharedConnection.users > 0) {
+				return;
+			}
+
+			// closed before removing it: a new connection can't use the client ID until this one is closed
+			sharedConnection.closed = true;
+			closeConnection(sharedConnection.connection);
+			connections.remove(clientId, sharedConnection);
+		}
+	}
+
+	/**
+	 * Gets the lock of the given durable subscriber.
+	 * @param subscriberName
+	 * @return
+	 */
+	public Lock getSubscriberLock(final String subscriberName) {
+		return subscriberLocks.computeIfAbsent(subscriberName, name -> new ReentrantLock());
+	}
+
+	/**
+	 * Gets the number of open shared connections.
+	 * @return
+	 */
+	public int getOpenConnections() {
+		return connections.size();
+	}
+
+	/**
+	 * Creates and starts a connection with the given client ID (the shared connection is discarded if it fails).
+	 * @param clientId
+	 * @param sharedConnection
+	 * @return
+	 * @throws JMSException
+	 */
+	private Connection createConnection(final String clientId, final SharedConnection sharedConnection) throws JMSException {
+		Connection connection = null;
+
+		try {
+			connection = connectionFactorySupplier.get().createConnection();
+			connection.setClientID(clientId);
+			connection.start();
+
+			LOGGER.debug("createConnection - shared connection opened for : {}", clientId);
+			return connection;
+		} catch (JMSException | RuntimeException e) {
+			sharedConnection.closed = true;
+			closeConnection(connection);
+			connections.remove(clientId, sharedConnection);
+			throw e;
+		}
+	}
+
+	/**
+	 * Closes the given connection.
+	 * @param connection
+	 */
+	private void closeConnection(final Connection connection) {
+		try {
+			if (connection != null) {
+				connection.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+	}
+}
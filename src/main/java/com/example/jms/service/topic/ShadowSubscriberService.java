@@ -0,0 +1,257 @@
+package com.example.jms.service.topic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.BrowseResult;
+
+/**
+ * Shadow subscribers of the topics: a non durable listener for each configured topic copies the arriving messages
+ * to a bounded buffer (see TopicRingBuffer), so the topics can be browsed without consuming the messages of the
+ * durable subscribers, without waiting for receive timeouts and as many times as needed.
+ * The listeners share one connection, opened in background (again after the retry interval if it fails or it's lost).
+ * The buffers only have the messages published while the listeners are connected.
+ * @author Gabriel
+ *
+ */
+@Service
+public class ShadowSubscriberService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ShadowSubscriberService.class);
+
+	@Value("${com.exmaple.jms.shadow.enabled:true}")
+	private boolean enabled = true;
+
+	@Value("${com.exmaple.jms.shadow.maxMessages:1000}")
+	private int maxMessages = 1000;
+
+	@Value("${com.exmaple.jms.shadow.maxMemory:8388608}")
+	private long maxMemory = 8388608;
+
+	@Value("${com.exmaple.jms.shadow.retryInterval:5000}")
+	private long retryInterval = 5000;
+
+	@Autowired
+	ConnectionFactory connectionFactory;
+
+	@Autowired(required = false)
+	@Qualifier("durableConnectionFactory")
+	ConnectionFactory durableConnectionFactory;
+
+	// topic code -> buffer
+	private final Map<String, TopicRingBuffer> buffers = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService connectExecutor;
+	private Connection connection;
+	private volatile boolean connected;
+
+	/**
+	 * Creates the buffers of the configured topics and starts the listeners in background.
+	 */
+	@PostConstruct
+	public synchronized void start() {
+		if (!enabled) {
+			LOGGER.info("start - shadow subscribers disabled: the topic browse consumes the subscriber messages");
+			return;
+		}
+
+		for (ResourcesEnum resource : ResourcesEnum.values()) {
+			if (resource.getType().equals(ResourcesEnum.TOPIC_TYPE)) {
+				buffers.put(resource.getCode(), new TopicRingBuffer(resource.getCode(), maxMessages, maxMemory));
+			}
+		}
+
+		connectExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "topic-shadow");
+			thread.setDaemon(true);
+			return thread;
+		});
+		connectExecutor.execute(this::connect);
+	}
+
+	/**
+	 * Stops the listeners.
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		if (connectExecutor != null) {
+			connectExecutor.shutdownNow();
+			connectExecutor = null;
+		}
+
+		closeConnection(connection);
+		connection = null;
+		connected = false;
+	}
+
+	/**
+	 * Checks if the topic browses use the shadow subscribers.
+	 * @return
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Checks if the listeners are connected (the buffers are receiving the messages).
+	 * @return
+	 */
+	public boolean isConnected() {
+		return connected;
+	}
+
+	/**
+	 * Gets the buffered messages of the given topic resource (the messages aren't consumed).
+	 * The result has an error if the topic isn't configured or the listeners aren't connected (with the messages
+	 * buffered before the connection was lost).
+	 * @param topicCode
+	 * @return
+	 */
+	public BrowseResult browseMessagesFrom(final String topicCode) {
+		LOGGER.info("browseMessagesFrom - start");
+
+		TopicRingBuffer buffer = buffers.get(topicCode);
+		BrowseResult result;
+
+		if (buffer == null) {
+			result = new BrowseResult(topicCode);
+			result.setError("Not configured resource : " + topicCode);
+		} else {
+			result = buffer.getMessages();
+
+			if (!connected) {
+				result.setError("Shadow subscriber not connected : " + topicCode);
+			}
+		}
+
+		LOGGER.info("browseMessagesFrom - end");
+		return result;
+	}
+
+	/**
+	 * Removes the buffered messages of the given topic resource (after a purge).
+	 * @param topicCode
+	 */
+	public void clear(final String topicCode) {
+		TopicRingBuffer buffer = buffers.get(topicCode);
+
+		if (buffer != null) {
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Opens the shared connection and a listener for each buffer (scheduling a retry if it fails).
+	 */
+	synchronized void connect() {
+		if (connectExecutor == null || connected) {
+			return;
+		}
+
+		Connection newConnection = null;
+
+		try {
+			ConnectionFactory shadowConnectionFactory = durableConnectionFactory != null ? durableConnectionFactory : connectionFactory;
+			newConnection = shadowConnectionFactory.createConnection();
+			newConnection.setExceptionListener(exception -> {
+				LOGGER.error("ERROR : ", exception);
+				disconnect();
+			});
+
+			List<String> topics = new ArrayList<>(buffers.keySet());
+
+			for (String topicCode : topics) {
+				listen(newConnection, topicCode);
+			}
+
+			newConnection.start();
+			connection = newConnection;
+			connected = true;
+			LOGGER.info("connect - shadow subscribers started for : {}", topics);
+		} catch (Exception e) {
+			LOGGER.warn("connect - shadow subscribers not started, retrying in {} ms : {}", retryInterval, e.getMessage());
+			closeConnection(newConnection);
+			scheduleConnect();
+		}
+	}
+
+	/**
+	 * Closes the lost connection and schedules a new one (the buffers keep their messages).
+	 */
+	private synchronized void disconnect() {
+		connected = false;
+		closeConnection(connection);
+		connection = null;
+		scheduleConnect();
+	}
+
+	/**
+	 * Schedules the connection after the retry interval.
+	 */
+	private void scheduleConnect() {
+		try {
+			if (connectExecutor != null) {
+				connectExecutor.schedule(this::connect, retryInterval, TimeUnit.MILLISECONDS);
+			}
+		} catch (RejectedExecutionException e) {
+			LOGGER.debug("scheduleConnect - stopped");
+		}
+	}
+
+	/**
+	 * Creates the listener of the given topic resource on the given connection (its session is closed with the
+	 * connection).
+	 * @param connection
+	 * @param topicCode
+	 * @throws JMSException
+	 */
+	private void listen(final Connection connection, final String topicCode) throws JMSException {
+		TopicRingBuffer buffer = buffers.get(topicCode);
+		Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		MessageConsumer messageConsumer = session.createConsumer(session.createTopic(topicCode));
+
+		messageConsumer.setMessageListener(message -> {
+			try {
+				buffer.add(message);
+			} catch (Exception e) {
+				LOGGER.warn("listen - message of {} can't be read : {}", topicCode, e.getMessage());
+			}
+		});
+	}
+
+	/**
+	 * Closes the given connection.
+	 * @param connection
+	 */
+	private void closeConnection(final Connection connection) {
+		try {
+			if (connection != null) {
+				connection.close();
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error closing : ", e);
+		}
+	}
+}
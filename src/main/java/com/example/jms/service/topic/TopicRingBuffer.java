@@ -0,0 +1,210 @@
+package com.example.jms.service.topic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+import com.example.jms.model.BrowseResult;
+import com.example.jms.model.BrowsedMessage;
+import com.example.jms.model.MessageBody;
+
+/**
+ * Bounded buffer of the last messages of a topic, kept as compact byte arrays (headers and UTF-8 text, without
+ * the JMS message objects). The oldest messages are dropped when the buffer has more than the max messages or
+ * uses more than the max memory.
+ * @author Gabriel
+ *
+ */
+public class TopicRingBuffer {
+
+	// approximate heap size of the array and deque slot of a message
+	private static final int ENTRY_OVERHEAD = 24;
+	private static final MessageBody.Type[] TYPES = MessageBody.Type.values();
+
+	private final String resource;
+	private final int maxMessages;
+	private final long maxMemory;
+	private final Deque<byte[]> entries = new ArrayDeque<>();
+	private long memory;
+	private long dropped;
+
+	/**
+	 * Creates a new empty buffer.
+	 * @param resource
+	 * @param maxMessages
+	 * @param maxMemory the max heap size in bytes of the messages
+	 */
+	public TopicRingBuffer(final String resource, final int maxMessages, final long maxMemory) {
+		this.resource = resource;
+		this.maxMessages = Math.max(1, maxMessages);
+		this.maxMemory = maxMemory;
+	}
+
+	/**
+	 * Adds the given message after the last one (dropping the oldest ones if the buffer is full).
+	 * A message bigger than the max memory is dropped (the buffer keeps the others).
+	 * @param message
+	 * @throws JMSException
+	 */
+	public void add(final Message message) throws JMSException {
+		byte[] entry = encode(BrowsedMessage.from(0, message));
+
+		synchronized (entries) {
+			if (ENTRY_OVERHEAD + entry.length > maxMemory) {
+				dropped++;
+				return;
+			}
+
+			entries.addLast(entry);
+			memory += ENTRY_OVERHEAD + entry.length;
+
+			while (entries.size() > maxMessages || memory > maxMemory) {
+				memory -= ENTRY_OVERHEAD + entries.removeFirst().length;
+				dropped++;
+			}
+		}
+	}
+
+	/**
+	 * Gets a copy of the buffered messages in the arrival order (numbered from 1).
+	 * @return
+	 */
+	public BrowseResult getMessages() {
+		byte[][] snapshot;
+
+		synchronized (entries) {
+			snapshot = entries.toArray(new byte[entries.size()][]);
+		}
+
+		BrowseResult result = new BrowseResult(resource);
+
+		for (byte[] entry : snapshot) {
+			decode(entry, result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Removes all the buffered messages.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+			memory = 0;
+		}
+	}
+
+	/**
+	 * Gets the number of buffered messages.
+	 * @return
+	 */
+	public int getSize() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Gets the approximate heap size of the buffered messages.
+	 * @return
+	 */
+	public long getMemory() {
+		synchronized (entries) {
+			return memory;
+		}
+	}
+
+	/**
+	 * Gets the number of messages dropped to keep the buffer bounded.
+	 * @return
+	 */
+	public long getDropped() {
+		synchronized (entries) {
+			return dropped;
+		}
+	}
+
+	/**
+	 * Encodes the given message: id, timestamp, priority, type, size and text (the nulls are written as length -1).
+	 * @param message
+	 * @return
+	 */
+	private static byte[] encode(final BrowsedMessage message) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + (message.getText() != null ? message.getText().length() : 0));
+
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			writeString(output, message.getMessageId());
+			output.writeLong(message.getTimestamp());
+			output.writeByte(message.getPriority());
+			output.writeByte(message.getType().ordinal());
+			output.writeInt(message.getSize());
+			writeString(output, message.getText());
+		} catch (IOException e) {
+			throw new IllegalStateException(e); // not thrown by a byte array stream
+		}
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Decodes the given message adding it to the given result.
+	 * @param entry
+	 * @param result
+	 */
+	private static void decode(final byte[] entry, final BrowseResult result) {
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(entry))) {
+			String messageId = readString(input);
+			long timestamp = input.readLong();
+			int priority = input.readByte();
+			MessageBody.Type type = TYPES[input.readByte()];
+			int size = input.readInt();
+
+			result.add(messageId, timestamp, priority, type, size, readString(input));
+		} catch (IOException e) {
+			throw new IllegalStateException(e); // not thrown by a byte array stream
+		}
+	}
+
+	/**
+	 * Writes the given string as its UTF-8 length and bytes.
+	 * @param output
+	 * @param value
+	 * @throws IOException
+	 */
+	private static void writeString(final DataOutputStream output, final String value) throws IOException {
+		if (value == null) {
+			output.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			output.writeInt(bytes.length);
+			output.write(bytes);
+		}
+	}
+
+	/**
+	 * Reads a string written by writeString.
+	 * @param input
+	 * @return
+	 * @throws IOException
+	 */
+	private static String readString(final DataInputStream input) throws IOException {
+		int length = input.readInt();
+
+		if (length < 0) {
+			return null;
+		}
+
+		byte[] bytes = new byte[length];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
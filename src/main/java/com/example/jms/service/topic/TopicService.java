@@ -1,25 +1,50 @@
 package com.example.jms.service.topic;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
-import javax.jms.Destination;
+import javax.jms.JMSException;
 
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.jms.Session;
-import javax.jms.TextMessage;
 import javax.jms.Topic;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.BatchSendResult;
+import com.example.jms.model.BrowseResult;
+import com.example.jms.model.DrainOptions;
+import com.example.jms.model.DrainResult;
+import com.example.jms.model.MessageBody;
+import com.example.jms.model.MessageHandler;
+import com.example.jms.model.SubscribersHealth;
+import com.example.jms.service.consumer.MessageDrainer;
+import com.example.jms.service.metrics.OperationMetrics;
+import com.example.jms.service.producer.ProducerCacheService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 
 /**
  * Services for topics.
@@ -32,15 +57,84 @@ public class TopicService {
 	private static final Logger LOGGER = LoggerFactory.getLogger(TopicService.class);
 	
 	private static final String SUBSCRIBER_NAME = "theSubscriber";
-	private static final int RECEIVE_TIME_OUT_MILISECONDS = 5000;
 	
-	private Map<String,String> subscribers = new HashMap<>();
+	// subscribers created by the application by topic
+	private final ConcurrentMap<String, Set<String>> subscribers = new ConcurrentHashMap<>();
+
+	private final DurableConnectionRegistry durableConnections = new DurableConnectionRegistry(this::getDurableConnectionFactory);
+
+	private final ConcurrentMap<String, CompletableFuture<Boolean>> topicBootstraps = new ConcurrentHashMap<>();
+	private ExecutorService bootstrapExecutor;
+
+	@Value("${com.exmaple.jms.subscribers.bootstrapThreads:4}")
+	private int bootstrapThreads = 4;
+
+	@Value("${com.exmaple.jms.subscribers.lazyBootstrap:false}")
+	private boolean lazyBootstrap = false;
+
+	@Value("${com.exmaple.jms.subscribers.bootstrapTimeout:30000}")
+	private long bootstrapTimeout = 30000;
 	
+	@Value("${com.exmaple.jms.drain.firstReceiveTimeout:1000}")
+	private long firstReceiveTimeout = 1000;
+
+	@Value("${com.exmaple.jms.drain.idleTimeout:100}")
+	private long idleTimeout = 100;
+
+	@Value("${com.exmaple.jms.drain.subscriberThreads:8}")
+	private int drainThreads = 8;
+
+	private ExecutorService drainExecutor;
+
 	@Autowired
 	ConnectionFactory connectionFactory;
 
+	@Autowired(required = false)
+	@Qualifier("durableConnectionFactory")
+	ConnectionFactory durableConnectionFactory;
+
+	@Autowired
+	ProducerCacheService producerCacheService;
+
+	@Autowired(required = false)
+	MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+	/**
+	 * Starts the bootstrap of the topic subscribers (see initTopicSubscribers) in background so the application
+	 * doesn't wait for the broker. With the lazy bootstrap the subscribers of a topic are created on its first operation.
+	 */
+	@PostConstruct
+	public void startTopicSubscribers() {
+		if (lazyBootstrap) {
+			LOGGER.info("startTopicSubscribers - lazy bootstrap: the subscribers will be created on the first topic operation");
+			return;
+		}
+
+		for (ResourcesEnum resource : ResourcesEnum.values()) {
+			if (resource.getType().equals(ResourcesEnum.TOPIC_TYPE)) {
+				bootstrapTopicSubscribers(resource.getCode());
+			}
+		}
+	}
+
+	/**
+	 * Stops the bootstrap and drain executors.
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		if (bootstrapExecutor != null) {
+			bootstrapExecutor.shutdownNow();
+			bootstrapExecutor = null;
+		}
+
+		if (drainExecutor != null) {
+			drainExecutor.shutdownNow();
+			drainExecutor = null;
+		}
+	}
+
 	/**
-	 * Initializes the topic subscribers.
+	 * Initializes the topic subscribers (the topics are initialized in parallel) and waits for them.
 	 * IMPORTANT:
 	 * If you don't create the subscribers through your topic administrator console before, the first time
 	 * that you invoke the receive method you don't get any message because the subscriber is committed
@@ -48,46 +142,182 @@ public class TopicService {
 	 * To avoid this, I create all the required subscribers here.
 	 * If you don't need create subscribers in the application you should remove this method.
 	 */
-	@PostConstruct
 	public void initTopicSubscribers() {
+		List<CompletableFuture<Boolean>> bootstraps = new ArrayList<>();
+
 		for (ResourcesEnum resource : ResourcesEnum.values()) {
 			if (resource.getType().equals(ResourcesEnum.TOPIC_TYPE)) {
-				createTopicSubscriber(resource.getCode(), SUBSCRIBER_NAME + resource.getCode());
-				createTopicSubscriber(resource.getCode(), SUBSCRIBER_NAME + resource.getCode()+ "_1"); // for test activemq purpose only
-				createTopicSubscriber(resource.getCode(), SUBSCRIBER_NAME + resource.getCode()+ "_2"); // for test activemq purpose only
+				CompletableFuture<Boolean> bootstrap = CompletableFuture.supplyAsync(() -> createTopicSubscribers(resource.getCode()),
+						getBootstrapExecutor());
+				topicBootstraps.put(resource.getCode(), bootstrap);
+				bootstraps.add(bootstrap);
 			}
 		}
+
+		CompletableFuture.allOf(bootstraps.toArray(new CompletableFuture<?>[bootstraps.size()])).join();
 	}
 
 	/**
-	 * Creates a durable subscriber for the given subscriber name in the given topic resource..
+	 * Gets the bootstrap state of the subscribers of each configured topic.
+	 * @return
+	 */
+	public SubscribersHealth getSubscribersHealth() {
+		SubscribersHealth health = new SubscribersHealth();
+
+		for (ResourcesEnum resource : ResourcesEnum.values()) {
+			if (resource.getType().equals(ResourcesEnum.TOPIC_TYPE)) {
+				CompletableFuture<Boolean> bootstrap = topicBootstraps.get(resource.getCode());
+
+				if (bootstrap == null) {
+					health.setState(resource.getCode(), SubscribersHealth.State.PENDING);
+				} else if (!bootstrap.isDone()) {
+					health.setState(resource.getCode(), SubscribersHealth.State.STARTING);
+				} else {
+					health.setState(resource.getCode(), isFailed(bootstrap) ? SubscribersHealth.State.FAILED
+							: SubscribersHealth.State.READY);
+				}
+			}
+		}
+
+		return health;
+	}
+
+	/**
+	 * Starts the bootstrap of the subscribers of the given topic resource if it isn't started yet (or it failed).
+	 * @param topicCode
+	 * @return the bootstrap result (true if all the subscribers were created)
+	 */
+	private CompletableFuture<Boolean> bootstrapTopicSubscribers(final String topicCode) {
+		return topicBootstraps.compute(topicCode, (code, bootstrap) -> bootstrap == null || isFailed(bootstrap)
+				? CompletableFuture.supplyAsync(() -> createTopicSubscribers(code), getBootstrapExecutor()) : bootstrap);
+	}
+
+	/**
+	 * Checks if the given bootstrap is completed without creating the subscribers.
+	 * @param bootstrap
+	 * @return
+	 */
+	private boolean isFailed(final CompletableFuture<Boolean> bootstrap) {
+		return bootstrap.isDone() && !Boolean.TRUE.equals(bootstrap.exceptionally(e -> false).getNow(false));
+	}
+
+	/**
+	 * Waits (up to the bootstrap timeout) for the subscribers of the given topic resource, starting their bootstrap
+	 * if it's deferred or it failed before.
 	 * @param topicCode
-	 * @param subscriberName
 	 */
-	private void createTopicSubscriber(final String topicCode, final String subscriberName) {
+	private void awaitTopicSubscribers(final String topicCode) {
+		ResourcesEnum resource = ResourcesEnum.getResourceByCode(topicCode);
+
+		if (resource == null || !resource.getType().equals(ResourcesEnum.TOPIC_TYPE)) {
+			return;
+		}
+
+		try {
+			bootstrapTopicSubscribers(topicCode).get(bootstrapTimeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			LOGGER.warn("awaitTopicSubscribers - subscribers not ready for : {}", topicCode, e);
+		}
+	}
+
+	/**
+	 * Gets the bootstrap executor (bounded to the bootstrap threads).
+	 * @return
+	 */
+	private synchronized ExecutorService getBootstrapExecutor() {
+		if (bootstrapExecutor == null) {
+			AtomicInteger threadNumber = new AtomicInteger();
+
+			bootstrapExecutor = Executors.newFixedThreadPool(Math.max(1, bootstrapThreads), runnable -> {
+				Thread thread = new Thread(runnable, "subscriber-bootstrap-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return bootstrapExecutor;
+	}
+
+	/**
+	 * Gets the executor of the subscriber drains (bounded to the drain subscriber threads).
+	 * @return
+	 */
+	private synchronized ExecutorService getDrainExecutor() {
+		if (drainExecutor == null) {
+			AtomicInteger threadNumber = new AtomicInteger();
+
+			drainExecutor = Executors.newFixedThreadPool(Math.max(1, drainThreads), runnable -> {
+				Thread thread = new Thread(runnable, "subscriber-drain-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return drainExecutor;
+	}
+
+	/**
+	 * Creates the durable subscribers of the given topic resource on one connection.
+	 * @param topicCode
+	 * @return true if the subscribers were created
+	 */
+	private boolean createTopicSubscribers(final String topicCode) {
+        OperationMetrics metrics = OperationMetrics.start(meterRegistry, "subscribe", topicCode);
         Connection connection = null;
         Session session = null;
-        MessageConsumer messageConsumer = null;
         
         try {
-            connection = connectionFactory.createConnection();
-            connection.setClientID(topicCode);
+            connection = metrics.connect(() -> durableConnections.acquire(topicCode));
             session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            Topic destination = session.createTopic(topicCode);            
-        	messageConsumer = session.createDurableSubscriber(destination, subscriberName);
-        	
-        	subscribers.put(subscriberName, topicCode); // only to test the delete/remove from topic feature (see below)
+            subscribe(session, topicCode, SUBSCRIBER_NAME + topicCode);
+            subscribe(session, topicCode, SUBSCRIBER_NAME + topicCode + "_1"); // for test activemq purpose only
+            subscribe(session, topicCode, SUBSCRIBER_NAME + topicCode + "_2"); // for test activemq purpose only
+            
+            return true;
         } catch (Exception e) {
         	LOGGER.error("ERROR", e);
+        	metrics.failed(e);
+        	return false;
         } finally {
-        	closeMessageConsumer(messageConsumer);
             closeSesion(session);
-            closeConnection(connection);                        
+            releaseConnection(topicCode, connection);
+            metrics.stop();
         }						
 	}
+
+	/**
+	 * Creates (and closes) the durable subscriber for the given subscriber name in the given topic resource
+	 * on the given session (waiting for the operations using the subscriber).
+	 * @param session
+	 * @param topicCode
+	 * @param subscriberName
+	 * @throws JMSException
+	 */
+	private void subscribe(final Session session, final String topicCode, final String subscriberName) throws JMSException {
+        MessageConsumer messageConsumer = null;
+        Lock subscriberLock = durableConnections.getSubscriberLock(subscriberName);
+        
+        subscriberLock.lock();
+        
+        try {
+            Topic destination = session.createTopic(topicCode);            
+        	messageConsumer = session.createDurableSubscriber(destination, subscriberName);
+        	
+        	// only to test the delete/remove from topic feature (see below)
+        	subscribers.computeIfAbsent(topicCode, code -> ConcurrentHashMap.newKeySet()).add(subscriberName);
+        } finally {
+        	if (messageConsumer != null) {
+        		closeMessageConsumer(messageConsumer);
+        	}
+        	
+        	subscriberLock.unlock();
+        }
+	}
 	
 	/**
-	 * Sends the given message to the given topic resource. 
+	 * Sends the given message to the given topic resource (using a cached producer).
 	 * @param topicDestinationName
 	 * @param message
 	 * @return
@@ -95,32 +325,28 @@ public class TopicService {
 	public boolean sendMessageTo(final String topicDestinationName, final String message) {
         LOGGER.info("sendMessageTo - start");
         
-        Connection connection = null;
-        Session session = null;
-    
-        try {
-            connection = connectionFactory.createConnection();
-            connection.setClientID(topicDestinationName);
-            
-            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-
-            Destination destination = session.createTopic(topicDestinationName);            
-            
-            session.createProducer(destination).send(session.createTextMessage(message));
-            
-            LOGGER.debug("sendMessageTo - message sent ok to : {}", topicDestinationName);
-            LOGGER.debug("sendMessageTo - message sent as    : {}", SUBSCRIBER_NAME);
-            LOGGER.debug("sendMessageTo - message body       : {}", message);
-            
-            return true;
-        } catch (Exception e) {
-        	LOGGER.error("ERROR", e);
-            return false;
-        } finally {
-            closeSesion(session);
-            closeConnection(connection);                        
-            LOGGER.info("sendMessageTo - end");
-        }
+        boolean result = producerCacheService.sendTextMessage(topicDestinationName, message);
+        
+        LOGGER.debug("sendMessageTo - message sent to : {} - result : {}", topicDestinationName, result);
+        LOGGER.debug("sendMessageTo - message body    : {}", message);
+        LOGGER.info("sendMessageTo - end");
+        return result;
+	}
+	
+	/**
+	 * Sends the given messages to the given topic resource in transacted batches of commit interval messages.
+	 * @param topicDestinationName
+	 * @param messages
+	 * @param commitInterval
+	 * @return
+	 */
+	public BatchSendResult sendMessagesTo(final String topicDestinationName, final List<String> messages, final int commitInterval) {
+        LOGGER.info("sendMessagesTo - start");
+        
+        BatchSendResult result = producerCacheService.sendTextMessages(topicDestinationName, messages, commitInterval);
+        
+        LOGGER.info("sendMessagesTo - end");
+        return result;
 	}
 	
 	/**
@@ -128,49 +354,78 @@ public class TopicService {
 	 * @param topicDestinationName
 	 * @return
 	 */
-    public Map<String, String> browseMessagesFrom(final String topicDestinationName) {
+    public BrowseResult browseMessagesFrom(final String topicDestinationName) {
+        BrowseResult topicMessages = new BrowseResult(topicDestinationName);
+
+        if (!browseMessagesFrom(topicDestinationName, topicMessages)) {
+        	topicMessages.setError("Browse failed : " + topicDestinationName);
+        }
+
+        return topicMessages;
+    }
+
+	/**
+	 * Browses the messages from the given topic resource passing them to the given handler as they are received.
+	 * @param topicDestinationName
+	 * @param messageHandler
+	 * @return false if the browse failed
+	 */
+    public boolean browseMessagesFrom(final String topicDestinationName, final MessageHandler messageHandler) {
         LOGGER.info("browseMessagesFrom - start");
 
-        Map<String, String> topicMessages = new HashMap<>();
+        awaitTopicSubscribers(topicDestinationName);
+
         Connection connection = null;
         Session session = null;
         MessageConsumer messageConsumer = null;
+        Lock subscriberLock = durableConnections.getSubscriberLock(SUBSCRIBER_NAME+topicDestinationName);
+        boolean locked = false;
+        OperationMetrics metrics = OperationMetrics.start(meterRegistry, "browse", topicDestinationName);
+        int elements = 1;
         
         try {
-            connection = connectionFactory.createConnection();
-            connection.setClientID(topicDestinationName);
-            connection.start(); // start the connection to receive messages
+            connection = metrics.connect(() -> durableConnections.acquire(topicDestinationName)); // shared and started connection
             
+            subscriberLock.lock(); // only one consumer for the durable subscriber
+            locked = true;
             session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
             
             Topic destination = session.createTopic(topicDestinationName);            
 
             // the subscriber was created previously by the topic admin or by the post construct method (see above)
         	messageConsumer = session.createDurableSubscriber(destination, SUBSCRIBER_NAME+topicDestinationName);
-        	Message receivedMessage = messageConsumer.receive(RECEIVE_TIME_OUT_MILISECONDS);
+        	MessageDrainer messageDrainer = createMessageDrainer(messageConsumer, DrainOptions.DEFAULTS);
+        	Message receivedMessage = messageDrainer.receive();
             
         	LOGGER.debug("browseMessagesFrom - from topic : {}", topicDestinationName);
         	LOGGER.debug("browseMessagesFrom - subscriber : {}", (SUBSCRIBER_NAME+topicDestinationName));
         	
-        	int elements = 1;
-        	
             while(receivedMessage != null) {
-            	String textMessage = ((TextMessage)receivedMessage).getText();
-                topicMessages.put(String.valueOf(elements++), textMessage);
-                
-                LOGGER.debug("browseMessagesFrom - message    : {}", textMessage);
+                LOGGER.debug("browseMessagesFrom - message {} : {}", elements, MessageBody.getType(receivedMessage));
+
+                if (!messageHandler.handle(elements++, receivedMessage)) { // any body type: the handler reads it
+                	break;
+                }
                 
-            	receivedMessage = messageConsumer.receive(RECEIVE_TIME_OUT_MILISECONDS);
+            	receivedMessage = messageDrainer.receive();
             }
             
-            return topicMessages;
+            return true;
         } catch (Exception e) {
             LOGGER.error("ERROR", e);
-            return topicMessages;
+            metrics.failed(e);
+            return false;
         } finally {
         	closeMessageConsumer(messageConsumer);
             closeSesion(session);
-            closeConnection(connection);                        
+            
+            if (locked) {
+            	subscriberLock.unlock();
+            }
+            
+            releaseConnection(topicDestinationName, connection);
+            metrics.addMessages(elements - 1);
+            metrics.stop();
             LOGGER.info("browseMessagesFrom - end");
         }
     }
@@ -182,56 +437,215 @@ public class TopicService {
      * @return
      */
 	public boolean removeMessagesBySubscriberFrom(final String topicDestinationName) {
-		LOGGER.info("removeMessagesBySubscriberFrom - start");
+		return removeMessagesBySubscriberFrom(topicDestinationName, DrainOptions.DEFAULTS);
+	}
+
+    /**
+     * Removes/Consumes the messages from a given topic resource with the given drain options (for each subscriber).
+     * @param topicDestinationName
+     * @param drainOptions
+     * @return
+     */
+	public boolean removeMessagesBySubscriberFrom(final String topicDestinationName, final DrainOptions drainOptions) {
+		return drainMessagesBySubscriberFrom(topicDestinationName, drainOptions).getError() == null;
+	}
+
+    /**
+     * Drains (consumes) the messages of all the subscribers of a given topic resource concurrently.
+     * The durable subscribers share the client ID so they use the shared connection of the topic, but each subscriber
+     * is drained on its own session and thread: the drain takes the time of the slowest subscriber instead of the sum.
+     * The subscribers of all the drains run on a shared executor bounded to the drain subscriber threads.
+     * @param topicDestinationName
+     * @param drainOptions
+     * @return the drained messages by subscriber
+     */
+	public DrainResult drainMessagesBySubscriberFrom(final String topicDestinationName, final DrainOptions drainOptions) {
+		LOGGER.info("drainMessagesBySubscriberFrom - start");
 		
+		awaitTopicSubscribers(topicDestinationName);
+		
+		DrainResult result = new DrainResult(topicDestinationName);
+		List<String> topicSubscribers = getSubscribersOf(topicDestinationName);
         Connection connection = null;
-        Session session = null;
+        List<Future<?>> workers = new ArrayList<>();
+        OperationMetrics metrics = OperationMetrics.start(meterRegistry, "drain", topicDestinationName);
+        long start = System.nanoTime();
         
         try {
-            connection = connectionFactory.createConnection();
-            connection.setClientID(topicDestinationName);
-            connection.start();
+            connection = metrics.connect(() -> durableConnections.acquire(topicDestinationName));
             
-            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            Topic destination = session.createTopic(topicDestinationName);            
+            if (!topicSubscribers.isEmpty()) {
+            	final Connection subscribersConnection = connection;
+            	ExecutorService executor = getDrainExecutor();
+
+            	for (String subscriber : topicSubscribers) {
+            		workers.add(executor.submit(() -> drainSubscriber(subscribersConnection, topicDestinationName, subscriber,
+            				drainOptions, result, metrics)));
+            	}
+
+            	for (Future<?> worker : workers) {
+            		worker.get();
+            	}
+            }
+        } catch (Exception e) {
+        	LOGGER.error("ERROR", e);
+        	metrics.failed(e);
+        	result.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+        } finally {
+        	for (Future<?> worker : workers) {
+        		worker.cancel(true);
+        	}
+        	
+            releaseConnection(topicDestinationName, connection);
+            result.setElapsedNanos(System.nanoTime() - start);
+            metrics.addMessages(result.getDrained());
+            metrics.stop();
+            LOGGER.debug("drainMessagesBySubscriberFrom - topic : {} - drained : {}", topicDestinationName, result.getDrainedBy());
+            LOGGER.info("drainMessagesBySubscriberFrom - end");
+        }
+        
+        return result;
+	}
 
-            for (String subscriber : subscribers.keySet()) {
-            	if (subscribers.get(subscriber).equals(topicDestinationName)) {
-                	LOGGER.debug("removeMessagesBySubscriberFrom - topic : {} - subscriber : {}", topicDestinationName, subscriber);
-                	
-		        	MessageConsumer messageConsumer = session.createDurableSubscriber(destination, subscriber);
-		        	Message receivedMessage = messageConsumer.receive(RECEIVE_TIME_OUT_MILISECONDS);
-		            
-		            while(receivedMessage != null) {
-		            	receivedMessage = messageConsumer.receive(RECEIVE_TIME_OUT_MILISECONDS);
-		            }
-		            
-		            closeMessageConsumer(messageConsumer);
+    /**
+     * Removes the messages from a given topic resource by unsubscribing and recreating its durable subscribers.
+     * The backlog is discarded by the broker in constant time (instead of consuming the messages one by one),
+     * but the messages published between the unsubscribe and the new subscription are lost too.
+     * @param topicDestinationName
+     * @return
+     */
+	public boolean resubscribeSubscribersOf(final String topicDestinationName) {
+		LOGGER.info("resubscribeSubscribersOf - start");
+		
+		awaitTopicSubscribers(topicDestinationName);
+		
+        OperationMetrics metrics = OperationMetrics.start(meterRegistry, "resubscribe", topicDestinationName);
+        Connection connection = null;
+        Session session = null;
+        
+        try {
+            connection = metrics.connect(() -> durableConnections.acquire(topicDestinationName));
+            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            
+            for (String subscriber : getSubscribersOf(topicDestinationName)) {
+            	LOGGER.debug("resubscribeSubscribersOf - topic : {} - subscriber : {}", topicDestinationName, subscriber);
+            	Lock subscriberLock = durableConnections.getSubscriberLock(subscriber);
+            	
+            	subscriberLock.lock();
+            	
+            	try {
+            		session.unsubscribe(subscriber);
+            		subscribe(session, topicDestinationName, subscriber);
+            	} finally {
+            		subscriberLock.unlock();
             	}
             }
+            
             return true;
         } catch (Exception e) {
         	LOGGER.error("ERROR", e);
+        	metrics.failed(e);
             return false;
         } finally {
             closeSesion(session);
-            closeConnection(connection);  
-            LOGGER.info("removeMessagesBySubscriberFrom - end");
+            releaseConnection(topicDestinationName, connection);
+            metrics.stop();
+            LOGGER.info("resubscribeSubscribersOf - end");
         }
 	}
 
 	/**
-	 * Closes the given connection.
+	 * Drains the messages of the given subscriber on a new session of the given connection adding the drained
+	 * count to the given result.
 	 * @param connection
+	 * @param topicDestinationName
+	 * @param subscriber
+	 * @param drainOptions
+	 * @param result
+	 * @param metrics the meters of the drain
 	 */
-	private void closeConnection(final Connection connection) {
+	private void drainSubscriber(final Connection connection, final String topicDestinationName, final String subscriber,
+			final DrainOptions drainOptions, final DrainResult result, final OperationMetrics metrics) {
+		Session session = null;
+		MessageConsumer messageConsumer = null;
+		MessageDrainer messageDrainer = null;
+		Lock subscriberLock = durableConnections.getSubscriberLock(subscriber);
+
+		subscriberLock.lock(); // only one consumer for the durable subscriber
+
 		try {
-			connection.close();
-		} catch(Exception e) {
-			LOGGER.warn("Error closing : ", e);
+			LOGGER.debug("drainSubscriber - topic : {} - subscriber : {}", topicDestinationName, subscriber);
+
+			session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			messageConsumer = session.createDurableSubscriber(session.createTopic(topicDestinationName), subscriber);
+			messageDrainer = createMessageDrainer(messageConsumer, drainOptions);
+
+			while (messageDrainer.receive() != null) {
+				// only consume
+			}
+		} catch (Exception e) {
+			LOGGER.error("ERROR", e);
+			metrics.failed(e);
+			result.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+		} finally {
+			result.addDrained(subscriber, messageDrainer != null ? messageDrainer.getReceived() : 0);
+
+			if (messageConsumer != null) {
+				closeMessageConsumer(messageConsumer);
+			}
+
+			if (session != null) {
+				closeSesion(session);
+			}
+
+			subscriberLock.unlock();
 		}
 	}
-	
+
+	/**
+	 * Gets the subscribers (created by the application) of the given topic resource.
+	 * @param topicDestinationName
+	 * @return
+	 */
+	private List<String> getSubscribersOf(final String topicDestinationName) {
+		Set<String> topicSubscribers = subscribers.get(topicDestinationName);
+
+		return topicSubscribers != null ? new ArrayList<>(topicSubscribers) : new ArrayList<>();
+	}
+
+	/**
+	 * Creates a drainer for the given subscriber using the given options (or the configured defaults).
+	 * @param messageConsumer
+	 * @param drainOptions
+	 * @return
+	 */
+	private MessageDrainer createMessageDrainer(final MessageConsumer messageConsumer, final DrainOptions drainOptions) {
+		DrainOptions options = drainOptions != null ? drainOptions : DrainOptions.DEFAULTS;
+
+		return new MessageDrainer(messageConsumer,
+				options.getFirstReceiveTimeout() != null ? options.getFirstReceiveTimeout() : firstReceiveTimeout,
+				options.getIdleTimeout() != null ? options.getIdleTimeout() : idleTimeout, options.getExpectedCount());
+	}
+
+	/**
+	 * Gets the connection factory for the durable subscribers (they can't use pooled connections because
+	 * the client ID is part of the subscription).
+	 * @return
+	 */
+	private ConnectionFactory getDurableConnectionFactory() {
+		return durableConnectionFactory != null ? durableConnectionFactory : connectionFactory;
+	}
+
+	/**
+	 * Releases the shared connection of the given topic resource (if it was acquired).
+	 * @param topicCode
+	 * @param connection
+	 */
+	private void releaseConnection(final String topicCode, final Connection connection) {
+		if (connection != null) {
+			durableConnections.release(topicCode);
+		}
+	}	
 	/**
 	 * Closes the given session.
 	 * @param session
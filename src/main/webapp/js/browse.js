@@ -18,8 +18,8 @@ function browseForResults(selectedValue){
 		  },
 		  success: function(json){
 			  $('#browseResult').empty(); // clean the table to show the messages
-			  $.each(json, function(i, value) {
-		            $('#browseResult').append('<tr><td>' + i + '</td><td>' + value + '</td><tr>');
+			  $.each(json.messages, function(i, value) { // in the broker order
+		            $('#browseResult').append('<tr><td>' + value.number + '</td><td>' + value.text + '</td><tr>');
 		        });
 			  loading.close(); // loading spinner
 		  }
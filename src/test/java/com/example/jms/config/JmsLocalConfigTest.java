@@ -2,6 +2,8 @@ package com.example.jms.config;
 
 import javax.jms.ConnectionFactory;
 
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.pool.PooledConnectionFactory;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -11,6 +13,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
 
 
 public class JmsLocalConfigTest {
@@ -61,6 +64,30 @@ public class JmsLocalConfigTest {
 		assertThat(result, notNullValue());
 	}
 	
+	@Test
+	public void createConnectionFactoryBeanWithPoolArgumentsShouldReturnAConfiguredPooledConnectionFactoryBean() {
+		jmsLocalConfig.setMaxConnections(4);
+		jmsLocalConfig.setMaxSessionsPerConnection(50);
+		jmsLocalConfig.setIdleTimeout(1000);
+		jmsLocalConfig.setIdleEvictionInterval(2000);
+		
+		ConnectionFactory result = jmsLocalConfig.createConnectionFactoryBean();
+		assertThat(result, instanceOf(PooledConnectionFactory.class));
+		
+		PooledConnectionFactory pooledConnectionFactory = (PooledConnectionFactory) result;
+		assertThat(pooledConnectionFactory.getMaxConnections(), equalTo(4));
+		assertThat(pooledConnectionFactory.getMaximumActiveSessionPerConnection(), equalTo(50));
+		assertThat(pooledConnectionFactory.getIdleTimeout(), equalTo(1000));
+		assertThat(pooledConnectionFactory.getTimeBetweenExpirationCheckMillis(), equalTo(2000L));
+		assertThat(pooledConnectionFactory.getConnectionFactory(), instanceOf(ActiveMQConnectionFactory.class));
+	}
+
+	@Test
+	public void createDurableConnectionFactoryBeanWithValidArgumentsShouldReturnANonPooledConnectionFactoryBean() {
+		ConnectionFactory result = jmsLocalConfig.createDurableConnectionFactoryBean();
+		assertThat(result, instanceOf(ActiveMQConnectionFactory.class));
+	}
+
 	@Test
 	public void setGetUrlWithValidArgumentsShouldTheSettedValue() {
 		jmsLocalConfig.setUrl("someUrl");
@@ -1,5 +1,7 @@
 package com.example.jms.controller;
 
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.apache.activemq.command.ActiveMQMapMessage;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -10,17 +12,23 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.example.jms.model.BrowsePage;
+import com.example.jms.model.BrowseResult;
+import com.example.jms.model.MessageBody;
+import com.example.jms.model.MessageHandler;
 import com.example.jms.service.common.BrowseService;
+import com.example.jms.service.common.SelectorService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
-import java.util.HashMap;
-import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.startsWith;
 
 @RunWith(SpringRunner.class)
 public class BrowseControllerTest {
@@ -30,65 +38,209 @@ public class BrowseControllerTest {
 	
 	@MockBean
 	BrowseService browseServiceMock;
+
+	@SpyBean
+	SelectorService selectorService;
 	
 	@SpyBean // use inject mocks with spring boot versions lower than 1.4
 	private BrowseController browseController;
 	
-	private Map<String, String> messages;
+	private BrowseResult messages;
 	
 	@Before
 	public void setUp() {
-		messages = new HashMap<>();
-		messages.put("1", "message 1");
-		messages.put("2", "message 2");
-		messages.put("3", "message 3");
+		messages = new BrowseResult("someResource");
+		messages.add("ID:1", 1L, 4, MessageBody.Type.TEXT, 9, "message 1");
+		messages.add("ID:2", 2L, 4, MessageBody.Type.TEXT, 9, "message 2");
+		messages.add("ID:3", 3L, 4, MessageBody.Type.TEXT, 9, "message 3");
 	}
 	
 	@Test
 	public void browseInWithValidArgumentsShouldReturnAResponseEntityWithStatusOKAndAMapOfMessages() {
-		Mockito.doReturn(messages).when(browseServiceMock).getMessagesFrom(Mockito.anyString());
+		Mockito.doReturn(messages).when(browseServiceMock).getMessagesFrom(Mockito.anyString(), Mockito.anyString());
 		
-		ResponseEntity<Map<String, String>> result = browseController.browseIn("someResource");
+		ResponseEntity<BrowseResult> result = browseController.browseIn("someResource", null);
 		
 		assertThat(result, notNullValue());
 		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
 		assertThat(result.getBody(), notNullValue());
-		assertThat(result.getBody().size(), equalTo(messages.size()));
+		assertThat(result.getBody().getCount(), equalTo(messages.getCount()));
 	}
 	
 	@Test
 	public void browseInWithNullArgumentsShouldReturnAResponseEntityWithStatusOKAndAMapOfMessages() {
-		Mockito.doReturn(messages).when(browseServiceMock).getMessagesFrom(Mockito.anyString());
+		Mockito.doReturn(messages).when(browseServiceMock).getMessagesFrom(Mockito.anyString(), Mockito.anyString());
 		
-		ResponseEntity<Map<String, String>> result = browseController.browseIn(null);
+		ResponseEntity<BrowseResult> result = browseController.browseIn(null, null);
 		
 		assertThat(result, notNullValue());
 		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
 		assertThat(result.getBody(), notNullValue());
-		assertThat(result.getBody().size(), equalTo(messages.size()));
+		assertThat(result.getBody().getCount(), equalTo(messages.getCount()));
 	}
 
 	@Test
 	public void browseInWithEmptyArgumentsShouldReturnAResponseEntityWithStatusOKAndAMapOfMessages() {
-		Mockito.doReturn(messages).when(browseServiceMock).getMessagesFrom(Mockito.anyString());
+		Mockito.doReturn(messages).when(browseServiceMock).getMessagesFrom(Mockito.anyString(), Mockito.anyString());
 		
-		ResponseEntity<Map<String, String>> result = browseController.browseIn("");
+		ResponseEntity<BrowseResult> result = browseController.browseIn("", null);
 		
 		assertThat(result, notNullValue());
 		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
 		assertThat(result.getBody(), notNullValue());
-		assertThat(result.getBody().size(), equalTo(messages.size()));
+		assertThat(result.getBody().getCount(), equalTo(messages.getCount()));
 	}
 
 	@Test
 	public void browseInWithBlankArgumentsShouldReturnAResponseEntityWithStatusOKAndAMapOfMessages() {
-		Mockito.doReturn(messages).when(browseServiceMock).getMessagesFrom(Mockito.anyString());
+		Mockito.doReturn(messages).when(browseServiceMock).getMessagesFrom(Mockito.anyString(), Mockito.anyString());
 		
-		ResponseEntity<Map<String, String>> result = browseController.browseIn(" ");
+		ResponseEntity<BrowseResult> result = browseController.browseIn(" ", null);
 		
 		assertThat(result, notNullValue());
 		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
 		assertThat(result.getBody(), notNullValue());
-		assertThat(result.getBody().size(), equalTo(messages.size()));
-	}	
+		assertThat(result.getBody().getCount(), equalTo(messages.getCount()));
+	}
+
+	@Test
+	public void browseInWithAnInvalidSelectorShouldReturnAResponseEntityWithStatusBadRequest() {
+		ResponseEntity<BrowseResult> result = browseController.browseIn("someResource", "priority >");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+		assertThat(result.getBody().getError(), startsWith("Invalid selector : "));
+		Mockito.verifyZeroInteractions(browseServiceMock);
+	}
+
+	@Test
+	public void browseInWithAValidSelectorShouldPassItToTheService() {
+		Mockito.doReturn(messages).when(browseServiceMock).getMessagesFrom("someResource", "priority > 4");
+		
+		ResponseEntity<BrowseResult> result = browseController.browseIn("someResource", "priority > 4");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody().getCount(), equalTo(messages.getCount()));
+	}
+
+	@Test
+	public void browseStreamInWithValidArgumentsShouldWriteAJsonLinePerMessage() throws Exception {
+		Mockito.doAnswer(invocation -> {
+			MessageHandler handler = invocation.getArgumentAt(1, MessageHandler.class);
+			handler.handle(1, "message 1");
+			handler.handle(2, "message \"2\"");
+			return true;
+		}).when(browseServiceMock).browseMessagesFrom(Mockito.eq("QUEUE_001"), Mockito.any(MessageHandler.class));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		browseController.browseStreamIn("QUEUE_001", response);
+		
+		assertThat(response.getStatus(), equalTo(HttpStatus.OK.value()));
+		assertThat(response.getContentType(), equalTo("application/x-ndjson"));
+		assertThat(response.getContentAsString(),
+				equalTo("{\"number\":1,\"text\":\"message 1\"}\n{\"number\":2,\"text\":\"message \\\"2\\\"\"}\n"));
+	}
+
+	@Test
+	public void browseStreamInWithNonValidArgumentsShouldReturnBadRequest() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		browseController.browseStreamIn("someResource", response);
+		
+		assertThat(response.getStatus(), equalTo(HttpStatus.BAD_REQUEST.value()));
+		assertThat(response.getContentAsString(), equalTo(""));
+		Mockito.verifyZeroInteractions(browseServiceMock);
+	}
+
+	@Test
+	public void browseStreamInWithAFailedBrowseShouldWriteAnErrorAsTheLastLine() throws Exception {
+		Mockito.doAnswer(invocation -> {
+			MessageHandler handler = invocation.getArgumentAt(1, MessageHandler.class);
+			handler.handle(1, "message 1");
+			return false;
+		}).when(browseServiceMock).browseMessagesFrom(Mockito.eq("QUEUE_001"), Mockito.any(MessageHandler.class));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		browseController.browseStreamIn("QUEUE_001", response);
+		
+		assertThat(response.getStatus(), equalTo(HttpStatus.OK.value()));
+		assertThat(response.getContentAsString(),
+				equalTo("{\"number\":1,\"text\":\"message 1\"}\n{\"error\":\"Browse failed : QUEUE_001\"}\n"));
+	}
+
+	@Test
+	public void browsePageInWithValidArgumentsShouldReturnAResponseEntityWithStatusOKAndThePage() {
+		BrowsePage page = new BrowsePage("someResource", 0, 10, "someCursor");
+		Mockito.doReturn(page).when(browseServiceMock).getPageFrom("someResource", 0, 10, "someCursor", null);
+		
+		ResponseEntity<BrowsePage> result = browseController.browsePageIn("someResource", 0, 10, "someCursor", null);
+		
+		assertThat(result, notNullValue());
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(page));
+	}
+
+
+	@Test
+	public void browseStreamInWithBinaryMessagesShouldWriteTheTypeAndTheBody() throws Exception {
+		ActiveMQBytesMessage bytesMessage = new ActiveMQBytesMessage();
+		bytesMessage.writeBytes(new byte[] {0, 1, 2, (byte) 255});
+		bytesMessage.reset(); // read only
+		ActiveMQMapMessage mapMessage = new ActiveMQMapMessage();
+		mapMessage.setString("name", "value");
+		mapMessage.setInt("count", 2);
+		Mockito.doAnswer(invocation -> {
+			MessageHandler handler = invocation.getArgumentAt(1, MessageHandler.class);
+			handler.handle(1, bytesMessage);
+			handler.handle(2, mapMessage);
+			return true;
+		}).when(browseServiceMock).browseMessagesFrom(Mockito.eq("QUEUE_001"), Mockito.any(MessageHandler.class));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		browseController.browseStreamIn("QUEUE_001", response);
+		
+		String[] lines = response.getContentAsString().split("\n");
+		assertThat(lines.length, equalTo(2));
+		assertThat(lines[0], equalTo("{\"number\":1,\"type\":\"BYTES\",\"body\":\"AAEC/w==\"}"));
+		assertThat(lines[1], containsString("\"number\":2,\"type\":\"MAP\",\"body\":{"));
+		assertThat(lines[1], containsString("\"name\":\"value\""));
+		assertThat(lines[1], containsString("\"count\":2"));
+	}
+
+	@Test
+	public void browseBodyInWithAFoundBytesMessageShouldWriteTheRawBytes() throws Exception {
+		ActiveMQBytesMessage bytesMessage = new ActiveMQBytesMessage();
+		bytesMessage.writeBytes(new byte[] {0, 1, 2, (byte) 255});
+		bytesMessage.reset(); // read only
+		Mockito.doAnswer(invocation -> {
+			MessageHandler handler = invocation.getArgumentAt(2, MessageHandler.class);
+			handler.handle(1, bytesMessage);
+			return true;
+		}).when(browseServiceMock).browseMessageFrom(Mockito.eq("someResource"), Mockito.eq("ID:1"), Mockito.any(MessageHandler.class));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		browseController.browseBodyIn("someResource", "ID:1", response);
+		
+		assertThat(response.getStatus(), equalTo(HttpStatus.OK.value()));
+		assertThat(response.getContentType(), equalTo("application/octet-stream"));
+		assertThat(response.getContentAsByteArray(), equalTo(new byte[] {0, 1, 2, (byte) 255}));
+	}
+
+	@Test
+	public void browseBodyInWithANotFoundMessageShouldReturnNotFound() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		browseController.browseBodyIn("someResource", "ID:1", response);
+		
+		assertThat(response.getStatus(), equalTo(HttpStatus.NOT_FOUND.value()));
+	}
+
+
+	@Test
+	public void browsePageInWithAnInvalidSelectorShouldReturnAResponseEntityWithStatusBadRequest() {
+		ResponseEntity<BrowsePage> result = browseController.browsePageIn("someResource", 0, 10, null, "JMSType = ");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+		assertThat(result.getBody().getError(), startsWith("Invalid selector : "));
+		Mockito.verifyZeroInteractions(browseServiceMock);
+	}
 }
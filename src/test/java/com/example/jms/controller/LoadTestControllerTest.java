@@ -0,0 +1,99 @@
+package com.example.jms.controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.example.jms.model.LoadTestOptions;
+import com.example.jms.model.LoadTestResult;
+import com.example.jms.service.loadtest.LoadTestService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+
+@RunWith(SpringRunner.class)
+public class LoadTestControllerTest {
+
+	@MockBean
+	LoadTestService loadTestServiceMock;
+
+	@SpyBean // use inject mocks with spring boot versions lower than 1.4
+	private LoadTestController loadTestController;
+
+	private static LoadTestResult createResult() {
+		return new LoadTestResult("ID_001", "QUEUE_001", 10L, null, 0, 1, 1, 1);
+	}
+
+	@Test
+	public void produceWithValidArgumentsShouldReturnAResponseEntityWithStatusAccepted() {
+		LoadTestResult expected = createResult();
+		Mockito.doReturn(expected).when(loadTestServiceMock).start(Mockito.eq("QUEUE_001"), Mockito.any(LoadTestOptions.class));
+
+		ResponseEntity<LoadTestResult> result = loadTestController.produce("QUEUE_001", 10L, null, null, 1, 1, null);
+
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.ACCEPTED));
+		assertThat(result.getBody(), equalTo(expected));
+	}
+
+	@Test
+	public void produceWithInvalidArgumentsShouldReturnAResponseEntityWithStatusBadRequest() {
+		LoadTestResult expected = createResult();
+		expected.finish(LoadTestResult.Status.FAILED, "The messages must be positive");
+		Mockito.doReturn(expected).when(loadTestServiceMock).start(Mockito.eq("QUEUE_001"), Mockito.any(LoadTestOptions.class));
+
+		ResponseEntity<LoadTestResult> result = loadTestController.produce("QUEUE_001", 0L, null, null, null, null, null);
+
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+		assertThat(result.getBody().getError(), equalTo("The messages must be positive"));
+	}
+
+	@Test
+	public void produceWithTheMaxRunningTestsShouldReturnAResponseEntityWithStatusServiceUnavailable() {
+		LoadTestResult expected = createResult();
+		expected.finish(LoadTestResult.Status.REJECTED, "Too many running load tests (max 4)");
+		Mockito.doReturn(expected).when(loadTestServiceMock).start(Mockito.eq("QUEUE_001"), Mockito.any(LoadTestOptions.class));
+
+		ResponseEntity<LoadTestResult> result = loadTestController.produce("QUEUE_001", 10L, null, null, null, null, null);
+
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+		assertThat(result.getBody(), equalTo(expected));
+	}
+
+	@Test
+	public void getLoadTestShouldReturnTheTestOrStatusNotFound() {
+		LoadTestResult expected = createResult();
+		Mockito.doReturn(expected).when(loadTestServiceMock).getTest("ID_001");
+
+		assertThat(loadTestController.getLoadTest("ID_001").getBody(), equalTo(expected));
+		assertThat(loadTestController.getLoadTest("ID_002").getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+	}
+
+	@Test
+	public void getLoadTestsShouldReturnAResponseEntityWithStatusOK() {
+		List<LoadTestResult> expected = Arrays.asList(createResult());
+		Mockito.doReturn(expected).when(loadTestServiceMock).getTests();
+
+		ResponseEntity<List<LoadTestResult>> result = loadTestController.getLoadTests();
+
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(expected));
+	}
+
+	@Test
+	public void cancelLoadTestShouldReturnTheTestOrStatusNotFound() {
+		LoadTestResult expected = createResult();
+		Mockito.doReturn(expected).when(loadTestServiceMock).cancel("ID_001");
+
+		assertThat(loadTestController.cancelLoadTest("ID_001").getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(loadTestController.cancelLoadTest("ID_002").getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.jms.controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.example.jms.model.ContinuousProbeResult;
+import com.example.jms.model.ProbeResult;
+import com.example.jms.service.probe.LatencyProbeService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+
+@RunWith(SpringRunner.class)
+public class ProbeControllerTest {
+
+	@MockBean
+	LatencyProbeService latencyProbeServiceMock;
+
+	@SpyBean // use inject mocks with spring boot versions lower than 1.4
+	private ProbeController probeController;
+
+	@Test
+	public void probeWithValidArgumentsShouldReturnAResponseEntityWithStatusACCEPTED() {
+		ProbeResult expected = new ProbeResult("ID_001", "QUEUE_001", null);
+		Mockito.doReturn(expected).when(latencyProbeServiceMock).probe("QUEUE_001", 10, 5L);
+
+		ResponseEntity<ProbeResult> result = probeController.probe("QUEUE_001", 10, 5L);
+
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.ACCEPTED));
+		assertThat(result.getBody(), equalTo(expected));
+	}
+
+	@Test
+	public void probeWithNonValidArgumentsShouldReturnAResponseEntityWithStatusBadRequest() {
+		ProbeResult expected = new ProbeResult("ID_001", "QUEUE_001", null);
+		expected.setError("The messages must be between 1 and 10000");
+		expected.finish();
+		Mockito.doReturn(expected).when(latencyProbeServiceMock).probe("QUEUE_001", 0, 5L);
+
+		ResponseEntity<ProbeResult> result = probeController.probe("QUEUE_001", 0, 5L);
+
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+		assertThat(result.getBody(), equalTo(expected));
+	}
+
+	@Test
+	public void probeWithANotConfiguredResourceShouldReturnAResponseEntityWithStatusBadRequest() {
+		ResponseEntity<ProbeResult> result = probeController.probe("UNKNOWN", null, null);
+
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+		Mockito.verifyZeroInteractions(latencyProbeServiceMock);
+	}
+
+	@Test
+	public void getProbeWithValidArgumentsShouldReturnAResponseEntityWithStatusOK() {
+		ProbeResult expected = new ProbeResult("ID_001", "QUEUE_001", null);
+		Mockito.doReturn(expected).when(latencyProbeServiceMock).getProbe("ID_001");
+
+		ResponseEntity<ProbeResult> result = probeController.getProbe("ID_001");
+
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(expected));
+	}
+
+	@Test
+	public void getProbeWithAnUnknownIdShouldReturnAResponseEntityWithStatusNotFound() {
+		ResponseEntity<ProbeResult> result = probeController.getProbe("UNKNOWN");
+
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+	}
+
+	@Test
+	public void getContinuousProbesShouldReturnAResponseEntityWithStatusOK() {
+		List<ContinuousProbeResult> expected = Arrays.asList(
+				new ContinuousProbeResult("QUEUE_001", true, new ProbeResult("ID_001", "QUEUE_001", null), null));
+		Mockito.doReturn(expected).when(latencyProbeServiceMock).getContinuousProbes();
+
+		ResponseEntity<List<ContinuousProbeResult>> result = probeController.getContinuousProbes();
+
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(expected));
+	}
+}
@@ -5,6 +5,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
@@ -12,7 +13,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.example.jms.enums.PurgeStrategyEnum;
+import com.example.jms.model.DrainOptions;
+import com.example.jms.model.DrainResult;
 import com.example.jms.service.common.PurgeService;
+import com.example.jms.service.common.SelectorService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -27,6 +32,9 @@ public class PurgeControllerTest {
 	
 	@MockBean
 	PurgeService purgeServiceMock;
+
+	@SpyBean
+	SelectorService selectorService;
 	
 	@SpyBean // use inject mocks with spring boot versions lower than 1.4
 	private PurgeController purgeController;
@@ -37,9 +45,9 @@ public class PurgeControllerTest {
 	
 	@Test
 	public void sendMessageWithValidArgumentsShouldReturnAResponseEntityWithStatusOK() {
-		Mockito.doReturn(true).when(purgeServiceMock).purgeMessages(Mockito.anyString());
+		Mockito.doReturn(true).when(purgeServiceMock).purgeMessages(Mockito.anyString(), Mockito.any(DrainOptions.class), Mockito.any());
 		
-		ResponseEntity<Boolean> result = purgeController.purgeMessages("someResource");
+		ResponseEntity<Boolean> result = purgeController.purgeMessages("someResource", null, null, null, null, null);
 		
 		assertThat(result, notNullValue());
 		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
@@ -49,9 +57,9 @@ public class PurgeControllerTest {
 	
 	@Test
 	public void sendMessageWithNullArgumentsShouldReturnAResponseEntityWithStatusOK() {
-		Mockito.doReturn(true).when(purgeServiceMock).purgeMessages(Mockito.anyString());
+		Mockito.doReturn(true).when(purgeServiceMock).purgeMessages(Mockito.anyString(), Mockito.any(DrainOptions.class), Mockito.any());
 		
-		ResponseEntity<Boolean> result = purgeController.purgeMessages(null);
+		ResponseEntity<Boolean> result = purgeController.purgeMessages(null, null, null, null, null, null);
 		
 		assertThat(result, notNullValue());
 		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
@@ -61,9 +69,9 @@ public class PurgeControllerTest {
 
 	@Test
 	public void sendMessageWithEmptyArgumentsShouldReturnAResponseEntityWithStatusOK() {
-		Mockito.doReturn(true).when(purgeServiceMock).purgeMessages(Mockito.anyString());
+		Mockito.doReturn(true).when(purgeServiceMock).purgeMessages(Mockito.anyString(), Mockito.any(DrainOptions.class), Mockito.any());
 		
-		ResponseEntity<Boolean> result = purgeController.purgeMessages("");
+		ResponseEntity<Boolean> result = purgeController.purgeMessages("", null, null, null, null, null);
 		
 		assertThat(result, notNullValue());
 		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
@@ -73,13 +81,88 @@ public class PurgeControllerTest {
 
 	@Test
 	public void sendMessageWithBlankArgumentsShouldReturnAResponseEntityWithStatusOK() {
-		Mockito.doReturn(true).when(purgeServiceMock).purgeMessages(Mockito.anyString());
+		Mockito.doReturn(true).when(purgeServiceMock).purgeMessages(Mockito.anyString(), Mockito.any(DrainOptions.class), Mockito.any());
 		
-		ResponseEntity<Boolean> result = purgeController.purgeMessages(" ");
+		ResponseEntity<Boolean> result = purgeController.purgeMessages(" ", null, null, null, null, null);
 		
 		assertThat(result, notNullValue());
 		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
 		assertThat(result.getBody(), notNullValue());
 		assertThat(result.getBody(), equalTo(true));
-	}	
+	}
+
+	@Test
+	public void purgeMessagesWithDrainArgumentsShouldPassThemAsDrainOptions() {
+		ArgumentCaptor<DrainOptions> drainOptions = ArgumentCaptor.forClass(DrainOptions.class);
+		Mockito.doReturn(true).when(purgeServiceMock).purgeMessages(Mockito.anyString(), Mockito.any(DrainOptions.class), Mockito.any());
+		
+		ResponseEntity<Boolean> result = purgeController.purgeMessages("someResource", null, 10L, 20L, 30L, null);
+		
+		Mockito.verify(purgeServiceMock).purgeMessages(Mockito.eq("someResource"), drainOptions.capture(), Mockito.eq((PurgeStrategyEnum) null));
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(drainOptions.getValue().getFirstReceiveTimeout(), equalTo(10L));
+		assertThat(drainOptions.getValue().getIdleTimeout(), equalTo(20L));
+		assertThat(drainOptions.getValue().getExpectedCount(), equalTo(30L));
+	}
+
+	@Test
+	public void purgeMessagesWithValidStrategyShouldPassTheStrategyIgnoringTheCase() {
+		Mockito.doReturn(true).when(purgeServiceMock).purgeMessages(Mockito.anyString(), Mockito.any(DrainOptions.class), Mockito.any());
+		
+		ResponseEntity<Boolean> result = purgeController.purgeMessages("someResource", "native", null, null, null, null);
+		
+		Mockito.verify(purgeServiceMock).purgeMessages(Mockito.eq("someResource"), Mockito.any(DrainOptions.class),
+				Mockito.eq(PurgeStrategyEnum.NATIVE));
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(true));
+	}
+
+	@Test
+	public void purgeMessagesWithNonValidStrategyShouldReturnAResponseEntityWithStatusBAD_REQUEST() {
+		ResponseEntity<Boolean> result = purgeController.purgeMessages("someResource", "someStrategy", null, null, null, null);
+		
+		Mockito.verifyZeroInteractions(purgeServiceMock);
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+		assertThat(result.getBody(), equalTo(false));
+	}
+
+
+	@Test
+	public void purgeMessagesWithAnInvalidSelectorShouldReturnAResponseEntityWithStatusBadRequest() {
+		ResponseEntity<Boolean> result = purgeController.purgeMessages("someResource", null, null, null, null, "priority >");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+		assertThat(result.getBody(), equalTo(false));
+		Mockito.verifyZeroInteractions(purgeServiceMock);
+	}
+
+	@Test
+	public void purgeMessagesWithAValidSelectorShouldPassItInTheDrainOptions() {
+		ArgumentCaptor<DrainOptions> drainOptions = ArgumentCaptor.forClass(DrainOptions.class);
+		Mockito.doReturn(true).when(purgeServiceMock).purgeMessages(Mockito.anyString(), Mockito.any(DrainOptions.class), Mockito.any());
+		
+		ResponseEntity<Boolean> result = purgeController.purgeMessages("someResource", null, null, null, null, " color = 'red' ");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		Mockito.verify(purgeServiceMock).purgeMessages(Mockito.eq("someResource"), drainOptions.capture(), Mockito.eq((PurgeStrategyEnum) null));
+		assertThat(drainOptions.getValue().getSelector(), equalTo("color = 'red'"));
+	}
+
+	@Test
+	public void drainMessagesWithValidArgumentsShouldReturnAResponseEntityWithTheDrainResult() {
+		ArgumentCaptor<DrainOptions> drainOptions = ArgumentCaptor.forClass(DrainOptions.class);
+		DrainResult expected = new DrainResult("QUEUE_001");
+		expected.addDrained("consumer-1", 5);
+		Mockito.doReturn(expected).when(purgeServiceMock).drainMessages(Mockito.anyString(), Mockito.anyInt(), Mockito.any(DrainOptions.class));
+		
+		ResponseEntity<DrainResult> result = purgeController.drainMessages("QUEUE_001", 4, 10L, 20L);
+		
+		Mockito.verify(purgeServiceMock).drainMessages(Mockito.eq("QUEUE_001"), Mockito.eq(4), drainOptions.capture());
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(expected));
+		assertThat(result.getBody().getDrained(), equalTo(5L));
+		assertThat(drainOptions.getValue().getFirstReceiveTimeout(), equalTo(10L));
+		assertThat(drainOptions.getValue().getIdleTimeout(), equalTo(20L));
+		assertThat(drainOptions.getValue().getExpectedCount(), equalTo(null));
+	}
 }
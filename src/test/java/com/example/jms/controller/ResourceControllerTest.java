@@ -13,11 +13,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.ResourceStats;
+import com.example.jms.model.SubscribersHealth;
 import com.example.jms.service.common.ResourceService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -79,5 +84,69 @@ public class ResourceControllerTest {
 		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
 		assertThat(result.getBody(), notNullValue());
 		assertThat(result.getBody().size(), equalTo(0));
-	}	
+	}
+
+
+	@Test
+	public void getSubscribersHealthWithReadySubscribersShouldReturnAResponseEntityWithStatusOK() {
+		SubscribersHealth health = new SubscribersHealth();
+		health.setState("TOPIC_001", SubscribersHealth.State.READY);
+		health.setState("TOPIC_002", SubscribersHealth.State.PENDING);
+		Mockito.doReturn(health).when(resourceServiceMock).getSubscribersHealth();
+		
+		ResponseEntity<SubscribersHealth> result = resourceController.getSubscribersHealth();
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody().getStatus(), equalTo(SubscribersHealth.Status.UP));
+	}
+
+	@Test
+	public void getSubscribersHealthWithStartingSubscribersShouldReturnAResponseEntityWithStatusSERVICE_UNAVAILABLE() {
+		SubscribersHealth health = new SubscribersHealth();
+		health.setState("TOPIC_001", SubscribersHealth.State.READY);
+		health.setState("TOPIC_002", SubscribersHealth.State.STARTING);
+		Mockito.doReturn(health).when(resourceServiceMock).getSubscribersHealth();
+		
+		ResponseEntity<SubscribersHealth> result = resourceController.getSubscribersHealth();
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+		assertThat(result.getBody().getStatus(), equalTo(SubscribersHealth.Status.STARTING));
+	}
+
+	@Test
+	public void getSubscribersHealthWithFailedSubscribersShouldReturnAResponseEntityWithStatusSERVICE_UNAVAILABLE() {
+		SubscribersHealth health = new SubscribersHealth();
+		health.setState("TOPIC_001", SubscribersHealth.State.STARTING);
+		health.setState("TOPIC_002", SubscribersHealth.State.FAILED);
+		Mockito.doReturn(health).when(resourceServiceMock).getSubscribersHealth();
+		
+		ResponseEntity<SubscribersHealth> result = resourceController.getSubscribersHealth();
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+		assertThat(result.getBody().getStatus(), equalTo(SubscribersHealth.Status.DOWN));
+	}
+
+
+	@Test
+	public void getResourcesStatsWithoutResourceShouldReturnTheStatsOfAllTheResources() {
+		List<ResourceStats> resourcesStats = Arrays.asList(new ResourceStats("QUEUE_001", "Q"), new ResourceStats("TOPIC_001", "T"));
+		Mockito.doReturn(resourcesStats).when(resourceServiceMock).getResourcesStats();
+		
+		ResponseEntity<List<ResourceStats>> result = resourceController.getResourcesStats(null);
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(resourcesStats));
+	}
+
+	@Test
+	public void getResourcesStatsWithAResourceShouldOnlyReturnItsStats() {
+		ResourceStats stats = new ResourceStats("QUEUE_001", "Q");
+		Mockito.doReturn(stats).when(resourceServiceMock).getResourceStats("QUEUE_001");
+		
+		ResponseEntity<List<ResourceStats>> result = resourceController.getResourcesStats("QUEUE_001");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(Collections.singletonList(stats)));
+		Mockito.verify(resourceServiceMock, Mockito.never()).getResourcesStats();
+	}
 }
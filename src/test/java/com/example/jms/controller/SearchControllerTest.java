@@ -0,0 +1,48 @@
+package com.example.jms.controller;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.example.jms.model.SearchResult;
+import com.example.jms.service.search.SearchService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+
+@RunWith(SpringRunner.class)
+public class SearchControllerTest {
+
+	@MockBean
+	SearchService searchServiceMock;
+	
+	@SpyBean // use inject mocks with spring boot versions lower than 1.4
+	private SearchController searchController;
+	
+	@Test
+	public void searchInWithValidArgumentsShouldReturnAResponseEntityWithStatusOK() {
+		SearchResult searchResult = new SearchResult("QUEUE_001", "order");
+		Mockito.doReturn(searchResult).when(searchServiceMock).search("QUEUE_001", "order", 100);
+		
+		ResponseEntity<SearchResult> result = searchController.searchIn("QUEUE_001", "order", 100);
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), sameInstance(searchResult));
+	}
+
+	@Test
+	public void searchInWithAnEmptyQueryShouldReturnAResponseEntityWithStatusBadRequest() {
+		ResponseEntity<SearchResult> result = searchController.searchIn("QUEUE_001", "  ", 100);
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+		assertThat(result.getBody().getError(), equalTo("Empty query"));
+		Mockito.verifyZeroInteractions(searchServiceMock);
+	}
+}
@@ -10,13 +10,26 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.example.jms.model.BatchSendResult;
+import com.example.jms.model.SendTicket;
+import com.example.jms.model.StreamSendResult;
+import com.example.jms.service.common.AsyncSendService;
 import com.example.jms.service.common.SendService;
+import com.example.jms.service.common.StreamSendService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.equalTo;
 
 @RunWith(SpringRunner.class)
@@ -27,6 +40,10 @@ public class SendControllerTest {
 	
 	@MockBean
 	SendService sendServiceMock;
+	@MockBean
+	AsyncSendService asyncSendServiceMock;
+	@MockBean
+	StreamSendService streamSendServiceMock;
 	@SpyBean // use inject mocks with spring boot versions lower than 1.4
 	private SendController sendController;
 	
@@ -117,4 +134,139 @@ public class SendControllerTest {
 		assertThat(result.getBody(), notNullValue());
 		assertThat(result.getBody(), equalTo(true));
 	}
+
+	@Test
+	public void sendBatchWithValidArgumentsShouldReturnAResponseEntityWithStatusOKAndTheBatchResult() {
+		List<String> messages = Arrays.asList("m1", "m2");
+		BatchSendResult expected = new BatchSendResult("someResource", 2, 10);
+		Mockito.doReturn(expected).when(sendServiceMock).sendMessagesTo("someResource", messages, 10);
+		
+		ResponseEntity<BatchSendResult> result = sendController.sendBatch("someResource", 10, messages);
+		
+		assertThat(result, notNullValue());
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(expected));
+	}
+
+	@Test
+	public void sendBatchWithNullCommitIntervalShouldReturnAResponseEntityWithStatusOK() {
+		List<String> messages = Arrays.asList("m1", "m2");
+		BatchSendResult expected = new BatchSendResult("someResource", 2, 100);
+		Mockito.doReturn(expected).when(sendServiceMock).sendMessagesTo("someResource", messages, null);
+		
+		ResponseEntity<BatchSendResult> result = sendController.sendBatch("someResource", null, messages);
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(expected));
+	}
+
+	@Test
+	public void sendAsyncWithValidArgumentsShouldReturnAResponseEntityWithStatusACCEPTED() {
+		SendTicket ticket = new SendTicket("someTicket", "QUEUE_001");
+		Mockito.doReturn(ticket).when(asyncSendServiceMock).sendMessageTo("QUEUE_001", "someMessage");
+		
+		ResponseEntity<SendTicket> result = sendController.sendAsync("QUEUE_001", "someMessage");
+		
+		assertThat(result, notNullValue());
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.ACCEPTED));
+		assertThat(result.getBody(), equalTo(ticket));
+	}
+
+	@Test
+	public void sendAsyncWithAFullInFlightWindowShouldReturnAResponseEntityWithStatusSERVICE_UNAVAILABLE() {
+		SendTicket ticket = new SendTicket("someTicket", "QUEUE_001");
+		ticket.complete(SendTicket.Status.REJECTED, "someError");
+		Mockito.doReturn(ticket).when(asyncSendServiceMock).sendMessageTo("QUEUE_001", "someMessage");
+		
+		ResponseEntity<SendTicket> result = sendController.sendAsync("QUEUE_001", "someMessage");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+		assertThat(result.getBody(), equalTo(ticket));
+	}
+
+	@Test
+	public void sendAsyncWithNonValidArgumentsShouldReturnAResponseEntityWithStatusBAD_REQUEST() {
+		ResponseEntity<SendTicket> result = sendController.sendAsync("someResource", "someMessage");
+
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+		assertThat(result.getBody(), nullValue());
+		Mockito.verifyZeroInteractions(asyncSendServiceMock);
+	}
+
+	@Test
+	public void getSendTicketWithValidArgumentsShouldReturnAResponseEntityWithStatusOK() {
+		SendTicket ticket = new SendTicket("someTicket", "someResource");
+		Mockito.doReturn(ticket).when(asyncSendServiceMock).getTicket("someTicket");
+		
+		ResponseEntity<SendTicket> result = sendController.getSendTicket("someTicket");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(ticket));
+	}
+
+	@Test
+	public void getSendTicketWithNonValidArgumentsShouldReturnAResponseEntityWithStatusNOT_FOUND() {
+		ResponseEntity<SendTicket> result = sendController.getSendTicket("someTicket");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+		assertThat(result.getBody(), nullValue());
+	}
+
+	@Test
+	public void sendStreamWithARequestBodyShouldSendItsLines() throws Exception {
+		StreamSendResult streamSendResult = new StreamSendResult("id", "QUEUE_001", 100, 1);
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/send/stream");
+		request.setContent("1\n2\n".getBytes(StandardCharsets.UTF_8));
+		Mockito.doAnswer(invocation -> {
+			InputStream input = invocation.getArgumentAt(1, InputStream.class);
+			assertThat(input.read(), equalTo((int) '1'));
+			return streamSendResult;
+		}).when(streamSendServiceMock).sendStreamTo(Mockito.eq("QUEUE_001"), Mockito.any(InputStream.class), Mockito.eq(100), Mockito.isNull(Integer.class));
+		
+		ResponseEntity<StreamSendResult> result = sendController.sendStream("QUEUE_001", 100, null, null, request);
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(streamSendResult));
+	}
+
+	@Test
+	public void sendStreamWithAFileShouldSendTheFileLines() throws Exception {
+		StreamSendResult streamSendResult = new StreamSendResult("id", "QUEUE_001", 100, 1);
+		MockMultipartFile file = new MockMultipartFile("file", "messages.ndjson", "application/x-ndjson",
+				"{}\n".getBytes(StandardCharsets.UTF_8));
+		Mockito.doAnswer(invocation -> {
+			InputStream input = invocation.getArgumentAt(1, InputStream.class);
+			assertThat(input.read(), equalTo((int) '{'));
+			return streamSendResult;
+		}).when(streamSendServiceMock).sendStreamTo(Mockito.eq("QUEUE_001"), Mockito.any(InputStream.class), Mockito.isNull(Integer.class), Mockito.eq(2));
+		
+		ResponseEntity<StreamSendResult> result = sendController.sendStream("QUEUE_001", null, 2, file, new MockHttpServletRequest());
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(streamSendResult));
+	}
+
+	@Test
+	public void sendStreamWithTooManyRunningSendsShouldReturnAResponseEntityWithStatusSERVICE_UNAVAILABLE() throws Exception {
+		StreamSendResult streamSendResult = new StreamSendResult("id", "QUEUE_001", 100, 1);
+		streamSendResult.setRejected(true);
+		Mockito.doReturn(streamSendResult).when(streamSendServiceMock).sendStreamTo(Mockito.eq("QUEUE_001"),
+				Mockito.any(InputStream.class), Mockito.isNull(Integer.class), Mockito.isNull(Integer.class));
+		
+		ResponseEntity<StreamSendResult> result = sendController.sendStream("QUEUE_001", null, null, null, new MockHttpServletRequest());
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+		assertThat(result.getBody(), equalTo(streamSendResult));
+	}
+
+	@Test
+	public void getStreamSendsShouldReturnTheRunningSends() {
+		List<StreamSendResult> sends = Arrays.asList(new StreamSendResult("id", "QUEUE_001", 100, 1));
+		Mockito.doReturn(sends).when(streamSendServiceMock).getRunningSends();
+		
+		ResponseEntity<List<StreamSendResult>> result = sendController.getStreamSends();
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), equalTo(sends));
+	}
 }
@@ -0,0 +1,69 @@
+package com.example.jms.controller;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.jms.service.tail.TailService;
+import com.example.jms.service.tail.TailSubscriber;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+
+@RunWith(SpringRunner.class)
+public class TailControllerTest {
+
+	@MockBean
+	TailService tailServiceMock;
+	
+	@SpyBean // use inject mocks with spring boot versions lower than 1.4
+	private TailController tailController;
+	
+	@Test
+	public void tailWithValidArgumentsShouldReturnAResponseEntityWithStatusOK() {
+		TailSubscriber subscriber = Mockito.mock(TailSubscriber.class);
+		Mockito.doReturn(subscriber).when(tailServiceMock).subscribe(Mockito.eq("TOPIC_001"), Mockito.any(SseEmitter.class));
+		
+		ResponseEntity<SseEmitter> result = tailController.tail("TOPIC_001");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getBody(), notNullValue());
+		assertThat(result.getHeaders().getFirst(TailController.TAIL_MODE_HEADER), equalTo(TailController.LISTENER_TAIL_MODE));
+	}
+
+	@Test
+	public void tailWithAQueueShouldReturnTheBrowseTailModeHeader() {
+		TailSubscriber subscriber = Mockito.mock(TailSubscriber.class);
+		Mockito.doReturn(subscriber).when(tailServiceMock).subscribe(Mockito.eq("QUEUE_001"), Mockito.any(SseEmitter.class));
+		
+		ResponseEntity<SseEmitter> result = tailController.tail("QUEUE_001");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+		assertThat(result.getHeaders().getFirst(TailController.TAIL_MODE_HEADER), equalTo(TailController.BROWSE_TAIL_MODE));
+	}
+
+	@Test
+	public void tailWithANotConfiguredResourceShouldReturnAResponseEntityWithStatusBadRequest() {
+		ResponseEntity<SseEmitter> result = tailController.tail("UNKNOWN");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+		Mockito.verifyZeroInteractions(tailServiceMock);
+	}
+
+	@Test
+	public void tailWithAServiceErrorShouldReturnAResponseEntityWithStatusServiceUnavailable() {
+		Mockito.doReturn(null).when(tailServiceMock).subscribe(Mockito.eq("TOPIC_001"), Mockito.any(SseEmitter.class));
+		
+		ResponseEntity<SseEmitter> result = tailController.tail("TOPIC_001");
+		
+		assertThat(result.getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+	}
+}
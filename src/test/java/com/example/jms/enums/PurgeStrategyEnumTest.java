@@ -0,0 +1,29 @@
+package com.example.jms.enums;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.equalTo;
+
+
+public class PurgeStrategyEnumTest {
+
+	@Test
+	public void getStrategyByNameWithValidNameShouldReturnTheProperPurgeStrategyEnum() {
+		assertThat(PurgeStrategyEnum.getStrategyByName("CONSUME"), equalTo(PurgeStrategyEnum.CONSUME));
+		assertThat(PurgeStrategyEnum.getStrategyByName("native"), equalTo(PurgeStrategyEnum.NATIVE));
+		assertThat(PurgeStrategyEnum.getStrategyByName("Auto"), equalTo(PurgeStrategyEnum.AUTO));
+		assertThat(PurgeStrategyEnum.getStrategyByName("destroy"), equalTo(PurgeStrategyEnum.DESTROY));
+		assertThat(PurgeStrategyEnum.getStrategyByName("parallel"), equalTo(PurgeStrategyEnum.PARALLEL));
+		assertThat(PurgeStrategyEnum.getStrategyByName("unsubscribe"), equalTo(PurgeStrategyEnum.UNSUBSCRIBE));
+		assertThat(PurgeStrategyEnum.AUTO.getDescription(), notNullValue());
+	}
+
+	@Test
+	public void getStrategyByNameWithNonValidNameShouldReturnNull() {
+		assertThat(PurgeStrategyEnum.getStrategyByName("SOME_STRATEGY"), nullValue());
+		assertThat(PurgeStrategyEnum.getStrategyByName(null), nullValue());
+	}
+}
@@ -0,0 +1,164 @@
+package com.example.jms.service.common;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.jms.model.SendTicket;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.equalTo;
+
+@RunWith(SpringRunner.class)
+public class AsyncSendServiceTest {
+
+	@MockBean
+	private SendService sendServiceMock;
+
+	@SpyBean
+	private AsyncSendService asyncSendService;
+
+	@After
+	public void tearDown() {
+		asyncSendService.stop();
+		ReflectionTestUtils.setField(asyncSendService, "maxInFlight", 1000);
+		ReflectionTestUtils.setField(asyncSendService, "shutdownTimeout", 1000L);
+		ReflectionTestUtils.setField(asyncSendService, "ticketRetention", 300000L);
+		ReflectionTestUtils.setField(asyncSendService, "maxTickets", 10000);
+		asyncSendService.start();
+	}
+
+	private SendTicket waitForCompletion(final SendTicket ticket) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 5000;
+
+		while (!ticket.isCompleted() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(5);
+		}
+
+		return ticket;
+	}
+
+	@Test
+	public void sendMessageToWithValidArgumentsShouldReturnATicketCompletedAsSent() throws Exception {
+		Mockito.doReturn(true).when(sendServiceMock).sendMessageTo("QUEUE_001", "someMessage");
+
+		SendTicket result = asyncSendService.sendMessageTo("QUEUE_001", "someMessage");
+
+		assertThat(result, notNullValue());
+		assertThat(result.getId(), notNullValue());
+		assertThat(waitForCompletion(result).getStatus(), equalTo(SendTicket.Status.SENT));
+		assertThat(result.getError(), nullValue());
+		assertThat(asyncSendService.getTicket(result.getId()), equalTo(result));
+		Mockito.verify(sendServiceMock).sendMessageTo("QUEUE_001", "someMessage");
+	}
+
+	@Test
+	public void sendMessageToWithValidArgumentsShouldReturnATicketCompletedAsFailedWhenTheSendFails() throws Exception {
+		Mockito.doReturn(false).when(sendServiceMock).sendMessageTo("TOPIC_001", "someMessage");
+
+		SendTicket result = asyncSendService.sendMessageTo("TOPIC_001", "someMessage");
+
+		assertThat(waitForCompletion(result).getStatus(), equalTo(SendTicket.Status.FAILED));
+		assertThat(result.getError(), notNullValue());
+	}
+
+	@Test
+	public void sendMessageToWithValidArgumentsShouldReturnATicketCompletedAsFailedWhenTheSendThrowsAnException() throws Exception {
+		Mockito.doThrow(RuntimeException.class).when(sendServiceMock).sendMessageTo("QUEUE_001", "someMessage");
+
+		SendTicket result = asyncSendService.sendMessageTo("QUEUE_001", "someMessage");
+
+		assertThat(waitForCompletion(result).getStatus(), equalTo(SendTicket.Status.FAILED));
+		assertThat(asyncSendService.getInFlight(), equalTo(0));
+	}
+
+	@Test
+	public void sendMessageToWithNonValidArgumentsShouldReturnAFailedTicket() throws Exception {
+		SendTicket result = asyncSendService.sendMessageTo("QUEUE_NNN", "someMessage");
+
+		assertThat(result.getStatus(), equalTo(SendTicket.Status.FAILED));
+		assertThat(result.getError(), notNullValue());
+		assertThat(asyncSendService.getTicket(result.getId()), nullValue());
+		Mockito.verifyZeroInteractions(sendServiceMock);
+	}
+
+	@Test
+	public void sendMessageToWithAFullInFlightWindowShouldReturnARejectedTicket() throws Exception {
+		CountDownLatch sending = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.doAnswer(invocation -> {
+			sending.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return true;
+		}).when(sendServiceMock).sendMessageTo("QUEUE_001", "someMessage");
+		asyncSendService.stop();
+		ReflectionTestUtils.setField(asyncSendService, "maxInFlight", 1);
+		asyncSendService.start();
+
+		SendTicket first = asyncSendService.sendMessageTo("QUEUE_001", "someMessage");
+		sending.await(5, TimeUnit.SECONDS);
+		SendTicket second = asyncSendService.sendMessageTo("QUEUE_001", "someMessage");
+
+		assertThat(asyncSendService.getInFlight(), equalTo(1));
+		assertThat(second.getStatus(), equalTo(SendTicket.Status.REJECTED));
+		assertThat(asyncSendService.getTicket(second.getId()), nullValue());
+
+		release.countDown();
+
+		assertThat(waitForCompletion(first).getStatus(), equalTo(SendTicket.Status.SENT));
+	}
+
+	@Test
+	public void sendMessageToShouldRemoveTheExpiredTickets() throws Exception {
+		ReflectionTestUtils.setField(asyncSendService, "ticketRetention", 0L);
+		SendTicket expired = asyncSendService.sendMessageTo("QUEUE_NNN", "someMessage");
+		Thread.sleep(5);
+
+		asyncSendService.sendMessageTo("QUEUE_NNN", "someMessage");
+
+		assertThat(asyncSendService.getTicket(expired.getId()), nullValue());
+	}
+
+	@Test
+	public void getTicketShouldRemoveTheExpiredTicketsWithoutNewSends() throws Exception {
+		Mockito.doReturn(true).when(sendServiceMock).sendMessageTo("QUEUE_001", "someMessage");
+		SendTicket expired = waitForCompletion(asyncSendService.sendMessageTo("QUEUE_001", "someMessage"));
+		assertThat(asyncSendService.getTicket(expired.getId()), equalTo(expired));
+
+		ReflectionTestUtils.setField(asyncSendService, "ticketRetention", 0L);
+		Thread.sleep(5);
+
+		assertThat(asyncSendService.getTicket(expired.getId()), nullValue());
+	}
+
+	@Test
+	public void sendMessageToOverTheMaxTicketsShouldRemoveTheOldestCompletedTickets() throws Exception {
+		ReflectionTestUtils.setField(asyncSendService, "maxTickets", 2);
+		Mockito.doReturn(true).when(sendServiceMock).sendMessageTo("QUEUE_001", "someMessage");
+
+		SendTicket oldest = waitForCompletion(asyncSendService.sendMessageTo("QUEUE_001", "someMessage"));
+		SendTicket second = waitForCompletion(asyncSendService.sendMessageTo("QUEUE_001", "someMessage"));
+		SendTicket newest = waitForCompletion(asyncSendService.sendMessageTo("QUEUE_001", "someMessage"));
+
+		assertThat(asyncSendService.getTicket(oldest.getId()), nullValue());
+		assertThat(asyncSendService.getTicket(second.getId()), equalTo(second));
+		assertThat(asyncSendService.getTicket(newest.getId()), equalTo(newest));
+	}
+
+	@Test
+	public void getTicketWithNonValidArgumentsShouldReturnNull() throws Exception {
+		assertThat(asyncSendService.getTicket("someTicket"), nullValue());
+		assertThat(asyncSendService.getTicket(null), nullValue());
+	}
+}
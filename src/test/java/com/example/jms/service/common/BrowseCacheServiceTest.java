@@ -0,0 +1,158 @@
+package com.example.jms.service.common;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.jms.model.BrowseResult;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+
+public class BrowseCacheServiceTest {
+
+	private BrowseCacheService browseCacheService;
+	private AtomicInteger browses = new AtomicInteger();
+
+	@Before
+	public void setUp() throws Exception {
+		browseCacheService = new BrowseCacheService();
+	}
+
+	private BrowseResult browse(final String resourceCode) {
+		browses.incrementAndGet();
+		return new BrowseResult(resourceCode);
+	}
+
+	@Test
+	public void getWithinTheTtlShouldReturnTheCachedSnapshot() throws Exception {
+		BrowseResult first = browseCacheService.get("QUEUE_001", null, () -> browse("QUEUE_001"));
+		BrowseResult second = browseCacheService.get("QUEUE_001", null, () -> browse("QUEUE_001"));
+		BrowseResult selected = browseCacheService.get("QUEUE_001", "priority > 4", () -> browse("QUEUE_001"));
+
+		assertThat(second, sameInstance(first));
+		assertThat(selected, not(sameInstance(first)));
+		assertThat(browses.get(), equalTo(2));
+	}
+
+	@Test
+	public void getAfterTheTtlShouldBrowseAgain() throws Exception {
+		ReflectionTestUtils.setField(browseCacheService, "cacheTtl", 20L);
+
+		BrowseResult first = browseCacheService.get("QUEUE_001", null, () -> browse("QUEUE_001"));
+		Thread.sleep(40);
+		BrowseResult second = browseCacheService.get("QUEUE_001", null, () -> browse("QUEUE_001"));
+
+		assertThat(second, not(sameInstance(first)));
+		assertThat(browses.get(), equalTo(2));
+	}
+
+	@Test
+	public void getWithoutTtlShouldAlwaysBrowse() throws Exception {
+		ReflectionTestUtils.setField(browseCacheService, "cacheTtl", 0L);
+
+		browseCacheService.get("QUEUE_001", null, () -> browse("QUEUE_001"));
+		browseCacheService.get("QUEUE_001", null, () -> browse("QUEUE_001"));
+
+		assertThat(browses.get(), equalTo(2));
+		assertThat(browseCacheService.getSize(), equalTo(0));
+	}
+
+	@Test
+	public void invalidateShouldRemoveAllTheSnapshotsOfTheResource() throws Exception {
+		browseCacheService.get("QUEUE_001", null, () -> browse("QUEUE_001"));
+		browseCacheService.get("QUEUE_001", "priority > 4", () -> browse("QUEUE_001"));
+		browseCacheService.get("QUEUE_0011", null, () -> browse("QUEUE_0011"));
+
+		browseCacheService.invalidate("QUEUE_001");
+
+		assertThat(browseCacheService.getSize(), equalTo(1));
+		browseCacheService.get("QUEUE_001", null, () -> browse("QUEUE_001"));
+		assertThat(browses.get(), equalTo(4));
+	}
+
+	@Test
+	public void getShouldNotCacheTheFailedBrowses() throws Exception {
+		BrowseResult failed = browseCacheService.get("QUEUE_001", null, () -> {
+			BrowseResult result = browse("QUEUE_001");
+			result.setError("Browse failed : QUEUE_001");
+			return result;
+		});
+		BrowseResult thrown = browseCacheService.get("QUEUE_001", null, () -> {
+			throw new IllegalStateException("broker down");
+		});
+
+		assertThat(failed.getError(), equalTo("Browse failed : QUEUE_001"));
+		assertThat(thrown.getError(), equalTo("Browse failed : QUEUE_001"));
+		assertThat(browseCacheService.getSize(), equalTo(0));
+	}
+
+	@Test
+	public void getShouldEvictTheLeastRecentlyUsedSnapshotWhenTheCacheIsFull() throws Exception {
+		ReflectionTestUtils.setField(browseCacheService, "cacheSize", 2);
+
+		browseCacheService.get("QUEUE_001", null, () -> browse("QUEUE_001"));
+		browseCacheService.get("QUEUE_002", null, () -> browse("QUEUE_002"));
+		browseCacheService.get("QUEUE_001", null, () -> browse("QUEUE_001"));
+		browseCacheService.get("TOPIC_001", null, () -> browse("TOPIC_001"));
+		browseCacheService.get("QUEUE_001", null, () -> browse("QUEUE_001"));
+		browseCacheService.get("QUEUE_002", null, () -> browse("QUEUE_002"));
+
+		assertThat(browseCacheService.getSize(), equalTo(2));
+		assertThat(browses.get(), equalTo(4)); // only QUEUE_002 browsed again
+	}
+
+	@Test
+	public void getFromConcurrentRequestsShouldShareOneBrowse() throws Exception {
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch browsing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<BrowseResult>> results = new ArrayList<>();
+
+		try {
+			Callable<BrowseResult> request = () -> browseCacheService.get("QUEUE_001", null, () -> {
+				browsing.countDown();
+
+				try {
+					release.await(10, TimeUnit.SECONDS); // the other requests arrive meanwhile
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+
+				return browse("QUEUE_001");
+			});
+
+			results.add(executor.submit(request));
+			browsing.await(10, TimeUnit.SECONDS);
+
+			for (int thread = 1; thread < threads; thread++) {
+				results.add(executor.submit(request));
+			}
+
+			Thread.sleep(50);
+			release.countDown();
+
+			for (Future<BrowseResult> result : results) {
+				assertThat(result.get(10, TimeUnit.SECONDS), sameInstance(results.get(0).get()));
+			}
+
+			assertThat(browses.get(), equalTo(1));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
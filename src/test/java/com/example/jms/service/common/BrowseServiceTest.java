@@ -10,16 +10,26 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.example.jms.model.BrowsePage;
+import com.example.jms.model.BrowseResult;
+import com.example.jms.model.MessageBody;
+import com.example.jms.model.MessageHandler;
 import com.example.jms.service.queue.QueueService;
+import com.example.jms.service.topic.ShadowSubscriberService;
 import com.example.jms.service.topic.TopicService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.jms.Message;
+
 
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
 
 @RunWith(SpringRunner.class)
 public class BrowseServiceTest {
@@ -32,67 +42,266 @@ public class BrowseServiceTest {
 
 	@MockBean
 	private TopicService topicServiceMock;
+
+	@MockBean
+	private ShadowSubscriberService shadowSubscriberServiceMock;
 	
+	@SpyBean
+	private BrowseCacheService browseCacheService;
+
 	@SpyBean
 	private BrowseService browseService;
 	
-	private Map<String,String> messages;
+	private BrowseResult messages;
 	
 	@Before
 	public void setUp() {
-		messages = new HashMap<>();
-		messages.put("1", "message 1");
-		messages.put("2", "message 2");
-		messages.put("3", "message 3");
+		browseCacheService.clear();
+		messages = new BrowseResult("QUEUE_001");
+		messages.add("ID:1", 1L, 4, MessageBody.Type.TEXT, 9, "message 1");
+		messages.add("ID:2", 2L, 4, MessageBody.Type.TEXT, 9, "message 2");
+		messages.add("ID:3", 3L, 4, MessageBody.Type.TEXT, 9, "message 3");
 	}
 	
 	@Test
 	public void getMessagesFromWithValidQueueArgumentsShouldReturnATrueResponse() {
-		Mockito.doReturn(messages).when(queueServiceMock).browseMessagesFrom("QUEUE_001");
-		Map<String,String> result = browseService.getMessagesFrom("QUEUE_001");
+		Mockito.doReturn(messages).when(queueServiceMock).browseMessagesFrom("QUEUE_001", (String) null);
+		BrowseResult result = browseService.getMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(messages.size()));
+		assertThat(result.getCount(), equalTo(messages.getCount()));
 	}
 	
 	@Test
 	public void getMessagesFromWithValidTopicArgumentsShouldReturnATrueResponse() {
 		Mockito.doReturn(messages).when(topicServiceMock).browseMessagesFrom("TOPIC_001");
-		Map<String,String> result = browseService.getMessagesFrom("TOPIC_001");
+		BrowseResult result = browseService.getMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(messages.size()));
+		assertThat(result.getCount(), equalTo(messages.getCount()));
 	}
 
 	@Test
 	public void getMessagesFromWithNonValidQueueArgumentsShouldReturnAFalseResponse() {
-		Map<String,String> result = browseService.getMessagesFrom("QUEUE_NNN");
+		BrowseResult result = browseService.getMessagesFrom("QUEUE_NNN");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
+		assertThat(result.getError(), equalTo("Not configured resource : QUEUE_NNN"));
 	}
 	
+	@Test
+	public void getMessagesFromWithShadowSubscribersShouldNotConsumeTheTopicMessages() {
+		Mockito.doReturn(true).when(shadowSubscriberServiceMock).isEnabled();
+		Mockito.doReturn(messages).when(shadowSubscriberServiceMock).browseMessagesFrom("TOPIC_001");
+		BrowseResult result = browseService.getMessagesFrom("TOPIC_001");
+		
+		assertThat(result, sameInstance(messages));
+		Mockito.verifyZeroInteractions(topicServiceMock);
+	}
+
 	@Test
 	public void getMessagesFromWithNonValidTopicArgumentsShouldReturnAFalseResponse() {
-		Map<String,String> result = browseService.getMessagesFrom("TOPIC_NNN");
+		BrowseResult result = browseService.getMessagesFrom("TOPIC_NNN");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 	
 	@Test
 	public void getMessagesFromWithNullQueueShouldReturnAFalseResponse() {
-		Map<String,String> result = browseService.getMessagesFrom(null);
+		BrowseResult result = browseService.getMessagesFrom(null);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 	
 	@Test
 	public void getMessagesFromWithNullTopicShouldReturnAFalseResponse() {
-		Map<String,String> result = browseService.getMessagesFrom(null);
+		BrowseResult result = browseService.getMessagesFrom(null);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
+	}
+
+	@Test
+	public void getMessagesFromWithASelectorShouldPassItToTheQueueService() {
+		Mockito.doReturn(messages).when(queueServiceMock).browseMessagesFrom("QUEUE_001", "priority > 4");
+		
+		BrowseResult result = browseService.getMessagesFrom("QUEUE_001", " priority > 4 ");
+		
+		assertThat(result.getCount(), equalTo(messages.getCount()));
+		Mockito.verify(queueServiceMock).browseMessagesFrom("QUEUE_001", "priority > 4");
+	}
+
+	@Test
+	public void getMessagesFromWithASelectorShouldReturnAnErrorForTheTopics() {
+		BrowseResult result = browseService.getMessagesFrom("TOPIC_001", "priority > 4");
+		
+		assertThat(result.getCount(), equalTo(0));
+		assertThat(result.getError(), equalTo("Selectors aren't supported for topics : TOPIC_001"));
+		Mockito.verifyZeroInteractions(topicServiceMock);
+	}
+
+	@Test
+	public void getMessagesFromCalledAgainShouldReuseTheCachedSnapshotUntilItIsInvalidated() {
+		Mockito.doReturn(messages).when(queueServiceMock).browseMessagesFrom("QUEUE_001", (String) null);
+		
+		BrowseResult first = browseService.getMessagesFrom("QUEUE_001");
+		BrowseResult second = browseService.getMessagesFrom("QUEUE_001");
+		browseCacheService.invalidate("QUEUE_001");
+		browseService.getMessagesFrom("QUEUE_001");
+		
+		assertThat(second, sameInstance(first));
+		Mockito.verify(queueServiceMock, Mockito.times(2)).browseMessagesFrom("QUEUE_001", (String) null);
+	}
+
+	@Test
+	public void browseMessagesFromWithValidQueueArgumentsShouldPassTheHandlerToTheQueueService() {
+		MessageHandler handler = (number, text) -> true;
+		Mockito.doReturn(true).when(queueServiceMock).browseMessagesFrom("QUEUE_001", handler);
+		
+		boolean result = browseService.browseMessagesFrom("QUEUE_001", handler);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(queueServiceMock).browseMessagesFrom("QUEUE_001", handler);
+	}
+
+	@Test
+	public void browseMessagesFromWithValidTopicArgumentsShouldPassTheHandlerToTheTopicService() {
+		MessageHandler handler = (number, text) -> true;
+		Mockito.doReturn(true).when(topicServiceMock).browseMessagesFrom("TOPIC_001", handler);
+		
+		boolean result = browseService.browseMessagesFrom("TOPIC_001", handler);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(topicServiceMock).browseMessagesFrom("TOPIC_001", handler);
+	}
+
+	@Test
+	public void browseMessagesFromWithShadowSubscribersShouldStreamTheBufferWithoutConsumingTheTopicMessages() {
+		List<String> handled = new ArrayList<>();
+		Mockito.doReturn(true).when(shadowSubscriberServiceMock).isEnabled();
+		Mockito.doReturn(messages).when(shadowSubscriberServiceMock).browseMessagesFrom("TOPIC_001");
+
+		boolean result = browseService.browseMessagesFrom("TOPIC_001", (number, text) -> handled.add(number + ":" + text));
+
+		assertThat(result, equalTo(true));
+		assertThat(handled, equalTo(Arrays.asList("1:message 1", "2:message 2", "3:message 3")));
+		Mockito.verifyZeroInteractions(topicServiceMock);
+	}
+
+	@Test
+	public void browseMessagesFromWithDisconnectedShadowSubscribersShouldReturnAFalseResponse() {
+		messages.setError("Shadow subscriber not connected : TOPIC_001");
+		Mockito.doReturn(true).when(shadowSubscriberServiceMock).isEnabled();
+		Mockito.doReturn(messages).when(shadowSubscriberServiceMock).browseMessagesFrom("TOPIC_001");
+
+		boolean result = browseService.browseMessagesFrom("TOPIC_001", (number, text) -> true);
+
+		assertThat(result, equalTo(false));
+		Mockito.verifyZeroInteractions(topicServiceMock);
+	}
+
+	@Test
+	public void browseMessagesFromWithNonValidArgumentsShouldReturnAFalseResponse() {
+		boolean result = browseService.browseMessagesFrom("QUEUE_NNN", (number, text) -> true);
+		
+		assertThat(result, equalTo(false));
+		Mockito.verifyZeroInteractions(queueServiceMock, topicServiceMock);
+	}
+
+	@Test
+	public void browseMessageFromWithValidQueueArgumentsShouldPassOnlyTheMessageWithTheIdAndStop() throws Exception {
+		List<Message> browsedMessages = new ArrayList<>();
+
+		for (int index = 1; index <= 3; index++) {
+			Message messageMock = Mockito.mock(Message.class);
+			Mockito.doReturn("ID:" + index).when(messageMock).getJMSMessageID();
+			browsedMessages.add(messageMock);
+		}
+
+		List<Integer> passed = new ArrayList<>();
+		Mockito.doAnswer(invocation -> {
+			MessageHandler handler = invocation.getArgumentAt(2, MessageHandler.class);
+
+			for (int index = 0; index < browsedMessages.size() && handler.handle(index + 1, browsedMessages.get(index)); index++) {
+				passed.add(index + 1);
+			}
+
+			return true;
+		}).when(queueServiceMock).browseMessagesFrom(Mockito.eq("QUEUE_001"), Mockito.eq("JMSMessageID = 'ID:2'"),
+				Mockito.any(MessageHandler.class));
+		List<Message> handled = new ArrayList<>();
+		
+		boolean result = browseService.browseMessageFrom("QUEUE_001", "ID:2", new MessageHandler() {
+			@Override
+			public boolean handle(final int number, final String text) throws Exception {
+				return true;
+			}
+
+			@Override
+			public boolean handle(final int number, final Message message) throws Exception {
+				return handled.add(message);
+			}
+		});
+		
+		assertThat(result, equalTo(true));
+		assertThat(handled, equalTo(Arrays.asList(browsedMessages.get(1))));
+		assertThat(passed, equalTo(Arrays.asList(1))); // stopped after the message
+	}
+
+	@Test
+	public void browseMessageFromWithNotFoundMessageShouldReturnAFalseResponse() {
+		Mockito.doReturn(true).when(queueServiceMock).browseMessagesFrom(Mockito.eq("QUEUE_001"), Mockito.anyString(),
+				Mockito.any(MessageHandler.class));
+		
+		boolean result = browseService.browseMessageFrom("QUEUE_001", "ID:'2'", (number, text) -> true);
+		
+		assertThat(result, equalTo(false));
+		Mockito.verify(queueServiceMock).browseMessagesFrom(Mockito.eq("QUEUE_001"), Mockito.eq("JMSMessageID = 'ID:''2'''"),
+				Mockito.any(MessageHandler.class));
+	}
+
+	@Test
+	public void browseMessageFromWithTopicArgumentsShouldReturnAFalseResponse() {
+		boolean result = browseService.browseMessageFrom("TOPIC_001", "ID:2", (number, text) -> true);
+		
+		assertThat(result, equalTo(false));
+		Mockito.verifyZeroInteractions(queueServiceMock, topicServiceMock);
+	}
+
+	@Test
+	public void getPageFromWithValidQueueArgumentsShouldReturnThePage() {
+		BrowsePage page = new BrowsePage("QUEUE_001", 10, 20, "ID:1");
+		Mockito.doReturn(page).when(queueServiceMock).browseMessagesFrom("QUEUE_001", 10, 20, "ID:1", null);
+		
+		BrowsePage result = browseService.getPageFrom("QUEUE_001", 10, 20, "ID:1");
+		
+		assertThat(result, equalTo(page));
+	}
+
+	@Test
+	public void getPageFromWithOutOfRangeArgumentsShouldAdjustTheOffsetAndLimit() {
+		browseService.getPageFrom("QUEUE_001", -1, 100000, "");
+		
+		Mockito.verify(queueServiceMock).browseMessagesFrom("QUEUE_001", 0, 1000, null, null);
+	}
+
+	@Test
+	public void getPageFromWithTopicArgumentsShouldReturnAPageWithAnError() {
+		BrowsePage result = browseService.getPageFrom("TOPIC_001", 0, 10, null);
+		
+		assertThat(result, notNullValue());
+		assertThat(result.getMessages().size(), equalTo(0));
+		assertThat(result.getError(), notNullValue());
+		Mockito.verifyZeroInteractions(topicServiceMock);
+	}
+
+	@Test
+	public void getPageFromWithNonValidArgumentsShouldReturnAPageWithAnError() {
+		BrowsePage result = browseService.getPageFrom("QUEUE_NNN", 0, 10, null);
+		
+		assertThat(result.getError(), notNullValue());
 	}
 }
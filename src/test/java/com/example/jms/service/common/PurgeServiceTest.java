@@ -10,7 +10,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.example.jms.enums.PurgeStrategyEnum;
+import com.example.jms.model.DrainOptions;
+import com.example.jms.model.DrainResult;
+import com.example.jms.service.queue.NativePurgeService;
 import com.example.jms.service.queue.QueueService;
+import com.example.jms.service.topic.ShadowSubscriberService;
 import com.example.jms.service.topic.TopicService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -29,7 +34,16 @@ public class PurgeServiceTest {
 
 	@MockBean
 	private TopicService topicServiceMock;
+
+	@MockBean
+	private NativePurgeService nativePurgeServiceMock;
+
+	@MockBean
+	private ShadowSubscriberService shadowSubscriberServiceMock;
 	
+	@SpyBean
+	private BrowseCacheService browseCacheService;
+
 	@SpyBean
 	private PurgeService purgeService;
 	
@@ -39,7 +53,7 @@ public class PurgeServiceTest {
 	
 	@Test
 	public void purgeMessagesWithValidQueueArgumentsShouldReturnATrueResponse() {
-		Mockito.doReturn(true).when(queueServiceMock).removeMessagesFrom("QUEUE_001");
+		Mockito.doReturn(true).when(queueServiceMock).removeMessagesFrom("QUEUE_001", DrainOptions.DEFAULTS);
 		boolean result = purgeService.purgeMessages("QUEUE_001");
 		
 		assertThat(result, notNullValue());
@@ -48,7 +62,7 @@ public class PurgeServiceTest {
 	
 	@Test
 	public void purgeMessagesWithValidTopicArgumentsShouldReturnATrueResponse() {
-		Mockito.doReturn(true).when(topicServiceMock).removeMessagesBySubscriberFrom("TOPIC_001");
+		Mockito.doReturn(true).when(topicServiceMock).removeMessagesBySubscriberFrom("TOPIC_001", DrainOptions.DEFAULTS);
 		boolean result = purgeService.purgeMessages("TOPIC_001");
 		
 		assertThat(result, notNullValue());
@@ -85,6 +99,273 @@ public class PurgeServiceTest {
 		
 		assertThat(result, notNullValue());
 		assertThat(result, equalTo(false));
-	}	
-	
+	}
+
+	@Test
+	public void purgeMessagesWithDrainOptionsShouldPassThemToTheQueueService() {
+		DrainOptions drainOptions = new DrainOptions(10L, 20L, 30L);
+		Mockito.doReturn(true).when(queueServiceMock).removeMessagesFrom("QUEUE_001", drainOptions);
+		
+		boolean result = purgeService.purgeMessages("QUEUE_001", drainOptions);
+		
+		assertThat(result, equalTo(true));
+	}
+
+	@Test
+	public void purgeMessagesWithDrainOptionsShouldPassThemToTheTopicService() {
+		DrainOptions drainOptions = new DrainOptions(10L, 20L, 30L);
+		Mockito.doReturn(true).when(topicServiceMock).removeMessagesBySubscriberFrom("TOPIC_001", drainOptions);
+		
+		boolean result = purgeService.purgeMessages("TOPIC_001", drainOptions);
+		
+		assertThat(result, equalTo(true));
+	}
+
+	@Test
+	public void purgeMessagesWithAutoStrategyShouldUseTheNativePurgeWhenItIsAvailable() {
+		Mockito.doReturn(true).when(nativePurgeServiceMock).purgeQueue("QUEUE_001");
+		
+		boolean result = purgeService.purgeMessages("QUEUE_001", DrainOptions.DEFAULTS, PurgeStrategyEnum.AUTO);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verifyZeroInteractions(queueServiceMock);
+	}
+
+	@Test
+	public void purgeMessagesWithAutoStrategyShouldConsumeTheMessagesWhenTheNativePurgeIsNotAvailable() {
+		Mockito.doReturn(false).when(nativePurgeServiceMock).purgeQueue("QUEUE_001");
+		Mockito.doReturn(true).when(queueServiceMock).removeMessagesFrom("QUEUE_001", DrainOptions.DEFAULTS);
+		
+		boolean result = purgeService.purgeMessages("QUEUE_001", DrainOptions.DEFAULTS, PurgeStrategyEnum.AUTO);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(queueServiceMock).removeMessagesFrom("QUEUE_001", DrainOptions.DEFAULTS);
+	}
+
+	@Test
+	public void purgeMessagesWithNativeStrategyShouldNotConsumeTheMessagesWhenTheNativePurgeIsNotAvailable() {
+		Mockito.doReturn(false).when(nativePurgeServiceMock).purgeQueue("QUEUE_001");
+		
+		boolean result = purgeService.purgeMessages("QUEUE_001", DrainOptions.DEFAULTS, PurgeStrategyEnum.NATIVE);
+		
+		assertThat(result, equalTo(false));
+		Mockito.verifyZeroInteractions(queueServiceMock);
+	}
+
+	@Test
+	public void purgeMessagesWithConsumeStrategyShouldNotUseTheNativePurge() {
+		Mockito.doReturn(true).when(queueServiceMock).removeMessagesFrom("QUEUE_001", DrainOptions.DEFAULTS);
+		
+		boolean result = purgeService.purgeMessages("QUEUE_001", DrainOptions.DEFAULTS, PurgeStrategyEnum.CONSUME);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verifyZeroInteractions(nativePurgeServiceMock);
+	}
+
+	@Test
+	public void purgeMessagesWithATopicShouldIgnoreTheStrategy() {
+		Mockito.doReturn(true).when(topicServiceMock).removeMessagesBySubscriberFrom("TOPIC_001", DrainOptions.DEFAULTS);
+		
+		boolean result = purgeService.purgeMessages("TOPIC_001", DrainOptions.DEFAULTS, PurgeStrategyEnum.NATIVE);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verifyZeroInteractions(nativePurgeServiceMock);
+	}
+
+
+	@Test
+	public void purgeMessagesWithUnsubscribeStrategyShouldResubscribeTheTopicSubscribers() {
+		Mockito.doReturn(true).when(topicServiceMock).resubscribeSubscribersOf("TOPIC_001");
+		
+		boolean result = purgeService.purgeMessages("TOPIC_001", DrainOptions.DEFAULTS, PurgeStrategyEnum.UNSUBSCRIBE);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(topicServiceMock, Mockito.never()).removeMessagesBySubscriberFrom(Mockito.anyString(), Mockito.any(DrainOptions.class));
+	}
+
+	@Test
+	public void purgeMessagesWithUnsubscribeStrategyShouldUseTheConfiguredStrategyForTheQueues() {
+		Mockito.doReturn(true).when(queueServiceMock).removeMessagesFrom("QUEUE_001", DrainOptions.DEFAULTS);
+		
+		boolean result = purgeService.purgeMessages("QUEUE_001", DrainOptions.DEFAULTS, PurgeStrategyEnum.UNSUBSCRIBE);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verifyZeroInteractions(topicServiceMock, nativePurgeServiceMock);
+	}
+
+	@Test
+	public void purgeMessagesWithoutStrategyShouldConsumeTheQueueMessagesByDefault() {
+		Mockito.doReturn(true).when(queueServiceMock).removeMessagesFrom("QUEUE_001", DrainOptions.DEFAULTS);
+		
+		boolean result = purgeService.purgeMessages("QUEUE_001", DrainOptions.DEFAULTS, null);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(queueServiceMock).removeMessagesFrom("QUEUE_001", DrainOptions.DEFAULTS);
+		Mockito.verifyZeroInteractions(nativePurgeServiceMock);
+	}
+
+	@Test
+	public void purgeMessagesWithAutoStrategyShouldConsumeTheMessagesWhenTheCallerSetsTheDrainOptions() {
+		DrainOptions drainOptions = new DrainOptions(10L, 20L, 30L);
+		Mockito.doReturn(true).when(queueServiceMock).removeMessagesFrom("QUEUE_001", drainOptions);
+		
+		boolean result = purgeService.purgeMessages("QUEUE_001", drainOptions, PurgeStrategyEnum.AUTO);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(queueServiceMock).removeMessagesFrom("QUEUE_001", drainOptions);
+		Mockito.verifyZeroInteractions(nativePurgeServiceMock);
+	}
+
+	@Test
+	public void purgeMessagesWithAutoStrategyShouldNotDestroyTheQueueWhenTheNativePurgeIsNotAvailable() {
+		Mockito.doReturn(false).when(nativePurgeServiceMock).purgeQueue("QUEUE_001");
+		Mockito.doReturn(true).when(queueServiceMock).removeMessagesFrom("QUEUE_001", DrainOptions.DEFAULTS);
+		
+		purgeService.purgeMessages("QUEUE_001", DrainOptions.DEFAULTS, PurgeStrategyEnum.AUTO);
+		
+		Mockito.verify(nativePurgeServiceMock, Mockito.never()).destroyQueue(Mockito.anyString());
+	}
+
+	@Test
+	public void purgeMessagesWithDestroyStrategyShouldDestroyTheQueue() {
+		Mockito.doReturn(true).when(nativePurgeServiceMock).destroyQueue("QUEUE_001");
+		
+		boolean result = purgeService.purgeMessages("QUEUE_001", DrainOptions.DEFAULTS, PurgeStrategyEnum.DESTROY);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verifyZeroInteractions(queueServiceMock);
+	}
+
+	@Test
+	public void purgeMessagesWithParallelStrategyShouldDrainTheQueue() {
+		Mockito.doReturn(new DrainResult("QUEUE_001")).when(queueServiceMock).drainMessagesFrom(Mockito.eq("QUEUE_001"),
+				Mockito.anyInt(), Mockito.eq(DrainOptions.DEFAULTS));
+		boolean result = purgeService.purgeMessages("QUEUE_001", DrainOptions.DEFAULTS, PurgeStrategyEnum.PARALLEL);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(queueServiceMock, Mockito.never()).removeMessagesFrom(Mockito.anyString(), Mockito.any(DrainOptions.class));
+	}
+
+	@Test
+	public void purgeMessagesWithParallelStrategyShouldReturnAFalseResponseWhenTheDrainFails() {
+		DrainResult drainResult = new DrainResult("QUEUE_001");
+		drainResult.setError("some error");
+		Mockito.doReturn(drainResult).when(queueServiceMock).drainMessagesFrom(Mockito.eq("QUEUE_001"), Mockito.anyInt(),
+				Mockito.any(DrainOptions.class));
+		boolean result = purgeService.purgeMessages("QUEUE_001", DrainOptions.DEFAULTS, PurgeStrategyEnum.PARALLEL);
+		
+		assertThat(result, equalTo(false));
+	}
+
+	@Test
+	public void purgeMessagesWithASelectorShouldOnlyConsumeTheMatchingQueueMessages() {
+		DrainOptions drainOptions = new DrainOptions(null, null, null, "priority > 4");
+		Mockito.doReturn(true).when(queueServiceMock).removeMessagesFrom("QUEUE_001", drainOptions);
+		
+		boolean result = purgeService.purgeMessages("QUEUE_001", drainOptions, PurgeStrategyEnum.AUTO);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(queueServiceMock).removeMessagesFrom("QUEUE_001", drainOptions);
+		Mockito.verifyZeroInteractions(nativePurgeServiceMock); // it would remove all the messages
+	}
+
+	@Test
+	public void purgeMessagesWithASelectorAndParallelStrategyShouldDrainTheMatchingQueueMessages() {
+		DrainOptions drainOptions = new DrainOptions(null, null, null, "priority > 4");
+		Mockito.doReturn(new DrainResult("QUEUE_001")).when(queueServiceMock).drainMessagesFrom(Mockito.eq("QUEUE_001"),
+				Mockito.anyInt(), Mockito.eq(drainOptions));
+		
+		boolean result = purgeService.purgeMessages("QUEUE_001", drainOptions, PurgeStrategyEnum.PARALLEL);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(queueServiceMock, Mockito.never()).removeMessagesFrom(Mockito.anyString(), Mockito.any(DrainOptions.class));
+	}
+
+	@Test
+	public void purgeMessagesWithASelectorShouldReturnAFalseResponseForTheTopics() {
+		boolean result = purgeService.purgeMessages("TOPIC_001", new DrainOptions(null, null, null, "priority > 4"),
+				PurgeStrategyEnum.UNSUBSCRIBE);
+		
+		assertThat(result, equalTo(false));
+		Mockito.verifyZeroInteractions(topicServiceMock);
+	}
+
+	@Test
+	public void purgeMessagesWithValidArgumentsShouldInvalidateTheBrowseSnapshotsOfTheResource() {
+		Mockito.doReturn(true).when(topicServiceMock).removeMessagesBySubscriberFrom(Mockito.eq("TOPIC_001"), Mockito.any(DrainOptions.class));
+		
+		purgeService.purgeMessages("TOPIC_001");
+		
+		Mockito.verify(browseCacheService).invalidate("TOPIC_001");
+	}
+
+	@Test
+	public void purgeMessagesWithATopicShouldClearItsShadowSubscriberBuffer() {
+		Mockito.doReturn(true).when(topicServiceMock).removeMessagesBySubscriberFrom(Mockito.eq("TOPIC_001"), Mockito.any(DrainOptions.class));
+		
+		purgeService.purgeMessages("TOPIC_001");
+		purgeService.purgeMessages("QUEUE_001");
+		
+		Mockito.verify(shadowSubscriberServiceMock).clear("TOPIC_001");
+		Mockito.verify(shadowSubscriberServiceMock, Mockito.never()).clear("QUEUE_001");
+	}
+
+	@Test
+	public void purgeMessagesWithAFailedTopicPurgeShouldKeepItsShadowSubscriberBuffer() {
+		Mockito.doReturn(false).when(topicServiceMock).removeMessagesBySubscriberFrom(Mockito.eq("TOPIC_001"), Mockito.any(DrainOptions.class));
+		
+		boolean result = purgeService.purgeMessages("TOPIC_001");
+		
+		assertThat(result, equalTo(false));
+		Mockito.verify(shadowSubscriberServiceMock, Mockito.never()).clear(Mockito.anyString());
+	}
+
+	@Test
+	public void drainMessagesWithValidQueueArgumentsShouldUseTheGivenConsumers() {
+		DrainResult expected = new DrainResult("QUEUE_001");
+		Mockito.doReturn(expected).when(queueServiceMock).drainMessagesFrom("QUEUE_001", 4, DrainOptions.DEFAULTS);
+		DrainResult result = purgeService.drainMessages("QUEUE_001", 4, DrainOptions.DEFAULTS);
+		
+		assertThat(result, equalTo(expected));
+	}
+
+	@Test
+	public void drainMessagesWithoutConsumersShouldUseTheAvailableProcessorsUpToTheMaximum() {
+		int expectedConsumers = Math.min(Runtime.getRuntime().availableProcessors(), 16);
+		DrainResult expected = new DrainResult("QUEUE_001");
+		Mockito.doReturn(expected).when(queueServiceMock).drainMessagesFrom("QUEUE_001", expectedConsumers, DrainOptions.DEFAULTS);
+		DrainResult result = purgeService.drainMessages("QUEUE_001", null, DrainOptions.DEFAULTS);
+		
+		assertThat(result, equalTo(expected));
+	}
+
+	@Test
+	public void drainMessagesWithTooManyConsumersShouldUseTheMaximum() {
+		DrainResult expected = new DrainResult("QUEUE_001");
+		Mockito.doReturn(expected).when(queueServiceMock).drainMessagesFrom("QUEUE_001", 16, DrainOptions.DEFAULTS);
+		DrainResult result = purgeService.drainMessages("QUEUE_001", 1000, DrainOptions.DEFAULTS);
+		
+		assertThat(result, equalTo(expected));
+	}
+
+	@Test
+	public void drainMessagesWithATopicShouldDrainTheSubscribers() {
+		DrainResult expected = new DrainResult("TOPIC_001");
+		Mockito.doReturn(expected).when(topicServiceMock).drainMessagesBySubscriberFrom("TOPIC_001", DrainOptions.DEFAULTS);
+		DrainResult result = purgeService.drainMessages("TOPIC_001", 2, DrainOptions.DEFAULTS);
+		
+		assertThat(result, equalTo(expected));
+		Mockito.verifyZeroInteractions(queueServiceMock);
+	}
+
+	@Test
+	public void drainMessagesWithNonValidArgumentsShouldReturnAnError() {
+		DrainResult result = purgeService.drainMessages("QUEUE_NNN", 2, DrainOptions.DEFAULTS);
+		
+		assertThat(result.getResource(), equalTo("QUEUE_NNN"));
+		assertThat(result.getError(), equalTo("Not configured resource : QUEUE_NNN"));
+		assertThat(result.getConsumers(), equalTo(0));
+		assertThat(result.getRate(), equalTo(0.0));
+		Mockito.verifyZeroInteractions(queueServiceMock);
+	}
 }
@@ -5,18 +5,25 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.example.jms.enums.ResourcesEnum;
+import com.example.jms.model.ResourceStats;
 import com.example.jms.service.common.ResourceService;
+import com.example.jms.service.queue.QueueService;
+import com.example.jms.service.statistics.DestinationStatisticsService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
 
 @RunWith(SpringRunner.class)
 public class ResourceServiceTest {
@@ -30,6 +37,9 @@ public class ResourceServiceTest {
 	
 	@Before
 	public void setUp() {
+		resourceService.queueService = Mockito.mock(QueueService.class);
+		resourceService.destinationStatisticsService = Mockito.mock(DestinationStatisticsService.class);
+		
 		configuredResources = new HashMap<>();
 		
 		for (ResourcesEnum resource:ResourcesEnum.values()) {
@@ -44,4 +54,76 @@ public class ResourceServiceTest {
 		assertThat(result, notNullValue());
 		assertThat(result.size(), equalTo(ResourcesEnum.values().length));
 	}
+
+
+	@Test
+	public void getResourceStatsWithTheStatisticsPluginShouldReturnItsCounters() {
+		Map<String, Object> statistics = new HashMap<>();
+		statistics.put("size", 3L);
+		statistics.put("enqueueCount", 10L);
+		statistics.put("consumerCount", 2);
+		Mockito.doReturn(true).when(resourceService.destinationStatisticsService).isEnabled();
+		Mockito.doReturn(statistics).when(resourceService.destinationStatisticsService).getStatistics("QUEUE_001", false);
+		
+		ResourceStats result = resourceService.getResourceStats("QUEUE_001");
+		
+		assertThat(result.getSource(), equalTo(ResourceStats.Source.STATISTICS));
+		assertThat(result.getDepth(), equalTo(3L));
+		assertThat(result.getEnqueueCount(), equalTo(10L));
+		assertThat(result.getConsumerCount(), equalTo(2L));
+		assertThat(result.getDequeueCount(), nullValue());
+		Mockito.verifyZeroInteractions(resourceService.queueService);
+	}
+
+	@Test
+	public void getResourceStatsWithoutStatisticsShouldUseTheJmxMBean() {
+		Mockito.doReturn(Collections.singletonMap("size", 5L)).when(resourceService.destinationStatisticsService)
+				.getJmxStatistics("TOPIC_001", true);
+		
+		ResourceStats result = resourceService.getResourceStats("TOPIC_001");
+		
+		assertThat(result.getSource(), equalTo(ResourceStats.Source.JMX));
+		assertThat(result.getType(), equalTo(ResourcesEnum.TOPIC_TYPE));
+		assertThat(result.getDepth(), equalTo(5L));
+		Mockito.verify(resourceService.destinationStatisticsService, Mockito.never()).getStatistics(Mockito.anyString(), Mockito.anyBoolean());
+	}
+
+	@Test
+	public void getResourceStatsWithoutStatisticsNorJmxShouldCountTheQueueMessages() {
+		Mockito.doReturn(7L).when(resourceService.queueService).countMessagesIn("QUEUE_001");
+		
+		ResourceStats result = resourceService.getResourceStats("QUEUE_001");
+		
+		assertThat(result.getSource(), equalTo(ResourceStats.Source.BROWSE));
+		assertThat(result.getDepth(), equalTo(7L));
+		assertThat(result.getEnqueueCount(), nullValue());
+	}
+
+	@Test
+	public void getResourceStatsWithoutStatisticsNorJmxShouldNotBrowseTheTopics() {
+		ResourceStats result = resourceService.getResourceStats("TOPIC_001");
+		
+		assertThat(result.getSource(), equalTo(ResourceStats.Source.NONE));
+		assertThat(result.getDepth(), nullValue());
+		assertThat(result.getError(), nullValue());
+		Mockito.verifyZeroInteractions(resourceService.queueService);
+	}
+
+	@Test
+	public void getResourceStatsWithAFailedBrowseShouldReturnAnError() {
+		Mockito.doReturn(null).when(resourceService.queueService).countMessagesIn("QUEUE_001");
+		
+		ResourceStats result = resourceService.getResourceStats("QUEUE_001");
+		
+		assertThat(result.getSource(), equalTo(ResourceStats.Source.NONE));
+		assertThat(result.getError(), equalTo("Browse failed : QUEUE_001"));
+	}
+
+	@Test
+	public void getResourcesStatsShouldReturnTheStatsOfAllTheConfiguredResources() {
+		List<ResourceStats> result = resourceService.getResourcesStats();
+		
+		assertThat(result.size(), equalTo(ResourcesEnum.values().length));
+		assertThat(resourceService.getResourceStats("QUEUE_NNN").getError(), equalTo("Not configured resource : QUEUE_NNN"));
+	}
 }
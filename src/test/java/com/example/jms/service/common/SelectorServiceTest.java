@@ -0,0 +1,49 @@
+package com.example.jms.service.common;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.CoreMatchers.startsWith;
+
+public class SelectorServiceTest {
+
+	private SelectorService selectorService;
+
+	@Before
+	public void setUp() throws Exception {
+		selectorService = new SelectorService();
+	}
+
+	@Test
+	public void getErrorWithAValidSelectorShouldReturnNull() throws Exception {
+		assertThat(selectorService.getError("JMSPriority > 4 AND color IN ('red', 'blue')"), nullValue());
+		assertThat(selectorService.isValid("JMSPriority > 4 AND color IN ('red', 'blue')"), equalTo(true));
+	}
+
+	@Test
+	public void getErrorWithAnEmptySelectorShouldReturnNull() throws Exception {
+		assertThat(selectorService.getError(null), nullValue());
+		assertThat(selectorService.getError("   "), nullValue());
+	}
+
+	@Test
+	public void getErrorWithAnInvalidSelectorShouldReturnTheCachedError() throws Exception {
+		String error = selectorService.getError("JMSPriority >");
+
+		assertThat(error, startsWith("Invalid selector : "));
+		assertThat(selectorService.getError(" JMSPriority > "), sameInstance(error));
+		assertThat(selectorService.isValid("JMSPriority >"), equalTo(false));
+	}
+
+	@Test
+	public void normalizeShouldTrimTheSelectorOrReturnNullIfItIsEmpty() throws Exception {
+		assertThat(SelectorService.normalize(" color = 'red' "), equalTo("color = 'red'"));
+		assertThat(SelectorService.normalize(""), nullValue());
+		assertThat(SelectorService.normalize(null), nullValue());
+	}
+}
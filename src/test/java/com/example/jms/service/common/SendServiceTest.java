@@ -10,11 +10,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.example.jms.model.BatchSendResult;
+import com.example.jms.service.producer.ProducerCacheService;
 import com.example.jms.service.queue.QueueService;
 import com.example.jms.service.topic.TopicService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.equalTo;
 
@@ -29,7 +34,13 @@ public class SendServiceTest {
 
 	@MockBean
 	private TopicService topicServiceMock;
+
+	@MockBean
+	private ProducerCacheService producerCacheServiceMock;
 	
+	@SpyBean
+	private BrowseCacheService browseCacheService;
+
 	@SpyBean
 	private SendService sendService;
 	
@@ -55,6 +66,15 @@ public class SendServiceTest {
 		assertThat(result, equalTo(true));
 	}
 
+	@Test
+	public void sendMessageToWithValidArgumentsShouldInvalidateTheBrowseSnapshotsOfTheResource() {
+		Mockito.doReturn(true).when(queueServiceMock).sendMessageTo("QUEUE_001", "someMessage");
+		
+		sendService.sendMessageTo("QUEUE_001", "someMessage");
+		
+		Mockito.verify(browseCacheService).invalidate("QUEUE_001");
+	}
+
 	@Test
 	public void sendMessageToWithNonValidQueueArgumentsShouldReturnAFalseResponse() {
 		boolean result = sendService.sendMessageTo("QUEUE_NNN", "someMessage");
@@ -86,5 +106,51 @@ public class SendServiceTest {
 		assertThat(result, notNullValue());
 		assertThat(result, equalTo(false));
 	}	
-	
+
+	@Test
+	public void resetProducersForWithValidArgumentsShouldInvalidateTheCachedProducers() {
+		sendService.resetProducersFor("QUEUE_001");
+		
+		Mockito.verify(producerCacheServiceMock).invalidate("QUEUE_001");
+	}
+
+	@Test
+	public void sendMessagesToWithValidQueueArgumentsShouldReturnTheBatchResult() {
+		List<String> messages = Arrays.asList("m1", "m2");
+		BatchSendResult expected = new BatchSendResult("QUEUE_001", 2, 10);
+		Mockito.doReturn(expected).when(queueServiceMock).sendMessagesTo("QUEUE_001", messages, 10);
+		
+		BatchSendResult result = sendService.sendMessagesTo("QUEUE_001", messages, 10);
+		
+		assertThat(result, equalTo(expected));
+	}
+
+	@Test
+	public void sendMessagesToWithValidTopicArgumentsShouldReturnTheBatchResult() {
+		List<String> messages = Arrays.asList("m1", "m2");
+		BatchSendResult expected = new BatchSendResult("TOPIC_001", 2, 10);
+		Mockito.doReturn(expected).when(topicServiceMock).sendMessagesTo("TOPIC_001", messages, 10);
+		
+		BatchSendResult result = sendService.sendMessagesTo("TOPIC_001", messages, 10);
+		
+		assertThat(result, equalTo(expected));
+	}
+
+	@Test
+	public void sendMessagesToWithNullCommitIntervalShouldUseTheConfiguredCommitInterval() {
+		List<String> messages = Arrays.asList("m1", "m2");
+		
+		sendService.sendMessagesTo("QUEUE_001", messages, null);
+		
+		Mockito.verify(queueServiceMock).sendMessagesTo("QUEUE_001", messages, 100);
+	}
+
+	@Test
+	public void sendMessagesToWithNonValidArgumentsShouldReturnAResultWithAllTheMessagesFailed() {
+		BatchSendResult result = sendService.sendMessagesTo("QUEUE_NNN", Arrays.asList("m1", "m2"), 10);
+		
+		assertThat(result, notNullValue());
+		assertThat(result.getFailed(), equalTo(2));
+		assertThat(result.getError(), notNullValue());
+	}
 }
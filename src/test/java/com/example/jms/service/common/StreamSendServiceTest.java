@@ -0,0 +1,169 @@
+package com.example.jms.service.common;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.jms.model.BatchSendResult;
+import com.example.jms.model.StreamSendResult;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+@RunWith(SpringRunner.class)
+public class StreamSendServiceTest {
+
+	@MockBean
+	private SendService sendServiceMock;
+
+	@SpyBean
+	private StreamSendService streamSendService;
+
+	private List<List<String>> sentBatches = new Vector<>();
+
+	@Before
+	public void setUp() throws Exception {
+		ReflectionTestUtils.setField(streamSendService, "maxRecordLength", 1048576);
+
+		Mockito.doAnswer(invocation -> {
+			@SuppressWarnings("unchecked")
+			List<String> messages = new ArrayList<>(invocation.getArgumentAt(1, List.class));
+			sentBatches.add(messages);
+
+			BatchSendResult result = new BatchSendResult(invocation.getArgumentAt(0, String.class), messages.size(), messages.size());
+			result.addBatch(messages.size(), 1, 1);
+			return result;
+		}).when(sendServiceMock).sendMessagesTo(Mockito.anyString(), Mockito.anyListOf(String.class), Mockito.anyInt());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ReflectionTestUtils.setField(streamSendService, "maxStreams", 4);
+		streamSendService.start();
+	}
+
+	private static InputStream createInput(final String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void sendStreamToWithValidArgumentsShouldSendTheLinesInBatches() throws Exception {
+		StreamSendResult result = streamSendService.sendStreamTo("QUEUE_001",
+				createInput("{\"id\":1}\n{\"id\":2}\r\n\n{\"id\":3}\n{\"id\":4}\n{\"id\":5}"), 2, 1);
+
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getRead(), equalTo(5L));
+		assertThat(result.getSent(), equalTo(5L));
+		assertThat(result.getFailed(), equalTo(0L));
+		assertThat(result.getBatches(), equalTo(3));
+		assertThat(result.isRunning(), equalTo(false));
+		assertThat(sentBatches, equalTo(Arrays.asList(Arrays.asList("{\"id\":1}", "{\"id\":2}"),
+				Arrays.asList("{\"id\":3}", "{\"id\":4}"), Arrays.asList("{\"id\":5}"))));
+		assertThat(streamSendService.getRunningSends().size(), equalTo(0));
+	}
+
+	@Test
+	public void sendStreamToWithSeveralProducersShouldSendAllTheLines() throws Exception {
+		StringBuilder input = new StringBuilder();
+
+		for (int line = 1; line <= 1000; line++) {
+			input.append("message ").append(line).append('\n');
+		}
+
+		StreamSendResult result = streamSendService.sendStreamTo("TOPIC_001", createInput(input.toString()), 10, 4);
+
+		assertThat(result.getProducers(), equalTo(4));
+		assertThat(result.getSent(), equalTo(1000L));
+		assertThat(result.getBatches(), equalTo(100));
+		assertThat(sentBatches.size(), equalTo(100));
+	}
+
+	@Test
+	public void sendStreamToWithAFailedBatchShouldStopTheSend() throws Exception {
+		BatchSendResult failedBatch = new BatchSendResult("QUEUE_001", 2, 2);
+		failedBatch.setError("Broker down");
+		Mockito.doReturn(failedBatch).when(sendServiceMock).sendMessagesTo(Mockito.eq("QUEUE_001"),
+				Mockito.eq(Arrays.asList("3", "4")), Mockito.anyInt());
+
+		StreamSendResult result = streamSendService.sendStreamTo("QUEUE_001", createInput("1\n2\n3\n4\n5\n6\n"), 2, 1);
+
+		assertThat(result.getError(), equalTo("Broker down"));
+		assertThat(result.getSent(), equalTo(2L));
+		assertThat(result.getFailed(), equalTo(result.getRead() - 2));
+		assertThat(sentBatches.size(), equalTo(1));
+	}
+
+	@Test
+	public void sendStreamToWithALongLineShouldCountItAsFailed() throws Exception {
+		ReflectionTestUtils.setField(streamSendService, "maxRecordLength", 5);
+
+		StreamSendResult result = streamSendService.sendStreamTo("QUEUE_001", createInput("short\ntoo long line\nok"), 10, 1);
+
+		assertThat(result.getRead(), equalTo(3L));
+		assertThat(result.getSent(), equalTo(2L));
+		assertThat(result.getFailed(), equalTo(1L));
+		assertThat(sentBatches.get(0), equalTo(Arrays.asList("short", "ok")));
+	}
+
+	@Test
+	public void sendStreamToWithANotConfiguredResourceShouldReturnAnError() throws Exception {
+		StreamSendResult result = streamSendService.sendStreamTo("QUEUE_NNN", createInput("1\n"), 10, 1);
+
+		assertThat(result.getError(), equalTo("Not configured resource : QUEUE_NNN"));
+		assertThat(result.getRead(), equalTo(0L));
+		Mockito.verifyZeroInteractions(sendServiceMock);
+	}
+
+	@Test
+	public void sendStreamToShouldUseTheConfiguredValuesAndLimitTheProducers() throws Exception {
+		StreamSendResult result = streamSendService.sendStreamTo("QUEUE_001", createInput(""), null, 100);
+
+		assertThat(result.getCommitInterval(), equalTo(100));
+		assertThat(result.getProducers(), equalTo(8));
+		assertThat(result.getRead(), equalTo(0L));
+		Mockito.verifyZeroInteractions(sendServiceMock);
+	}
+
+	@Test
+	public void sendStreamToOverTheMaxStreamsShouldRejectTheSendWithoutReadingIt() throws Exception {
+		ReflectionTestUtils.setField(streamSendService, "maxStreams", 1);
+		streamSendService.start();
+		CountDownLatch sending = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.doAnswer(invocation -> {
+			sending.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return new BatchSendResult("QUEUE_001", 1, 1);
+		}).when(sendServiceMock).sendMessagesTo(Mockito.anyString(), Mockito.anyListOf(String.class), Mockito.anyInt());
+		Thread running = new Thread(() -> streamSendService.sendStreamTo("QUEUE_001", createInput("1\n"), 1, 1));
+		running.start();
+		assertThat(sending.await(5, TimeUnit.SECONDS), equalTo(true));
+
+		StreamSendResult result = streamSendService.sendStreamTo("QUEUE_001", createInput("2\n"), 1, 1);
+		release.countDown();
+		running.join(5000);
+
+		assertThat(result.isRejected(), equalTo(true));
+		assertThat(result.getError(), equalTo("Too many running stream sends"));
+		assertThat(result.getRead(), equalTo(0L));
+		assertThat(streamSendService.sendStreamTo("QUEUE_001", createInput(""), 1, 1).isRejected(), equalTo(false));
+	}
+}
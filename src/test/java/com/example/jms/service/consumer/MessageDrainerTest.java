@@ -0,0 +1,104 @@
+package com.example.jms.service.consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.TextMessage;
+
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.equalTo;
+
+public class MessageDrainerTest {
+
+	private MessageConsumer messageConsumerMock;
+	private Message messageMock;
+
+	@Before
+	public void setUp() throws Exception {
+		messageConsumerMock = Mockito.mock(MessageConsumer.class);
+		messageMock = Mockito.mock(TextMessage.class);
+	}
+
+	private long drain(final MessageDrainer messageDrainer) throws Exception {
+		while (messageDrainer.receive() != null) {
+		}
+
+		return messageDrainer.getReceived();
+	}
+
+	@Test
+	public void receiveWithFlowingMessagesShouldNotWaitForThem() throws Exception {
+		Mockito.doReturn(messageMock).doReturn(messageMock).doReturn(null).when(messageConsumerMock).receiveNoWait();
+
+		long result = drain(new MessageDrainer(messageConsumerMock, 1000, 100, null));
+
+		assertThat(result, equalTo(2L));
+		Mockito.verify(messageConsumerMock, Mockito.never()).receive(1000);
+		Mockito.verify(messageConsumerMock, Mockito.times(1)).receive(100);
+	}
+
+	@Test
+	public void receiveWithAnEmptyConsumerShouldOnlyWaitTheFirstReceiveTimeout() throws Exception {
+		long result = drain(new MessageDrainer(messageConsumerMock, 1000, 100, null));
+
+		assertThat(result, equalTo(0L));
+		Mockito.verify(messageConsumerMock, Mockito.times(1)).receive(1000);
+		Mockito.verify(messageConsumerMock, Mockito.never()).receive(100);
+	}
+
+	@Test
+	public void receiveWithNotPrefetchedMessagesShouldWaitTheIdleTimeoutAfterTheFirstMessage() throws Exception {
+		Mockito.doReturn(messageMock).when(messageConsumerMock).receive(1000);
+		Mockito.doReturn(messageMock).doReturn(null).when(messageConsumerMock).receive(100);
+
+		long result = drain(new MessageDrainer(messageConsumerMock, 1000, 100, null));
+
+		assertThat(result, equalTo(2L));
+		Mockito.verify(messageConsumerMock, Mockito.times(1)).receive(1000);
+		Mockito.verify(messageConsumerMock, Mockito.times(2)).receive(100);
+	}
+
+	@Test
+	public void receiveWithAReachedExpectedCountShouldNotWait() throws Exception {
+		Mockito.doReturn(messageMock).doReturn(null).when(messageConsumerMock).receiveNoWait();
+
+		long result = drain(new MessageDrainer(messageConsumerMock, 1000, 100, 1L));
+
+		assertThat(result, equalTo(1L));
+		Mockito.verify(messageConsumerMock, Mockito.never()).receive(Mockito.anyLong());
+	}
+
+	@Test
+	public void receiveWithAZeroExpectedCountShouldReturnNullWithoutWaiting() throws Exception {
+		Message result = new MessageDrainer(messageConsumerMock, 1000, 100, 0L).receive();
+
+		assertThat(result, nullValue());
+		Mockito.verify(messageConsumerMock).receiveNoWait();
+		Mockito.verify(messageConsumerMock, Mockito.never()).receive(Mockito.anyLong());
+	}
+
+	@Test
+	public void receiveWithANotReachedExpectedCountShouldWaitForTheMessages() throws Exception {
+		Mockito.doReturn(messageMock).doReturn(null).when(messageConsumerMock).receive(1000);
+
+		long result = drain(new MessageDrainer(messageConsumerMock, 1000, 100, 1L));
+
+		assertThat(result, equalTo(1L));
+		Mockito.verify(messageConsumerMock, Mockito.never()).receive(100);
+	}
+
+	@Test
+	public void receiveWithZeroTimeoutsShouldOnlyReceiveTheAvailableMessages() throws Exception {
+		Mockito.doReturn(messageMock).doReturn(null).when(messageConsumerMock).receiveNoWait();
+
+		long result = drain(new MessageDrainer(messageConsumerMock, 0, 0, null));
+
+		assertThat(result, equalTo(1L));
+		Mockito.verify(messageConsumerMock, Mockito.never()).receive(Mockito.anyLong());
+	}
+}
@@ -0,0 +1,213 @@
+package com.example.jms.service.loadtest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.jms.model.LoadTestOptions;
+import com.example.jms.model.LoadTestResult;
+import com.example.jms.service.common.BrowseCacheService;
+import com.example.jms.service.queue.QueueService;
+import com.example.jms.service.topic.TopicService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@RunWith(SpringRunner.class)
+public class LoadTestServiceTest {
+
+	@MockBean
+	private QueueService queueServiceMock;
+
+	@MockBean
+	private TopicService topicServiceMock;
+
+	@MockBean
+	private BrowseCacheService browseCacheServiceMock;
+
+	@SpyBean
+	private LoadTestService loadTestService;
+
+	private List<String> sentMessages = new Vector<>();
+
+	@Before
+	public void setUp() throws Exception {
+		loadTestService.stop();
+
+		Mockito.doAnswer(invocation -> {
+			sentMessages.add(invocation.getArgumentAt(1, String.class));
+			return true;
+		}).when(queueServiceMock).sendMessageTo(Mockito.anyString(), Mockito.anyString());
+		Mockito.doAnswer(invocation -> {
+			sentMessages.add(invocation.getArgumentAt(1, String.class));
+			return true;
+		}).when(topicServiceMock).sendMessageTo(Mockito.anyString(), Mockito.anyString());
+	}
+
+	private static LoadTestResult waitFor(final LoadTestResult result) throws InterruptedException {
+		for (int wait = 0; wait < 200 && result.getStatus() == LoadTestResult.Status.RUNNING; wait++) {
+			Thread.sleep(50);
+		}
+
+		return result;
+	}
+
+	@Test
+	public void startWithMessagesShouldSendTheMessagesAndReportTheThroughput() throws Exception {
+		LoadTestResult result = waitFor(loadTestService.start("QUEUE_001", new LoadTestOptions(1000L, null, null, 4, 10, 20)));
+
+		assertThat(result.getStatus(), equalTo(LoadTestResult.Status.COMPLETED));
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getSent(), equalTo(1000L));
+		assertThat(result.getFailed(), equalTo(0L));
+		assertThat(sentMessages.size(), equalTo(1000));
+
+		for (String message : sentMessages) {
+			assertThat(message.length(), greaterThanOrEqualTo(10));
+			assertThat(message.length(), lessThanOrEqualTo(20));
+		}
+
+		assertThat(result.getBytes(), greaterThanOrEqualTo(10000L));
+		assertThat(result.getBytes(), lessThanOrEqualTo(20000L));
+		assertThat(result.getMessagesPerSecond(), greaterThan(0d));
+		assertThat(result.getBytesPerSecond(), greaterThan(0d));
+
+		Map<String, Number> latency = result.getLatencyMicros();
+		assertThat(latency.get("p50").longValue(), lessThanOrEqualTo(latency.get("p99").longValue()));
+		assertThat(latency.get("p99").longValue(), lessThanOrEqualTo(latency.get("max").longValue()));
+
+		Mockito.verify(browseCacheServiceMock).invalidate("QUEUE_001");
+		Mockito.verifyZeroInteractions(topicServiceMock);
+		assertThat(loadTestService.getTest(result.getId()), equalTo(result));
+	}
+
+	@Test
+	public void startWithATopicShouldUseTheTopicProducers() throws Exception {
+		LoadTestResult result = waitFor(loadTestService.start("TOPIC_001", new LoadTestOptions(10L, null, null, 1, 5, null)));
+
+		assertThat(result.getStatus(), equalTo(LoadTestResult.Status.COMPLETED));
+		assertThat(result.getSent(), equalTo(10L));
+		assertThat(result.getBytes(), equalTo(50L));
+		Mockito.verify(topicServiceMock, Mockito.times(10)).sendMessageTo(Mockito.eq("TOPIC_001"), Mockito.anyString());
+		Mockito.verifyZeroInteractions(queueServiceMock);
+	}
+
+	@Test
+	public void startWithARateShouldLimitTheSends() throws Exception {
+		LoadTestResult result = waitFor(loadTestService.start("QUEUE_001", new LoadTestOptions(20L, null, 50, 2, 1, null)));
+
+		assertThat(result.getStatus(), equalTo(LoadTestResult.Status.COMPLETED));
+		assertThat(result.getSent(), equalTo(20L));
+		// the last of 20 messages at 50 msg/s is scheduled at 380 ms
+		assertThat(result.getElapsedMillis(), greaterThanOrEqualTo(370L));
+		assertThat(result.getMessagesPerSecond(), lessThan(55d));
+	}
+
+	@Test
+	public void startWithOnlyMessagesShouldStopWhenTheMaxDurationExpires() throws Exception {
+		ReflectionTestUtils.setField(loadTestService, "maxDuration", 300L);
+
+		try {
+			LoadTestResult result = waitFor(loadTestService.start("QUEUE_001", new LoadTestOptions(1000L, null, 100, 1, 1, null)));
+
+			assertThat(result.getStatus(), equalTo(LoadTestResult.Status.COMPLETED));
+			assertThat(result.getSent(), greaterThan(20L));
+			assertThat(result.getSent(), lessThanOrEqualTo(30L));
+		} finally {
+			ReflectionTestUtils.setField(loadTestService, "maxDuration", 3600000L);
+		}
+	}
+
+	@Test
+	public void startWithADurationShouldStopWhenItExpires() throws Exception {
+		LoadTestResult result = waitFor(loadTestService.start("QUEUE_001", new LoadTestOptions(null, 300L, 100, 1, 1, null)));
+
+		assertThat(result.getStatus(), equalTo(LoadTestResult.Status.COMPLETED));
+		assertThat(result.getSent(), greaterThan(20L));
+		assertThat(result.getSent(), lessThanOrEqualTo(30L));
+	}
+
+	@Test
+	public void startWithFailedSendsShouldCountThem() throws Exception {
+		Mockito.doReturn(false).when(queueServiceMock).sendMessageTo(Mockito.anyString(), Mockito.anyString());
+
+		LoadTestResult result = waitFor(loadTestService.start("QUEUE_001", new LoadTestOptions(10L, null, null, 2, 1, null)));
+
+		assertThat(result.getStatus(), equalTo(LoadTestResult.Status.COMPLETED));
+		assertThat(result.getSent(), equalTo(0L));
+		assertThat(result.getFailed(), equalTo(10L));
+	}
+
+	@Test
+	public void startWithInvalidArgumentsShouldReturnAFailedTest() throws Exception {
+		assertThat(loadTestService.start("UNKNOWN", new LoadTestOptions(10L, null, null, null, null, null)).getError(),
+				equalTo("Not configured resource : UNKNOWN"));
+		assertThat(loadTestService.start("QUEUE_001", new LoadTestOptions(0L, null, null, null, null, null)).getStatus(),
+				equalTo(LoadTestResult.Status.FAILED));
+		assertThat(loadTestService.start("QUEUE_001", new LoadTestOptions(10L, null, -1, null, null, null)).getStatus(),
+				equalTo(LoadTestResult.Status.FAILED));
+		assertThat(loadTestService.start("QUEUE_001", new LoadTestOptions(10L, null, null, 0, null, null)).getStatus(),
+				equalTo(LoadTestResult.Status.FAILED));
+		assertThat(loadTestService.start("QUEUE_001", new LoadTestOptions(10L, null, null, null, 20, 10)).getStatus(),
+				equalTo(LoadTestResult.Status.FAILED));
+
+		Mockito.verifyZeroInteractions(queueServiceMock);
+		assertThat(loadTestService.getTests().stream().noneMatch(test -> test.getStatus() == LoadTestResult.Status.FAILED),
+				equalTo(true));
+	}
+
+	@Test
+	public void startWithTheMaxRunningTestsShouldRejectTheTest() throws Exception {
+		ReflectionTestUtils.setField(loadTestService, "maxRunningTests", 1);
+
+		for (LoadTestResult test : loadTestService.getTests()) {
+			waitFor(test); // cancelled by the set up
+		}
+
+		try {
+			LoadTestResult running = loadTestService.start("QUEUE_001", new LoadTestOptions(null, 60000L, 100, 1, 1, null));
+			LoadTestResult rejected = loadTestService.start("QUEUE_001", new LoadTestOptions(10L, null, null, 1, 1, null));
+
+			assertThat(running.getStatus(), equalTo(LoadTestResult.Status.RUNNING));
+			assertThat(rejected.getStatus(), equalTo(LoadTestResult.Status.REJECTED));
+			assertThat(loadTestService.getTest(rejected.getId()), nullValue());
+
+			loadTestService.cancel(running.getId());
+			waitFor(running);
+
+			assertThat(waitFor(loadTestService.start("QUEUE_001", new LoadTestOptions(10L, null, null, 1, 1, null))).getStatus(),
+					equalTo(LoadTestResult.Status.COMPLETED));
+		} finally {
+			ReflectionTestUtils.setField(loadTestService, "maxRunningTests", 4);
+		}
+	}
+
+	@Test
+	public void cancelShouldStopARunningTest() throws Exception {
+		LoadTestResult result = loadTestService.start("QUEUE_001", new LoadTestOptions(null, 60000L, 100, 1, 1, null));
+		Thread.sleep(100);
+
+		assertThat(loadTestService.cancel(result.getId()), notNullValue());
+		waitFor(result);
+
+		assertThat(result.getStatus(), equalTo(LoadTestResult.Status.CANCELLED));
+		assertThat(result.getSent(), lessThan(100L));
+		assertThat(loadTestService.cancel("UNKNOWN"), nullValue());
+	}
+}
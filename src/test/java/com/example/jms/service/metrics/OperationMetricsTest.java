@@ -0,0 +1,89 @@
+package com.example.jms.service.metrics;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class OperationMetricsTest {
+
+	private MeterRegistry meterRegistry;
+
+	@Before
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	public void stopShouldRecordTheOperationTimeAndTheCountedMessagesAndBytes() {
+		OperationMetrics metrics = OperationMetrics.start(meterRegistry, "send", "QUEUE_001");
+
+		metrics.addMessages(2);
+		metrics.addMessages(3);
+		metrics.addBytes(100);
+		metrics.stop();
+
+		assertThat(meterRegistry.get(OperationMetrics.OPERATION_TIMER).tags("operation", "send", "resource", "QUEUE_001",
+				"outcome", "success").timer().count(), equalTo(1L));
+		assertThat(meterRegistry.get(OperationMetrics.MESSAGES_SUMMARY).tags("operation", "send", "resource", "QUEUE_001")
+				.summary().totalAmount(), equalTo(5.0));
+		assertThat(meterRegistry.get(OperationMetrics.BYTES_SUMMARY).tags("operation", "send", "resource", "QUEUE_001")
+				.summary().totalAmount(), equalTo(100.0));
+	}
+
+	@Test
+	public void stopShouldNotRecordTheMessagesAndBytesWhenTheyWereNotCounted() {
+		OperationMetrics.start(meterRegistry, "resubscribe", null).stop();
+
+		assertThat(meterRegistry.get(OperationMetrics.OPERATION_TIMER).tags("resource", "none").timer().count(), equalTo(1L));
+		assertThat(meterRegistry.find(OperationMetrics.MESSAGES_SUMMARY).summary(), nullValue());
+		assertThat(meterRegistry.find(OperationMetrics.BYTES_SUMMARY).summary(), nullValue());
+	}
+
+	@Test
+	public void failedShouldCountTheFailureByExceptionTypeAndRecordAFailureOutcome() {
+		OperationMetrics metrics = OperationMetrics.start(meterRegistry, "browse", "TOPIC_001");
+
+		metrics.failed(new JMSException("some error"));
+		metrics.failed(new IllegalStateException());
+		metrics.stop();
+
+		assertThat(meterRegistry.get(OperationMetrics.FAILURES_COUNTER).tags("operation", "browse", "resource", "TOPIC_001",
+				"exception", "JMSException").counter().count(), equalTo(1.0));
+		assertThat(meterRegistry.get(OperationMetrics.FAILURES_COUNTER).tags("exception", "IllegalStateException").counter()
+				.count(), equalTo(1.0));
+		assertThat(meterRegistry.get(OperationMetrics.OPERATION_TIMER).tags("outcome", "failure").timer().count(), equalTo(1L));
+		assertThat(meterRegistry.find(OperationMetrics.OPERATION_TIMER).tags("outcome", "success").timer(), nullValue());
+	}
+
+	@Test
+	public void connectShouldRecordTheConnectionTimeByOutcome() throws Exception {
+		OperationMetrics metrics = OperationMetrics.start(meterRegistry, "drain", "QUEUE_001");
+		Connection connectionMock = Mockito.mock(Connection.class);
+
+		Connection connection = metrics.connect(() -> connectionMock);
+
+		try {
+			metrics.connect(() -> {
+				throw new JMSException("some error");
+			});
+		} catch (JMSException e) {
+			// expected
+		}
+
+		assertThat(connection, sameInstance(connectionMock));
+		assertThat(meterRegistry.get(OperationMetrics.CONNECTION_TIMER).tags("operation", "drain", "resource", "QUEUE_001",
+				"outcome", "success").timer().count(), equalTo(1L));
+		assertThat(meterRegistry.get(OperationMetrics.CONNECTION_TIMER).tags("outcome", "failure").timer().count(), equalTo(1L));
+	}
+}
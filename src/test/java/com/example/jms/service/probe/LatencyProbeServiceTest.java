@@ -0,0 +1,287 @@
+package com.example.jms.service.probe;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.jms.model.ContinuousProbeResult;
+import com.example.jms.model.ProbeResult;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+import javax.jms.TopicSubscriber;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@RunWith(SpringRunner.class)
+public class LatencyProbeServiceTest {
+
+	@MockBean
+	private ConnectionFactory connectionFactoryMock;
+
+	@SpyBean
+	private LatencyProbeService latencyProbeService;
+
+	private Connection connectionMock = Mockito.mock(Connection.class);
+	private Session sessionMock = Mockito.mock(Session.class);
+	private TopicSubscriber messageConsumerMock = Mockito.mock(TopicSubscriber.class);
+	private MessageProducer messageProducerMock = Mockito.mock(MessageProducer.class);
+	private Queue queueMock = Mockito.mock(Queue.class);
+	private Topic topicMock = Mockito.mock(Topic.class);
+	private AtomicReference<MessageListener> listener = new AtomicReference<>();
+	private AtomicInteger sends = new AtomicInteger();
+
+	@Before
+	public void setUp() throws Exception {
+		latencyProbeService.stop();
+		ReflectionTestUtils.setField(latencyProbeService, "timeout", 200L);
+		ReflectionTestUtils.setField(latencyProbeService, "sloLatency", 100L);
+		ReflectionTestUtils.setField(latencyProbeService, "continuousResources", "");
+
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(false, Session.AUTO_ACKNOWLEDGE);
+		Mockito.doReturn(queueMock).when(sessionMock).createQueue(Mockito.anyString());
+		Mockito.doReturn(topicMock).when(sessionMock).createTopic(Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createConsumer(Mockito.eq(queueMock), Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createConsumer(Mockito.eq(topicMock), Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createDurableSubscriber(Mockito.eq(topicMock), Mockito.anyString(),
+				Mockito.anyString(), Mockito.eq(false));
+		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(Mockito.any());
+		Mockito.doAnswer(invocation -> createMessage()).when(sessionMock).createTextMessage(Mockito.anyString());
+		Mockito.doAnswer(invocation -> {
+			listener.set(invocation.getArgumentAt(0, MessageListener.class));
+			return null;
+		}).when(messageConsumerMock).setMessageListener(Mockito.any(MessageListener.class));
+		// the broker delivers each sent message to the probe consumer
+		Mockito.doAnswer(invocation -> {
+			sends.incrementAndGet();
+			listener.get().onMessage(invocation.getArgumentAt(0, Message.class));
+			return null;
+		}).when(messageProducerMock).send(Mockito.any(Message.class));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		latencyProbeService.stop();
+	}
+
+	private static TextMessage createMessage() throws JMSException {
+		Map<String, Object> properties = new ConcurrentHashMap<>();
+		TextMessage messageMock = Mockito.mock(TextMessage.class);
+
+		Mockito.doAnswer(invocation -> properties.put(invocation.getArgumentAt(0, String.class), invocation.getArgumentAt(1, Object.class)))
+				.when(messageMock).setStringProperty(Mockito.anyString(), Mockito.anyString());
+		Mockito.doAnswer(invocation -> properties.put(invocation.getArgumentAt(0, String.class), invocation.getArgumentAt(1, Object.class)))
+				.when(messageMock).setLongProperty(Mockito.anyString(), Mockito.anyLong());
+		Mockito.doAnswer(invocation -> properties.get(invocation.getArgumentAt(0, String.class)))
+				.when(messageMock).getLongProperty(Mockito.anyString());
+		return messageMock;
+	}
+
+	private static ProbeResult waitForCompletion(final ProbeResult result) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+
+		while (result.isRunning() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+
+		return result;
+	}
+
+	@Test
+	public void probeWithAQueueShouldReceiveAllTheMessagesOnASelectorConsumer() throws Exception {
+		ProbeResult result = waitForCompletion(latencyProbeService.probe("QUEUE_001", 20, 1L));
+
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getSent(), equalTo(20L));
+		assertThat(result.getReceived(), equalTo(20L));
+		assertThat(result.getLost(), equalTo(0L));
+		assertThat(result.isRunning(), equalTo(false));
+		assertThat(result.getSloMet(), equalTo(true));
+		assertThat(result.getLatencyMicros().get("p50").longValue(), lessThanOrEqualTo(result.getLatencyMicros().get("max").longValue()));
+		Mockito.verify(sessionMock).createConsumer(queueMock, "JmsToolkitProbe = '" + result.getId() + "'");
+		Mockito.verify(messageProducerMock).setTimeToLive(200L);
+		Mockito.verify(connectionMock, Mockito.never()).setClientID(Mockito.anyString());
+		Mockito.verify(connectionMock).close();
+	}
+
+	@Test
+	public void probeWithATopicShouldUseADurableSubscriberAndRemoveIt() throws Exception {
+		ProbeResult result = waitForCompletion(latencyProbeService.probe("TOPIC_001", 5, 0L));
+
+		assertThat(result.getReceived(), equalTo(5L));
+		Mockito.verify(connectionMock).setClientID("JmsToolkitProbe-" + result.getId());
+		Mockito.verify(sessionMock).createDurableSubscriber(topicMock, "probe-" + result.getId(),
+				"JmsToolkitProbe = '" + result.getId() + "'", false);
+		Mockito.verify(sessionMock).unsubscribe("probe-" + result.getId());
+	}
+
+	@Test
+	public void probeWithATopicAndAFailedConnectionShouldRemoveTheDurableSubscriberOnANewConnection() throws Exception {
+		AtomicReference<ExceptionListener> exceptionListener = new AtomicReference<>();
+		Mockito.doAnswer(invocation -> {
+			exceptionListener.set(invocation.getArgumentAt(0, ExceptionListener.class));
+			return null;
+		}).when(connectionMock).setExceptionListener(Mockito.any(ExceptionListener.class));
+		// the connection fails after the message is sent
+		Mockito.doAnswer(invocation -> {
+			exceptionListener.get().onException(new JMSException("connection lost"));
+			return null;
+		}).when(messageProducerMock).send(Mockito.any(Message.class));
+
+		ProbeResult result = waitForCompletion(latencyProbeService.probe("TOPIC_001", 1, 0L));
+
+		assertThat(result.isRunning(), equalTo(false));
+		Mockito.verify(connectionFactoryMock, Mockito.times(2)).createConnection();
+		Mockito.verify(connectionMock, Mockito.times(2)).setClientID("JmsToolkitProbe-" + result.getId());
+		Mockito.verify(sessionMock).unsubscribe("probe-" + result.getId());
+	}
+
+	@Test
+	public void startWithAContinuousTopicShouldUseANonDurableSubscriber() throws Exception {
+		ReflectionTestUtils.setField(latencyProbeService, "continuousResources", "TOPIC_001");
+		ReflectionTestUtils.setField(latencyProbeService, "continuousInterval", 10L);
+
+		latencyProbeService.start();
+		Thread.sleep(100);
+		List<ContinuousProbeResult> results = latencyProbeService.getContinuousProbes();
+		latencyProbeService.stop();
+
+		assertThat(results.get(0).getTotal().getReceived(), greaterThan(0L));
+		Mockito.verify(sessionMock).createConsumer(Mockito.eq(topicMock), Mockito.startsWith("JmsToolkitProbe = '"));
+		Mockito.verify(sessionMock, Mockito.never()).createDurableSubscriber(Mockito.any(Topic.class), Mockito.anyString(),
+				Mockito.anyString(), Mockito.anyBoolean());
+		Mockito.verify(connectionMock, Mockito.never()).setClientID(Mockito.anyString());
+		Mockito.verify(sessionMock, Mockito.never()).unsubscribe(Mockito.anyString());
+	}
+
+	@Test
+	public void probeWithLostMessagesShouldCountThemAfterTheTimeout() throws Exception {
+		Mockito.doAnswer(invocation -> {
+			if (sends.incrementAndGet() % 2 == 0) {
+				listener.get().onMessage(invocation.getArgumentAt(0, Message.class));
+			}
+			return null;
+		}).when(messageProducerMock).send(Mockito.any(Message.class));
+
+		ProbeResult result = waitForCompletion(latencyProbeService.probe("QUEUE_001", 10, 0L));
+
+		assertThat(result.getSent(), equalTo(10L));
+		assertThat(result.getReceived(), equalTo(5L));
+		assertThat(result.getLost(), equalTo(5L));
+		assertThat(result.getSloMet(), equalTo(false));
+		assertThat(result.getElapsedMillis(), greaterThan(150L));
+	}
+
+	@Test
+	public void probeWithAConnectionErrorShouldReturnTheError() throws Exception {
+		Mockito.doThrow(new JMSException("connection refused")).when(connectionFactoryMock).createConnection();
+
+		ProbeResult result = waitForCompletion(latencyProbeService.probe("QUEUE_001", 10, 0L));
+
+		assertThat(result.getError(), equalTo("Probe failed : QUEUE_001"));
+		assertThat(result.getSent(), equalTo(0L));
+		assertThat(result.getSloMet(), equalTo(false));
+	}
+
+	@Test
+	public void probeShouldReturnTheRunningProbeWithoutWaitingForItsMessages() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.doAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			listener.get().onMessage(invocation.getArgumentAt(0, Message.class));
+			return null;
+		}).when(messageProducerMock).send(Mockito.any(Message.class));
+
+		ProbeResult result = latencyProbeService.probe("QUEUE_001", 1, 0L);
+
+		assertThat(result.isRunning(), equalTo(true));
+		assertThat(latencyProbeService.getProbe(result.getId()), equalTo(result));
+
+		release.countDown();
+
+		assertThat(waitForCompletion(result).isRunning(), equalTo(false));
+		assertThat(result.getReceived(), equalTo(1L));
+		assertThat(latencyProbeService.getProbe(result.getId()), equalTo(result));
+	}
+
+	@Test
+	public void getProbeWithAnUnknownIdShouldReturnNull() throws Exception {
+		assertThat(latencyProbeService.getProbe("UNKNOWN"), nullValue());
+	}
+
+	@Test
+	public void probeWithInvalidArgumentsShouldReturnAnError() throws Exception {
+		assertThat(latencyProbeService.probe("UNKNOWN", 10, 0L).getError(), equalTo("Not configured resource : UNKNOWN"));
+		assertThat(latencyProbeService.probe("QUEUE_001", 0, 0L).getError(), equalTo("The messages must be between 1 and 10000"));
+		assertThat(latencyProbeService.probe("QUEUE_001", 10, -1L).getError(), equalTo("The interval can't be negative"));
+		assertThat(latencyProbeService.probe("QUEUE_001", 10, -1L).isRunning(), equalTo(false));
+		Mockito.verifyZeroInteractions(connectionFactoryMock);
+	}
+
+	@Test
+	public void startWithContinuousResourcesShouldProbeThemInWindows() throws Exception {
+		ReflectionTestUtils.setField(latencyProbeService, "continuousResources", "QUEUE_001, UNKNOWN");
+		ReflectionTestUtils.setField(latencyProbeService, "continuousInterval", 10L);
+		ReflectionTestUtils.setField(latencyProbeService, "window", 100L);
+
+		latencyProbeService.start();
+		Thread.sleep(300);
+
+		List<ContinuousProbeResult> results = latencyProbeService.getContinuousProbes();
+		assertThat(results.size(), equalTo(1));
+		assertThat(results.get(0).getResource(), equalTo("QUEUE_001"));
+		assertThat(results.get(0).isConnected(), equalTo(true));
+		assertThat(results.get(0).getTotal().getReceived(), greaterThan(10L));
+		assertThat(results.get(0).getLastWindow(), notNullValue());
+		assertThat(results.get(0).getLastWindow().getReceived(), greaterThan(0L));
+		assertThat(results.get(0).getLastWindow().getSloMet(), equalTo(true));
+		Mockito.verify(connectionFactoryMock, Mockito.times(1)).createConnection();
+	}
+
+	@Test
+	public void startWithAConnectionErrorShouldMissTheSloAndRetry() throws Exception {
+		ReflectionTestUtils.setField(latencyProbeService, "continuousResources", "TOPIC_001");
+		ReflectionTestUtils.setField(latencyProbeService, "continuousInterval", 10L);
+		ReflectionTestUtils.setField(latencyProbeService, "window", 100L);
+		Mockito.doThrow(new JMSException("connection refused")).when(connectionFactoryMock).createConnection();
+
+		latencyProbeService.start();
+		Thread.sleep(300);
+
+		List<ContinuousProbeResult> results = latencyProbeService.getContinuousProbes();
+		assertThat(results.get(0).isConnected(), equalTo(false));
+		assertThat(results.get(0).getLastWindow().getError(), equalTo("Probe not connected : TOPIC_001"));
+		assertThat(results.get(0).getLastWindow().getSloMet(), equalTo(false));
+		Mockito.verify(connectionFactoryMock, Mockito.atLeast(2)).createConnection();
+	}
+}
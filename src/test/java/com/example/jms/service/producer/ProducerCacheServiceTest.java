@@ -0,0 +1,359 @@
+package com.example.jms.service.producer;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+
+import com.example.jms.model.BatchSendResult;
+
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+@RunWith(SpringRunner.class)
+public class ProducerCacheServiceTest {
+
+	@MockBean
+	private ConnectionFactory connectionFactoryMock;
+
+	@SpyBean
+	private ProducerCacheService producerCacheService;
+
+	@Mock
+	private Connection connectionMock;
+	@Mock
+	private Session sessionMock;
+	@Mock
+	private Queue queueDestinationMock;
+	@Mock
+	private Topic topicDestinationMock;
+	@Mock
+	private MessageProducer messageProducerMock;
+	@Mock
+	private TextMessage textMessageMock;
+
+	@After
+	public void tearDown() {
+		producerCacheService.invalidateAll();
+	}
+
+	private void mockProducerCreation() throws Exception {
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
+		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
+		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(Mockito.any());
+		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
+	}
+
+	@Test
+	public void sendTextMessageWithValidQueueArgumentsShouldReturnATrueResponse() throws Exception {
+		mockProducerCreation();
+
+		boolean result = producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+
+		Mockito.verify(sessionMock).createQueue("QUEUE_001");
+		Mockito.verify(messageProducerMock).send(textMessageMock);
+		assertThat(result, notNullValue());
+		assertThat(result, equalTo(true));
+	}
+
+	@Test
+	public void sendTextMessageWithValidTopicArgumentsShouldReturnATrueResponse() throws Exception {
+		mockProducerCreation();
+
+		boolean result = producerCacheService.sendTextMessage("TOPIC_001", "someMessage");
+
+		Mockito.verify(sessionMock).createTopic("TOPIC_001");
+		Mockito.verify(messageProducerMock).send(textMessageMock);
+		assertThat(result, notNullValue());
+		assertThat(result, equalTo(true));
+	}
+
+	@Test
+	public void sendTextMessageWithValidArgumentsShouldReuseTheCachedProducer() throws Exception {
+		mockProducerCreation();
+
+		producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+		boolean result = producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+
+		Mockito.verify(connectionFactoryMock, Mockito.times(1)).createConnection();
+		Mockito.verify(sessionMock, Mockito.times(1)).createQueue("QUEUE_001");
+		Mockito.verify(sessionMock, Mockito.times(1)).createProducer(queueDestinationMock);
+		Mockito.verify(messageProducerMock, Mockito.times(2)).send(textMessageMock);
+		Mockito.verify(sessionMock, Mockito.never()).close();
+		Mockito.verify(connectionMock, Mockito.never()).close();
+		assertThat(result, equalTo(true));
+		assertThat(producerCacheService.getIdleProducers("QUEUE_001"), equalTo(1));
+	}
+
+	@Test
+	public void sendTextMessageWithNonValidArgumentsShouldReturnAFalseResponse() throws Exception {
+		boolean result = producerCacheService.sendTextMessage("QUEUE_NNN", "someMessage");
+
+		Mockito.verifyZeroInteractions(connectionFactoryMock);
+		assertThat(result, notNullValue());
+		assertThat(result, equalTo(false));
+	}
+
+	@Test
+	public void sendTextMessageWithNullArgumentsShouldReturnAFalseResponse() throws Exception {
+		boolean result = producerCacheService.sendTextMessage(null, "someMessage");
+
+		assertThat(result, notNullValue());
+		assertThat(result, equalTo(false));
+	}
+
+	@Test
+	public void sendTextMessageWithValidArgumentsShouldReturnAFalseResponseAndCloseTheProducerWhenSendThrowsAnException() throws Exception {
+		mockProducerCreation();
+		Mockito.doThrow(JMSException.class).when(messageProducerMock).send(textMessageMock);
+
+		boolean result = producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+
+		Mockito.verify(messageProducerMock).close();
+		Mockito.verify(sessionMock).close();
+		Mockito.verify(connectionMock).close();
+		assertThat(result, equalTo(false));
+		assertThat(producerCacheService.getIdleProducers("QUEUE_001"), equalTo(0));
+	}
+
+	@Test
+	public void sendTextMessageWithValidArgumentsShouldReturnAFalseResponseWhenCreateTextMessageThrowsAnException() throws Exception {
+		mockProducerCreation();
+		Mockito.doThrow(JMSException.class).when(sessionMock).createTextMessage(Mockito.anyString());
+
+		boolean result = producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+
+		assertThat(result, equalTo(false));
+	}
+
+	@Test
+	public void sendTextMessageWithValidArgumentsShouldReturnAFalseResponseWhenCreateProducerThrowsAnException() throws Exception {
+		mockProducerCreation();
+		Mockito.doThrow(JMSException.class).when(sessionMock).createProducer(Mockito.any());
+
+		boolean result = producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+
+		Mockito.verify(sessionMock).close();
+		Mockito.verify(connectionMock).close();
+		assertThat(result, equalTo(false));
+	}
+
+	@Test
+	public void sendTextMessageWithValidArgumentsShouldReturnAFalseResponseWhenCreateSessionThrowsAnException() throws Exception {
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doThrow(JMSException.class).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+
+		boolean result = producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+
+		Mockito.verify(connectionMock).close();
+		assertThat(result, equalTo(false));
+	}
+
+	@Test
+	public void sendTextMessageWithValidArgumentsShouldReturnAFalseResponseWhenCreateConnectionThrowsAnException() throws Exception {
+		Mockito.doThrow(JMSException.class).when(connectionFactoryMock).createConnection();
+
+		boolean result = producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+
+		assertThat(result, equalTo(false));
+	}
+
+	@Test
+	public void sendTextMessageWithValidArgumentsShouldReturnATrueResponseWhenCloseThrowsAnException() throws Exception {
+		mockProducerCreation();
+		Mockito.doThrow(JMSException.class).when(sessionMock).close();
+		Mockito.doThrow(JMSException.class).when(connectionMock).close();
+
+		boolean result = producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+
+		assertThat(result, equalTo(true));
+	}
+
+	@Test
+	public void invalidateWithValidArgumentsShouldCloseTheCachedProducers() throws Exception {
+		mockProducerCreation();
+		producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+
+		producerCacheService.invalidate("QUEUE_001");
+		producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+
+		Mockito.verify(messageProducerMock).close();
+		Mockito.verify(connectionFactoryMock, Mockito.times(2)).createConnection();
+	}
+
+	@Test
+	public void invalidateWithNullArgumentsShouldDoNothing() throws Exception {
+		producerCacheService.invalidate(null);
+
+		assertThat(producerCacheService.getIdleProducers(null), equalTo(0));
+	}
+
+	@Test
+	public void connectionFailureShouldInvalidateTheCachedProducers() throws Exception {
+		mockProducerCreation();
+		producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+
+		ArgumentCaptor<ExceptionListener> exceptionListener = ArgumentCaptor.forClass(ExceptionListener.class);
+		Mockito.verify(connectionMock).setExceptionListener(exceptionListener.capture());
+		exceptionListener.getValue().onException(new JMSException("Some JMS Exception"));
+
+		Mockito.verify(connectionMock).close();
+		assertThat(producerCacheService.getIdleProducers("QUEUE_001"), equalTo(0));
+	}
+
+	@Test
+	public void sendTextMessagesWithValidArgumentsShouldCommitEveryCommitIntervalMessages() throws Exception {
+		mockProducerCreation();
+
+		BatchSendResult result = producerCacheService.sendTextMessages("QUEUE_001", Arrays.asList("m1", "m2", "m3", "m4", "m5"), 2);
+
+		Mockito.verify(connectionMock).createSession(true, Session.SESSION_TRANSACTED);
+		Mockito.verify(messageProducerMock, Mockito.times(5)).send(textMessageMock);
+		Mockito.verify(sessionMock, Mockito.times(3)).commit();
+		assertThat(result, notNullValue());
+		assertThat(result.getTotal(), equalTo(5));
+		assertThat(result.getSent(), equalTo(5));
+		assertThat(result.getFailed(), equalTo(0));
+		assertThat(result.getBatches().size(), equalTo(3));
+		assertThat(result.getBatches().get(0).getMessages(), equalTo(2));
+		assertThat(result.getBatches().get(2).getMessages(), equalTo(1));
+		assertThat(result.getError(), nullValue());
+	}
+
+	@Test
+	public void sendTextMessagesWithValidArgumentsShouldRollbackTheBatchWhenSendThrowsAnException() throws Exception {
+		mockProducerCreation();
+		Mockito.doNothing().doNothing().doThrow(JMSException.class).when(messageProducerMock).send(textMessageMock);
+
+		BatchSendResult result = producerCacheService.sendTextMessages("QUEUE_001", Arrays.asList("m1", "m2", "m3", "m4"), 2);
+
+		Mockito.verify(sessionMock, Mockito.times(1)).commit();
+		Mockito.verify(sessionMock).rollback();
+		Mockito.verify(connectionMock).close();
+		assertThat(result.getSent(), equalTo(2));
+		assertThat(result.getFailed(), equalTo(2));
+		assertThat(result.getError(), notNullValue());
+	}
+
+	@Test
+	public void sendTextMessagesWithValidArgumentsShouldReuseTheTransactedProducer() throws Exception {
+		mockProducerCreation();
+
+		producerCacheService.sendTextMessages("TOPIC_001", Arrays.asList("m1", "m2"), 10);
+		BatchSendResult result = producerCacheService.sendTextMessages("TOPIC_001", Arrays.asList("m3"), 10);
+
+		Mockito.verify(connectionFactoryMock, Mockito.times(1)).createConnection();
+		Mockito.verify(sessionMock, Mockito.times(2)).commit();
+		assertThat(result.getSent(), equalTo(1));
+	}
+
+	@Test
+	public void sendTextMessagesWithEmptyMessagesShouldReturnAnEmptyResult() throws Exception {
+		BatchSendResult result = producerCacheService.sendTextMessages("QUEUE_001", Collections.emptyList(), 10);
+
+		Mockito.verifyZeroInteractions(connectionFactoryMock);
+		assertThat(result.getTotal(), equalTo(0));
+		assertThat(result.getBatches().size(), equalTo(0));
+	}
+
+	@Test
+	public void sendTextMessagesWithNullMessagesShouldReturnAnEmptyResult() throws Exception {
+		BatchSendResult result = producerCacheService.sendTextMessages("QUEUE_001", null, 10);
+
+		assertThat(result.getTotal(), equalTo(0));
+	}
+
+	@Test
+	public void sendTextMessagesWithNonValidArgumentsShouldReturnAResultWithAnError() throws Exception {
+		BatchSendResult result = producerCacheService.sendTextMessages("QUEUE_NNN", Arrays.asList("m1"), 10);
+
+		assertThat(result.getFailed(), equalTo(1));
+		assertThat(result.getError(), notNullValue());
+	}
+
+	@Test
+	public void sendTextMessagesWithNonPositiveCommitIntervalShouldCommitEveryMessage() throws Exception {
+		mockProducerCreation();
+
+		BatchSendResult result = producerCacheService.sendTextMessages("QUEUE_001", Arrays.asList("m1", "m2"), 0);
+
+		Mockito.verify(sessionMock, Mockito.times(2)).commit();
+		assertThat(result.getCommitInterval(), equalTo(1));
+	}
+
+
+	@Test
+	public void sendTextMessageFromParallelRequestsToTheSameResourceShouldNotBeSerialized() throws Exception {
+		int sends = 8;
+		// each send waits until all the sends are in flight together: serialized sends would break the barrier
+		CyclicBarrier allSending = new CyclicBarrier(sends);
+		mockProducerCreation();
+		Mockito.doAnswer(invocation -> {
+			allSending.await(5, TimeUnit.SECONDS);
+			return null;
+		}).when(messageProducerMock).send(Mockito.any(TextMessage.class));
+
+		sendInParallel(sends);
+
+		assertThat(allSending.isBroken(), equalTo(false));
+		Mockito.verify(messageProducerMock, Mockito.times(sends)).send(Mockito.any(TextMessage.class));
+		Mockito.verify(connectionMock, Mockito.never()).setClientID(Mockito.anyString());
+	}
+
+	/**
+	 * Sends the given number of messages to the same queue in parallel and checks that they were sent.
+	 */
+	private void sendInParallel(final int sends) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(sends);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+
+		try {
+			for (int send = 0; send < sends; send++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return producerCacheService.sendTextMessage("QUEUE_001", "someMessage");
+				}));
+			}
+
+			start.countDown();
+
+			for (Future<Boolean> result : results) {
+				assertThat(result.get(10, TimeUnit.SECONDS), equalTo(true));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.example.jms.service.queue;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.example.jms.service.producer.ProducerCacheService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.lang.management.ManagementFactory;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+
+@RunWith(SpringRunner.class)
+public class NativePurgeServiceTest {
+
+	private static final String QUEUE_MBEAN_NAME = "org.apache.activemq:type=Broker,brokerName=someBroker,destinationType=Queue,destinationName=QUEUE_001";
+	private static final String OTHER_QUEUE_MBEAN_NAME = "org.apache.activemq:type=Broker,brokerName=otherBroker,destinationType=Queue,destinationName=QUEUE_001";
+
+	@MockBean
+	private ConnectionFactory connectionFactoryMock;
+
+	@MockBean
+	private ProducerCacheService producerCacheServiceMock;
+
+	@SpyBean
+	private NativePurgeService nativePurgeService;
+
+	@Mock
+	private Connection connectionMock;
+
+	@After
+	public void tearDown() throws Exception {
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+		for (String name : new String[] { QUEUE_MBEAN_NAME, OTHER_QUEUE_MBEAN_NAME }) {
+			ObjectName queueName = new ObjectName(name);
+
+			if (mBeanServer.isRegistered(queueName)) {
+				mBeanServer.unregisterMBean(queueName);
+			}
+		}
+	}
+
+	@Test
+	public void purgeQueueWithALocalQueueMBeanShouldInvokeThePurgeOperation() throws Exception {
+		QueueView queueView = new QueueView();
+		ManagementFactory.getPlatformMBeanServer().registerMBean(queueView, new ObjectName(QUEUE_MBEAN_NAME));
+
+		boolean result = nativePurgeService.purgeQueue("QUEUE_001");
+
+		assertThat(result, equalTo(true));
+		assertThat(queueView.purged, equalTo(1));
+		Mockito.verifyZeroInteractions(connectionFactoryMock, producerCacheServiceMock);
+	}
+
+	@Test
+	public void purgeQueueWithAPatternNameShouldNotPurgeTheMatchingQueues() throws Exception {
+		QueueView queueView = new QueueView();
+		ManagementFactory.getPlatformMBeanServer().registerMBean(queueView, new ObjectName(QUEUE_MBEAN_NAME));
+
+		boolean result = nativePurgeService.purgeQueue("QUEUE_*");
+
+		assertThat(result, equalTo(false));
+		assertThat(queueView.purged, equalTo(0));
+	}
+
+	@Test
+	public void purgeQueueWithSeveralQueueMBeansShouldNotPurgeThem() throws Exception {
+		QueueView queueView = new QueueView();
+		QueueView otherQueueView = new QueueView();
+		ManagementFactory.getPlatformMBeanServer().registerMBean(queueView, new ObjectName(QUEUE_MBEAN_NAME));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(otherQueueView, new ObjectName(OTHER_QUEUE_MBEAN_NAME));
+
+		boolean result = nativePurgeService.purgeQueue("QUEUE_001");
+
+		assertThat(result, equalTo(false));
+		assertThat(queueView.purged, equalTo(0));
+		assertThat(otherQueueView.purged, equalTo(0));
+	}
+
+	@Test
+	public void purgeQueueWithoutAdminApiShouldReturnAFalseResponseWithoutDestroyingTheQueue() throws Exception {
+		boolean result = nativePurgeService.purgeQueue("QUEUE_001");
+
+		assertThat(result, equalTo(false));
+		Mockito.verifyZeroInteractions(connectionFactoryMock, producerCacheServiceMock);
+	}
+
+	@Test
+	public void destroyQueueWithoutAnActiveMQConnectionShouldReturnAFalseResponse() throws Exception {
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+
+		boolean result = nativePurgeService.destroyQueue("QUEUE_001");
+
+		assertThat(result, equalTo(false));
+		Mockito.verify(connectionMock).close();
+		Mockito.verifyZeroInteractions(producerCacheServiceMock);
+	}
+
+	@Test
+	public void destroyQueueShouldReturnAFalseResponseWhenCreateConnectionThrowsAnException() throws Exception {
+		Mockito.doThrow(javax.jms.JMSException.class).when(connectionFactoryMock).createConnection();
+
+		boolean result = nativePurgeService.destroyQueue("QUEUE_001");
+
+		assertThat(result, equalTo(false));
+	}
+
+	/**
+	 * The purge operation of the ActiveMQ QueueViewMBean.
+	 */
+	public interface QueueViewMBean {
+		void purge();
+	}
+
+	/**
+	 * A local queue MBean counting the purges.
+	 */
+	public static class QueueView implements QueueViewMBean {
+		private int purged;
+
+		@Override
+		public void purge() {
+			purged++;
+		}
+	}
+}
@@ -1,5 +1,9 @@
 package com.example.jms.service.queue;
 
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.apache.activemq.command.ActiveMQMapMessage;
+import org.apache.activemq.command.ActiveMQObjectMessage;
+import org.apache.activemq.command.ActiveMQTextMessage;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -8,29 +12,55 @@ import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.context.junit4.SpringRunner;
-
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.jms.model.BatchSendResult;
+import com.example.jms.model.BrowsePage;
+import com.example.jms.model.BrowseResult;
+import com.example.jms.model.BrowsedMessage;
+import com.example.jms.model.DrainOptions;
+import com.example.jms.model.DrainResult;
+import com.example.jms.model.MessageBody;
+import com.example.jms.service.metrics.OperationMetrics;
+import com.example.jms.service.producer.ProducerCacheService;
+import com.example.jms.service.statistics.DestinationStatisticsService;
 import com.example.jms.service.queue.QueueService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Vector;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
-import javax.jms.MessageProducer;
+import javax.jms.ObjectMessage;
 import javax.jms.Queue;
 import javax.jms.QueueBrowser;
 import javax.jms.Session;
 import javax.jms.TextMessage;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.CoreMatchers.startsWith;
 
 @RunWith(SpringRunner.class)
 public class QueueServiceTest {
@@ -38,6 +68,12 @@ public class QueueServiceTest {
 	@MockBean
 	private ConnectionFactory connectionFactoryMock;
 
+	@MockBean
+	private ProducerCacheService producerCacheServiceMock;
+
+	@MockBean
+	private DestinationStatisticsService destinationStatisticsServiceMock;
+
 	@SpyBean
 	private QueueService queueService;
 	
@@ -50,11 +86,7 @@ public class QueueServiceTest {
 	@Mock
 	private QueueBrowser queueBrowserMock;
 	@Mock
-	private MessageProducer messageProducerMock;
-	@Mock
 	private MessageConsumer messageConsumerMock;
-	@Mock
-	private TextMessage textMessageMock;
 
 	private Map<String,String> expectedMessages;
 	private Vector<Message> queueMessages = new Vector<>();
@@ -69,367 +101,528 @@ public class QueueServiceTest {
 		
 		TextMessage message1Mock = Mockito.mock(TextMessage.class);
 		Mockito.doReturn(expectedMessages.get("1")).when(message1Mock).getText();
+		Mockito.doReturn("ID:1").when(message1Mock).getJMSMessageID();
 		queueMessages.add(message1Mock);
 		
 		TextMessage message2Mock = Mockito.mock(TextMessage.class);
 		Mockito.doReturn(expectedMessages.get("2")).when(message2Mock).getText();
+		Mockito.doReturn("ID:2").when(message2Mock).getJMSMessageID();
 		queueMessages.add(message2Mock);
 
 		TextMessage message3Mock = Mockito.mock(TextMessage.class);
 		Mockito.doReturn(expectedMessages.get("3")).when(message3Mock).getText();
+		Mockito.doReturn("ID:3").when(message3Mock).getJMSMessageID();
 		queueMessages.add(message3Mock);		
+		
+		Mockito.doReturn(null).when(destinationStatisticsServiceMock).getQueueSize(Mockito.anyString());
+		ReflectionTestUtils.setField(queueService, "cursorWindow", 0L);
 	}
 	
+	
+	
+
 	@Test
 	public void sendMessageToWithValidArgumentsShouldReturnATrueResponse() throws Exception {
+		Mockito.doReturn(true).when(producerCacheServiceMock).sendTextMessage("QUEUE_001", "someMessage");
+		
+		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		
+		Mockito.verify(producerCacheServiceMock).sendTextMessage("QUEUE_001", "someMessage");
+		assertThat(result, notNullValue());
+		assertThat(result, equalTo(true));
+	}
+
+	@Test
+	public void sendMessageToWithValidArgumentsShouldReturnAFalseResponseWhenTheCachedProducerFails() throws Exception {
+		Mockito.doReturn(false).when(producerCacheServiceMock).sendTextMessage("QUEUE_001", "someMessage");
+		
+		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		
+		assertThat(result, notNullValue());
+		assertThat(result, equalTo(false));
+	}
+
+	@Test
+	public void sendMessagesToWithValidArgumentsShouldReturnTheBatchResult() throws Exception {
+		List<String> messages = Arrays.asList("m1", "m2");
+		BatchSendResult expected = new BatchSendResult("QUEUE_001", 2, 10);
+		Mockito.doReturn(expected).when(producerCacheServiceMock).sendTextMessages("QUEUE_001", messages, 10);
+		
+		BatchSendResult result = queueService.sendMessagesTo("QUEUE_001", messages, 10);
+		
+		assertThat(result, equalTo(expected));
+	}
+
+	@Test
+	public void browserMessagesFromWithValidArgumentsShouldReturnAMapOfMessages() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
 		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
+		Mockito.doReturn(queueMessages.elements()).when(queueBrowserMock).getEnumeration();
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
+		assertThat(result.getCount(), equalTo(expectedMessages.size()));
+		assertThat(result.get(0).getText(), equalTo(expectedMessages.get("1")));
+		assertThat(result.get(1).getText(), equalTo(expectedMessages.get("2")));
+		assertThat(result.get(2).getText(), equalTo(expectedMessages.get("3")));
 	}
-	
+
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenConnectionCloseThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenConsumeZeoMessages() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
 		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
+		Mockito.doReturn(Collections.emptyEnumeration()).when(queueBrowserMock).getEnumeration();
 		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+		Mockito.doNothing().when(connectionMock).close();
 		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionCloseThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenNotFoundMessages() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
 		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doThrow(Exception.class).when(sessionMock).close();
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
+		Mockito.doReturn(null).when(queueBrowserMock).getEnumeration();
+		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionAndConnectionCloseThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenSessionCloseThrowsAnException() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
 		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
+		Mockito.doReturn(Collections.emptyEnumeration()).when(queueBrowserMock).getEnumeration();
 		Mockito.doThrow(Exception.class).when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+		Mockito.doNothing().when(connectionMock).close();
 		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
+		assertThat(result.getCount(), equalTo(0));
 	}
-	
+
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSendMessageThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenConnectionCloseThrowsAnException() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
 		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(messageProducerMock).send(textMessageMock);
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
+		Mockito.doReturn(Collections.emptyEnumeration()).when(queueBrowserMock).getEnumeration();
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doThrow(Exception.class).when(connectionMock).close();
 		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateTextMessageThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenGetEnumeratoinThrowsAnException() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
 		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doThrow(Exception.class).when(sessionMock).createTextMessage(Mockito.anyString());
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
+		Mockito.doThrow(JMSException.class).when(queueBrowserMock).getEnumeration();
 		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+		Mockito.doNothing().when(connectionMock).close();
 		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateProducerThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenCreateBrowserThrowsAnException() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
 		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(sessionMock).createProducer(queueDestinationMock);
+		Mockito.doThrow(JMSException.class).when(sessionMock).createBrowser(queueDestinationMock);
 		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+		Mockito.doNothing().when(connectionMock).close();
 		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateQueueThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenCreateQueueThrowsAnException() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
 		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doThrow(Exception.class).when(sessionMock).createQueue(Mockito.anyString());
+		Mockito.doThrow(JMSException.class).when(sessionMock).createQueue(Mockito.anyString());
 		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+		Mockito.doNothing().when(connectionMock).close();
 		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateSessionThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenCreateSessionThrowsAnException() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
 		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doThrow(JMSException.class).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+		Mockito.doNothing().when(connectionMock).close();
 		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSetClientIDThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldNotSetTheClientIDOfThePooledConnection() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doThrow(Exception.class).when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+		Mockito.doThrow(JMSException.class).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doNothing().when(connectionMock).close();
 		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
+		Mockito.verify(connectionMock, Mockito.never()).setClientID(Mockito.anyString());
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateConnectionThrowsAnException() throws Exception {
-		Mockito.doThrow(Exception.class).when(connectionFactoryMock).createConnection();
+	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenCreateConnectionThrowsAnException() throws Exception {
+		Mockito.doThrow(JMSException.class).when(connectionFactoryMock).createConnection();
 		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+		Mockito.doNothing().when(connectionMock).close();
 		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result.getCount(), equalTo(0));
+		assertThat(result.getError(), equalTo("Browse failed : QUEUE_001"));
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAMapOfMessages() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldReturnTheMessagesInTheBrowserOrderWithTheirHeaders() throws Exception {
+		Vector<Message> browsedMessages = new Vector<>();
+
+		for (int index = 1; index <= 40; index++) { // more than the initial capacity of the result
+			TextMessage messageMock = Mockito.mock(TextMessage.class);
+			Mockito.doReturn("queue message " + index).when(messageMock).getText();
+			Mockito.doReturn("ID:" + index).when(messageMock).getJMSMessageID();
+			Mockito.doReturn(1000L + index).when(messageMock).getJMSTimestamp();
+			Mockito.doReturn(index % 10).when(messageMock).getJMSPriority();
+			browsedMessages.add(messageMock);
+		}
+
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
 		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
-		Mockito.doReturn(queueMessages.elements()).when(queueBrowserMock).getEnumeration();
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
+		Mockito.doReturn(browsedMessages.elements()).when(queueBrowserMock).getEnumeration();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
-		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(expectedMessages.size()));
-		assertThat(result.get("1"), equalTo(expectedMessages.get("1")));
-		assertThat(result.get("2"), equalTo(expectedMessages.get("2")));
-		assertThat(result.get("3"), equalTo(expectedMessages.get("3")));
+		assertThat(result.getResource(), equalTo("QUEUE_001"));
+		assertThat(result.getCount(), equalTo(40));
+		assertThat(result.getMessages().size(), equalTo(40));
+		assertThat(result.getError(), nullValue());
+
+		for (int index = 1; index <= 40; index++) {
+			BrowsedMessage message = result.getMessages().get(index - 1);
+
+			assertThat(message.getNumber(), equalTo(index));
+			assertThat(message.getMessageId(), equalTo("ID:" + index));
+			assertThat(message.getTimestamp(), equalTo(1000L + index));
+			assertThat(message.getPriority(), equalTo(index % 10));
+			assertThat(message.getSize(), equalTo(("queue message " + index).length()));
+			assertThat(message.getText(), equalTo("queue message " + index));
+		}
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenConsumeZeoMessages() throws Exception {
+	public void browserMessagesFromWithMixedMessageTypesShouldRenderEachBodyWithoutStoppingTheBrowse() throws Exception {
+		ActiveMQBytesMessage bytesMessage = new ActiveMQBytesMessage();
+		bytesMessage.writeBytes(new byte[] {0, 1, 2, (byte) 255});
+		bytesMessage.reset(); // read only
+		ActiveMQMapMessage mapMessage = new ActiveMQMapMessage();
+		mapMessage.setString("name", "value");
+		ActiveMQObjectMessage objectMessage = new ActiveMQObjectMessage();
+		objectMessage.setObject(new ArrayList<>(Arrays.asList("a", "b")));
+		ObjectMessage notTrustedMessageMock = Mockito.mock(ObjectMessage.class);
+		Mockito.doThrow(JMSException.class).when(notTrustedMessageMock).getObject();
+		Vector<Message> browsedMessages = new Vector<>(Arrays.asList(bytesMessage, mapMessage, objectMessage,
+				notTrustedMessageMock, queueMessages.get(0)));
+
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
 		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
-		Mockito.doReturn(Collections.emptyEnumeration()).when(queueBrowserMock).getEnumeration();
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
-		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
-		
-		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		Mockito.doReturn(browsedMessages.elements()).when(queueBrowserMock).getEnumeration();
+		
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
+		
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getCount(), equalTo(5));
+		assertThat(result.get(0).getType(), equalTo(MessageBody.Type.BYTES));
+		assertThat(result.get(0).getText(), equalTo("AAEC/w=="));
+		assertThat(result.get(0).getSize(), equalTo(4));
+		assertThat(result.get(1).getType(), equalTo(MessageBody.Type.MAP));
+		assertThat(result.get(1).getText(), equalTo("{\"name\":\"value\"}"));
+		assertThat(result.get(1).getSize(), equalTo(16));
+		assertThat(result.get(2).getType(), equalTo(MessageBody.Type.OBJECT));
+		assertThat(result.get(2).getText(), equalTo("[a, b]"));
+		assertThat(result.get(2).getSize(), equalTo(6));
+		assertThat(result.get(3).getType(), equalTo(MessageBody.Type.OBJECT));
+		assertThat(result.get(3).getText(), nullValue());
+		assertThat(result.get(3).getSize(), equalTo(0));
+		assertThat(result.get(4).getType(), equalTo(MessageBody.Type.TEXT));
+		assertThat(result.get(4).getText(), equalTo(expectedMessages.get("1")));
+	}
+
+	@Test
+	public void browserMessagesFromWithMultiByteTextsShouldReportTheUtf8SizeWithoutRenderingTheOtherBodies() throws Exception {
+		ActiveMQTextMessage textMessage = new ActiveMQTextMessage();
+		textMessage.setText("a\u00e9\u20ac\ud83d\ude00");
+		ActiveMQMapMessage mapMessage = new ActiveMQMapMessage();
+		mapMessage.setString("name", "value");
+		Vector<Message> browsedMessages = new Vector<>(Arrays.asList(textMessage));
+
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
+		Mockito.doReturn(browsedMessages.elements()).when(queueBrowserMock).getEnumeration();
+
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
+
+		assertThat(result.get(0).getSize(), equalTo("a\u00e9\u20ac\ud83d\ude00".getBytes(StandardCharsets.UTF_8).length));
+		assertThat(new MessageBody(mapMessage).getSize(), nullValue());
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenNotFoundMessages() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldPassTheMessagesToTheHandlerInOrder() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
 		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
-		Mockito.doReturn(null).when(queueBrowserMock).getEnumeration();
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
+		Mockito.doReturn(queueMessages.elements()).when(queueBrowserMock).getEnumeration();
+		List<String> handled = new ArrayList<>();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		boolean result = queueService.browseMessagesFrom("QUEUE_001", (number, text) -> handled.add(number + ":" + text));
 		
-		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result, equalTo(true));
+		assertThat(handled, equalTo(Arrays.asList("1:queue message 1", "2:queue message 2", "3:queue message 3")));
+		Mockito.verify(sessionMock).close();
+		Mockito.verify(connectionMock).close();
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenSessionCloseThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldStopWhenTheHandlerReturnsFalse() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
 		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
-		Mockito.doReturn(Collections.emptyEnumeration()).when(queueBrowserMock).getEnumeration();
-		Mockito.doThrow(Exception.class).when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
+		Mockito.doReturn(queueMessages.elements()).when(queueBrowserMock).getEnumeration();
+		List<String> handled = new ArrayList<>();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		boolean result = queueService.browseMessagesFrom("QUEUE_001", (number, text) -> handled.add(text) && number < 2);
 		
-		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result, equalTo(true));
+		assertThat(handled.size(), equalTo(2));
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenConnectionCloseThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldReturnAFalseResponseWhenTheHandlerThrowsAnException() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
 		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
-		Mockito.doReturn(Collections.emptyEnumeration()).when(queueBrowserMock).getEnumeration();
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+		Mockito.doReturn(queueMessages.elements()).when(queueBrowserMock).getEnumeration();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		boolean result = queueService.browseMessagesFrom("QUEUE_001", (number, text) -> {
+			throw new java.io.IOException("someError");
+		});
 		
-		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result, equalTo(false));
+		Mockito.verify(sessionMock).close();
+		Mockito.verify(connectionMock).close();
 	}
 
-	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenGetEnumeratoinThrowsAnException() throws Exception {
+	private void mockQueueBrowser() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
 		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
-		Mockito.doThrow(JMSException.class).when(queueBrowserMock).getEnumeration();
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
-		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
-		
-		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		Mockito.doReturn(queueMessages.elements()).when(queueBrowserMock).getEnumeration();
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenCreateBrowserThrowsAnException() throws Exception {
+	public void countMessagesInWithValidArgumentsShouldCountTheMessagesWithoutReadingTheirBodies() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doThrow(JMSException.class).when(sessionMock).createBrowser(queueDestinationMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock);
+		Mockito.doReturn(queueMessages.elements()).when(queueBrowserMock).getEnumeration();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		Long result = queueService.countMessagesIn("QUEUE_001");
 		
-		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result, equalTo(3L));
+		Mockito.verify((TextMessage) queueMessages.get(0), Mockito.never()).getText();
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenCreateQueueThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doThrow(JMSException.class).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
+	public void countMessagesInWithValidArgumentsShouldReturnNullWhenCreateConnectionThrowsAnException() throws Exception {
+		Mockito.doThrow(JMSException.class).when(connectionFactoryMock).createConnection();
+		
+		assertThat(queueService.countMessagesIn("QUEUE_001"), nullValue());
+	}
+
+	@Test
+	public void browserMessagesFromWithOffsetAndLimitShouldReturnAPageOfMessages() throws Exception {
+		mockQueueBrowser();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowsePage result = queueService.browseMessagesFrom("QUEUE_001", 1, 1, null);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getMessages().size(), equalTo(1));
+		assertThat(result.getMessages().get(0).getNumber(), equalTo(2));
+		assertThat(result.getMessages().get(0).getMessageId(), equalTo("ID:2"));
+		assertThat(result.getMessages().get(0).getText(), equalTo(expectedMessages.get("2")));
+		assertThat(result.isHasMore(), equalTo(true));
+		assertThat(result.getNextCursor(), equalTo("2:0:ID:2"));
+		assertThat(result.getError(), nullValue());
+		Mockito.verify((TextMessage) queueMessages.get(0), Mockito.never()).getText();
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenCreateSessionThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doThrow(JMSException.class).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
+	public void browserMessagesFromWithCursorShouldReturnThePageAfterTheCursorMessage() throws Exception {
+		mockQueueBrowser();
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock, "JMSTimestamp >= 0");
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowsePage result = queueService.browseMessagesFrom("QUEUE_001", 0, 10, "1:0:ID:1");
 		
-		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getMessages().size(), equalTo(2));
+		assertThat(result.getMessages().get(0).getNumber(), equalTo(2));
+		assertThat(result.getMessages().get(1).getNumber(), equalTo(3));
+		assertThat(result.isHasMore(), equalTo(false));
+		assertThat(result.getNextCursor(), nullValue());
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenSetClientIdThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doThrow(JMSException.class).when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
+	public void browserMessagesFromWithCursorShouldBePositionedByTheBrokerFromTheCursorTimestamp() throws Exception {
+		mockQueueBrowser();
+		Mockito.doReturn(200L).when(queueMessages.get(1)).getJMSTimestamp();
+		Mockito.doReturn(300L).when(queueMessages.get(2)).getJMSTimestamp();
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock,
+				"JMSTimestamp >= 200 AND (color = 'red')");
+		Mockito.doReturn(new Vector<>(queueMessages.subList(1, 3)).elements()).when(queueBrowserMock).getEnumeration();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowsePage result = queueService.browseMessagesFrom("QUEUE_001", 0, 10, "2:200:ID:2", "color = 'red'");
 		
-		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getMessages().size(), equalTo(1));
+		assertThat(result.getMessages().get(0).getMessageId(), equalTo("ID:3"));
+		assertThat(result.getMessages().get(0).getNumber(), equalTo(3));
+		Mockito.verify((TextMessage) queueMessages.get(1), Mockito.never()).getText();
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenCreateConnectionThrowsAnException() throws Exception {
+	public void browserMessagesFromWithOutOfOrderTimestampsShouldStartRightAfterTheCursorInTheQueueOrder() throws Exception {
+		ReflectionTestUtils.setField(queueService, "cursorWindow", 5L);
+		TextMessage message4Mock = Mockito.mock(TextMessage.class);
+		Mockito.doReturn("ID:4").when(message4Mock).getJMSMessageID();
+		queueMessages.add(message4Mock);
+		// queue order 1, 2, 3, 4 with the timestamps 10, 12, 11, 9
+		Mockito.doReturn(10L).when(queueMessages.get(0)).getJMSTimestamp();
+		Mockito.doReturn(12L).when(queueMessages.get(1)).getJMSTimestamp();
+		Mockito.doReturn(11L).when(queueMessages.get(2)).getJMSTimestamp();
+		Mockito.doReturn(9L).when(message4Mock).getJMSTimestamp();
+		mockQueueBrowser();
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock, "JMSTimestamp >= 6");
+		
+		BrowsePage result = queueService.browseMessagesFrom("QUEUE_001", 0, 10, "3:11:ID:3");
+		
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getMessages().size(), equalTo(1));
+		assertThat(result.getMessages().get(0).getMessageId(), equalTo("ID:4"));
+		assertThat(result.getMessages().get(0).getNumber(), equalTo(4));
+		Mockito.verify((TextMessage) queueMessages.get(1), Mockito.never()).getText();
+	}
+
+	@Test
+	public void browserMessagesFromWithAConsumedCursorMessageShouldReturnAnEmptyLastPage() throws Exception {
+		mockQueueBrowser();
+		Mockito.doReturn(100L).when(queueMessages.get(0)).getJMSTimestamp();
+		Mockito.doReturn(200L).when(queueMessages.get(1)).getJMSTimestamp();
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock, "JMSTimestamp >= 300");
+		Mockito.doReturn(new Vector<Message>().elements()).when(queueBrowserMock).getEnumeration();
+		
+		BrowsePage result = queueService.browseMessagesFrom("QUEUE_001", 0, 10, "3:300:ID:3");
+		
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getMessages().size(), equalTo(0));
+		assertThat(result.isHasMore(), equalTo(false));
+		assertThat(result.getNextCursor(), nullValue());
+	}
+
+	@Test
+	public void browserMessagesFromWithAConsumedCursorMessageAndNewerMessagesShouldReturnAnEmptyPageWithAnError() throws Exception {
+		mockQueueBrowser();
+		Mockito.doReturn(300L).when(queueMessages.get(2)).getJMSTimestamp();
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock, "JMSTimestamp >= 200");
+		Mockito.doReturn(new Vector<>(queueMessages.subList(2, 3)).elements()).when(queueBrowserMock).getEnumeration();
+		
+		BrowsePage result = queueService.browseMessagesFrom("QUEUE_001", 0, 10, "2:200:ID:2");
+		
+		assertThat(result.getMessages().size(), equalTo(0));
+		assertThat(result.getError(), equalTo("Cursor not found : 2:200:ID:2"));
+	}
+
+	@Test
+	public void browserMessagesFromWithAnInvalidCursorShouldReturnAnEmptyPageWithAnError() throws Exception {
+		BrowsePage result = queueService.browseMessagesFrom("QUEUE_001", 0, 10, "ID:1");
+		
+		assertThat(result.getMessages().size(), equalTo(0));
+		assertThat(result.getError(), equalTo("Invalid cursor : ID:1"));
+		Mockito.verifyZeroInteractions(connectionFactoryMock);
+	}
+
+	@Test
+	public void browserMessagesFromWithOffsetAndLimitShouldReturnAPageWithAnErrorWhenCreateConnectionThrowsAnException() throws Exception {
 		Mockito.doThrow(JMSException.class).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowsePage result = queueService.browseMessagesFrom("QUEUE_001", 0, 10, null);
 		
-		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getMessages().size(), equalTo(0));
+		assertThat(result.getError(), notNullValue());
 	}
 
 	@Test
@@ -585,13 +778,14 @@ public class QueueServiceTest {
 	}
 
 	@Test
-	public void removeMessagesFromWithValidArgumentsShouldReturnAFalseResponseWhenSetClientIDThrowsAnException() throws Exception {
+	public void removeMessagesFromWithValidArgumentsShouldNotSetTheClientIDOfThePooledConnection() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doThrow(JMSException.class).when(connectionMock).setClientID(Mockito.anyString());
+		Mockito.doThrow(JMSException.class).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doNothing().when(connectionMock).close();
 		
 		boolean result = queueService.removeMessagesFrom("QUEUE_001");
 		
+		Mockito.verify(connectionMock, Mockito.never()).setClientID(Mockito.anyString());
 		assertThat(result, notNullValue());
 		assertThat(result, equalTo(false));
 	}
@@ -605,5 +799,174 @@ public class QueueServiceTest {
 		assertThat(result, notNullValue());
 		assertThat(result, equalTo(false));
 	}
-	
+
+	@Test
+	public void removeMessagesFromWithAnEmptyQueueInTheStatisticsShouldNotWaitForMessages() throws Exception {
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createConsumer(queueDestinationMock);
+		Mockito.doReturn(0L).when(destinationStatisticsServiceMock).getQueueSize("QUEUE_001");
+		
+		boolean result = queueService.removeMessagesFrom("QUEUE_001");
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(messageConsumerMock).receiveNoWait();
+		Mockito.verify(messageConsumerMock, Mockito.never()).receive(Mockito.anyLong());
+	}
+
+	@Test
+	public void removeMessagesFromWithDrainOptionsShouldUseTheGivenTimeoutsAndExpectedCount() throws Exception {
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createConsumer(queueDestinationMock);
+		Mockito.doReturn(queueMessages.get(0)).doReturn(null).when(messageConsumerMock).receive(20L);
+		Mockito.doReturn(queueMessages.get(1)).doReturn(null).when(messageConsumerMock).receive(10L);
+		
+		boolean result = queueService.removeMessagesFrom("QUEUE_001", new DrainOptions(20L, 10L, 2L));
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(messageConsumerMock, Mockito.times(1)).receive(20L);
+		Mockito.verify(messageConsumerMock, Mockito.times(1)).receive(10L);
+		Mockito.verifyZeroInteractions(destinationStatisticsServiceMock);
+	}
+
+
+	@Test
+	public void browserMessagesFromWithASelectorShouldCreateTheBrowserWithTheSelector() throws Exception {
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
+		Mockito.doReturn(queueBrowserMock).when(sessionMock).createBrowser(queueDestinationMock, "JMSPriority > 4");
+		Mockito.doReturn(new Vector<>(queueMessages.subList(0, 1)).elements())
+				.when(queueBrowserMock).getEnumeration();
+		
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001", "JMSPriority > 4");
+		
+		assertThat(result.getCount(), equalTo(1));
+		assertThat(result.get(0).getText(), equalTo(expectedMessages.get("1")));
+		Mockito.verify(sessionMock, Mockito.never()).createBrowser(queueDestinationMock);
+	}
+
+	@Test
+	public void removeMessagesFromWithASelectorShouldOnlyConsumeTheMatchingMessages() throws Exception {
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createConsumer(queueDestinationMock, "color = 'red'");
+		Mockito.doReturn(queueMessages.get(0)).doReturn(null).when(messageConsumerMock).receive(Mockito.anyLong());
+		
+		boolean result = queueService.removeMessagesFrom("QUEUE_001", new DrainOptions(20L, 10L, null, "color = 'red'"));
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(sessionMock, Mockito.never()).createConsumer(queueDestinationMock);
+		Mockito.verifyZeroInteractions(destinationStatisticsServiceMock); // the queue size isn't the selected size
+	}
+
+	@Test
+	public void drainMessagesFromWithValidArgumentsShouldReportTheDrainedMessagesByConsumer() throws Exception {
+		AtomicInteger pending = new AtomicInteger(queueMessages.size());
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createConsumer(queueDestinationMock);
+		Mockito.doAnswer(invocation -> pending.getAndDecrement() > 0 ? queueMessages.get(0) : null)
+				.when(messageConsumerMock).receiveNoWait();
+		
+		DrainResult result = queueService.drainMessagesFrom("QUEUE_001", 2, new DrainOptions(10L, 10L, null));
+		
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getResource(), equalTo("QUEUE_001"));
+		assertThat(result.getConsumers(), equalTo(2));
+		assertThat(result.getDrained(), equalTo(3L));
+		Mockito.verify(connectionMock, Mockito.times(2)).createSession(false, Session.DUPS_OK_ACKNOWLEDGE);
+		Mockito.verify(messageConsumerMock, Mockito.times(2)).close();
+		Mockito.verify(sessionMock, Mockito.times(2)).close();
+		Mockito.verify(connectionMock, Mockito.times(2)).close();
+	}
+
+	@Test
+	public void drainMessagesFromShouldRunTheConsumersOnTheSharedDaemonDrainThreads() throws Exception {
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		Mockito.doAnswer(invocation -> {
+			threads.add(Thread.currentThread());
+			return connectionMock;
+		}).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createConsumer(queueDestinationMock);
+
+		queueService.drainMessagesFrom("QUEUE_001", 2, new DrainOptions(10L, 10L, null));
+		ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(queueService, "drainExecutor");
+		queueService.drainMessagesFrom("QUEUE_001", 2, new DrainOptions(10L, 10L, null));
+
+		assertThat(ReflectionTestUtils.getField(queueService, "drainExecutor"), sameInstance(executor));
+		assertThat(executor.isShutdown(), equalTo(false));
+		for (Thread thread : threads) {
+			assertThat(thread.getName(), startsWith("queue-drain-"));
+			assertThat(thread.isDaemon(), equalTo(true));
+		}
+	}
+
+	@Test
+	public void drainMessagesFromWithAnEmptyQueueInTheStatisticsShouldGetTheQueueSizeOnlyOnce() throws Exception {
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createConsumer(queueDestinationMock);
+		Mockito.doReturn(0L).when(destinationStatisticsServiceMock).getQueueSize("QUEUE_001");
+		
+		DrainResult result = queueService.drainMessagesFrom("QUEUE_001", 3, null);
+		
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getDrained(), equalTo(0L));
+		Mockito.verify(destinationStatisticsServiceMock, Mockito.times(1)).getQueueSize("QUEUE_001");
+		Mockito.verify(messageConsumerMock, Mockito.never()).receive(Mockito.anyLong());
+	}
+
+	@Test
+	public void drainMessagesFromWithValidArgumentsShouldReturnAnErrorWhenCreateConnectionThrowsAnException() throws Exception {
+		Mockito.doThrow(new JMSException("some error")).when(connectionFactoryMock).createConnection();
+		
+		DrainResult result = queueService.drainMessagesFrom("QUEUE_001", 2, DrainOptions.DEFAULTS);
+		
+		assertThat(result.getError(), equalTo("some error"));
+		assertThat(result.getDrained(), equalTo(0L));
+	}
+
+	@Test
+	public void browserMessagesFromWithOffsetAndLimitShouldRecordTheOperationMeters() throws Exception {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ReflectionTestUtils.setField(queueService, "meterRegistry", meterRegistry);
+		mockQueueBrowser();
+		
+		BrowsePage result = queueService.browseMessagesFrom("QUEUE_001", 1, 1, null);
+		
+		assertThat(meterRegistry.get(OperationMetrics.OPERATION_TIMER).tags("operation", "browsePage", "resource", "QUEUE_001",
+				"outcome", "success").timer().count(), equalTo(1L));
+		assertThat(meterRegistry.get(OperationMetrics.CONNECTION_TIMER).tags("operation", "browsePage").timer().count(), equalTo(1L));
+		assertThat(meterRegistry.get(OperationMetrics.MESSAGES_SUMMARY).tags("operation", "browsePage").summary().totalAmount(),
+				equalTo(3.0));
+		assertThat(meterRegistry.get(OperationMetrics.BYTES_SUMMARY).tags("operation", "browsePage").summary().totalAmount(),
+				equalTo((double) result.getMessages().get(0).getSize()));
+	}
+
+	@Test
+	public void drainMessagesFromWithValidArgumentsShouldCountTheFailuresByExceptionType() throws Exception {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ReflectionTestUtils.setField(queueService, "meterRegistry", meterRegistry);
+		Mockito.doThrow(new JMSException("some error")).when(connectionFactoryMock).createConnection();
+		
+		queueService.drainMessagesFrom("QUEUE_001", 2, DrainOptions.DEFAULTS);
+		
+		assertThat(meterRegistry.get(OperationMetrics.FAILURES_COUNTER).tags("operation", "drain", "resource", "QUEUE_001",
+				"exception", "JMSException").counter().count(), equalTo(2.0));
+		assertThat(meterRegistry.get(OperationMetrics.OPERATION_TIMER).tags("operation", "drain", "outcome", "failure").timer()
+				.count(), equalTo(1L));
+		assertThat(meterRegistry.get(OperationMetrics.CONNECTION_TIMER).tags("operation", "drain", "outcome", "failure").timer()
+				.count(), equalTo(2L));
+		assertThat(meterRegistry.get(OperationMetrics.MESSAGES_SUMMARY).tags("operation", "drain").summary().totalAmount(),
+				equalTo(0.0));
+	}
 }
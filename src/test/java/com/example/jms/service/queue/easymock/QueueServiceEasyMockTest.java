@@ -8,6 +8,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import com.example.jms.model.BrowseResult;
+import com.example.jms.service.producer.ProducerCacheService;
 import com.example.jms.service.queue.QueueService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -22,13 +24,13 @@ import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
-import javax.jms.MessageProducer;
 import javax.jms.Queue;
 import javax.jms.QueueBrowser;
 import javax.jms.Session;
 import javax.jms.TextMessage;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.equalTo;
 
 @RunWith(EasyMockRunner.class)
@@ -40,6 +42,8 @@ public class QueueServiceEasyMockTest {
 	@Mock
 	private ConnectionFactory connectionFactoryMock;
 	@Mock
+	private ProducerCacheService producerCacheServiceMock;
+	@Mock
 	private Connection connectionMock;
 	@Mock
 	private Session sessionMock;
@@ -48,11 +52,7 @@ public class QueueServiceEasyMockTest {
 	@Mock
 	private QueueBrowser queueBrowserMock;
 	@Mock
-	private MessageProducer messageProducerMock;
-	@Mock
 	private MessageConsumer messageConsumerMock;
-	@Mock
-	private TextMessage textMessageMock;
 	
 	private Map<String,String> expectedMessages;
 	private Vector<Message> queueMessages = new Vector<>();
@@ -66,272 +66,54 @@ public class QueueServiceEasyMockTest {
 		
 		TextMessage message1Mock = EasyMock.mock(TextMessage.class);
 		EasyMock.expect(message1Mock.getText()).andReturn(expectedMessages.get("1"));
+		EasyMock.expect(message1Mock.getJMSMessageID()).andReturn("ID:1").anyTimes();
+		EasyMock.expect(message1Mock.getJMSTimestamp()).andReturn(1000L).anyTimes();
+		EasyMock.expect(message1Mock.getJMSPriority()).andReturn(4).anyTimes();
 		queueMessages.add(message1Mock);
 		
 		TextMessage message2Mock = EasyMock.mock(TextMessage.class);
 		EasyMock.expect(message2Mock.getText()).andReturn(expectedMessages.get("2"));
+		EasyMock.expect(message2Mock.getJMSMessageID()).andReturn("ID:2").anyTimes();
+		EasyMock.expect(message2Mock.getJMSTimestamp()).andReturn(2000L).anyTimes();
+		EasyMock.expect(message2Mock.getJMSPriority()).andReturn(4).anyTimes();
 		queueMessages.add(message2Mock);
 
 		TextMessage message3Mock = EasyMock.mock(TextMessage.class);
 		EasyMock.expect(message3Mock.getText()).andReturn(expectedMessages.get("3"));
+		EasyMock.expect(message3Mock.getJMSMessageID()).andReturn("ID:3").anyTimes();
+		EasyMock.expect(message3Mock.getJMSTimestamp()).andReturn(3000L).anyTimes();
+		EasyMock.expect(message3Mock.getJMSPriority()).andReturn(4).anyTimes();
 		queueMessages.add(message3Mock);
 		
 		EasyMock.replay(message1Mock, message2Mock, message3Mock);
 	}
 	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponse() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(queueDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andReturn(textMessageMock);		
-		messageProducerMock.send(textMessageMock);
-		EasyMock.expectLastCall();		
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock, textMessageMock);
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-
-		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock, textMessageMock);
-
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
 	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenConnectionCloseThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(queueDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andReturn(textMessageMock);
-		messageProducerMock.send(textMessageMock);
-		EasyMock.expectLastCall();		
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));;
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock, textMessageMock);
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-
-		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock, textMessageMock);
-
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionCloseThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(queueDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andReturn(textMessageMock);
-		messageProducerMock.send(textMessageMock);
-		EasyMock.expectLastCall();		
-		sessionMock.close();
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock, textMessageMock);
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-
-		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock, textMessageMock);
-
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionAndConnectionCloseThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(queueDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andReturn(textMessageMock);
-		messageProducerMock.send(textMessageMock);
-		EasyMock.expectLastCall();		
-		sessionMock.close();
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));;
-		connectionMock.close();
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock, textMessageMock);
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-
-		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock, textMessageMock);
-
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
 	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSendMessageThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(queueDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andReturn(textMessageMock);
-		messageProducerMock.send(textMessageMock);
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));		
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock, textMessageMock);
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-
-		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock, textMessageMock);
-
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateTextMessageThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(queueDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andThrow(new JMSException("Some JMS Exception"));		
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock);
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-
-		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, messageProducerMock);
-
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateProducerThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(queueDestinationMock)).andThrow(new JMSException("Some JMS Exception"));		
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock);
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-
-		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock);
-
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateQueueThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andThrow(new JMSException("Some JMS Exception"));		
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock);
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-
-		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock);
-
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateSessionThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andThrow(new JMSException("Some JMS Exception"));		
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock);
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-
-		EasyMock.verify(connectionFactoryMock, connectionMock);
-
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSetClientIDThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
+	public void sendMessageToWithValidArgumentsShouldReturnATrueResponse() throws Exception {
+		EasyMock.expect(producerCacheServiceMock.sendTextMessage("QUEUE_001", "someMessage")).andReturn(true);
 		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock);
+		EasyMock.replay(connectionFactoryMock, producerCacheServiceMock);
 		
 		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
 
-		EasyMock.verify(connectionFactoryMock, connectionMock);
+		EasyMock.verify(connectionFactoryMock, producerCacheServiceMock);
 
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result, equalTo(true));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateConnectionThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andThrow(new JMSException("Some JMS Exception"));
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
+	public void sendMessageToWithValidArgumentsShouldReturnAFalseResponseWhenTheCachedProducerFails() throws Exception {
+		EasyMock.expect(producerCacheServiceMock.sendTextMessage("QUEUE_001", "someMessage")).andReturn(false);
 		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock);
+		EasyMock.replay(connectionFactoryMock, producerCacheServiceMock);
 		
 		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
 
-		EasyMock.verify(connectionFactoryMock);
+		EasyMock.verify(connectionFactoryMock, producerCacheServiceMock);
 
 		assertThat(result, notNullValue());
 		assertThat(result, equalTo(false));
@@ -340,8 +122,6 @@ public class QueueServiceEasyMockTest {
 	@Test
 	public void browserMessagesFromWithValidArgumentsShouldReturnAMapOfMessages() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
@@ -355,22 +135,26 @@ public class QueueServiceEasyMockTest {
 		
 		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(expectedMessages.size()));
-		assertThat(result.get("1"), equalTo(expectedMessages.get("1")));
-		assertThat(result.get("2"), equalTo(expectedMessages.get("2")));
-		assertThat(result.get("3"), equalTo(expectedMessages.get("3")));
+		assertThat(result.getCount(), equalTo(expectedMessages.size()));
+		assertThat(result.get(0).getText(), equalTo(expectedMessages.get("1")));
+		assertThat(result.get(1).getText(), equalTo(expectedMessages.get("2")));
+		assertThat(result.get(2).getText(), equalTo(expectedMessages.get("3")));
+		assertThat(result.get(2).getNumber(), equalTo(3));
+		assertThat(result.get(2).getMessageId(), equalTo("ID:3"));
+		assertThat(result.get(2).getTimestamp(), equalTo(3000L));
+		assertThat(result.get(2).getPriority(), equalTo(4));
+		assertThat(result.get(2).getSize(), equalTo(expectedMessages.get("3").length()));
+		assertThat(result.getError(), nullValue());
 	}
 
 	@Test
 	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenConsumeZeoMessages() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
@@ -384,19 +168,17 @@ public class QueueServiceEasyMockTest {
 		
 		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
 	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenNotFoundMessages() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
@@ -410,19 +192,17 @@ public class QueueServiceEasyMockTest {
 		
 		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
 	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenSessionCloseThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
@@ -436,19 +216,17 @@ public class QueueServiceEasyMockTest {
 		
 		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
 	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenConnectionCloseThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
@@ -462,19 +240,17 @@ public class QueueServiceEasyMockTest {
 		
 		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
 	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenGetEnumeratoinThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
@@ -488,19 +264,17 @@ public class QueueServiceEasyMockTest {
 		
 		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock, queueBrowserMock);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
 	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenCreateBrowserThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
@@ -513,19 +287,17 @@ public class QueueServiceEasyMockTest {
 		
 		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock);
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock, queueDestinationMock);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
 	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenCreateQueueThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
@@ -537,19 +309,17 @@ public class QueueServiceEasyMockTest {
 		
 		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock);
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		EasyMock.verify(connectionFactoryMock, connectionMock, sessionMock);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
 	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenCreateSessionThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andThrow(new JMSException("Some JMS Exception"));
@@ -560,32 +330,31 @@ public class QueueServiceEasyMockTest {
 		
 		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock);
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		EasyMock.verify(connectionFactoryMock, connectionMock);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenSetClientIdThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldNotSetTheClientIDOfThePooledConnection() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
-		sessionMock.close();
+		connectionMock.start();
 		EasyMock.expectLastCall();
+		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andThrow(new JMSException("Some JMS Exception"));
 		connectionMock.close();
 		EasyMock.expectLastCall();
 		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock);
+		EasyMock.replay(connectionFactoryMock, connectionMock);
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		EasyMock.verify(connectionFactoryMock, connectionMock);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -598,24 +367,23 @@ public class QueueServiceEasyMockTest {
 		
 		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock);
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		EasyMock.verify(connectionFactoryMock);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
 	public void removeMessagesFromWithValidArgumentsShouldReturnATrueResponse() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
 		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
 		EasyMock.expect(sessionMock.createConsumer(queueDestinationMock)).andReturn(messageConsumerMock);
+		EasyMock.expect(messageConsumerMock.receiveNoWait()).andReturn(null).anyTimes();
 		EasyMock.expect(messageConsumerMock.receive(EasyMock.anyLong())).andReturn(queueMessages.get(0)).andReturn(null);
 		messageConsumerMock.close();
 		EasyMock.expectLastCall();
@@ -637,13 +405,12 @@ public class QueueServiceEasyMockTest {
 	@Test
 	public void removeMessagesFromWithValidArgumentsShouldReturnATrueResponseWhenNotReceiveMessages() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
 		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
 		EasyMock.expect(sessionMock.createConsumer(queueDestinationMock)).andReturn(messageConsumerMock);
+		EasyMock.expect(messageConsumerMock.receiveNoWait()).andReturn(null).anyTimes();
 		EasyMock.expect(messageConsumerMock.receive(EasyMock.anyLong())).andReturn(null);
 		messageConsumerMock.close();
 		EasyMock.expectLastCall();
@@ -665,13 +432,12 @@ public class QueueServiceEasyMockTest {
 	@Test
 	public void removeMessagesFromWithValidArgumentsShouldReturnATrueResponseWhenMessageConsumerCloseThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
 		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
 		EasyMock.expect(sessionMock.createConsumer(queueDestinationMock)).andReturn(messageConsumerMock);
+		EasyMock.expect(messageConsumerMock.receiveNoWait()).andReturn(null).anyTimes();
 		EasyMock.expect(messageConsumerMock.receive(EasyMock.anyLong())).andReturn(null);
 		messageConsumerMock.close();
 		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
@@ -693,13 +459,12 @@ public class QueueServiceEasyMockTest {
 	@Test
 	public void removeMessagesFromWithValidArgumentsShouldReturnATrueResponseWhenSessionCloseThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
 		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
 		EasyMock.expect(sessionMock.createConsumer(queueDestinationMock)).andReturn(messageConsumerMock);
+		EasyMock.expect(messageConsumerMock.receiveNoWait()).andReturn(null).anyTimes();
 		EasyMock.expect(messageConsumerMock.receive(EasyMock.anyLong())).andReturn(null);
 		messageConsumerMock.close();
 		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
@@ -721,13 +486,12 @@ public class QueueServiceEasyMockTest {
 	@Test
 	public void removeMessagesFromWithValidArgumentsShouldReturnATrueResponseWhenConnectionCloseThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
 		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
 		EasyMock.expect(sessionMock.createConsumer(queueDestinationMock)).andReturn(messageConsumerMock);
+		EasyMock.expect(messageConsumerMock.receiveNoWait()).andReturn(null).anyTimes();
 		EasyMock.expect(messageConsumerMock.receive(EasyMock.anyLong())).andReturn(null);
 		messageConsumerMock.close();
 		EasyMock.expectLastCall();
@@ -749,13 +513,12 @@ public class QueueServiceEasyMockTest {
 	@Test
 	public void removeMessagesFromWithValidArgumentsShouldReturnAFalseResponseWhenReceiveThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
 		EasyMock.expect(sessionMock.createQueue(EasyMock.anyString())).andReturn(queueDestinationMock);
 		EasyMock.expect(sessionMock.createConsumer(queueDestinationMock)).andReturn(messageConsumerMock);
+		EasyMock.expect(messageConsumerMock.receiveNoWait()).andReturn(null).anyTimes();
 		EasyMock.expect(messageConsumerMock.receive(EasyMock.anyLong())).andThrow(new JMSException("Some JMS Exception"));
 		messageConsumerMock.close();
 		EasyMock.expectLastCall();
@@ -777,8 +540,6 @@ public class QueueServiceEasyMockTest {
 	@Test
 	public void removeMessagesFromWithValidArgumentsShouldReturnAFalseResponseWhenCreateConsumerThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
@@ -804,8 +565,6 @@ public class QueueServiceEasyMockTest {
 	@Test
 	public void removeMessagesFromWithValidArgumentsShouldReturnAFalseResponseWhenCreateQueueThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
@@ -830,8 +589,6 @@ public class QueueServiceEasyMockTest {
 	@Test
 	public void removeMessagesFromWithValidArgumentsShouldReturnAFalseResponseWhenCreateSessionThrowsAnException() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
 		connectionMock.start();
 		EasyMock.expectLastCall();
 		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andThrow(new JMSException("Some JMS Exception"));
@@ -853,18 +610,15 @@ public class QueueServiceEasyMockTest {
 	}
 
 	@Test
-	public void removeMessagesFromWithValidArgumentsShouldReturnAFalseResponseWhenSetClientIDThrowsAnException() throws Exception {
+	public void removeMessagesFromWithValidArgumentsShouldNotSetTheClientIDOfThePooledConnection() throws Exception {
 		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
-		messageConsumerMock.close();
-		EasyMock.expectLastCall();
-		sessionMock.close();
+		connectionMock.start();
 		EasyMock.expectLastCall();
+		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andThrow(new JMSException("Some JMS Exception"));
 		connectionMock.close();
 		EasyMock.expectLastCall();
 		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, messageConsumerMock);
+		EasyMock.replay(connectionFactoryMock, connectionMock);
 		
 		boolean result = queueService.removeMessagesFrom("QUEUE_001");
 		
@@ -6,6 +6,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import com.example.jms.model.BrowseResult;
+import com.example.jms.service.producer.ProducerCacheService;
 import com.example.jms.service.queue.QueueService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -20,7 +22,6 @@ import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
-import javax.jms.MessageProducer;
 import javax.jms.Queue;
 import javax.jms.QueueBrowser;
 import javax.jms.Session;
@@ -35,13 +36,12 @@ public class QueueServiceOldMockitoTest {
 	private QueueService queueService = new QueueService();
 	
 	private ConnectionFactory connectionFactoryMock;
+	private ProducerCacheService producerCacheServiceMock;
 	private Connection connectionMock;
 	private Session sessionMock;
 	private Queue queueDestinationMock;
 	private QueueBrowser queueBrowserMock;
-	private MessageProducer messageProducerMock;
 	private MessageConsumer messageConsumerMock;
-	private TextMessage textMessageMock;
 	
 	private Map<String,String> expectedMessages;
 	private Vector<Message> queueMessages = new Vector<>();
@@ -49,13 +49,12 @@ public class QueueServiceOldMockitoTest {
 	@Before
 	public void setUp() throws Exception {
 		connectionFactoryMock = Mockito.mock(ConnectionFactory.class);
+		producerCacheServiceMock = Mockito.mock(ProducerCacheService.class);
 		connectionMock = Mockito.mock(Connection.class);
 		sessionMock = Mockito.mock(Session.class);
 		queueDestinationMock = Mockito.mock(Queue.class);
 		queueBrowserMock = Mockito.mock(QueueBrowser.class);
-		messageProducerMock = Mockito.mock(MessageProducer.class);
 		messageConsumerMock = Mockito.mock(MessageConsumer.class);
-		textMessageMock = Mockito.mock(TextMessage.class);
 				
 		expectedMessages = new HashMap<>();
 		expectedMessages.put("1", "queue message 1");
@@ -77,176 +76,23 @@ public class QueueServiceOldMockitoTest {
 		MockitoAnnotations.initMocks(this);
 	}
 	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponse() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
 	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenConnectionCloseThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionCloseThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doThrow(Exception.class).when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionAndConnectionCloseThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doThrow(Exception.class).when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
 	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSendMessageThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(messageProducerMock).send(textMessageMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateTextMessageThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doThrow(Exception.class).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateProducerThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(queueDestinationMock).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(sessionMock).createProducer(queueDestinationMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateQueueThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doThrow(Exception.class).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateSessionThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSetClientIDThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doThrow(Exception.class).when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+	public void sendMessageToWithValidArgumentsShouldReturnATrueResponse() throws Exception {
+		Mockito.doReturn(true).when(producerCacheServiceMock).sendTextMessage("QUEUE_001", "someMessage");
 		
 		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
 		
+		Mockito.verify(producerCacheServiceMock).sendTextMessage("QUEUE_001", "someMessage");
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result, equalTo(true));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateConnectionThrowsAnException() throws Exception {
-		Mockito.doThrow(Exception.class).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+	public void sendMessageToWithValidArgumentsShouldReturnAFalseResponseWhenTheCachedProducerFails() throws Exception {
+		Mockito.doReturn(false).when(producerCacheServiceMock).sendTextMessage("QUEUE_001", "someMessage");
 		
 		boolean result = queueService.sendMessageTo("QUEUE_001", "someMessage");
 		
@@ -265,13 +111,13 @@ public class QueueServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(expectedMessages.size()));
-		assertThat(result.get("1"), equalTo(expectedMessages.get("1")));
-		assertThat(result.get("2"), equalTo(expectedMessages.get("2")));
-		assertThat(result.get("3"), equalTo(expectedMessages.get("3")));
+		assertThat(result.getCount(), equalTo(expectedMessages.size()));
+		assertThat(result.get(0).getText(), equalTo(expectedMessages.get("1")));
+		assertThat(result.get(1).getText(), equalTo(expectedMessages.get("2")));
+		assertThat(result.get(2).getText(), equalTo(expectedMessages.get("3")));
 	}
 
 	@Test
@@ -285,10 +131,10 @@ public class QueueServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -302,10 +148,10 @@ public class QueueServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -319,10 +165,10 @@ public class QueueServiceOldMockitoTest {
 		Mockito.doThrow(Exception.class).when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -336,10 +182,10 @@ public class QueueServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doThrow(Exception.class).when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -353,10 +199,10 @@ public class QueueServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -369,10 +215,10 @@ public class QueueServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -384,10 +230,10 @@ public class QueueServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -398,23 +244,23 @@ public class QueueServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAnEmptyMapOfMessagesWhenSetClientIdThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldNotSetTheClientIDOfThePooledConnection() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doThrow(JMSException.class).when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
+		Mockito.doThrow(JMSException.class).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
+		Mockito.verify(connectionMock, Mockito.never()).setClientID(Mockito.anyString());
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -423,10 +269,10 @@ public class QueueServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = queueService.browseMessagesFrom("QUEUE_001");
+		BrowseResult result = queueService.browseMessagesFrom("QUEUE_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -582,13 +428,14 @@ public class QueueServiceOldMockitoTest {
 	}
 
 	@Test
-	public void removeMessagesFromWithValidArgumentsShouldReturnAFalseResponseWhenSetClientIDThrowsAnException() throws Exception {
+	public void removeMessagesFromWithValidArgumentsShouldNotSetTheClientIDOfThePooledConnection() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doThrow(JMSException.class).when(connectionMock).setClientID(Mockito.anyString());
+		Mockito.doThrow(JMSException.class).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doNothing().when(connectionMock).close();
 		
 		boolean result = queueService.removeMessagesFrom("QUEUE_001");
 		
+		Mockito.verify(connectionMock, Mockito.never()).setClientID(Mockito.anyString());
 		assertThat(result, notNullValue());
 		assertThat(result, equalTo(false));
 	}
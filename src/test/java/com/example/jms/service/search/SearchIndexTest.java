@@ -0,0 +1,143 @@
+package com.example.jms.service.search;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.example.jms.model.SearchResult;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.jms.BytesMessage;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+
+public class SearchIndexTest {
+
+	private SearchIndex searchIndex;
+
+	@Before
+	public void setUp() throws Exception {
+		searchIndex = new SearchIndex("QUEUE_001");
+	}
+
+	private static TextMessage createMessage(final String messageId, final String text) throws Exception {
+		TextMessage messageMock = Mockito.mock(TextMessage.class);
+		Mockito.doReturn(messageId).when(messageMock).getJMSMessageID();
+		Mockito.doReturn(text).when(messageMock).getText();
+		return messageMock;
+	}
+
+	private static Map<String, Integer> positions(final String... messageIds) {
+		Map<String, Integer> positions = new HashMap<>();
+
+		for (int index = 0; index < messageIds.length; index++) {
+			positions.put(messageIds[index], index + 1);
+		}
+
+		return positions;
+	}
+
+	@Test
+	public void tokenizeShouldSplitTheTextInLowerCaseWords() throws Exception {
+		List<String> tokens = new ArrayList<>();
+
+		SearchIndex.tokenize("Order #1234 shipped, to: ACME-Corp", tokens);
+
+		assertThat(tokens, equalTo(Arrays.asList("order", "1234", "shipped", "to", "acme", "corp")));
+	}
+
+	@Test
+	public void searchShouldReturnTheMessagesWithAllTheWordsInTheBrowseOrder() throws Exception {
+		List<SearchIndex.IndexedMessage> added = Arrays.asList(
+				SearchIndex.index(1, createMessage("ID:1", "order 1 shipped")),
+				SearchIndex.index(2, createMessage("ID:2", "order 2 cancelled")),
+				SearchIndex.index(3, createMessage("ID:3", "Order 3 SHIPPED")));
+		searchIndex.update(added, positions("ID:1", "ID:2", "ID:3"), 1);
+
+		SearchResult result = searchIndex.search("shipped ORDER", 10);
+
+		assertThat(result.getCount(), equalTo(2));
+		assertThat(result.getIndexedMessages(), equalTo(3));
+		assertThat(result.getMessages().get(0).getMessageId(), equalTo("ID:1"));
+		assertThat(result.getMessages().get(1).getMessageId(), equalTo("ID:3"));
+		assertThat(result.getMessages().get(1).getNumber(), equalTo(3));
+		assertThat(searchIndex.search("shipped refunded", 10).getCount(), equalTo(0));
+	}
+
+	@Test
+	public void searchShouldMatchTheHeadersAndProperties() throws Exception {
+		TextMessage messageMock = createMessage("ID:host-1", "some text");
+		Mockito.doReturn("corr-42").when(messageMock).getJMSCorrelationID();
+		Mockito.doReturn(Collections.enumeration(Arrays.asList("customer"))).when(messageMock).getPropertyNames();
+		Mockito.doReturn("ACME").when(messageMock).getObjectProperty("customer");
+		searchIndex.update(Arrays.asList(SearchIndex.index(1, messageMock)), positions("ID:host-1"), 1);
+
+		assertThat(searchIndex.search("corr-42", 10).getCount(), equalTo(1));
+		assertThat(searchIndex.search("acme", 10).getCount(), equalTo(1));
+		assertThat(searchIndex.search("ID:host-1", 10).getCount(), equalTo(1));
+	}
+
+	@Test
+	public void indexShouldNotTokenizeTheBytesBodies() throws Exception {
+		BytesMessage messageMock = Mockito.mock(BytesMessage.class);
+		Mockito.doReturn("ID:1").when(messageMock).getJMSMessageID();
+		Mockito.doReturn(3L).when(messageMock).getBodyLength();
+
+		SearchIndex.IndexedMessage indexedMessage = SearchIndex.index(1, messageMock);
+
+		assertThat(Arrays.asList(indexedMessage.getTokens()), equalTo(Arrays.asList("id", "1")));
+	}
+
+	@Test
+	public void updateShouldRemoveTheMessagesThatAreNotInTheSnapshot() throws Exception {
+		searchIndex.update(Arrays.asList(SearchIndex.index(1, createMessage("ID:1", "order one")),
+				SearchIndex.index(2, createMessage("ID:2", "order two"))), positions("ID:1", "ID:2"), 1);
+		long memory = searchIndex.getMemory();
+
+		searchIndex.update(Arrays.asList(SearchIndex.index(2, createMessage("ID:3", "order three"))),
+				positions("ID:2", "ID:3"), 2);
+
+		SearchResult result = searchIndex.search("order", 10);
+
+		assertThat(result.getCount(), equalTo(2));
+		assertThat(result.getMessages().get(0).getMessageId(), equalTo("ID:2"));
+		assertThat(result.getMessages().get(0).getNumber(), equalTo(1));
+		assertThat(searchIndex.search("one", 10).getCount(), equalTo(0));
+		assertThat(searchIndex.contains("ID:1"), equalTo(false));
+		assertThat(searchIndex.getSnapshot(), equalTo(2L));
+		assertThat(searchIndex.getMemory() < memory + 100, equalTo(true));
+
+		searchIndex.update(Collections.<SearchIndex.IndexedMessage>emptyList(), Collections.<String, Integer>emptyMap(), 3);
+
+		assertThat(searchIndex.getSize(), equalTo(0));
+		assertThat(searchIndex.getMemory(), equalTo(0L));
+	}
+
+	@Test
+	public void searchShouldLimitTheMessagesButCountAllTheMatches() throws Exception {
+		List<SearchIndex.IndexedMessage> added = new ArrayList<>();
+		String[] messageIds = new String[20];
+
+		for (int index = 0; index < messageIds.length; index++) {
+			messageIds[index] = "ID:" + index;
+			added.add(SearchIndex.index(index + 1, (Message) createMessage(messageIds[index], "message " + index)));
+		}
+
+		searchIndex.update(added, positions(messageIds), 1);
+		SearchResult result = searchIndex.search("message", 5);
+
+		assertThat(result.getCount(), equalTo(20));
+		assertThat(result.getMessages().size(), equalTo(5));
+		assertThat(result.getMessages().get(4).getMessageId(), equalTo("ID:4"));
+	}
+}
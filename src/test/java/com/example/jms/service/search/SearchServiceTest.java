@@ -0,0 +1,157 @@
+package com.example.jms.service.search;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.jms.model.MessageHandler;
+import com.example.jms.model.SearchResult;
+import com.example.jms.service.queue.QueueService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+@RunWith(SpringRunner.class)
+public class SearchServiceTest {
+
+	@MockBean
+	private QueueService queueServiceMock;
+
+	@SpyBean
+	private SearchService searchService;
+
+	private Vector<Message> queueMessages = new Vector<>();
+
+	@Before
+	public void setUp() throws Exception {
+		searchService.evict("QUEUE_001");
+		searchService.evict("QUEUE_002");
+		ReflectionTestUtils.setField(searchService, "maxMemory", 67108864L);
+
+		queueMessages.add(createMessage("ID:1", "order 1 shipped"));
+		queueMessages.add(createMessage("ID:2", "order 2 cancelled"));
+
+		Mockito.doAnswer(invocation -> {
+			MessageHandler messageHandler = invocation.getArgumentAt(2, MessageHandler.class);
+			int number = 1;
+
+			for (Message message : new Vector<>(queueMessages)) {
+				messageHandler.handle(number++, message);
+			}
+
+			return true;
+		}).when(queueServiceMock).browseMessagesFrom(Mockito.anyString(), Mockito.anyString(), Mockito.any(MessageHandler.class));
+	}
+
+	private static TextMessage createMessage(final String messageId, final String text) throws Exception {
+		TextMessage messageMock = Mockito.mock(TextMessage.class);
+		Mockito.doReturn(messageId).when(messageMock).getJMSMessageID();
+		Mockito.doReturn(text).when(messageMock).getText();
+		return messageMock;
+	}
+
+	@Test
+	public void searchWithValidArgumentsShouldBuildTheIndexOnlyOnce() throws Exception {
+		SearchResult result = searchService.search("QUEUE_001", "shipped", 10);
+
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getCount(), equalTo(1));
+		assertThat(result.getMessages().get(0).getMessageId(), equalTo("ID:1"));
+
+		searchService.search("QUEUE_001", "order", 10);
+		Mockito.verify(queueServiceMock, Mockito.times(1)).browseMessagesFrom(Mockito.eq("QUEUE_001"), Mockito.anyString(),
+				Mockito.any(MessageHandler.class));
+	}
+
+	@Test
+	public void refreshIndexesShouldOnlyIndexTheNewMessages() throws Exception {
+		searchService.search("QUEUE_001", "order", 10);
+		TextMessage firstMessage = (TextMessage) queueMessages.remove(0);
+		queueMessages.add(createMessage("ID:3", "order 3 shipped"));
+
+		searchService.refreshIndexes();
+		SearchResult result = searchService.search("QUEUE_001", "shipped", 10);
+
+		assertThat(result.getCount(), equalTo(1));
+		assertThat(result.getMessages().get(0).getMessageId(), equalTo("ID:3"));
+		assertThat(result.getMessages().get(0).getNumber(), equalTo(2));
+		Mockito.verify(firstMessage, Mockito.times(1)).getText(); // indexed once
+		Mockito.verify((TextMessage) queueMessages.get(0), Mockito.times(1)).getText();
+	}
+
+	@Test
+	public void searchWithABuiltIndexShouldNotWaitForTheRefreshBrowse() throws Exception {
+		searchService.search("QUEUE_001", "order", 10);
+		CountDownLatch browsing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.doAnswer(invocation -> {
+			browsing.countDown();
+			release.await();
+			return true;
+		}).when(queueServiceMock).browseMessagesFrom(Mockito.anyString(), Mockito.anyString(), Mockito.any(MessageHandler.class));
+		CompletableFuture<Void> refresh = CompletableFuture.runAsync(searchService::refreshIndexes);
+
+		try {
+			browsing.await(5, TimeUnit.SECONDS);
+
+			SearchResult result = CompletableFuture.supplyAsync(() -> searchService.search("QUEUE_001", "shipped", 10))
+					.get(5, TimeUnit.SECONDS);
+
+			assertThat(result.getError(), nullValue());
+			assertThat(result.getCount(), equalTo(1));
+		} finally {
+			release.countDown();
+			refresh.get(5, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void searchShouldReturnAnErrorWhenTheBrowseFails() throws Exception {
+		Mockito.doReturn(false).when(queueServiceMock).browseMessagesFrom(Mockito.anyString(), Mockito.anyString(),
+				Mockito.any(MessageHandler.class));
+
+		SearchResult result = searchService.search("QUEUE_001", "order", 10);
+
+		assertThat(result.getError(), equalTo("Index failed : QUEUE_001"));
+		assertThat(result.getCount(), equalTo(0));
+	}
+
+	@Test
+	public void searchWithATopicOrNotConfiguredResourceShouldReturnAnError() throws Exception {
+		assertThat(searchService.search("TOPIC_001", "order", 10).getError(), equalTo("Search isn't supported for topics : TOPIC_001"));
+		assertThat(searchService.search("NOT_CONFIGURED", "order", 10).getError(), equalTo("Not configured resource : NOT_CONFIGURED"));
+		Mockito.verifyZeroInteractions(queueServiceMock);
+	}
+
+	@Test
+	public void searchShouldEvictTheLeastRecentlySearchedIndexWhenTheMaxMemoryIsExceeded() throws Exception {
+		searchService.search("QUEUE_001", "order", 10);
+		ReflectionTestUtils.setField(searchService, "maxMemory", searchService.getMemory() + 1);
+
+		searchService.search("QUEUE_002", "order", 10);
+		List<String> indexedResources = searchService.getIndexedResources();
+
+		assertThat(indexedResources, equalTo(Arrays.asList("QUEUE_002")));
+
+		searchService.search("QUEUE_001", "order", 10); // built again
+		Mockito.verify(queueServiceMock, Mockito.times(2)).browseMessagesFrom(Mockito.eq("QUEUE_001"), Mockito.anyString(),
+				Mockito.any(MessageHandler.class));
+	}
+}
@@ -0,0 +1,217 @@
+package com.example.jms.service.statistics;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TemporaryQueue;
+import javax.jms.Topic;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.equalTo;
+
+@RunWith(SpringRunner.class)
+public class DestinationStatisticsServiceTest {
+
+	@MockBean
+	private ConnectionFactory connectionFactoryMock;
+
+	@SpyBean
+	private DestinationStatisticsService destinationStatisticsService;
+
+	@Mock
+	private Connection connectionMock;
+	@Mock
+	private Session sessionMock;
+	@Mock
+	private TemporaryQueue replyQueueMock;
+	@Mock
+	private Queue statisticsQueueMock;
+	@Mock
+	private MessageConsumer messageConsumerMock;
+	@Mock
+	private MessageProducer messageProducerMock;
+	@Mock
+	private Message requestMock;
+	@Mock
+	private MapMessage replyMock;
+
+	/**
+	 * Destination MBean with the counters of the ActiveMQ QueueViewMBean.
+	 */
+	public interface QueueViewStubMBean {
+		long getQueueSize();
+		long getEnqueueCount();
+		long getDequeueCount();
+		long getConsumerCount();
+		long getProducerCount();
+	}
+
+	public static class QueueViewStub implements QueueViewStubMBean {
+		public long getQueueSize() { return 3; }
+		public long getEnqueueCount() { return 10; }
+		public long getDequeueCount() { return 7; }
+		public long getConsumerCount() { return 1; }
+		public long getProducerCount() { return 0; }
+	}
+
+	@After
+	public void tearDown() {
+		ReflectionTestUtils.setField(destinationStatisticsService, "enabled", false);
+	}
+
+	private void mockStatisticsRequest() throws Exception {
+		ReflectionTestUtils.setField(destinationStatisticsService, "enabled", true);
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(replyQueueMock).when(sessionMock).createTemporaryQueue();
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createConsumer(replyQueueMock);
+		Mockito.doReturn(statisticsQueueMock).when(sessionMock).createQueue("ActiveMQ.Statistics.Destination.QUEUE_001");
+		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(statisticsQueueMock);
+		Mockito.doReturn(requestMock).when(sessionMock).createMessage();
+	}
+
+	@Test
+	public void getQueueSizeWithStatisticsDisabledShouldReturnNull() throws Exception {
+		Long result = destinationStatisticsService.getQueueSize("QUEUE_001");
+
+		assertThat(result, nullValue());
+		Mockito.verifyZeroInteractions(connectionFactoryMock);
+	}
+
+	@Test
+	public void getQueueSizeWithValidArgumentsShouldReturnTheSizeFromTheStatisticsReply() throws Exception {
+		mockStatisticsRequest();
+		Mockito.doReturn(replyMock).when(messageConsumerMock).receive(Mockito.anyLong());
+		Mockito.doReturn(Collections.enumeration(Collections.singletonList("size"))).when(replyMock).getMapNames();
+		Mockito.doReturn(42L).when(replyMock).getObject("size");
+
+		Long result = destinationStatisticsService.getQueueSize("QUEUE_001");
+
+		assertThat(result, equalTo(42L));
+		Mockito.verify(requestMock).setJMSReplyTo(replyQueueMock);
+		Mockito.verify(messageProducerMock).send(requestMock);
+		Mockito.verify(replyQueueMock).delete();
+		Mockito.verify(sessionMock).close();
+		Mockito.verify(connectionMock).close();
+	}
+
+	@Test
+	public void getStatisticsWithValidArgumentsShouldReturnNullWhenThereIsNoReply() throws Exception {
+		mockStatisticsRequest();
+
+		Map<String, Object> result = destinationStatisticsService.getStatistics("QUEUE_001");
+
+		assertThat(result, nullValue());
+		Mockito.verify(connectionMock).close();
+	}
+
+	@Test
+	public void getStatisticsWithValidArgumentsShouldReturnNullWhenCreateConnectionThrowsAnException() throws Exception {
+		ReflectionTestUtils.setField(destinationStatisticsService, "enabled", true);
+		Mockito.doThrow(JMSException.class).when(connectionFactoryMock).createConnection();
+
+		Map<String, Object> result = destinationStatisticsService.getStatistics("QUEUE_001");
+
+		assertThat(result, nullValue());
+	}
+
+	@Test
+	public void getStatisticsWithNullArgumentsShouldReturnNull() throws Exception {
+		ReflectionTestUtils.setField(destinationStatisticsService, "enabled", true);
+
+		Map<String, Object> result = destinationStatisticsService.getStatistics(null);
+
+		assertThat(result, nullValue());
+		Mockito.verifyZeroInteractions(connectionFactoryMock);
+	}
+
+
+	@Test
+	public void getStatisticsWithATopicShouldSendTheRequestToTheStatisticsTopic() throws Exception {
+		mockStatisticsRequest();
+		Topic statisticsTopicMock = Mockito.mock(Topic.class);
+		Mockito.doReturn(statisticsTopicMock).when(sessionMock).createTopic("ActiveMQ.Statistics.Destination.TOPIC_001");
+		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(statisticsTopicMock);
+		Mockito.doReturn(replyMock).when(messageConsumerMock).receive(Mockito.anyLong());
+		Mockito.doReturn(Collections.enumeration(Collections.singletonList("consumerCount"))).when(replyMock).getMapNames();
+		Mockito.doReturn(3L).when(replyMock).getObject("consumerCount");
+
+		Map<String, Object> result = destinationStatisticsService.getStatistics("TOPIC_001", true);
+
+		assertThat(result.get("consumerCount"), equalTo(3L));
+		Mockito.verify(sessionMock, Mockito.never()).createQueue(Mockito.anyString());
+	}
+
+	@Test
+	public void getJmxStatisticsWithARegisteredMBeanShouldReturnItsCounters() throws Exception {
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		ObjectName objectName = new ObjectName("org.apache.activemq:type=Broker,brokerName=test,destinationType=Queue,destinationName=QUEUE_STATS");
+		mBeanServer.registerMBean(new QueueViewStub(), objectName);
+
+		try {
+			Map<String, Object> result = destinationStatisticsService.getJmxStatistics("QUEUE_STATS", false);
+
+			assertThat(result.get("size"), equalTo(3L));
+			assertThat(result.get("enqueueCount"), equalTo(10L));
+			assertThat(result.get("dequeueCount"), equalTo(7L));
+			assertThat(result.get("consumerCount"), equalTo(1L));
+			assertThat(result.get("producerCount"), equalTo(0L));
+			assertThat(destinationStatisticsService.getJmxStatistics("QUEUE_STATS", true), nullValue()); // not a topic
+		} finally {
+			mBeanServer.unregisterMBean(objectName);
+		}
+	}
+
+	@Test
+	public void getJmxStatisticsWithAPatternNameOrSeveralMBeansShouldReturnNull() throws Exception {
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		ObjectName objectName = new ObjectName("org.apache.activemq:type=Broker,brokerName=test,destinationType=Queue,destinationName=QUEUE_STATS");
+		ObjectName otherObjectName = new ObjectName("org.apache.activemq:type=Broker,brokerName=other,destinationType=Queue,destinationName=QUEUE_STATS");
+		mBeanServer.registerMBean(new QueueViewStub(), objectName);
+
+		try {
+			assertThat(destinationStatisticsService.getJmxStatistics("QUEUE_*", false), nullValue());
+
+			mBeanServer.registerMBean(new QueueViewStub(), otherObjectName);
+			assertThat(destinationStatisticsService.getJmxStatistics("QUEUE_STATS", false), nullValue());
+		} finally {
+			mBeanServer.unregisterMBean(objectName);
+
+			if (mBeanServer.isRegistered(otherObjectName)) {
+				mBeanServer.unregisterMBean(otherObjectName);
+			}
+		}
+	}
+
+	@Test
+	public void getJmxStatisticsWithoutTheMBeanShouldReturnNull() throws Exception {
+		Map<String, Object> result = destinationStatisticsService.getJmxStatistics("QUEUE_001", false);
+
+		assertThat(result, nullValue());
+		Mockito.verifyZeroInteractions(connectionFactoryMock);
+	}
+}
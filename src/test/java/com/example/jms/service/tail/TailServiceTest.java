@@ -0,0 +1,209 @@
+package com.example.jms.service.tail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.jms.model.BrowsedMessage;
+import com.example.jms.model.MessageHandler;
+import com.example.jms.service.queue.QueueService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+@RunWith(SpringRunner.class)
+public class TailServiceTest {
+
+	@MockBean
+	private ConnectionFactory connectionFactoryMock;
+
+	@MockBean
+	private QueueService queueServiceMock;
+
+	@SpyBean
+	private TailService tailService;
+
+	private Connection connectionMock = Mockito.mock(Connection.class);
+	private Session sessionMock = Mockito.mock(Session.class);
+	private MessageConsumer messageConsumerMock = Mockito.mock(MessageConsumer.class);
+	private Topic topicMock = Mockito.mock(Topic.class);
+
+	private Vector<Message> queueMessages = new Vector<>();
+	private List<TailSubscriber> subscribers = new ArrayList<>();
+
+	@Before
+	public void setUp() throws Exception {
+		ReflectionTestUtils.setField(tailService, "pollInterval", 20L);
+		ReflectionTestUtils.setField(tailService, "connection", null);
+
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(false, Session.AUTO_ACKNOWLEDGE);
+		Mockito.doReturn(topicMock).when(sessionMock).createTopic("TOPIC_001");
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createConsumer(topicMock);
+
+		Mockito.doAnswer(invocation -> {
+			MessageHandler messageHandler = invocation.getArgumentAt(2, MessageHandler.class);
+			int number = 1;
+
+			for (Message message : new Vector<>(queueMessages)) {
+				messageHandler.handle(number++, message);
+			}
+
+			return true;
+		}).when(queueServiceMock).browseMessagesFrom(Mockito.anyString(), Mockito.anyString(), Mockito.any(MessageHandler.class));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		for (TailSubscriber subscriber : subscribers) {
+			tailService.unsubscribe(subscriber);
+		}
+	}
+
+	private TailSubscriber subscribe(final String resourceCode, final List<String> received) {
+		TailSubscriber subscriber = tailService.subscribe(resourceCode, new SseEmitter() {
+			@Override
+			public void send(final SseEventBuilder builder) throws IOException {
+				builder.build().stream().map(DataWithMediaType::getData).filter(data -> data instanceof BrowsedMessage)
+						.forEach(data -> received.add(((BrowsedMessage) data).getMessageId()));
+			}
+		});
+
+		if (subscriber != null) {
+			subscribers.add(subscriber);
+		}
+
+		return subscriber;
+	}
+
+	private static TextMessage createMessage(final String messageId, final String text) throws JMSException {
+		return createMessage(messageId, text, System.currentTimeMillis());
+	}
+
+	private static TextMessage createMessage(final String messageId, final String text, final long timestamp) throws JMSException {
+		TextMessage messageMock = Mockito.mock(TextMessage.class);
+		Mockito.doReturn(messageId).when(messageMock).getJMSMessageID();
+		Mockito.doReturn(timestamp).when(messageMock).getJMSTimestamp();
+		Mockito.doReturn(text).when(messageMock).getText();
+		return messageMock;
+	}
+
+	private static void waitFor(final List<String> received, final int size) throws InterruptedException {
+		for (int attempt = 0; attempt < 250 && received.size() < size; attempt++) {
+			Thread.sleep(20);
+		}
+	}
+
+	@Test
+	public void subscribeToATopicShouldShareTheListenerBetweenTheSubscribers() throws Exception {
+		List<String> firstReceived = new Vector<>();
+		List<String> secondReceived = new Vector<>();
+
+		assertThat(subscribe("TOPIC_001", firstReceived), notNullValue());
+		assertThat(subscribe("TOPIC_001", secondReceived), notNullValue());
+		assertThat(tailService.getSubscribers("TOPIC_001"), equalTo(2));
+
+		ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+		Mockito.verify(messageConsumerMock, Mockito.times(1)).setMessageListener(listener.capture());
+		Mockito.verify(connectionMock).start();
+
+		listener.getValue().onMessage(createMessage("ID:1", "first"));
+		listener.getValue().onMessage(createMessage("ID:2", "second"));
+
+		waitFor(firstReceived, 2);
+		waitFor(secondReceived, 2);
+		assertThat(firstReceived, equalTo(Arrays.asList("ID:1", "ID:2")));
+		assertThat(secondReceived, equalTo(Arrays.asList("ID:1", "ID:2")));
+	}
+
+	@Test
+	public void unsubscribeTheLastSubscriberShouldCloseTheConsumer() throws Exception {
+		TailSubscriber first = subscribe("TOPIC_001", new Vector<>());
+		TailSubscriber second = subscribe("TOPIC_001", new Vector<>());
+
+		tailService.unsubscribe(first);
+		Mockito.verify(messageConsumerMock, Mockito.never()).close();
+
+		tailService.unsubscribe(second);
+		Mockito.verify(messageConsumerMock).close();
+		Mockito.verify(sessionMock).close();
+		assertThat(tailService.getSubscribers("TOPIC_001"), equalTo(0));
+		assertThat(first.isClosed(), equalTo(true));
+	}
+
+	@Test
+	public void subscribeToAQueueShouldOnlyPublishTheNewMessages() throws Exception {
+		queueMessages.add(createMessage("ID:1", "already queued", System.currentTimeMillis() - 60000));
+		List<String> received = new Vector<>();
+
+		subscribe("QUEUE_001", received);
+		Mockito.verify(queueServiceMock, Mockito.timeout(5000).atLeast(2)).browseMessagesFrom(Mockito.eq("QUEUE_001"),
+				Mockito.anyString(), Mockito.any(MessageHandler.class));
+
+		queueMessages.add(createMessage("ID:2", "new"));
+		waitFor(received, 1);
+		Thread.sleep(100);
+
+		assertThat(received, equalTo(Arrays.asList("ID:2")));
+		Mockito.verify(connectionFactoryMock, Mockito.never()).createConnection();
+	}
+
+	@Test
+	public void subscribeToAQueueShouldBrowseFromTheLastPublishedTimestamp() throws Exception {
+		long timestamp = System.currentTimeMillis() + 60000;
+		List<String> received = new Vector<>();
+
+		subscribe("QUEUE_001", received);
+		queueMessages.add(createMessage("ID:1", "first", timestamp));
+		queueMessages.add(createMessage("ID:2", "same timestamp", timestamp));
+		waitFor(received, 2);
+		Mockito.verify(queueServiceMock, Mockito.timeout(5000)).browseMessagesFrom(Mockito.eq("QUEUE_001"),
+				Mockito.eq("JMSTimestamp >= " + timestamp), Mockito.any(MessageHandler.class));
+
+		queueMessages.add(createMessage("ID:3", "third", timestamp));
+		waitFor(received, 3);
+		Thread.sleep(100);
+
+		assertThat(received, equalTo(Arrays.asList("ID:1", "ID:2", "ID:3")));
+	}
+
+	@Test
+	public void subscribeWithAConnectionErrorShouldReturnNull() throws Exception {
+		Mockito.doThrow(new JMSException("Connection refused")).when(connectionFactoryMock).createConnection();
+
+		assertThat(subscribe("TOPIC_001", new Vector<>()), nullValue());
+		assertThat(tailService.getSubscribers("TOPIC_001"), equalTo(0));
+	}
+
+	@Test
+	public void subscribeToANotConfiguredResourceShouldReturnNull() throws Exception {
+		assertThat(subscribe("UNKNOWN", new Vector<>()), nullValue());
+	}
+}
@@ -0,0 +1,158 @@
+package com.example.jms.service.tail;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+import com.example.jms.model.BrowsedMessage;
+import com.example.jms.model.MessageBody;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.sameInstance;
+
+public class TailSubscriberTest {
+
+	private List<Runnable> writes = new ArrayList<>();
+	private List<String> events = new ArrayList<>();
+	private List<TailSubscriber> closed = new ArrayList<>();
+	private boolean failSend;
+	private boolean completed;
+
+	private SseEmitter emitter = new SseEmitter() {
+		@Override
+		public void send(final SseEventBuilder builder) throws IOException {
+			if (failSend) {
+				throw new IOException("Broken pipe");
+			}
+
+			StringBuilder event = new StringBuilder();
+
+			for (DataWithMediaType data : builder.build()) {
+				event.append(data.getData() instanceof BrowsedMessage ? "#" + ((BrowsedMessage) data.getData()).getNumber() : data.getData());
+			}
+
+			events.add(event.toString());
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+	};
+
+	private TailSubscriber subscriber;
+
+	@Before
+	public void setUp() throws Exception {
+		subscriber = new TailSubscriber("TOPIC_001", emitter, 2, 10, writes::add, closed::add);
+	}
+
+	private static BrowsedMessage createMessage(final int number) {
+		return new BrowsedMessage(number, "ID:" + number, 0, 4, MessageBody.Type.TEXT, 1, "m" + number);
+	}
+
+	private void runWrites() {
+		while (!writes.isEmpty()) {
+			writes.remove(0).run();
+		}
+	}
+
+	@Test
+	public void offerShouldScheduleOnlyOneWriteForThePendingMessages() throws Exception {
+		subscriber.offer(createMessage(1));
+		subscriber.offer(createMessage(2));
+
+		assertThat(writes.size(), equalTo(1));
+
+		runWrites();
+
+		assertThat(events.size(), equalTo(2));
+		assertThat(events.get(0), containsString("event:message"));
+		assertThat(events.get(0), containsString("id:1"));
+		assertThat(events.get(0), containsString("#1"));
+		assertThat(events.get(1), containsString("#2"));
+	}
+
+	@Test
+	public void offerWithAFullBufferShouldDropTheOldestMessageAndSendADroppedEvent() throws Exception {
+		subscriber.offer(createMessage(1));
+		subscriber.offer(createMessage(2));
+		subscriber.offer(createMessage(3));
+		subscriber.offer(createMessage(4));
+
+		assertThat(subscriber.getDropped(), equalTo(2L));
+
+		runWrites();
+
+		assertThat(events.size(), equalTo(3));
+		assertThat(events.get(0), containsString("event:dropped"));
+		assertThat(events.get(0), containsString("2"));
+		assertThat(events.get(1), containsString("#3"));
+		assertThat(events.get(2), containsString("#4"));
+		assertThat(subscriber.getDropped(), equalTo(0L));
+	}
+
+	@Test
+	public void offerShouldWriteAtMostABatchAndScheduleTheNextWrite() throws Exception {
+		subscriber = new TailSubscriber("TOPIC_001", emitter, 5, 2, writes::add, closed::add);
+
+		for (int number = 1; number <= 5; number++) {
+			subscriber.offer(createMessage(number));
+		}
+
+		writes.remove(0).run();
+
+		assertThat(events.size(), equalTo(2));
+		assertThat(writes.size(), equalTo(1));
+
+		runWrites();
+
+		assertThat(events.size(), equalTo(5));
+		assertThat(events.get(4), containsString("#5"));
+	}
+
+	@Test
+	public void offerWithAFailedSendShouldCloseTheSubscriber() throws Exception {
+		failSend = true;
+		subscriber.offer(createMessage(1));
+		runWrites();
+
+		assertThat(subscriber.isClosed(), equalTo(true));
+		assertThat(completed, equalTo(true));
+		assertThat(closed.size(), equalTo(1));
+		assertThat(closed.get(0), sameInstance(subscriber));
+
+		subscriber.offer(createMessage(2));
+		assertThat(writes.size(), equalTo(0));
+	}
+
+	@Test
+	public void offerWithARejectedWriteShouldCloseTheSubscriber() throws Exception {
+		subscriber = new TailSubscriber("TOPIC_001", emitter, 2, 10, runnable -> {
+			throw new RejectedExecutionException();
+		}, closed::add);
+
+		subscriber.offer(createMessage(1));
+
+		assertThat(subscriber.isClosed(), equalTo(true));
+		assertThat(closed.size(), equalTo(1));
+	}
+
+	@Test
+	public void closeShouldCompleteTheEmitterOnlyOnce() throws Exception {
+		subscriber.close();
+		subscriber.close();
+
+		assertThat(completed, equalTo(true));
+		assertThat(closed.size(), equalTo(1));
+	}
+}
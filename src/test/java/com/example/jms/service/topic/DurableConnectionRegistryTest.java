@@ -0,0 +1,185 @@
+package com.example.jms.service.topic;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.InvalidClientIDException;
+import javax.jms.JMSException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.CoreMatchers.not;
+
+public class DurableConnectionRegistryTest {
+
+	private ConnectionFactory connectionFactoryMock;
+	private DurableConnectionRegistry durableConnectionRegistry;
+
+	// client IDs of the open connections in the emulated broker
+	private Set<String> brokerClientIds = ConcurrentHashMap.newKeySet();
+	private AtomicInteger createdConnections = new AtomicInteger();
+
+	@Before
+	public void setUp() throws Exception {
+		connectionFactoryMock = Mockito.mock(ConnectionFactory.class);
+		Mockito.doAnswer(invocation -> createBrokerConnection()).when(connectionFactoryMock).createConnection();
+
+		durableConnectionRegistry = new DurableConnectionRegistry(() -> connectionFactoryMock);
+	}
+
+	/**
+	 * Creates a connection that fails like the broker when its client ID is in use by another connection.
+	 */
+	private Connection createBrokerConnection() throws Exception {
+		Connection connectionMock = Mockito.mock(Connection.class);
+		String[] clientId = new String[1];
+
+		createdConnections.incrementAndGet();
+		Mockito.doAnswer(invocation -> {
+			clientId[0] = invocation.getArgumentAt(0, String.class);
+
+			if (!brokerClientIds.add(clientId[0])) {
+				throw new InvalidClientIDException("Client ID already connected : " + clientId[0]);
+			}
+
+			return null;
+		}).when(connectionMock).setClientID(Mockito.anyString());
+		Mockito.doAnswer(invocation -> brokerClientIds.remove(clientId[0])).when(connectionMock).close();
+
+		return connectionMock;
+	}
+
+	@Test
+	public void acquireWithTheSameClientIdShouldShareTheConnectionUntilTheLastRelease() throws Exception {
+		Connection first = durableConnectionRegistry.acquire("TOPIC_001");
+		Connection second = durableConnectionRegistry.acquire("TOPIC_001");
+
+		assertThat(second, sameInstance(first));
+		assertThat(createdConnections.get(), equalTo(1));
+		Mockito.verify(first).start();
+
+		durableConnectionRegistry.release("TOPIC_001");
+		Mockito.verify(first, Mockito.never()).close();
+
+		durableConnectionRegistry.release("TOPIC_001");
+		Mockito.verify(first).close();
+		assertThat(durableConnectionRegistry.getOpenConnections(), equalTo(0));
+	}
+
+	@Test
+	public void acquireWithDifferentClientIdsShouldUseDifferentConnections() throws Exception {
+		Connection first = durableConnectionRegistry.acquire("TOPIC_001");
+		Connection second = durableConnectionRegistry.acquire("TOPIC_002");
+
+		assertThat(second, not(sameInstance(first)));
+		assertThat(durableConnectionRegistry.getOpenConnections(), equalTo(2));
+	}
+
+	@Test
+	public void acquireAfterTheLastReleaseShouldOpenANewConnection() throws Exception {
+		Connection first = durableConnectionRegistry.acquire("TOPIC_001");
+		durableConnectionRegistry.release("TOPIC_001");
+		Connection second = durableConnectionRegistry.acquire("TOPIC_001");
+
+		assertThat(second, not(sameInstance(first)));
+		assertThat(createdConnections.get(), equalTo(2));
+	}
+
+	@Test(expected = InvalidClientIDException.class)
+	public void acquireWithAClientIdInUseByAnotherApplicationShouldThrowTheException() throws Exception {
+		brokerClientIds.add("TOPIC_001");
+
+		durableConnectionRegistry.acquire("TOPIC_001");
+	}
+
+	@Test
+	public void acquireShouldDiscardTheConnectionWhenItFails() throws Exception {
+		brokerClientIds.add("TOPIC_001");
+
+		try {
+			durableConnectionRegistry.acquire("TOPIC_001");
+		} catch (JMSException e) {
+			// expected
+		}
+
+		brokerClientIds.remove("TOPIC_001");
+		Connection connection = durableConnectionRegistry.acquire("TOPIC_001");
+
+		assertThat(createdConnections.get(), equalTo(2));
+		assertThat(durableConnectionRegistry.getOpenConnections(), equalTo(1));
+		Mockito.verify(connection).start();
+	}
+
+	@Test
+	public void releaseWithoutAcquireShouldDoNothing() throws Exception {
+		durableConnectionRegistry.release("TOPIC_001");
+
+		assertThat(durableConnectionRegistry.getOpenConnections(), equalTo(0));
+	}
+
+	@Test
+	public void getSubscriberLockShouldReturnTheSameLockForTheSameSubscriber() throws Exception {
+		assertThat(durableConnectionRegistry.getSubscriberLock("theSubscriberTOPIC_001"),
+				sameInstance(durableConnectionRegistry.getSubscriberLock("theSubscriberTOPIC_001")));
+		assertThat(durableConnectionRegistry.getSubscriberLock("theSubscriberTOPIC_001"),
+				not(sameInstance(durableConnectionRegistry.getSubscriberLock("theSubscriberTOPIC_001_1"))));
+	}
+
+	@Test
+	public void acquireAndReleaseFromParallelOperationsShouldNotCollideOnTheClientId() throws Exception {
+		int threads = 16;
+		int operations = 200;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> results = new ArrayList<>();
+
+		try {
+			for (int thread = 0; thread < threads; thread++) {
+				String clientId = thread % 2 == 0 ? "TOPIC_001" : "TOPIC_002";
+				Callable<Integer> operation = () -> {
+					start.await();
+
+					for (int index = 0; index < operations; index++) {
+						durableConnectionRegistry.acquire(clientId);
+						durableConnectionRegistry.release(clientId);
+					}
+
+					return operations;
+				};
+
+				results.add(executor.submit(operation));
+			}
+
+			start.countDown();
+
+			int completed = 0;
+
+			for (Future<Integer> result : results) {
+				completed += result.get(30, TimeUnit.SECONDS); // fails with an InvalidClientIDException if they collide
+			}
+
+			assertThat(completed, equalTo(threads * operations));
+			assertThat(durableConnectionRegistry.getOpenConnections(), equalTo(0));
+			assertThat(brokerClientIds.isEmpty(), equalTo(true));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package com.example.jms.service.topic;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.jms.model.BrowseResult;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+@RunWith(SpringRunner.class)
+public class ShadowSubscriberServiceTest {
+
+	@MockBean
+	private ConnectionFactory connectionFactoryMock;
+
+	@SpyBean
+	private ShadowSubscriberService shadowSubscriberService;
+
+	private Connection connectionMock = Mockito.mock(Connection.class);
+	private Session sessionMock = Mockito.mock(Session.class);
+	private MessageConsumer messageConsumerMock = Mockito.mock(MessageConsumer.class);
+	private Topic topicMock = Mockito.mock(Topic.class);
+
+	@Before
+	public void setUp() throws Exception {
+		shadowSubscriberService.stop();
+		ReflectionTestUtils.setField(shadowSubscriberService, "retryInterval", 20L);
+
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(false, Session.AUTO_ACKNOWLEDGE);
+		Mockito.doReturn(topicMock).when(sessionMock).createTopic(Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createConsumer(topicMock);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		shadowSubscriberService.stop();
+	}
+
+	private void startAndWait() throws InterruptedException {
+		shadowSubscriberService.start();
+		waitForConnection();
+	}
+
+	private void waitForConnection() throws InterruptedException {
+		for (int attempt = 0; attempt < 250 && !shadowSubscriberService.isConnected(); attempt++) {
+			Thread.sleep(20);
+		}
+	}
+
+	private static TextMessage createMessage(final String messageId, final String text) throws JMSException {
+		TextMessage messageMock = Mockito.mock(TextMessage.class);
+		Mockito.doReturn(messageId).when(messageMock).getJMSMessageID();
+		Mockito.doReturn(text).when(messageMock).getText();
+		return messageMock;
+	}
+
+	@Test
+	public void startShouldListenToAllTheTopicsOnOneConnection() throws Exception {
+		startAndWait();
+
+		assertThat(shadowSubscriberService.isConnected(), equalTo(true));
+		Mockito.verify(connectionFactoryMock).createConnection();
+		Mockito.verify(sessionMock).createTopic("TOPIC_001");
+		Mockito.verify(sessionMock).createTopic("TOPIC_002");
+		Mockito.verify(sessionMock).createTopic("TOPIC_003");
+		Mockito.verify(sessionMock, Mockito.never()).createTopic("QUEUE_001");
+		Mockito.verify(sessionMock, Mockito.never()).createDurableSubscriber(Mockito.any(Topic.class), Mockito.anyString());
+		Mockito.verify(connectionMock).start();
+	}
+
+	@Test
+	public void browseMessagesFromShouldReturnTheBufferedMessagesWithoutRemovingThem() throws Exception {
+		startAndWait();
+
+		ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+		Mockito.verify(messageConsumerMock, Mockito.times(3)).setMessageListener(listener.capture());
+		listener.getAllValues().get(0).onMessage(createMessage("ID:1", "first"));
+		listener.getAllValues().get(0).onMessage(createMessage("ID:2", "second"));
+
+		BrowseResult result = shadowSubscriberService.browseMessagesFrom("TOPIC_001");
+
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getCount(), equalTo(2));
+		assertThat(result.get(1).getText(), equalTo("second"));
+		assertThat(shadowSubscriberService.browseMessagesFrom("TOPIC_001").getCount(), equalTo(2));
+		assertThat(shadowSubscriberService.browseMessagesFrom("TOPIC_002").getCount(), equalTo(0));
+	}
+
+	@Test
+	public void clearShouldRemoveTheBufferedMessages() throws Exception {
+		startAndWait();
+
+		ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+		Mockito.verify(messageConsumerMock, Mockito.times(3)).setMessageListener(listener.capture());
+		listener.getAllValues().get(0).onMessage(createMessage("ID:1", "first"));
+
+		shadowSubscriberService.clear("TOPIC_001");
+
+		assertThat(shadowSubscriberService.browseMessagesFrom("TOPIC_001").getCount(), equalTo(0));
+	}
+
+	@Test
+	public void startWithAConnectionErrorShouldRetryTheConnection() throws Exception {
+		Mockito.doThrow(new JMSException("Connection refused")).doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+
+		startAndWait();
+
+		assertThat(shadowSubscriberService.isConnected(), equalTo(true));
+		Mockito.verify(connectionFactoryMock, Mockito.times(2)).createConnection();
+	}
+
+	@Test
+	public void browseMessagesFromWithoutConnectionShouldReturnAnError() throws Exception {
+		Mockito.doThrow(new JMSException("Connection refused")).when(connectionFactoryMock).createConnection();
+		ReflectionTestUtils.setField(shadowSubscriberService, "retryInterval", 60000L);
+
+		shadowSubscriberService.start();
+		Mockito.verify(connectionFactoryMock, Mockito.timeout(5000)).createConnection();
+
+		BrowseResult result = shadowSubscriberService.browseMessagesFrom("TOPIC_001");
+
+		assertThat(result.getError(), equalTo("Shadow subscriber not connected : TOPIC_001"));
+	}
+
+	@Test
+	public void aLostConnectionShouldBeOpenedAgainKeepingTheBufferedMessages() throws Exception {
+		startAndWait();
+
+		ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+		Mockito.verify(messageConsumerMock, Mockito.times(3)).setMessageListener(listener.capture());
+		listener.getAllValues().get(0).onMessage(createMessage("ID:1", "first"));
+
+		ArgumentCaptor<ExceptionListener> exceptionListener = ArgumentCaptor.forClass(ExceptionListener.class);
+		Mockito.verify(connectionMock).setExceptionListener(exceptionListener.capture());
+		exceptionListener.getValue().onException(new JMSException("Connection lost"));
+
+		Mockito.verify(connectionMock).close();
+		Mockito.verify(connectionFactoryMock, Mockito.timeout(5000).times(2)).createConnection();
+		waitForConnection();
+
+		assertThat(shadowSubscriberService.browseMessagesFrom("TOPIC_001").getCount(), equalTo(1));
+	}
+
+	@Test
+	public void browseMessagesFromWithANotConfiguredTopicShouldReturnAnError() throws Exception {
+		startAndWait();
+
+		BrowseResult result = shadowSubscriberService.browseMessagesFrom("TOPIC_NNN");
+
+		assertThat(result.getError(), equalTo("Not configured resource : TOPIC_NNN"));
+	}
+}
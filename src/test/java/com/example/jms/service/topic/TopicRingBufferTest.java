@@ -0,0 +1,120 @@
+package com.example.jms.service.topic;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.example.jms.model.BrowseResult;
+import com.example.jms.model.MessageBody;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import javax.jms.BytesMessage;
+import javax.jms.TextMessage;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+public class TopicRingBufferTest {
+
+	private static TextMessage createMessage(final String messageId, final String text) throws Exception {
+		TextMessage messageMock = Mockito.mock(TextMessage.class);
+		Mockito.doReturn(messageId).when(messageMock).getJMSMessageID();
+		Mockito.doReturn(123L).when(messageMock).getJMSTimestamp();
+		Mockito.doReturn(7).when(messageMock).getJMSPriority();
+		Mockito.doReturn(text).when(messageMock).getText();
+		return messageMock;
+	}
+
+	@Test
+	public void getMessagesShouldDecodeTheMessagesInTheArrivalOrder() throws Exception {
+		TopicRingBuffer buffer = new TopicRingBuffer("TOPIC_001", 10, 1024 * 1024);
+		buffer.add(createMessage("ID:1", "first ñ"));
+		buffer.add(createMessage("ID:2", null));
+
+		BrowseResult result = buffer.getMessages();
+
+		assertThat(result.getResource(), equalTo("TOPIC_001"));
+		assertThat(result.getCount(), equalTo(2));
+		assertThat(result.get(0).getNumber(), equalTo(1));
+		assertThat(result.get(0).getMessageId(), equalTo("ID:1"));
+		assertThat(result.get(0).getTimestamp(), equalTo(123L));
+		assertThat(result.get(0).getPriority(), equalTo(7));
+		assertThat(result.get(0).getType(), equalTo(MessageBody.Type.TEXT));
+		assertThat(result.get(0).getText(), equalTo("first ñ"));
+		assertThat(result.get(0).getSize(), equalTo(8));
+		assertThat(result.get(1).getText(), nullValue());
+	}
+
+	@Test
+	public void getMessagesShouldNotRemoveTheMessages() throws Exception {
+		TopicRingBuffer buffer = new TopicRingBuffer("TOPIC_001", 10, 1024 * 1024);
+		buffer.add(createMessage("ID:1", "first"));
+
+		buffer.getMessages();
+
+		assertThat(buffer.getMessages().getCount(), equalTo(1));
+	}
+
+	@Test
+	public void addWithAFullBufferShouldDropTheOldestMessages() throws Exception {
+		TopicRingBuffer buffer = new TopicRingBuffer("TOPIC_001", 2, 1024 * 1024);
+		buffer.add(createMessage("ID:1", "first"));
+		buffer.add(createMessage("ID:2", "second"));
+		buffer.add(createMessage("ID:3", "third"));
+
+		BrowseResult result = buffer.getMessages();
+
+		assertThat(result.getCount(), equalTo(2));
+		assertThat(result.get(0).getMessageId(), equalTo("ID:2"));
+		assertThat(result.get(0).getNumber(), equalTo(1));
+		assertThat(buffer.getDropped(), equalTo(1L));
+	}
+
+	@Test
+	public void addOverTheMaxMemoryShouldDropTheOldestMessages() throws Exception {
+		TopicRingBuffer buffer = new TopicRingBuffer("TOPIC_001", 100, 300);
+		buffer.add(createMessage("ID:1", new String(new char[100]).replace('\0', 'a')));
+		buffer.add(createMessage("ID:2", new String(new char[100]).replace('\0', 'b')));
+		buffer.add(createMessage("ID:3", new String(new char[100]).replace('\0', 'c')));
+
+		assertThat(buffer.getSize(), equalTo(2));
+		assertThat(buffer.getMessages().get(0).getMessageId(), equalTo("ID:2"));
+		assertThat(buffer.getMemory() <= 300, equalTo(true));
+		assertThat(buffer.getDropped(), equalTo(1L));
+	}
+
+	@Test
+	public void addWithAMessageBiggerThanTheMaxMemoryShouldOnlyDropThatMessage() throws Exception {
+		TopicRingBuffer buffer = new TopicRingBuffer("TOPIC_001", 100, 300);
+		buffer.add(createMessage("ID:1", "first"));
+		buffer.add(createMessage("ID:2", new String(new char[1000]).replace('\0', 'b')));
+
+		assertThat(buffer.getSize(), equalTo(1));
+		assertThat(buffer.getMessages().get(0).getMessageId(), equalTo("ID:1"));
+		assertThat(buffer.getDropped(), equalTo(1L));
+	}
+
+	@Test
+	public void addWithABytesMessageShouldKeepItsType() throws Exception {
+		BytesMessage messageMock = Mockito.mock(BytesMessage.class);
+		Mockito.doReturn("ID:1").when(messageMock).getJMSMessageID();
+		Mockito.doReturn(0L).when(messageMock).getBodyLength();
+
+		TopicRingBuffer buffer = new TopicRingBuffer("TOPIC_001", 10, 1024 * 1024);
+		buffer.add(messageMock);
+
+		assertThat(buffer.getMessages().get(0).getType(), equalTo(MessageBody.Type.BYTES));
+	}
+
+	@Test
+	public void clearShouldRemoveAllTheMessages() throws Exception {
+		TopicRingBuffer buffer = new TopicRingBuffer("TOPIC_001", 10, 1024 * 1024);
+		buffer.add(createMessage("ID:1", "first"));
+
+		buffer.clear();
+
+		assertThat(buffer.getSize(), equalTo(0));
+		assertThat(buffer.getMemory(), equalTo(0L));
+		assertThat(buffer.getMessages().getCount(), equalTo(0));
+	}
+}
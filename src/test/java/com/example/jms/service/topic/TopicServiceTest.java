@@ -1,5 +1,6 @@
 package com.example.jms.service.topic;
 
+import org.apache.activemq.command.ActiveMQBytesMessage;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -7,19 +8,42 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.jms.model.BatchSendResult;
+import com.example.jms.model.BrowseResult;
+import com.example.jms.model.MessageBody;
+import com.example.jms.model.DrainOptions;
+import com.example.jms.model.DrainResult;
+import com.example.jms.model.SubscribersHealth;
+import com.example.jms.service.producer.ProducerCacheService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
 import javax.jms.Message;
-import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.jms.TextMessage;
 import javax.jms.Topic;
@@ -27,13 +51,20 @@ import javax.jms.TopicSubscriber;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.CoreMatchers.startsWith;
 
 @RunWith(SpringRunner.class)
+@TestPropertySource(properties = "com.exmaple.jms.subscribers.lazyBootstrap=true") // the subscribers are created in the set up
 public class TopicServiceTest {
 
 	@MockBean
 	private ConnectionFactory connectionFactoryMock;
 
+	@MockBean
+	private ProducerCacheService producerCacheServiceMock;
+
 	@SpyBean
 	private TopicService topicService;
 	
@@ -47,11 +78,7 @@ public class TopicServiceTest {
 	@Mock
 	private Topic topicDestinationMock;
 	@Mock
-	private MessageProducer messageProducerMock;
-	@Mock
 	private TopicSubscriber messageConsumerMock;
-	@Mock
-	private TextMessage textMessageMock;
 	
 	@Before
 	public void setUp() throws Exception {
@@ -90,89 +117,23 @@ public class TopicServiceTest {
 		topicService.initTopicSubscribers();
 	}
 	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponse() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
 	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenConnectionCloseThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
+	
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionCloseThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doThrow(Exception.class).when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
+	public void sendMessageToWithValidArgumentsShouldReturnATrueResponse() throws Exception {
+		Mockito.doReturn(true).when(producerCacheServiceMock).sendTextMessage("TOPIC_001", "someMessage");
 		
 		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
 		
+		Mockito.verify(producerCacheServiceMock).sendTextMessage("TOPIC_001", "someMessage");
 		assertThat(result, notNullValue());
 		assertThat(result, equalTo(true));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionAndConnectionCloseThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doThrow(Exception.class).when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
-	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSendMessageThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(messageProducerMock).send(textMessageMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+	public void sendMessageToWithValidArgumentsShouldReturnAFalseResponseWhenTheCachedProducerFails() throws Exception {
+		Mockito.doReturn(false).when(producerCacheServiceMock).sendTextMessage("TOPIC_001", "someMessage");
 		
 		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
 		
@@ -181,116 +142,65 @@ public class TopicServiceTest {
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateTextMessageThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doThrow(Exception.class).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+	public void sendMessagesToWithValidArgumentsShouldReturnTheBatchResult() throws Exception {
+		List<String> messages = Arrays.asList("m1", "m2");
+		BatchSendResult expected = new BatchSendResult("TOPIC_001", 2, 10);
+		Mockito.doReturn(expected).when(producerCacheServiceMock).sendTextMessages("TOPIC_001", messages, 10);
 		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
+		BatchSendResult result = topicService.sendMessagesTo("TOPIC_001", messages, 10);
 		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result, equalTo(expected));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateProducerThrowsAnException() throws Exception {
+	public void browserMessagesFromWithValidArgumentsShouldReturnAMapOfMessages() throws Exception {
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
 		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateQueueThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doThrow(Exception.class).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateSessionThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSetClientIDThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doThrow(Exception.class).when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateConnectionThrowsAnException() throws Exception {
-		Mockito.doThrow(Exception.class).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createDurableSubscriber(topicDestinationMock, "theSuscriberTOPIC_001");
+		Mockito.doReturn(topicMessages.get(0))
+			.doReturn(topicMessages.get(1))
+			.doReturn(topicMessages.get(2))
+			.doReturn(null)
+			.when(messageConsumerMock)
+			.receive(Mockito.anyLong());
+		Mockito.doNothing().when(messageConsumerMock).close();
 		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+		Mockito.doNothing().when(connectionMock).close();
 		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result.getCount(), equalTo(expectedMessages.size()));
+		assertThat(result.get(0).getText(), equalTo(expectedMessages.get("1")));
+		assertThat(result.get(1).getText(), equalTo(expectedMessages.get("2")));
+		assertThat(result.get(2).getText(), equalTo(expectedMessages.get("3")));
 	}
 
 	@Test
-	public void browserMessagesFromWithValidArgumentsShouldReturnAMapOfMessages() throws Exception {
+	public void browserMessagesFromWithABytesMessageShouldNotStopTheBrowse() throws Exception {
+		ActiveMQBytesMessage bytesMessage = new ActiveMQBytesMessage();
+		bytesMessage.writeBytes(new byte[] {0, 1, 2, (byte) 255});
+		bytesMessage.reset(); // read only
 		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
 		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
 		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
 		Mockito.doReturn(messageConsumerMock).when(sessionMock).createDurableSubscriber(topicDestinationMock, "theSuscriberTOPIC_001");
 		Mockito.doReturn(topicMessages.get(0))
-			.doReturn(topicMessages.get(1))
+			.doReturn(bytesMessage)
 			.doReturn(topicMessages.get(2))
 			.doReturn(null)
 			.when(messageConsumerMock)
 			.receive(Mockito.anyLong());
-		Mockito.doNothing().when(messageConsumerMock).close();
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
-		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(expectedMessages.size()));
-		assertThat(result.get("1"), equalTo(expectedMessages.get("1")));
-		assertThat(result.get("2"), equalTo(expectedMessages.get("2")));
-		assertThat(result.get("3"), equalTo(expectedMessages.get("3")));
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getCount(), equalTo(3));
+		assertThat(result.get(1).getType(), equalTo(MessageBody.Type.BYTES));
+		assertThat(result.get(1).getText(), equalTo("AAEC/w=="));
+		assertThat(result.get(2).getText(), equalTo(expectedMessages.get("3")));
 	}
 
 	@Test
@@ -305,10 +215,10 @@ public class TopicServiceTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -323,10 +233,10 @@ public class TopicServiceTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -341,10 +251,10 @@ public class TopicServiceTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 	
 	@Test
@@ -359,10 +269,10 @@ public class TopicServiceTest {
 		Mockito.doThrow(Exception.class).when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -377,10 +287,10 @@ public class TopicServiceTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doThrow(Exception.class).when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -394,10 +304,10 @@ public class TopicServiceTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -410,10 +320,10 @@ public class TopicServiceTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -425,10 +335,10 @@ public class TopicServiceTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -439,10 +349,10 @@ public class TopicServiceTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -452,10 +362,10 @@ public class TopicServiceTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -464,10 +374,50 @@ public class TopicServiceTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
+	}
+
+	@Test
+	public void browserMessagesFromWithValidArgumentsShouldPassTheMessagesToTheHandlerInOrder() throws Exception {
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createDurableSubscriber(Mockito.eq(topicDestinationMock), Mockito.anyString());
+		Mockito.doReturn(topicMessages.get(0))
+			.doReturn(topicMessages.get(1))
+			.doReturn(topicMessages.get(2))
+			.doReturn(null)
+			.when(messageConsumerMock)
+			.receive(Mockito.anyLong());
+		List<String> handled = new ArrayList<>();
+		
+		boolean result = topicService.browseMessagesFrom("TOPIC_001", (number, text) -> handled.add(number + ":" + text));
+		
+		assertThat(result, equalTo(true));
+		assertThat(handled, equalTo(Arrays.asList("1:" + expectedMessages.get("1"), "2:" + expectedMessages.get("2"),
+				"3:" + expectedMessages.get("3"))));
+	}
+
+	@Test
+	public void browserMessagesFromWithValidArgumentsShouldStopWhenTheHandlerReturnsFalse() throws Exception {
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
+		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
+		Mockito.doReturn(messageConsumerMock).when(sessionMock).createDurableSubscriber(Mockito.eq(topicDestinationMock), Mockito.anyString());
+		Mockito.doReturn(topicMessages.get(0))
+			.doReturn(topicMessages.get(1))
+			.doReturn(topicMessages.get(2))
+			.doReturn(null)
+			.when(messageConsumerMock)
+			.receive(Mockito.anyLong());
+		
+		boolean result = topicService.browseMessagesFrom("TOPIC_001", (number, text) -> false);
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(messageConsumerMock, Mockito.times(1)).receive(Mockito.anyLong());
 	}
 
 	@Test
@@ -626,5 +576,208 @@ public class TopicServiceTest {
 		
 		assertThat(result, notNullValue());
 		assertThat(result, equalTo(false));
-	}	
+	}
+
+	@Test
+	public void removeMessagesBySubscriberFromWithAZeroExpectedCountShouldNotWaitForMessages() throws Exception {
+		boolean result = topicService.removeMessagesBySubscriberFrom("TOPIC_001", new DrainOptions(null, null, 0L));
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(messageConsumerMock, Mockito.times(3)).receiveNoWait();
+		Mockito.verify(messageConsumerMock, Mockito.never()).receive(Mockito.anyLong());
+	}
+
+
+	@Test
+	public void drainMessagesBySubscriberFromWithValidArgumentsShouldReportTheDrainedMessagesBySubscriber() throws Exception {
+		AtomicInteger pending = new AtomicInteger(topicMessages.size());
+		Mockito.doAnswer(invocation -> pending.getAndDecrement() > 0 ? topicMessages.get(0) : null)
+				.when(messageConsumerMock).receiveNoWait();
+		
+		DrainResult result = topicService.drainMessagesBySubscriberFrom("TOPIC_001", new DrainOptions(10L, 10L, null));
+		
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getResource(), equalTo("TOPIC_001"));
+		assertThat(result.getDrainedBy().keySet(), equalTo(new HashSet<>(Arrays.asList("theSubscriberTOPIC_001",
+				"theSubscriberTOPIC_001_1", "theSubscriberTOPIC_001_2"))));
+		assertThat(result.getDrained(), equalTo(3L));
+	}
+
+	@Test
+	public void drainMessagesBySubscriberFromWithValidArgumentsShouldDrainTheSubscribersConcurrently() throws Exception {
+		// each subscriber waits until the 3 subscribers are receiving together: serialized drains would break the barrier
+		CyclicBarrier allSubscribersReceiving = new CyclicBarrier(3);
+		Mockito.doAnswer(invocation -> {
+			allSubscribersReceiving.await(5, TimeUnit.SECONDS);
+			return null;
+		}).when(messageConsumerMock).receive(Mockito.anyLong());
+		
+		DrainResult result = topicService.drainMessagesBySubscriberFrom("TOPIC_001", new DrainOptions(10L, 10L, null));
+		
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getConsumers(), equalTo(3));
+		assertThat(allSubscribersReceiving.isBroken(), equalTo(false));
+		Mockito.verify(messageConsumerMock, Mockito.times(3)).receive(Mockito.anyLong());
+	}
+
+	@Test
+	public void drainMessagesBySubscriberFromShouldRunTheSubscribersOnTheSharedDaemonDrainThreads() throws Exception {
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		Mockito.doAnswer(invocation -> {
+			threads.add(Thread.currentThread());
+			return null;
+		}).when(messageConsumerMock).receiveNoWait();
+
+		topicService.drainMessagesBySubscriberFrom("TOPIC_001", new DrainOptions(10L, 10L, null));
+		ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(topicService, "drainExecutor");
+		topicService.drainMessagesBySubscriberFrom("TOPIC_001", new DrainOptions(10L, 10L, null));
+
+		assertThat(ReflectionTestUtils.getField(topicService, "drainExecutor"), sameInstance(executor));
+		assertThat(executor.isShutdown(), equalTo(false));
+		assertThat(threads.isEmpty(), equalTo(false));
+		for (Thread thread : threads) {
+			assertThat(thread.getName(), startsWith("subscriber-drain-"));
+			assertThat(thread.isDaemon(), equalTo(true));
+		}
+	}
+
+	@Test
+	public void drainMessagesBySubscriberFromWithValidArgumentsShouldReturnAnErrorWhenASubscriberFails() throws Exception {
+		Mockito.doThrow(new JMSException("some error")).when(messageConsumerMock).receiveNoWait();
+		
+		DrainResult result = topicService.drainMessagesBySubscriberFrom("TOPIC_001", DrainOptions.DEFAULTS);
+		
+		assertThat(result.getError(), equalTo("some error"));
+		assertThat(result.getConsumers(), equalTo(3));
+		assertThat(topicService.removeMessagesBySubscriberFrom("TOPIC_001", DrainOptions.DEFAULTS), equalTo(false));
+	}
+
+	@Test
+	public void drainMessagesBySubscriberFromWithoutSubscribersShouldReturnAnEmptyReport() throws Exception {
+		DrainResult result = topicService.drainMessagesBySubscriberFrom("TOPIC_NNN", DrainOptions.DEFAULTS);
+		
+		assertThat(result.getError(), nullValue());
+		assertThat(result.getDrainedBy().isEmpty(), equalTo(true));
+		Mockito.verify(messageConsumerMock, Mockito.never()).receiveNoWait();
+	}
+
+
+	@Test
+	public void resubscribeSubscribersOfWithValidArgumentsShouldUnsubscribeAndCreateTheSubscribersAgain() throws Exception {
+		boolean result = topicService.resubscribeSubscribersOf("TOPIC_001");
+		
+		assertThat(result, equalTo(true));
+		Mockito.verify(sessionMock).unsubscribe("theSubscriberTOPIC_001");
+		Mockito.verify(sessionMock).unsubscribe("theSubscriberTOPIC_001_1");
+		Mockito.verify(sessionMock).unsubscribe("theSubscriberTOPIC_001_2");
+		Mockito.verify(sessionMock, Mockito.times(2)).createDurableSubscriber(topicDestinationMock, "theSubscriberTOPIC_001");
+		Mockito.verify(messageConsumerMock, Mockito.never()).receiveNoWait();
+		Mockito.verify(messageConsumerMock, Mockito.never()).receive(Mockito.anyLong());
+	}
+
+	@Test
+	public void resubscribeSubscribersOfWithValidArgumentsShouldReturnAFalseResponseWhenUnsubscribeThrowsAnException() throws Exception {
+		Mockito.doThrow(JMSException.class).when(sessionMock).unsubscribe(Mockito.anyString());
+		
+		boolean result = topicService.resubscribeSubscribersOf("TOPIC_001");
+		
+		assertThat(result, equalTo(false));
+		Mockito.verify(connectionMock, Mockito.atLeastOnce()).close();
+	}
+
+	@Test
+	public void resubscribeSubscribersOfWithValidArgumentsShouldReturnAFalseResponseWhenSetClientIDThrowsAnException() throws Exception {
+		Mockito.doThrow(JMSException.class).when(connectionMock).setClientID(Mockito.anyString());
+		
+		boolean result = topicService.resubscribeSubscribersOf("TOPIC_001");
+		
+		assertThat(result, equalTo(false));
+		Mockito.verify(sessionMock, Mockito.never()).unsubscribe(Mockito.anyString());
+	}
+
+
+	@Test
+	public void getSubscribersHealthAfterTheInitializationShouldReportTheSubscribersReady() throws Exception {
+		SubscribersHealth result = topicService.getSubscribersHealth();
+		
+		assertThat(result.getStatus(), equalTo(SubscribersHealth.Status.UP));
+		assertThat(result.getTopics().get("TOPIC_001"), equalTo(SubscribersHealth.State.READY));
+		assertThat(result.getTopics().get("TOPIC_003"), equalTo(SubscribersHealth.State.READY));
+		assertThat(result.getTopics().containsKey("QUEUE_001"), equalTo(false));
+	}
+
+	@Test
+	public void browserMessagesFromWithLazyBootstrapShouldCreateTheSubscribersOfTheTopicOnTheFirstOperation() throws Exception {
+		clearTopicBootstraps();
+		assertThat(topicService.getSubscribersHealth().getTopics().get("TOPIC_001"), equalTo(SubscribersHealth.State.PENDING));
+		assertThat(topicService.getSubscribersHealth().isReady(), equalTo(true));
+		
+		topicService.browseMessagesFrom("TOPIC_001");
+		
+		SubscribersHealth result = topicService.getSubscribersHealth();
+		assertThat(result.getTopics().get("TOPIC_001"), equalTo(SubscribersHealth.State.READY));
+		assertThat(result.getTopics().get("TOPIC_002"), equalTo(SubscribersHealth.State.PENDING));
+		Mockito.verify(sessionMock, Mockito.times(2)).createDurableSubscriber(topicDestinationMock, "theSubscriberTOPIC_001_1");
+		Mockito.verify(sessionMock, Mockito.times(1)).createDurableSubscriber(topicDestinationMock, "theSubscriberTOPIC_002_1");
+	}
+
+	@Test
+	public void initTopicSubscribersWithAFailingBrokerShouldReportTheSubscribersDownAndRetryOnTheNextOperation() throws Exception {
+		Mockito.doThrow(new JMSException("some error")).when(connectionFactoryMock).createConnection();
+		topicService.initTopicSubscribers();
+		
+		assertThat(topicService.getSubscribersHealth().getStatus(), equalTo(SubscribersHealth.Status.DOWN));
+		assertThat(topicService.getSubscribersHealth().getTopics().get("TOPIC_001"), equalTo(SubscribersHealth.State.FAILED));
+		
+		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
+		topicService.drainMessagesBySubscriberFrom("TOPIC_001", new DrainOptions(10L, 10L, 0L));
+		
+		assertThat(topicService.getSubscribersHealth().getTopics().get("TOPIC_001"), equalTo(SubscribersHealth.State.READY));
+		assertThat(topicService.getSubscribersHealth().getTopics().get("TOPIC_002"), equalTo(SubscribersHealth.State.FAILED));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void clearTopicBootstraps() {
+		((Map<String, ?>) ReflectionTestUtils.getField(topicService, "topicBootstraps")).clear();
+	}
+
+
+	@Test
+	public void browserMessagesFromWithParallelRequestsOnTheSameTopicShouldNotFail() throws Exception {
+		int requests = 8;
+		AtomicInteger activeConsumers = new AtomicInteger();
+		AtomicInteger maxActiveConsumers = new AtomicInteger();
+		Mockito.doAnswer(invocation -> {
+			maxActiveConsumers.accumulateAndGet(activeConsumers.incrementAndGet(), Math::max);
+			return messageConsumerMock;
+		}).when(sessionMock).createDurableSubscriber(topicDestinationMock, "theSubscriberTOPIC_001");
+		Mockito.doAnswer(invocation -> activeConsumers.decrementAndGet()).when(messageConsumerMock).close();
+		Mockito.doAnswer(invocation -> {
+			Thread.sleep(20);
+			return null;
+		}).when(messageConsumerMock).receive(Mockito.anyLong());
+		ExecutorService executor = Executors.newFixedThreadPool(requests);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		
+		try {
+			for (int request = 0; request < requests; request++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return topicService.browseMessagesFrom("TOPIC_001", (number, text) -> true);
+				}));
+			}
+			
+			start.countDown();
+			
+			for (Future<Boolean> result : results) {
+				assertThat(result.get(10, TimeUnit.SECONDS), equalTo(true));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		// one consumer at a time for the durable subscriber
+		assertThat(maxActiveConsumers.get(), equalTo(1));
+	}
 }
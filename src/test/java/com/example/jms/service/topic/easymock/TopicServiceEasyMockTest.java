@@ -8,6 +8,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import com.example.jms.service.producer.ProducerCacheService;
 import com.example.jms.service.topic.TopicService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -20,7 +21,6 @@ import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
 import javax.jms.Message;
-import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.jms.TextMessage;
 import javax.jms.Topic;
@@ -38,17 +38,15 @@ public class TopicServiceEasyMockTest {
 	@Mock
 	private ConnectionFactory connectionFactoryMock;
 	@Mock
+	private ProducerCacheService producerCacheServiceMock;
+	@Mock
 	private Connection connectionMock;
 	@Mock
 	private Session sessionMock;
 	@Mock
 	private Topic topicDestinationMock;
 	@Mock
-	private MessageProducer messageProducerMock;
-	@Mock
 	private TopicSubscriber messageConsumerMock;
-	@Mock
-	private TextMessage textMessageMock;
 	
 	private Map<String,String> expectedMessages;
 	private Vector<Message> topicMessages = new Vector<>();
@@ -85,236 +83,28 @@ public class TopicServiceEasyMockTest {
 
 	@Test
 	public void sendMessageToWithValidArgumentsShouldReturnATrueResponse() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createTopic(EasyMock.anyString())).andReturn(topicDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(topicDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andReturn(textMessageMock);
-		messageProducerMock.send(textMessageMock);
-		EasyMock.expectLastCall();
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
+		EasyMock.expect(producerCacheServiceMock.sendTextMessage("TOPIC_001", "someMessage")).andReturn(true);
 		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, topicDestinationMock, messageProducerMock, textMessageMock);
+		EasyMock.replay(connectionFactoryMock, producerCacheServiceMock);
 		
 		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
 
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenConnectionCloseThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createTopic(EasyMock.anyString())).andReturn(topicDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(topicDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andReturn(textMessageMock);
-		messageProducerMock.send(textMessageMock);
-		EasyMock.expectLastCall();
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, topicDestinationMock, messageProducerMock, textMessageMock);
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
+		EasyMock.verify(connectionFactoryMock, producerCacheServiceMock);
 
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionCloseThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createTopic(EasyMock.anyString())).andReturn(topicDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(topicDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andReturn(textMessageMock);
-		messageProducerMock.send(textMessageMock);
-		EasyMock.expectLastCall();
-		sessionMock.close();
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, topicDestinationMock, messageProducerMock, textMessageMock);
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
 		assertThat(result, notNullValue());
 		assertThat(result, equalTo(true));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionAndConnectionCloseThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createTopic(EasyMock.anyString())).andReturn(topicDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(topicDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andReturn(textMessageMock);
-		messageProducerMock.send(textMessageMock);
-		EasyMock.expectLastCall();
-		sessionMock.close();
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
-		connectionMock.close();
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, topicDestinationMock, messageProducerMock, textMessageMock);
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSendMessageThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createTopic(EasyMock.anyString())).andReturn(topicDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(topicDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andReturn(textMessageMock);
-		messageProducerMock.send(textMessageMock);
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, topicDestinationMock, messageProducerMock, textMessageMock);
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateTextMessageThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createTopic(EasyMock.anyString())).andReturn(topicDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(topicDestinationMock)).andReturn(messageProducerMock);
-		EasyMock.expect(sessionMock.createTextMessage(EasyMock.anyString())).andThrow(new JMSException("Some JMS Exception"));
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, topicDestinationMock, messageProducerMock, textMessageMock);
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateProducerThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createTopic(EasyMock.anyString())).andReturn(topicDestinationMock);
-		EasyMock.expect(sessionMock.createProducer(topicDestinationMock)).andThrow(new JMSException("Some JMS Exception"));
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
+	public void sendMessageToWithValidArgumentsShouldReturnAFalseResponseWhenTheCachedProducerFails() throws Exception {
+		EasyMock.expect(producerCacheServiceMock.sendTextMessage("TOPIC_001", "someMessage")).andReturn(false);
 		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, topicDestinationMock, messageProducerMock, textMessageMock);
+		EasyMock.replay(connectionFactoryMock, producerCacheServiceMock);
 		
 		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
 
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateTopicThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andReturn(sessionMock);
-		EasyMock.expect(sessionMock.createTopic(EasyMock.anyString())).andThrow(new JMSException("Some JMS Exception"));
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, topicDestinationMock, messageProducerMock, textMessageMock);
-				
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
+		EasyMock.verify(connectionFactoryMock, producerCacheServiceMock);
 
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateSessionThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall();
-		EasyMock.expect(connectionMock.createSession(EasyMock.anyBoolean(), EasyMock.anyInt())).andThrow(new JMSException("Some JMS Exception"));
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, topicDestinationMock, messageProducerMock, textMessageMock);
-				
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSetClientIDThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andReturn(connectionMock);
-		connectionMock.setClientID(EasyMock.anyString());
-		EasyMock.expectLastCall().andThrow(new JMSException("Some JMS Exception"));
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, topicDestinationMock, messageProducerMock, textMessageMock);
-				
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateConnectionThrowsAnException() throws Exception {
-		EasyMock.expect(connectionFactoryMock.createConnection()).andThrow(new JMSException("Some JMS Exception"));
-		sessionMock.close();
-		EasyMock.expectLastCall();
-		connectionMock.close();
-		EasyMock.expectLastCall();
-		
-		EasyMock.replay(connectionFactoryMock, connectionMock, sessionMock, topicDestinationMock, messageProducerMock, textMessageMock);
-				
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
 		assertThat(result, notNullValue());
 		assertThat(result, equalTo(false));
 	}
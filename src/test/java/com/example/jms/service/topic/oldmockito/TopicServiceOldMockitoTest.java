@@ -7,6 +7,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import com.example.jms.model.BrowseResult;
+import com.example.jms.service.producer.ProducerCacheService;
 import com.example.jms.service.topic.TopicService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -19,7 +21,6 @@ import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
 import javax.jms.Message;
-import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.jms.TextMessage;
 import javax.jms.Topic;
@@ -34,12 +35,11 @@ public class TopicServiceOldMockitoTest {
 	private TopicService topicService = new TopicService();
 	
 	private ConnectionFactory connectionFactoryMock;
+	private ProducerCacheService producerCacheServiceMock;
 	private Connection connectionMock;
 	private Session sessionMock;
 	private Topic topicDestinationMock;
-	private MessageProducer messageProducerMock;
 	private TopicSubscriber messageConsumerMock;
-	private TextMessage textMessageMock;
 	
 	private Map<String,String> expectedMessages;
 	private Vector<Message> topicMessages = new Vector<>();
@@ -47,18 +47,17 @@ public class TopicServiceOldMockitoTest {
 	@Before
 	public void setUp() throws Exception {
 		connectionFactoryMock = Mockito.mock(ConnectionFactory.class);
+		producerCacheServiceMock = Mockito.mock(ProducerCacheService.class);
 		connectionMock = Mockito.mock(Connection.class);
 		sessionMock = Mockito.mock(Session.class);
 		topicDestinationMock = Mockito.mock(Topic.class);
-		messageProducerMock = Mockito.mock(MessageProducer.class);
 		messageConsumerMock = Mockito.mock(TopicSubscriber.class);
-		textMessageMock = Mockito.mock(TextMessage.class);
 
 		createExpectedMessages();
 		createTopicMessages();
-		initTopicSubscribers();
 		
 		MockitoAnnotations.initMocks(this);
+		initTopicSubscribers();
 	}
 
 	private void createExpectedMessages() {
@@ -91,176 +90,23 @@ public class TopicServiceOldMockitoTest {
 		topicService.initTopicSubscribers();
 	}
 	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponse() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
 	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenConnectionCloseThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionCloseThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doThrow(Exception.class).when(sessionMock).close();
-		Mockito.doNothing().when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSessionAndConnectionCloseThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(messageProducerMock).send(textMessageMock);
-		Mockito.doThrow(Exception.class).when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(true));
-	}
 	
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSendMessageThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doReturn(textMessageMock).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(messageProducerMock).send(textMessageMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateTextMessageThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doReturn(messageProducerMock).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doThrow(Exception.class).when(sessionMock).createTextMessage(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateProducerThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doReturn(topicDestinationMock).when(sessionMock).createTopic(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(sessionMock).createProducer(topicDestinationMock);
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateQueueThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doReturn(sessionMock).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doThrow(Exception.class).when(sessionMock).createQueue(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateSessionThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doThrow(Exception.class).when(connectionMock).createSession(Mockito.anyBoolean(), Mockito.anyInt());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
-		
-		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
-		
-		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
-	}
-
-	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenSetClientIDThrowsAnException() throws Exception {
-		Mockito.doReturn(connectionMock).when(connectionFactoryMock).createConnection();
-		Mockito.doThrow(Exception.class).when(connectionMock).setClientID(Mockito.anyString());
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+	public void sendMessageToWithValidArgumentsShouldReturnATrueResponse() throws Exception {
+		Mockito.doReturn(true).when(producerCacheServiceMock).sendTextMessage("TOPIC_001", "someMessage");
 		
 		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
 		
+		Mockito.verify(producerCacheServiceMock).sendTextMessage("TOPIC_001", "someMessage");
 		assertThat(result, notNullValue());
-		assertThat(result, equalTo(false));
+		assertThat(result, equalTo(true));
 	}
 
 	@Test
-	public void sendMessageToWithValidArgumentsShouldReturnATrueResponseWhenCreateConnectionThrowsAnException() throws Exception {
-		Mockito.doThrow(Exception.class).when(connectionFactoryMock).createConnection();
-		Mockito.doNothing().when(sessionMock).close();
-		Mockito.doThrow(Exception.class).when(connectionMock).close();
+	public void sendMessageToWithValidArgumentsShouldReturnAFalseResponseWhenTheCachedProducerFails() throws Exception {
+		Mockito.doReturn(false).when(producerCacheServiceMock).sendTextMessage("TOPIC_001", "someMessage");
 		
 		boolean result = topicService.sendMessageTo("TOPIC_001", "someMessage");
 		
@@ -285,13 +131,13 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(expectedMessages.size()));
-		assertThat(result.get("1"), equalTo(expectedMessages.get("1")));
-		assertThat(result.get("2"), equalTo(expectedMessages.get("2")));
-		assertThat(result.get("3"), equalTo(expectedMessages.get("3")));
+		assertThat(result.getCount(), equalTo(expectedMessages.size()));
+		assertThat(result.get(0).getText(), equalTo(expectedMessages.get("1")));
+		assertThat(result.get(1).getText(), equalTo(expectedMessages.get("2")));
+		assertThat(result.get(2).getText(), equalTo(expectedMessages.get("3")));
 	}
 
 	@Test
@@ -306,10 +152,10 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -324,10 +170,10 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -342,10 +188,10 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 	
 	@Test
@@ -360,10 +206,10 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doThrow(Exception.class).when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -378,10 +224,10 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doThrow(Exception.class).when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -395,10 +241,10 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -411,10 +257,10 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -426,10 +272,10 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -440,10 +286,10 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -453,10 +299,10 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test
@@ -465,10 +311,10 @@ public class TopicServiceOldMockitoTest {
 		Mockito.doNothing().when(sessionMock).close();
 		Mockito.doNothing().when(connectionMock).close();
 		
-		Map<String,String> result = topicService.browseMessagesFrom("TOPIC_001");
+		BrowseResult result = topicService.browseMessagesFrom("TOPIC_001");
 		
 		assertThat(result, notNullValue());
-		assertThat(result.size(), equalTo(0));
+		assertThat(result.getCount(), equalTo(0));
 	}
 
 	@Test